@@ -0,0 +1,127 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.resource.Get;
+import org.restlet.resource.ServerResource;
+
+/**
+ * Benchmarks complete in-process calls, from the client connector to an
+ * annotated server resource and back. The "riap" variant goes through the
+ * internal router of the component while the "http" variant goes through the
+ * default HTTP client and server connectors on the loopback interface.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallBenchmark {
+
+    /**
+     * Sample annotated resource.
+     */
+    public static class HelloServerResource extends ServerResource {
+        @Get("txt")
+        public String represent() {
+            return "hello, world!";
+        }
+    }
+
+    @Param({ "riap", "http" })
+    public String protocol;
+
+    private Restlet client;
+
+    private Component component;
+
+    private String uri;
+
+    @Benchmark
+    public String call() throws Exception {
+        Request request = new Request(Method.GET, this.uri);
+        Response response = this.client.handle(request);
+
+        if (!response.getStatus().isSuccess()) {
+            throw new IllegalStateException("Unexpected status: " + response.getStatus());
+        }
+
+        return response.getEntity().getText();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.component = new Component();
+        this.component.getLogService().setEnabled(false);
+        this.component.getDefaultHost().attach("/hello", HelloServerResource.class);
+        this.component.getInternalRouter().attach("/hello", HelloServerResource.class);
+
+        if ("http".equals(this.protocol)) {
+            Server server = this.component.getServers().add(Protocol.HTTP, 0);
+            this.component.start();
+            this.client = new Client(Protocol.HTTP);
+            this.client.start();
+            this.uri = "http://localhost:" + server.getActualPort() + "/hello";
+        } else {
+            this.component.start();
+            this.client = this.component.getContext().getClientDispatcher();
+            this.uri = "riap://component/hello";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (this.client instanceof Client) {
+            this.client.stop();
+        }
+
+        this.component.stop();
+    }
+
+}
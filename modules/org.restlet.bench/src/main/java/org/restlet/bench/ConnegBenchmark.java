@@ -0,0 +1,110 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Request;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Preference;
+import org.restlet.engine.header.PreferenceReader;
+import org.restlet.representation.Variant;
+import org.restlet.service.ConnegService;
+import org.restlet.service.MetadataService;
+
+/**
+ * Benchmarks the parsing of preference headers with {@link PreferenceReader}
+ * and the content negotiation with {@link ConnegService}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConnegBenchmark {
+
+    /** Accept header sent by common Web browsers. */
+    private static final String ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,*/*;q=0.8";
+
+    /** Accept-Language header sent by common Web browsers. */
+    private static final String ACCEPT_LANGUAGE = "fr-FR,fr;q=0.9,en-US;q=0.8,en;q=0.7";
+
+    private ConnegService connegService;
+
+    private MetadataService metadataService;
+
+    private Request request;
+
+    private List<Variant> variants;
+
+    @Benchmark
+    public Variant getPreferredVariant() {
+        return this.connegService.getPreferredVariant(this.variants, this.request, this.metadataService);
+    }
+
+    @Benchmark
+    public List<Preference<MediaType>> readAccept() {
+        return new PreferenceReader<MediaType>(PreferenceReader.TYPE_MEDIA_TYPE, ACCEPT).readValues();
+    }
+
+    @Benchmark
+    public List<Preference<Language>> readAcceptLanguage() {
+        return new PreferenceReader<Language>(PreferenceReader.TYPE_LANGUAGE, ACCEPT_LANGUAGE).readValues();
+    }
+
+    @Setup
+    public void setUp() {
+        this.connegService = new ConnegService();
+        this.metadataService = new MetadataService();
+        this.request = new Request(Method.GET, "http://localhost/users/1234");
+        this.request.getClientInfo().setAcceptedMediaTypes(
+                new PreferenceReader<MediaType>(PreferenceReader.TYPE_MEDIA_TYPE, ACCEPT).readValues());
+        this.request.getClientInfo().setAcceptedLanguages(
+                new PreferenceReader<Language>(PreferenceReader.TYPE_LANGUAGE, ACCEPT_LANGUAGE).readValues());
+
+        this.variants = new ArrayList<Variant>();
+        this.variants.add(new Variant(MediaType.APPLICATION_JSON));
+        this.variants.add(new Variant(MediaType.APPLICATION_XML));
+        this.variants.add(new Variant(MediaType.TEXT_HTML, Language.ENGLISH));
+        this.variants.add(new Variant(MediaType.TEXT_HTML, Language.FRENCH));
+        this.variants.add(new Variant(MediaType.TEXT_PLAIN));
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.data.Form;
+import org.restlet.data.MediaType;
+import org.restlet.representation.Representation;
+import org.restlet.representation.Variant;
+import org.restlet.service.ConverterService;
+
+/**
+ * Benchmarks the conversion of Java objects to representations with
+ * {@link ConverterService#toRepresentation(Object, Variant, org.restlet.resource.Resource)},
+ * including the selection of the converter helper.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConverterBenchmark {
+
+    private ConverterService converterService;
+
+    private Form form;
+
+    private Variant formVariant;
+
+    private Variant textVariant;
+
+    @Setup
+    public void setUp() {
+        this.converterService = new ConverterService();
+        this.form = new Form("name=John&city=Paris&country=France");
+        this.formVariant = new Variant(MediaType.APPLICATION_WWW_FORM);
+        this.textVariant = new Variant(MediaType.TEXT_PLAIN);
+    }
+
+    @Benchmark
+    public Representation toFormRepresentation() throws IOException {
+        return this.converterService.toRepresentation(this.form, this.formVariant, null);
+    }
+
+    @Benchmark
+    public Representation toStringRepresentation() throws IOException {
+        return this.converterService.toRepresentation("hello, world!", this.textVariant, null);
+    }
+
+}
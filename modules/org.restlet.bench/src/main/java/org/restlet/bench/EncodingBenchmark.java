@@ -0,0 +1,136 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.data.Encoding;
+import org.restlet.data.MediaType;
+import org.restlet.engine.application.DecodeRepresentation;
+import org.restlet.engine.application.EncodeRepresentation;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.representation.Representation;
+
+/**
+ * Benchmarks the streaming encoding and decoding of a JSON payload for each
+ * content encoding, including the ones provided by the encoding helpers of the
+ * compression extension. The "rawBytes" and "encodedBytes" counters give the
+ * throughput in bytes, their ratio gives the compression ratio.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncodingBenchmark {
+
+    /**
+     * Counts the raw and encoded bytes processed during an iteration.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+
+        public long encodedBytes;
+
+        public long rawBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.encodedBytes = 0;
+            this.rawBytes = 0;
+        }
+    }
+
+    private byte[] content;
+
+    private byte[] encodedContent;
+
+    @Param({ "gzip", "deflate", "zstd" })
+    public String encoding;
+
+    private ByteArrayOutputStream output;
+
+    @Benchmark
+    public int decode(Counters counters) throws IOException {
+        Representation encoded = new ByteArrayRepresentation(this.encodedContent, MediaType.APPLICATION_JSON);
+        encoded.getEncodings().add(Encoding.valueOf(this.encoding));
+        this.output.reset();
+        new DecodeRepresentation(encoded).write(this.output);
+        counters.encodedBytes += this.encodedContent.length;
+        counters.rawBytes += this.output.size();
+        return this.output.size();
+    }
+
+    @Benchmark
+    public int encode(Counters counters) throws IOException {
+        this.output.reset();
+        new EncodeRepresentation(Encoding.valueOf(this.encoding),
+                new ByteArrayRepresentation(this.content, MediaType.APPLICATION_JSON)).write(this.output);
+        counters.encodedBytes += this.output.size();
+        counters.rawBytes += this.content.length;
+        return this.output.size();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int i = 0; i < 2000; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+
+            sb.append("{\"id\":").append(i).append(",\"name\":\"Customer ").append(i)
+                    .append("\",\"email\":\"customer").append(i).append("@example.com\",\"active\":")
+                    .append(i % 3 == 0).append(",\"balance\":").append(i * 17 % 1000).append('.')
+                    .append(i % 100).append('}');
+        }
+
+        this.content = sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        this.output = new ByteArrayOutputStream(this.content.length);
+        new EncodeRepresentation(Encoding.valueOf(this.encoding),
+                new ByteArrayRepresentation(this.content, MediaType.APPLICATION_JSON)).write(this.output);
+        this.encodedContent = this.output.toByteArray();
+    }
+
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.data.MediaType;
+import org.restlet.ext.gson.GsonConverter;
+import org.restlet.ext.gson.GsonRepresentation;
+import org.restlet.representation.Variant;
+
+/**
+ * Benchmarks the JSON serialization of a small bean with a Gson instance built
+ * for each representation, as done by a standalone {@link GsonRepresentation},
+ * and with the Gson instance shared by the {@link GsonConverter}. Run it with
+ * the {@code gc} profiler to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GsonBenchmark {
+
+    public static class Invoice {
+
+        private int amount;
+
+        private Date date;
+
+        private boolean paid;
+
+        public Invoice(int amount, Date date, boolean paid) {
+            this.amount = amount;
+            this.date = date;
+            this.paid = paid;
+        }
+
+    }
+
+    public static class Customer {
+
+        private String firstName;
+
+        private List<Invoice> invoices = new ArrayList<Invoice>();
+
+        private String lastName;
+
+        public Customer(String firstName, String lastName) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+        }
+
+    }
+
+    private static final OutputStream NULL_STREAM = new OutputStream() {
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+
+        @Override
+        public void write(int b) {
+        }
+    };
+
+    private GsonConverter converter;
+
+    private Customer customer;
+
+    private Variant variant;
+
+    @Benchmark
+    public void perRepresentation() throws IOException {
+        new GsonRepresentation<Customer>(this.customer).write(NULL_STREAM);
+    }
+
+    @Setup
+    public void setUp() {
+        this.converter = new GsonConverter();
+        this.customer = new Customer("Foo", "Bar");
+
+        for (int i = 0; i < 10; i++) {
+            this.customer.invoices.add(new Invoice(1000 + i, new Date(1356533333882L), (i % 2) == 0));
+        }
+
+        this.variant = new Variant(MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public void shared() throws IOException {
+        this.converter.toRepresentation(this.customer, this.variant, null).write(NULL_STREAM);
+    }
+
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.CacheDirective;
+import org.restlet.data.CookieSetting;
+import org.restlet.data.Dimension;
+import org.restlet.data.Header;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.engine.header.HeaderUtils;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.util.Series;
+
+/**
+ * Benchmarks the formatting of response headers with
+ * {@link HeaderUtils#addResponseHeaders(Response, Series)} and
+ * {@link HeaderUtils#addEntityHeaders(org.restlet.representation.Representation, Series)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeaderBenchmark {
+
+    private Response response;
+
+    @Benchmark
+    public Series<Header> addEntityHeaders() {
+        Series<Header> headers = new Series<Header>(Header.class);
+        HeaderUtils.addEntityHeaders(this.response.getEntity(), headers);
+        return headers;
+    }
+
+    @Benchmark
+    public Series<Header> addResponseHeaders() {
+        Series<Header> headers = new Series<Header>(Header.class);
+        HeaderUtils.addGeneralHeaders(this.response, headers);
+        HeaderUtils.addResponseHeaders(this.response, headers);
+        return headers;
+    }
+
+    @Setup
+    public void setUp() {
+        Request request = new Request(Method.GET, "http://localhost/users/1234");
+        this.response = new Response(request);
+        this.response.setStatus(Status.SUCCESS_OK);
+        this.response.setAge(60);
+        this.response.getCacheDirectives().add(CacheDirective.maxAge(3600));
+        this.response.getCacheDirectives().add(CacheDirective.publicInfo());
+        this.response.getCookieSettings().add(new CookieSetting("session", "0123456789abcdef"));
+        this.response.getDimensions().add(Dimension.MEDIA_TYPE);
+        this.response.getDimensions().add(Dimension.ENCODING);
+        this.response.setAccessControlAllowOrigin("*");
+
+        StringRepresentation entity = new StringRepresentation("{\"id\":1234,\"name\":\"John\"}",
+                MediaType.APPLICATION_JSON);
+        entity.setModificationDate(new Date(1356533333882L));
+        entity.setTag(new Tag("abcdef"));
+        this.response.setEntity(entity);
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.bench.jaxb.Customer;
+import org.restlet.data.MediaType;
+import org.restlet.ext.jaxb.JaxbRepresentation;
+import org.restlet.representation.StringRepresentation;
+
+/**
+ * Benchmarks the marshalling and unmarshalling of a small JAXB bean by many
+ * concurrent threads, as done by the JAXB converter for each XML request or
+ * response. It measures the contention on the JAXB contexts cache and the
+ * reuse of the marshallers across representations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class JaxbBenchmark {
+
+    private Customer customer;
+
+    private String xml;
+
+    @Benchmark
+    public String marshal() throws IOException {
+        return new JaxbRepresentation<Customer>(MediaType.APPLICATION_XML, this.customer).getText();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        this.customer = new Customer(42);
+        this.xml = marshal();
+    }
+
+    @Benchmark
+    public Customer unmarshal() throws IOException {
+        return new JaxbRepresentation<Customer>(new StringRepresentation(this.xml, MediaType.APPLICATION_XML),
+                Customer.class).getObject();
+    }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.restlet.data.Form;
+import org.restlet.data.Reference;
+
+/**
+ * Benchmarks the parsing and resolution of {@link Reference} instances.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReferenceBenchmark {
+
+    private static final String BASE_URI = "http://www.example.com:8080/api/v1/";
+
+    private static final String URI = "http://user@www.example.com:8080/api/v1/users/1234/orders?sort=date&limit=20#top";
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        Reference reference = new Reference(URI);
+        blackhole.consume(reference.getScheme());
+        blackhole.consume(reference.getHostDomain());
+        blackhole.consume(reference.getHostPort());
+        blackhole.consume(reference.getPath());
+        blackhole.consume(reference.getQuery());
+        blackhole.consume(reference.getFragment());
+    }
+
+    @Benchmark
+    public Form parseQuery() {
+        return new Reference(URI).getQueryAsForm();
+    }
+
+    @Benchmark
+    public Reference resolve() {
+        return new Reference(new Reference(BASE_URI), "users/1234/../5678/orders?sort=date").getTargetRef();
+    }
+
+}
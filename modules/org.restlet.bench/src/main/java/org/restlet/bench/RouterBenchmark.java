@@ -0,0 +1,102 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Method;
+import org.restlet.data.Reference;
+import org.restlet.routing.Router;
+
+/**
+ * Benchmarks the route selection of a {@link Router} holding a typical set of
+ * REST routes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RouterBenchmark {
+
+    /** The URI templates of the attached routes. */
+    static final String[] PATTERNS = { "/users", "/users/{userId}", "/users/{userId}/orders",
+            "/users/{userId}/orders/{orderId}", "/users/{userId}/orders/{orderId}/items",
+            "/users/{userId}/orders/{orderId}/items/{itemId}", "/products", "/products/{productId}",
+            "/products/{productId}/reviews", "/products/{productId}/reviews/{reviewId}", "/categories",
+            "/categories/{categoryId}", "/categories/{categoryId}/products", "/carts/{cartId}",
+            "/carts/{cartId}/lines/{lineId}", "/invoices/{invoiceId}", "/invoices/{invoiceId}/pdf", "/search",
+            "/health", "/admin/stats" };
+
+    @Param({ "/users/1234", "/users/1234/orders/5678/items/9", "/invoices/2024-0001/pdf", "/admin/stats",
+            "/unknown/path" })
+    public String path;
+
+    private Request request;
+
+    private Response response;
+
+    private Router router;
+
+    @Benchmark
+    public Restlet getNext() {
+        return this.router.getNext(this.request, this.response);
+    }
+
+    @Setup
+    public void setUp() {
+        Restlet target = new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+            }
+        };
+
+        this.router = new Router();
+
+        for (String pattern : PATTERNS) {
+            this.router.attach(pattern, target);
+        }
+
+        this.request = new Request(Method.GET, "http://localhost" + this.path);
+        this.request.getResourceRef().setBaseRef(new Reference("http://localhost"));
+        this.response = new Response(this.request);
+    }
+
+}
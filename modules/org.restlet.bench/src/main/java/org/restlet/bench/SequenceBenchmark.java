@@ -0,0 +1,129 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+
+package org.restlet.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.data.MediaType;
+import org.restlet.ext.gson.GsonConverter;
+import org.restlet.ext.gson.GsonSequenceRepresentation;
+import org.restlet.representation.Variant;
+
+/**
+ * Benchmarks the JSON serialization of a large result, either collected in a
+ * list before being written or streamed element by element by a
+ * {@link GsonSequenceRepresentation}. Run it with the {@code gc} profiler to
+ * compare the allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SequenceBenchmark {
+
+    public static class Item {
+
+        private int id;
+
+        private String name;
+
+        public Item(int id) {
+            this.id = id;
+            this.name = "item-" + id;
+        }
+
+    }
+
+    private static final OutputStream NULL_STREAM = new OutputStream() {
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+
+        @Override
+        public void write(int b) {
+        }
+    };
+
+    private GsonConverter converter;
+
+    @Param({ "10000" })
+    private int size;
+
+    private Variant variant;
+
+    /**
+     * Returns a lazy stream of items, as returned by a database cursor.
+     * 
+     * @return A lazy stream of items.
+     */
+    private Stream<Item> items() {
+        return IntStream.range(0, this.size).mapToObj(new IntFunction<Item>() {
+            public Item apply(int id) {
+                return new Item(id);
+            }
+        });
+    }
+
+    @Benchmark
+    public void list() throws IOException {
+        List<Item> items = items().collect(Collectors.toList());
+        this.converter.toRepresentation(items, this.variant, null).write(
+                NULL_STREAM);
+    }
+
+    @Setup
+    public void setUp() {
+        this.converter = new GsonConverter();
+        this.variant = new Variant(MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public void stream() throws IOException {
+        this.converter.toRepresentation(items(), this.variant, null).write(
+                NULL_STREAM);
+    }
+
+}
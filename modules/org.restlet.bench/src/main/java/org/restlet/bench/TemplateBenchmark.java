@@ -0,0 +1,84 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.routing.Template;
+import org.restlet.routing.Variable;
+
+/**
+ * Benchmarks {@link Template#parse(String, Map)}, with the regex based matcher
+ * and with the simple matcher.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TemplateBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean simpleMatching;
+
+    private Template template;
+
+    private Map<String, Object> variables;
+
+    @Benchmark
+    public int parseMatching() {
+        this.variables.clear();
+        return this.template.parse("/users/1234/orders/5678/items/9", this.variables);
+    }
+
+    @Benchmark
+    public int parseNotMatching() {
+        this.variables.clear();
+        return this.template.parse("/users/1234/invoices/5678", this.variables);
+    }
+
+    @Setup
+    public void setUp() {
+        this.template = new Template("/users/{userId}/orders/{orderId}/items/{itemId}", Template.MODE_EQUALS,
+                Variable.TYPE_URI_SEGMENT, "", true, false);
+        this.template.setSimpleMatching(this.simpleMatching);
+        this.variables = new HashMap<String, Object>();
+    }
+
+}
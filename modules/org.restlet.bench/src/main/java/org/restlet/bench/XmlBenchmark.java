@@ -0,0 +1,114 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.ext.xml.DomRepresentation;
+import org.restlet.ext.xml.TransformRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.w3c.dom.Document;
+
+/**
+ * Benchmarks the parsing, XPath evaluation, serialization and XSLT
+ * transformation of a small XML document by concurrent threads. It measures
+ * the lookup of the JAXP factories and the reuse of the document builders,
+ * transformers, compiled XPath expressions and compiled transform sheets.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class XmlBenchmark {
+
+    private Context context;
+
+    private Document document;
+
+    private Representation transformSheet;
+
+    private String xml;
+
+    private DomRepresentation createDom() {
+        return new DomRepresentation(new StringRepresentation(this.xml, MediaType.APPLICATION_XML));
+    }
+
+    @Benchmark
+    public Document parse() throws IOException {
+        return createDom().getDocument();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\"?><customers>");
+
+        for (int i = 0; i < 10; i++) {
+            sb.append("<customer id=\"").append(i).append("\"><name>Customer ").append(i)
+                    .append("</name><email>customer").append(i).append("@example.com</email></customer>");
+        }
+
+        this.xml = sb.append("</customers>").toString();
+        this.document = parse();
+        this.context = new Context();
+        this.transformSheet = new StringRepresentation("<xsl:transform version=\"1.0\" "
+                + "xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\"><xsl:template match=\"customer\">"
+                + "<li><xsl:value-of select=\"name\"/></li></xsl:template></xsl:transform>", MediaType.TEXT_XML);
+    }
+
+    @Benchmark
+    public String transform() throws IOException {
+        return new TransformRepresentation(this.context,
+                new StringRepresentation(this.xml, MediaType.APPLICATION_XML), this.transformSheet).getText();
+    }
+
+    @Benchmark
+    public String write() throws IOException {
+        return new DomRepresentation(MediaType.APPLICATION_XML, this.document).getText();
+    }
+
+    @Benchmark
+    public String xpath() {
+        return createDom().getText("/customers/customer[@id='7']/name");
+    }
+
+}
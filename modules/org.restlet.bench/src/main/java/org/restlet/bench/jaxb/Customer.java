@@ -0,0 +1,59 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.bench.jaxb;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * JAXB bean marshalled and unmarshalled by the JAXB benchmark.
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlRootElement
+public class Customer {
+
+    public boolean active;
+
+    public String city;
+
+    public String email;
+
+    public int id;
+
+    public String name;
+
+    public Customer() {
+    }
+
+    public Customer(int id) {
+        this.active = (id % 2 == 0);
+        this.city = "Paris";
+        this.email = "customer" + id + "@example.com";
+        this.id = id;
+        this.name = "Customer " + id;
+    }
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.ext.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.brotli.dec.BrotliInputStream;
+import org.restlet.data.Encoding;
+import org.restlet.engine.application.EncodingHelper;
+
+/**
+ * Encoding helper decoding the {@link Encoding#BROTLI} content encoding with
+ * the pure Java decoder of the Brotli project. As no pure Java encoder is
+ * available, Brotli responses can be served from precompressed files instead,
+ * see {@link org.restlet.resource.Directory#setPrecompressed(boolean)}.
+ */
+public class BrotliHelper extends EncodingHelper {
+
+    /**
+     * Constructor.
+     */
+    public BrotliHelper() {
+        super(Encoding.BROTLI, false, true);
+    }
+
+    @Override
+    public InputStream decode(InputStream encodedStream) throws IOException {
+        return new BrotliInputStream(encodedStream);
+    }
+
+}
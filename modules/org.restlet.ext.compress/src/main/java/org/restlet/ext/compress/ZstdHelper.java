@@ -0,0 +1,88 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.ext.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.restlet.data.Encoding;
+import org.restlet.engine.application.EncodingHelper;
+
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+
+/**
+ * Encoding helper supporting the {@link Encoding#ZSTD} content encoding with
+ * the native Zstandard library. The stream buffers are recycled between calls.
+ */
+public class ZstdHelper extends EncodingHelper {
+
+    /**
+     * Returns the Zstandard level matching a Deflate compression level. The
+     * levels from 0 to 9 are spread over the levels from 1 to 19, and the
+     * default level is mapped to the default Zstandard level.
+     * 
+     * @param compressionLevel
+     *            The Deflate compression level.
+     * @return The Zstandard level.
+     */
+    public static int getLevel(int compressionLevel) {
+        int result;
+
+        if (compressionLevel < 0) {
+            result = Zstd.defaultCompressionLevel();
+        } else {
+            result = Math.max(1,
+                    Math.round(Math.min(compressionLevel, 9) * 19F / 9F));
+        }
+
+        return result;
+    }
+
+    /**
+     * Constructor.
+     */
+    public ZstdHelper() {
+        super(Encoding.ZSTD, true, true);
+    }
+
+    @Override
+    public InputStream decode(InputStream encodedStream) throws IOException {
+        return new ZstdInputStreamNoFinalizer(encodedStream,
+                RecyclingBufferPool.INSTANCE);
+    }
+
+    @Override
+    public OutputStream encode(OutputStream outputStream, int compressionLevel)
+            throws IOException {
+        return new ZstdOutputStreamNoFinalizer(outputStream,
+                RecyclingBufferPool.INSTANCE)
+                .setLevel(getLevel(compressionLevel));
+    }
+
+}
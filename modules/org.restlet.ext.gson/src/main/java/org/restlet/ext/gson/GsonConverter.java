@@ -27,25 +27,51 @@ package org.restlet.ext.gson;
 import java.io.IOException;
 import java.util.List;
 
+import org.restlet.Application;
 import org.restlet.data.MediaType;
 import org.restlet.data.Preference;
 import org.restlet.engine.converter.ConverterHelper;
+import org.restlet.engine.converter.ConverterUtils;
 import org.restlet.engine.resource.VariantInfo;
 import org.restlet.representation.Representation;
 import org.restlet.representation.Variant;
 import org.restlet.resource.Resource;
 
+import com.google.gson.Gson;
+
 /**
- * Converter between the JSON and Representation classe based on Gson library.
+ * Converter between the JSON and Representation classe based on Gson library.<br>
+ * <br>
+ * The created representations share a single Gson instance, so that its type
+ * adapters are created once instead of for each representation. A specific
+ * instance can be set for an application by storing it in the context
+ * attributes of the application under the {@link #ATTRIBUTE_GSON} name.<br>
+ * <br>
+ * Iterators and streams are written incrementally as a JSON array by a
+ * {@link GsonSequenceRepresentation}, which can also write any sequence of
+ * elements as a newline delimited JSON document (NDJSON).
  * 
  * @author Neal Mi
  */
 public class GsonConverter extends ConverterHelper {
 
+    /**
+     * Name of the application context attribute holding the {@link Gson}
+     * instance to use instead of the one of the converter.
+     */
+    public static final String ATTRIBUTE_GSON = "org.restlet.ext.gson.gson";
+
     /** Variant with media type application/json. */
     private static final VariantInfo VARIANT_JSON = new VariantInfo(
             MediaType.APPLICATION_JSON);
 
+    /** Variant with media type application/x-ndjson. */
+    private static final VariantInfo VARIANT_NDJSON = new VariantInfo(
+            MediaType.APPLICATION_NDJSON);
+
+    /** The default Gson instance shared by the created representations. */
+    private volatile Gson gson;
+
     /**
      * Creates the unmarshaling {@link GsonRepresentation}.
      * 
@@ -58,7 +84,10 @@ public class GsonConverter extends ConverterHelper {
      */
     protected <T> GsonRepresentation<T> create(Representation source,
             Class<T> objectClass) {
-        return new GsonRepresentation<T>(source, objectClass);
+        GsonRepresentation<T> result = new GsonRepresentation<T>(source,
+                objectClass);
+        result.setGson(getGson());
+        return result;
     }
 
     /**
@@ -70,7 +99,65 @@ public class GsonConverter extends ConverterHelper {
      * @return The marshaling {@link GsonRepresentation}.
      */
     protected <T> GsonRepresentation<T> create(T source) {
-        return new GsonRepresentation<T>(source);
+        GsonRepresentation<T> result = new GsonRepresentation<T>(source);
+        result.setGson(getGson());
+        return result;
+    }
+
+    /**
+     * Creates the default Gson instance shared by the created representations.
+     * By default, it has the same configuration as the one created by
+     * {@link GsonRepresentation#getBuilder()}.
+     * 
+     * @return The new Gson instance.
+     */
+    protected Gson createGson() {
+        return GsonRepresentation.createDefaultGson();
+    }
+
+    /**
+     * Creates the marshaling {@link GsonSequenceRepresentation}.
+     * 
+     * @param <T>
+     * @param mediaType
+     *            The target media type, either JSON or NDJSON.
+     * @param source
+     *            The source of elements to marshal.
+     * @return The marshaling {@link GsonSequenceRepresentation}.
+     */
+    protected <T> GsonSequenceRepresentation<T> createSequence(
+            MediaType mediaType, Object source) {
+        GsonSequenceRepresentation<T> result = new GsonSequenceRepresentation<T>(
+                mediaType, source);
+        result.setGson(getGson());
+        return result;
+    }
+
+    /**
+     * Returns the Gson instance shared by the created representations. If the
+     * current application has a {@link Gson} instance stored in its context
+     * attributes under the {@link #ATTRIBUTE_GSON} name, it is returned.
+     * Otherwise, the default instance of this converter is returned.
+     * 
+     * @return The shared Gson instance.
+     */
+    public Gson getGson() {
+        Application application = Application.getCurrent();
+
+        if ((application != null) && (application.getContext() != null)) {
+            Object result = application.getContext().getAttributes()
+                    .get(ATTRIBUTE_GSON);
+
+            if (result instanceof Gson) {
+                return (Gson) result;
+            }
+        }
+
+        if (this.gson == null) {
+            this.gson = createGson();
+        }
+
+        return this.gson;
     }
 
     @Override
@@ -91,6 +178,10 @@ public class GsonConverter extends ConverterHelper {
 
         if (source != null) {
             result = addVariant(result, VARIANT_JSON);
+
+            if (ConverterUtils.isSequence(source)) {
+                result = addVariant(result, VARIANT_NDJSON);
+            }
         }
 
         return result;
@@ -100,12 +191,14 @@ public class GsonConverter extends ConverterHelper {
     public float score(Object source, Variant target, Resource resource) {
         float result = -1.0F;
 
-        if (source instanceof GsonRepresentation<?>) {
+        if ((source instanceof GsonRepresentation<?>)
+                || (source instanceof GsonSequenceRepresentation<?>)) {
             result = 1.0F;
         } else {
             if (target == null) {
                 result = 0.5F;
-            } else if (VARIANT_JSON.isCompatible(target)) {
+            } else if (VARIANT_JSON.isCompatible(target)
+                    || VARIANT_NDJSON.isCompatible(target)) {
                 result = 0.8F;
             } else {
                 result = 0.5F;
@@ -167,12 +260,22 @@ public class GsonConverter extends ConverterHelper {
 
         if (source instanceof GsonRepresentation) {
             result = (GsonRepresentation<?>) source;
+        } else if (source instanceof GsonSequenceRepresentation) {
+            result = (GsonSequenceRepresentation<?>) source;
         } else {
             if (target.getMediaType() == null) {
                 target.setMediaType(MediaType.APPLICATION_JSON);
             }
 
-            if (VARIANT_JSON.isCompatible(target)) {
+            if (MediaType.APPLICATION_NDJSON.equals(target.getMediaType(),
+                    true)) {
+                result = createSequence(target.getMediaType(), source);
+            } else if ((source != null)
+                    && ConverterUtils.isSequence(source.getClass())
+                    && VARIANT_JSON.isCompatible(target)) {
+                // Write the elements incrementally
+                result = createSequence(MediaType.APPLICATION_JSON, source);
+            } else if (VARIANT_JSON.isCompatible(target)) {
                 GsonRepresentation<Object> gsonRepresentation = create(source);
                 result = gsonRepresentation;
             }
@@ -181,6 +284,16 @@ public class GsonConverter extends ConverterHelper {
         return result;
     }
 
+    /**
+     * Sets the default Gson instance shared by the created representations.
+     * 
+     * @param gson
+     *            The shared Gson instance.
+     */
+    public void setGson(Gson gson) {
+        this.gson = gson;
+    }
+
     @Override
     public <T> void updatePreferences(List<Preference<MediaType>> preferences,
             Class<T> entity) {
@@ -61,7 +61,7 @@ public class GsonRepresentation<T> extends WriterRepresentation {
      * 
      * @author Neal Mi.
      */
-    private class ISODateDeserializer implements JsonDeserializer<Date> {
+    private static class ISODateDeserializer implements JsonDeserializer<Date> {
         public Date deserialize(JsonElement json, Type typeOfT,
                 JsonDeserializationContext context) throws JsonParseException {
             return new DateTime(json.getAsJsonPrimitive().getAsString())
@@ -74,7 +74,7 @@ public class GsonRepresentation<T> extends WriterRepresentation {
      * 
      * @author Neal Mi.
      */
-    private class ISODateSerializer implements JsonSerializer<Date> {
+    private static class ISODateSerializer implements JsonSerializer<Date> {
         public JsonElement serialize(Date src, Type typeOfSrc,
                 JsonSerializationContext context) {
             DateTime dt = new DateTime(src);
@@ -83,9 +83,39 @@ public class GsonRepresentation<T> extends WriterRepresentation {
         }
     }
 
+    /**
+     * Creates a Gson instance with the default configuration of the
+     * representations, the same as the one obtained from a builder returned
+     * by {@link #getBuilder()}. It is shared by the {@link GsonConverter} and
+     * the {@link GsonSequenceRepresentation} instances.
+     * 
+     * @return A new Gson instance.
+     */
+    static Gson createDefaultGson() {
+        GsonBuilder builder = new GsonBuilder();
+        builder.setDateFormat(DateFormat.FULL);
+        return registerDateAdapters(builder).create();
+    }
+
+    /**
+     * Registers the ISO 8601 serializer and deserializer of {@link Date}
+     * instances.
+     * 
+     * @param builder
+     *            The Gson builder to update.
+     * @return The updated Gson builder.
+     */
+    static GsonBuilder registerDateAdapters(GsonBuilder builder) {
+        return builder.registerTypeAdapter(Date.class, new ISODateSerializer())
+                .registerTypeAdapter(Date.class, new ISODateDeserializer());
+    }
+
     /** The modifiable Gson builder. */
     private GsonBuilder builder;
 
+    /** The Gson instance, possibly shared with other representations. */
+    private volatile Gson gson;
+
     /** The JSON representation to parse. */
     private Representation jsonRepresentation;
 
@@ -140,19 +170,37 @@ public class GsonRepresentation<T> extends WriterRepresentation {
     }
 
     /**
-     * Returns the builder for Gson instances.
+     * Returns the builder for Gson instances. As the builder may be modified,
+     * the current Gson instance is discarded and a new one will be created
+     * from the builder.
      * 
      * @return The builder for Gson instances.
      */
     public GsonBuilder getBuilder() {
         if (builder == null) {
-            builder = createBuilder().registerTypeAdapter(Date.class,
-                    new ISODateSerializer()).registerTypeAdapter(Date.class,
-                    new ISODateDeserializer());
+            builder = registerDateAdapters(createBuilder());
         }
+        this.gson = null;
         return builder;
     }
 
+    /**
+     * Returns the Gson instance. If none was set, it is created from the
+     * {@link #getBuilder()} builder.
+     * 
+     * @return The Gson instance.
+     */
+    public Gson getGson() {
+        Gson result = this.gson;
+
+        if (result == null) {
+            result = getBuilder().create();
+            this.gson = result;
+        }
+
+        return result;
+    }
+
     /**
      * Returns the wrapped object, deserializing the representation with Gson if
      * necessary.
@@ -166,8 +214,7 @@ public class GsonRepresentation<T> extends WriterRepresentation {
         if (this.object != null) {
             result = this.object;
         } else if (this.jsonRepresentation != null) {
-            Gson gson = getBuilder().create();
-            result = gson.fromJson(
+            result = getGson().fromJson(
                     new JsonReader(jsonRepresentation.getReader()),
                     this.objectClass);
         }
@@ -192,6 +239,19 @@ public class GsonRepresentation<T> extends WriterRepresentation {
      */
     public void setBuilder(GsonBuilder builder) {
         this.builder = builder;
+        this.gson = null;
+    }
+
+    /**
+     * Sets the Gson instance. As Gson instances are thread-safe, it can be
+     * shared by several representations in order to reuse its cached type
+     * adapters.
+     * 
+     * @param gson
+     *            The Gson instance.
+     */
+    public void setGson(Gson gson) {
+        this.gson = gson;
     }
 
     /**
@@ -219,8 +279,9 @@ public class GsonRepresentation<T> extends WriterRepresentation {
         if (jsonRepresentation != null) {
             jsonRepresentation.write(writer);
         } else {
-            Gson gson = getBuilder().create();
-            gson.toJson(object, objectClass, new JsonWriter(writer));
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            getGson().toJson(object, objectClass, jsonWriter);
+            jsonWriter.flush();
         }
     }
 
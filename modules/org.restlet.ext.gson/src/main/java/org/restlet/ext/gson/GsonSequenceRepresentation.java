@@ -0,0 +1,256 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+
+package org.restlet.ext.gson;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.stream.BaseStream;
+
+import org.restlet.Context;
+import org.restlet.data.CharacterSet;
+import org.restlet.data.MediaType;
+import org.restlet.engine.converter.ConverterUtils;
+import org.restlet.representation.WriterRepresentation;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Transient representation streaming a sequence of elements with Gson, either
+ * as a JSON array or as a newline delimited JSON document (NDJSON). The
+ * elements are pulled from an {@link Iterator}, a {@link java.util.stream.Stream}
+ * or an {@link Iterable} one at a time while writing, so that large results
+ * never need to be fully loaded in memory. The output is flushed every
+ * {@link #getFlushSize()} elements so that clients receive them
+ * progressively.<br>
+ * <br>
+ * The source is closed after writing or on release if it is
+ * {@link AutoCloseable}, for example a stream backed by a database cursor.
+ * 
+ * @param <T>
+ *            The type of the elements.
+ */
+public class GsonSequenceRepresentation<T> extends WriterRepresentation {
+
+    /** The default number of elements written between two flushes. */
+    public static final int DEFAULT_FLUSH_SIZE = 64;
+
+    /** The number of elements written between two flushes. */
+    private volatile int flushSize;
+
+    /** The Gson instance. */
+    private volatile Gson gson;
+
+    /** The source of elements. */
+    private final Object source;
+
+    /**
+     * Constructor.
+     * 
+     * @param mediaType
+     *            The target media type, either JSON or NDJSON.
+     * @param source
+     *            The stream of elements.
+     */
+    public GsonSequenceRepresentation(MediaType mediaType,
+            BaseStream<? extends T, ?> source) {
+        this(mediaType, (Object) source);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param mediaType
+     *            The target media type, either JSON or NDJSON.
+     * @param source
+     *            The iterable elements.
+     */
+    public GsonSequenceRepresentation(MediaType mediaType,
+            Iterable<? extends T> source) {
+        this(mediaType, (Object) source);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param mediaType
+     *            The target media type, either JSON or NDJSON.
+     * @param source
+     *            The iterator over the elements.
+     */
+    public GsonSequenceRepresentation(MediaType mediaType,
+            Iterator<? extends T> source) {
+        this(mediaType, (Object) source);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param mediaType
+     *            The target media type, either JSON or NDJSON.
+     * @param source
+     *            The source of elements. See
+     *            {@link ConverterUtils#toIterator(Object)} for the supported
+     *            types.
+     */
+    protected GsonSequenceRepresentation(MediaType mediaType, Object source) {
+        super(mediaType);
+        setCharacterSet(CharacterSet.UTF_8);
+        setTransient(true);
+        this.flushSize = DEFAULT_FLUSH_SIZE;
+        this.gson = null;
+        this.source = source;
+    }
+
+    /**
+     * Closes the source if it is {@link AutoCloseable}.
+     */
+    private void closeSource() {
+        if (this.source instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) this.source).close();
+            } catch (Exception e) {
+                Context.getCurrentLogger().log(Level.FINE,
+                        "Unable to close the source of the sequence", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of elements written between two flushes.
+     * 
+     * @return The number of elements written between two flushes.
+     */
+    public int getFlushSize() {
+        return this.flushSize;
+    }
+
+    /**
+     * Returns the Gson instance. If none was set, one is created with the
+     * same configuration as the one of {@link GsonRepresentation}. Elements
+     * of NDJSON documents are always written without indentation, even if
+     * pretty printing is enabled.
+     * 
+     * @return The Gson instance.
+     */
+    public Gson getGson() {
+        if (this.gson == null) {
+            this.gson = GsonRepresentation.createDefaultGson();
+        }
+
+        return this.gson;
+    }
+
+    /**
+     * Indicates if the elements are written as a newline delimited JSON
+     * document instead of a JSON array.
+     * 
+     * @return True if the elements are written as a newline delimited JSON
+     *         document.
+     */
+    public boolean isNdjson() {
+        return MediaType.APPLICATION_NDJSON.equals(getMediaType(), true);
+    }
+
+    /**
+     * Closes the source if it is {@link AutoCloseable}.
+     */
+    @Override
+    public void release() {
+        closeSource();
+        super.release();
+    }
+
+    /**
+     * Sets the number of elements written between two flushes.
+     * 
+     * @param flushSize
+     *            The number of elements written between two flushes.
+     */
+    public void setFlushSize(int flushSize) {
+        this.flushSize = flushSize;
+    }
+
+    /**
+     * Sets the Gson instance.
+     * 
+     * @param gson
+     *            The Gson instance.
+     */
+    public void setGson(Gson gson) {
+        this.gson = gson;
+    }
+
+    @Override
+    public void write(Writer writer) throws IOException {
+        Gson gson = getGson();
+        boolean ndjson = isNdjson();
+        int flushSize = Math.max(1, getFlushSize());
+        int count = 0;
+
+        try {
+            JsonWriter jsonWriter = gson.newJsonWriter(writer);
+
+            if (ndjson) {
+                // Each element is a compact document on its own line
+                jsonWriter.setIndent("");
+                jsonWriter.setLenient(true);
+            } else {
+                jsonWriter.beginArray();
+            }
+
+            for (Iterator<?> iter = ConverterUtils.toIterator(this.source); iter
+                    .hasNext();) {
+                Object item = iter.next();
+
+                if (item == null) {
+                    jsonWriter.nullValue();
+                } else {
+                    gson.toJson(item, item.getClass(), jsonWriter);
+                }
+
+                if (ndjson) {
+                    writer.write('\n');
+                }
+
+                if (++count % flushSize == 0) {
+                    writer.flush();
+                }
+            }
+
+            if (!ndjson) {
+                jsonWriter.endArray();
+            }
+
+            writer.flush();
+        } finally {
+            closeSource();
+        }
+    }
+
+}
@@ -27,9 +27,11 @@ package org.restlet.ext.jackson;
 import java.io.IOException;
 import java.util.List;
 
+import org.restlet.Application;
 import org.restlet.data.MediaType;
 import org.restlet.data.Preference;
 import org.restlet.engine.converter.ConverterHelper;
+import org.restlet.engine.converter.ConverterUtils;
 import org.restlet.engine.resource.VariantInfo;
 import org.restlet.representation.Representation;
 import org.restlet.representation.Variant;
@@ -37,13 +39,30 @@ import org.restlet.resource.Resource;
 
 /**
  * Converter between the JSON, JSON Smile, CSV, XML, YAML and Representation
- * classes based on Jackson.
+ * classes based on Jackson.<br>
+ * <br>
+ * The created representations share the Jackson object readers and writers
+ * held by a {@link JacksonMapperCache}, so that Jackson's internal serializer
+ * caches are reused across calls. Customizing the mapper or the XML settings
+ * of a representation makes it use its own mapper instead. A specific cache can
+ * be set for an application by storing it in the context attributes of the
+ * application under the {@link #ATTRIBUTE_MAPPER_CACHE} name.<br>
+ * <br>
+ * Iterators and streams are written incrementally as a JSON array by a
+ * {@link JacksonSequenceRepresentation}, which can also write any sequence of
+ * elements as a newline delimited JSON document (NDJSON).
  * 
  * @author Jerome Louvel
  * @author Thierry Boileau
  */
 public class JacksonConverter extends ConverterHelper {
 
+    /**
+     * Name of the application context attribute holding the
+     * {@link JacksonMapperCache} to use instead of the one of the converter.
+     */
+    public static final String ATTRIBUTE_MAPPER_CACHE = "org.restlet.ext.jackson.mapperCache";
+
     /** Variant with media type application/xml. */
     private static final VariantInfo VARIANT_APPLICATION_XML = new VariantInfo(
             MediaType.APPLICATION_XML);
@@ -60,6 +79,10 @@ public class JacksonConverter extends ConverterHelper {
     private static final VariantInfo VARIANT_JSON_SMILE = new VariantInfo(
             MediaType.APPLICATION_JSON_SMILE);
 
+    /** Variant with media type application/x-ndjson. */
+    private static final VariantInfo VARIANT_NDJSON = new VariantInfo(
+            MediaType.APPLICATION_NDJSON);
+
     /** Variant with media type text/csv. */
     private static final VariantInfo VARIANT_TEXT_CSV = new VariantInfo(
             MediaType.TEXT_CSV);
@@ -72,6 +95,9 @@ public class JacksonConverter extends ConverterHelper {
     private static final VariantInfo VARIANT_TEXT_YAML = new VariantInfo(
             MediaType.TEXT_YAML);
 
+    /** The default cache of shared Jackson mappers, readers and writers. */
+    private volatile JacksonMapperCache mapperCache = new JacksonMapperCache();
+
     /**
      * Creates the marshaling {@link JacksonRepresentation}.
      * 
@@ -84,7 +110,15 @@ public class JacksonConverter extends ConverterHelper {
      * @return The marshaling {@link JacksonRepresentation}.
      */
     protected <T> JacksonRepresentation<T> create(MediaType mediaType, T source) {
-        return new JacksonRepresentation<T>(mediaType, source);
+        JacksonRepresentation<T> result = new JacksonRepresentation<T>(
+                mediaType, source);
+
+        if (source != null) {
+            result.share(null, getMapperCache().getObjectWriter(mediaType,
+                    source.getClass()));
+        }
+
+        return result;
     }
 
     /**
@@ -100,7 +134,59 @@ public class JacksonConverter extends ConverterHelper {
      */
     protected <T> JacksonRepresentation<T> create(Representation source,
             Class<T> objectClass) {
-        return new JacksonRepresentation<T>(source, objectClass);
+        JacksonRepresentation<T> result = new JacksonRepresentation<T>(
+                source, objectClass);
+
+        if ((objectClass != null)
+                && !JacksonRepresentation.class.isAssignableFrom(objectClass)) {
+            result.share(getMapperCache().getObjectReader(
+                    source.getMediaType(), objectClass), null);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates the marshaling {@link JacksonSequenceRepresentation}.
+     * 
+     * @param <T>
+     *            The expected class of the elements.
+     * @param mediaType
+     *            The target media type, either JSON or NDJSON.
+     * @param source
+     *            The source of elements to marshal.
+     * @return The marshaling {@link JacksonSequenceRepresentation}.
+     */
+    protected <T> JacksonSequenceRepresentation<T> createSequence(
+            MediaType mediaType, Object source) {
+        JacksonSequenceRepresentation<T> result = new JacksonSequenceRepresentation<T>(
+                mediaType, source);
+        result.share(getMapperCache().getObjectWriter(
+                MediaType.APPLICATION_JSON, Object.class));
+        return result;
+    }
+
+    /**
+     * Returns the cache of shared Jackson mappers, readers and writers. If the
+     * current application has a {@link JacksonMapperCache} stored in its
+     * context attributes under the {@link #ATTRIBUTE_MAPPER_CACHE} name, it is
+     * returned. Otherwise, the default cache of this converter is returned.
+     * 
+     * @return The cache of shared Jackson mappers, readers and writers.
+     */
+    public JacksonMapperCache getMapperCache() {
+        Application application = Application.getCurrent();
+
+        if ((application != null) && (application.getContext() != null)) {
+            Object result = application.getContext().getAttributes()
+                    .get(ATTRIBUTE_MAPPER_CACHE);
+
+            if (result instanceof JacksonMapperCache) {
+                return (JacksonMapperCache) result;
+            }
+        }
+
+        return this.mapperCache;
     }
 
     @Override
@@ -127,6 +213,10 @@ public class JacksonConverter extends ConverterHelper {
             result = addVariant(result, VARIANT_APPLICATION_YAML);
             result = addVariant(result, VARIANT_TEXT_YAML);
             result = addVariant(result, VARIANT_TEXT_CSV);
+
+            if (ConverterUtils.isSequence(source)) {
+                result = addVariant(result, VARIANT_NDJSON);
+            }
         }
 
         return result;
@@ -156,12 +246,14 @@ public class JacksonConverter extends ConverterHelper {
     public float score(Object source, Variant target, Resource resource) {
         float result = -1.0F;
 
-        if (source instanceof JacksonRepresentation<?>) {
+        if ((source instanceof JacksonRepresentation<?>)
+                || (source instanceof JacksonSequenceRepresentation<?>)) {
             result = 1.0F;
         } else {
             if (target == null) {
                 result = 0.5F;
-            } else if (isCompatible(target)) {
+            } else if (isCompatible(target)
+                    || VARIANT_NDJSON.isCompatible(target)) {
                 result = 0.8F;
             } else {
                 result = 0.5F;
@@ -222,11 +314,22 @@ public class JacksonConverter extends ConverterHelper {
 
         if (source instanceof JacksonRepresentation) {
             result = (JacksonRepresentation<?>) source;
+        } else if (source instanceof JacksonSequenceRepresentation) {
+            result = (JacksonSequenceRepresentation<?>) source;
         } else {
             if (target.getMediaType() == null) {
                 target.setMediaType(MediaType.APPLICATION_JSON);
             }
-            if (isCompatible(target)) {
+
+            if (MediaType.APPLICATION_NDJSON.equals(target.getMediaType(),
+                    true)) {
+                result = createSequence(target.getMediaType(), source);
+            } else if ((source != null)
+                    && ConverterUtils.isSequence(source.getClass())
+                    && VARIANT_JSON.isCompatible(target)) {
+                // Write the elements incrementally
+                result = createSequence(target.getMediaType(), source);
+            } else if (isCompatible(target)) {
                 result = create(target.getMediaType(), source);
             }
         }
@@ -234,6 +337,17 @@ public class JacksonConverter extends ConverterHelper {
         return result;
     }
 
+    /**
+     * Sets the default cache of shared Jackson mappers, readers and writers.
+     * 
+     * @param mapperCache
+     *            The default cache of shared Jackson mappers, readers and
+     *            writers.
+     */
+    public void setMapperCache(JacksonMapperCache mapperCache) {
+        this.mapperCache = mapperCache;
+    }
+
     @Override
     public <T> void updatePreferences(List<Preference<MediaType>> preferences,
             Class<T> entity) {
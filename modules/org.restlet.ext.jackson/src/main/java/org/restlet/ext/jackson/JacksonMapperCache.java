@@ -0,0 +1,466 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.ext.jackson;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.restlet.data.MediaType;
+import org.restlet.engine.Edition;
+import org.restlet.ext.jackson.internal.XmlFactoryProvider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator.Feature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.xml.XmlFactory;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Thread-safe cache of Jackson object mappers, one per supported family of
+ * media types (JSON, JSON Smile, XML, YAML and CSV), and of the object readers
+ * and writers derived from them for each target class. Sharing those instances
+ * across representations preserves the serializers and deserializers cached
+ * internally by Jackson.<br>
+ * <br>
+ * Note that the shared mappers must not be reconfigured once in use. Customized
+ * mappers can be registered instead with the
+ * {@link #setObjectMapper(MediaType, ObjectMapper)} method.<br>
+ * <br>
+ * The classes are weakly referenced by the cache and the readers and writers
+ * softly referenced, as they hold their class. This lets the class loader of a
+ * redeployed application be collected.
+ * 
+ * @see JacksonConverter#getMapperCache()
+ */
+public class JacksonMapperCache {
+
+    /**
+     * Concurrent cache of values per class, weakly referencing the classes and
+     * softly referencing the values. The entries of the collected classes are
+     * purged when new values are added.
+     * 
+     * @param <V>
+     *            The type of the cached values.
+     */
+    private static class ClassCache<V> {
+
+        /** The keys of the collected classes. */
+        private final ReferenceQueue<Class<?>> staleKeys;
+
+        /** The cached values. */
+        private final ConcurrentMap<ClassKey, SoftReference<V>> values;
+
+        /**
+         * Constructor.
+         */
+        public ClassCache() {
+            this.staleKeys = new ReferenceQueue<Class<?>>();
+            this.values = new ConcurrentHashMap<ClassKey, SoftReference<V>>();
+        }
+
+        /**
+         * Returns the value cached for a class.
+         * 
+         * @param type
+         *            The class.
+         * @return The cached value or null.
+         */
+        public V get(Class<?> type) {
+            SoftReference<V> reference = this.values.get(new ClassKey(type,
+                    null));
+            return (reference == null) ? null : reference.get();
+        }
+
+        /**
+         * Caches the value of a class.
+         * 
+         * @param type
+         *            The class.
+         * @param value
+         *            The value to cache.
+         */
+        public void put(Class<?> type, V value) {
+            Reference<? extends Class<?>> stale;
+
+            while ((stale = this.staleKeys.poll()) != null) {
+                this.values.remove(stale);
+            }
+
+            this.values.put(new ClassKey(type, this.staleKeys),
+                    new SoftReference<V>(value));
+        }
+    }
+
+    /**
+     * Weak reference to a class, used as a key of a {@link ClassCache}. Two
+     * keys are equal if they reference the same class.
+     */
+    private static class ClassKey extends WeakReference<Class<?>> {
+
+        /** The identity hash code of the class. */
+        private final int hash;
+
+        /**
+         * Constructor.
+         * 
+         * @param type
+         *            The class.
+         * @param queue
+         *            The queue notified when the class is collected or null.
+         */
+        public ClassKey(Class<?> type, ReferenceQueue<Class<?>> queue) {
+            super(type, queue);
+            this.hash = System.identityHashCode(type);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+
+            if (!(object instanceof ClassKey)) {
+                return false;
+            }
+
+            Class<?> type = get();
+            return (type != null) && (type == ((ClassKey) object).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * Creates a Jackson object mapper based on a media type. It supports JSON,
+     * JSON Smile, XML, YAML and CSV.
+     * 
+     * @param mediaType
+     *            The target media type.
+     * @param expandingEntityRefs
+     *            True if the XML parser expands entity reference nodes.
+     * @param validatingDtd
+     *            True if the XML parser validates DTD documents.
+     * @return The Jackson object mapper.
+     */
+    public static ObjectMapper createObjectMapper(MediaType mediaType,
+            boolean expandingEntityRefs, boolean validatingDtd) {
+        ObjectMapper result = null;
+
+        if (MediaType.APPLICATION_JSON.isCompatible(mediaType)) {
+            JsonFactory jsonFactory = new JsonFactory();
+            jsonFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
+            result = new ObjectMapper(jsonFactory);
+        } else if (MediaType.APPLICATION_JSON_SMILE.isCompatible(mediaType)) {
+            SmileFactory smileFactory = new SmileFactory();
+            smileFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
+            result = new ObjectMapper(smileFactory);
+
+        } else if (MediaType.APPLICATION_XML.isCompatible(mediaType)
+                || MediaType.TEXT_XML.isCompatible(mediaType)) {
+            if (Edition.ANDROID.isCurrentEdition() && XmlFactoryProvider.inputFactoryProvider == null) {
+                XmlFactoryProvider.inputFactoryProvider = new com.ctc.wstx.osgi.InputFactoryProviderImpl();
+            }
+            if (Edition.ANDROID.isCurrentEdition() && XmlFactoryProvider.outputFactoryProvider == null) {
+                XmlFactoryProvider.outputFactoryProvider = new com.ctc.wstx.osgi.OutputFactoryProviderImpl();
+            }
+
+            javax.xml.stream.XMLInputFactory xif = XmlFactoryProvider.newInputFactory();
+            xif.setProperty(
+                    javax.xml.stream.XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+                    expandingEntityRefs);
+            xif.setProperty(javax.xml.stream.XMLInputFactory.SUPPORT_DTD,
+                    expandingEntityRefs);
+            xif.setProperty(javax.xml.stream.XMLInputFactory.IS_VALIDATING,
+                    validatingDtd);
+            javax.xml.stream.XMLOutputFactory xof = XmlFactoryProvider.newOutputFactory();
+            XmlFactory xmlFactory = new XmlFactory(xif, xof);
+            xmlFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
+            result = new XmlMapper(xmlFactory);
+
+        } else if (MediaType.APPLICATION_YAML.isCompatible(mediaType)
+                || MediaType.TEXT_YAML.isCompatible(mediaType)) {
+            YAMLFactory yamlFactory = new YAMLFactory();
+            yamlFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
+            result = new ObjectMapper(yamlFactory);
+        } else if (MediaType.TEXT_CSV.isCompatible(mediaType)) {
+            CsvFactory csvFactory = new CsvFactory();
+            csvFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
+            result = new CsvMapper(csvFactory);
+        } else {
+            JsonFactory jsonFactory = new JsonFactory();
+            jsonFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
+            result = new ObjectMapper(jsonFactory);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the media type identifying the family of a given media type, i.e.
+     * the media types sharing the same object mapper.
+     * 
+     * @param mediaType
+     *            The media type.
+     * @return The media type identifying the family.
+     */
+    public static MediaType getFamily(MediaType mediaType) {
+        MediaType result = null;
+
+        if (MediaType.APPLICATION_JSON.isCompatible(mediaType)) {
+            result = MediaType.APPLICATION_JSON;
+        } else if (MediaType.APPLICATION_JSON_SMILE.isCompatible(mediaType)) {
+            result = MediaType.APPLICATION_JSON_SMILE;
+        } else if (MediaType.APPLICATION_XML.isCompatible(mediaType)
+                || MediaType.TEXT_XML.isCompatible(mediaType)) {
+            result = MediaType.APPLICATION_XML;
+        } else if (MediaType.APPLICATION_YAML.isCompatible(mediaType)
+                || MediaType.TEXT_YAML.isCompatible(mediaType)) {
+            result = MediaType.APPLICATION_YAML;
+        } else if (MediaType.TEXT_CSV.isCompatible(mediaType)) {
+            result = MediaType.TEXT_CSV;
+        } else {
+            result = MediaType.APPLICATION_JSON;
+        }
+
+        return result;
+    }
+
+    /** The shared object mappers, per media type family. */
+    private final ConcurrentMap<MediaType, ObjectMapper> objectMappers;
+
+    /** The shared object readers, per media type family and target class. */
+    private final ConcurrentMap<MediaType, ClassCache<ObjectReader>> objectReaders;
+
+    /** The shared object writers, per media type family and source class. */
+    private final ConcurrentMap<MediaType, ClassCache<ObjectWriter>> objectWriters;
+
+    /**
+     * Constructor.
+     */
+    public JacksonMapperCache() {
+        this.objectMappers = new ConcurrentHashMap<MediaType, ObjectMapper>();
+        this.objectReaders = new ConcurrentHashMap<MediaType, ClassCache<ObjectReader>>();
+        this.objectWriters = new ConcurrentHashMap<MediaType, ClassCache<ObjectWriter>>();
+    }
+
+    /**
+     * Clears all the cached mappers, readers and writers.
+     */
+    public void clear() {
+        this.objectMappers.clear();
+        this.objectReaders.clear();
+        this.objectWriters.clear();
+    }
+
+    /**
+     * Creates the shared object mapper for a media type family. By default, it
+     * invokes {@link #createObjectMapper(MediaType, boolean, boolean)} with the
+     * default XML settings of {@link JacksonRepresentation}.
+     * 
+     * @param family
+     *            The media type family.
+     * @return The new object mapper.
+     */
+    protected ObjectMapper createObjectMapper(MediaType family) {
+        return createObjectMapper(family,
+                JacksonRepresentation.XML_EXPANDING_ENTITY_REFS,
+                JacksonRepresentation.XML_VALIDATING_DTD);
+    }
+
+    /**
+     * Creates an object reader for a target class. Has a special handling for
+     * CSV media types.
+     * 
+     * @param family
+     *            The media type family.
+     * @param objectClass
+     *            The target class.
+     * @return The new object reader.
+     */
+    protected ObjectReader createObjectReader(MediaType family,
+            Class<?> objectClass) {
+        ObjectMapper objectMapper = getObjectMapper(family);
+
+        if (objectMapper instanceof CsvMapper) {
+            CsvMapper csvMapper = (CsvMapper) objectMapper;
+            return csvMapper.readerFor(objectClass).with(
+                    csvMapper.schemaFor(objectClass));
+        }
+
+        return objectMapper.readerFor(objectClass);
+    }
+
+    /**
+     * Creates an object writer for a source class. Has a special handling for
+     * CSV media types.
+     * 
+     * @param family
+     *            The media type family.
+     * @param objectClass
+     *            The source class.
+     * @return The new object writer.
+     */
+    protected ObjectWriter createObjectWriter(MediaType family,
+            Class<?> objectClass) {
+        ObjectMapper objectMapper = getObjectMapper(family);
+
+        if (objectMapper instanceof CsvMapper) {
+            CsvMapper csvMapper = (CsvMapper) objectMapper;
+            return csvMapper.writer(csvMapper.schemaFor(objectClass));
+        }
+
+        return objectMapper.writerFor(objectClass);
+    }
+
+    /**
+     * Returns the shared object mapper for a media type, creating it if needed.
+     * 
+     * @param mediaType
+     *            The media type.
+     * @return The shared object mapper.
+     */
+    public ObjectMapper getObjectMapper(MediaType mediaType) {
+        MediaType family = getFamily(mediaType);
+        ObjectMapper result = this.objectMappers.get(family);
+
+        if (result == null) {
+            result = createObjectMapper(family);
+            ObjectMapper existing = this.objectMappers.putIfAbsent(family,
+                    result);
+
+            if (existing != null) {
+                result = existing;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the shared object reader for a media type and a target class,
+     * creating it if needed.
+     * 
+     * @param mediaType
+     *            The media type.
+     * @param objectClass
+     *            The target class.
+     * @return The shared object reader.
+     */
+    public ObjectReader getObjectReader(MediaType mediaType,
+            Class<?> objectClass) {
+        MediaType family = getFamily(mediaType);
+        ClassCache<ObjectReader> readers = getValues(this.objectReaders,
+                family);
+        ObjectReader result = readers.get(objectClass);
+
+        if (result == null) {
+            result = createObjectReader(family, objectClass);
+            readers.put(objectClass, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the shared object writer for a media type and a source class,
+     * creating it if needed.
+     * 
+     * @param mediaType
+     *            The media type.
+     * @param objectClass
+     *            The source class.
+     * @return The shared object writer.
+     */
+    public ObjectWriter getObjectWriter(MediaType mediaType,
+            Class<?> objectClass) {
+        MediaType family = getFamily(mediaType);
+        ClassCache<ObjectWriter> writers = getValues(this.objectWriters,
+                family);
+        ObjectWriter result = writers.get(objectClass);
+
+        if (result == null) {
+            result = createObjectWriter(family, objectClass);
+            writers.put(objectClass, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the cache of values for a media type family, creating it if
+     * needed.
+     * 
+     * @param map
+     *            The cache of values per family.
+     * @param family
+     *            The media type family.
+     * @return The cache of values for the family.
+     */
+    private <V> ClassCache<V> getValues(
+            ConcurrentMap<MediaType, ClassCache<V>> map, MediaType family) {
+        ClassCache<V> result = map.get(family);
+
+        if (result == null) {
+            result = new ClassCache<V>();
+            ClassCache<V> existing = map.putIfAbsent(family, result);
+
+            if (existing != null) {
+                result = existing;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Registers a customized object mapper for a media type family. The readers
+     * and writers derived from the previous mapper are discarded.
+     * 
+     * @param mediaType
+     *            The media type.
+     * @param objectMapper
+     *            The object mapper to share.
+     */
+    public void setObjectMapper(MediaType mediaType, ObjectMapper objectMapper) {
+        MediaType family = getFamily(mediaType);
+        this.objectMappers.put(family, objectMapper);
+        this.objectReaders.remove(family);
+        this.objectWriters.remove(family);
+    }
+
+}
@@ -28,23 +28,14 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 import org.restlet.data.MediaType;
-import org.restlet.engine.Edition;
-import org.restlet.ext.jackson.internal.XmlFactoryProvider;
 import org.restlet.representation.OutputRepresentation;
 import org.restlet.representation.Representation;
 
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonGenerator.Feature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.dataformat.csv.CsvFactory;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
-import com.fasterxml.jackson.dataformat.smile.SmileFactory;
-import com.fasterxml.jackson.dataformat.xml.XmlFactory;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 /**
  * Representation based on the Jackson library. It can serialize and deserialize
@@ -107,6 +98,12 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
     /** The representation to parse. */
     private volatile Representation representation;
 
+    /**
+     * Indicates if the object reader and writer are shared with other
+     * representations, see {@link JacksonMapperCache}.
+     */
+    private volatile boolean shared;
+
     /**
      * Indicates the desire for validating this type of XML representations
      * against a DTD. Note that for XML schema or Relax NG validation, use the
@@ -190,55 +187,8 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      * @return The Jackson object mapper.
      */
     protected ObjectMapper createObjectMapper() {
-        ObjectMapper result = null;
-
-        if (MediaType.APPLICATION_JSON.isCompatible(getMediaType())) {
-            JsonFactory jsonFactory = new JsonFactory();
-            jsonFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
-            result = new ObjectMapper(jsonFactory);
-        } else if (MediaType.APPLICATION_JSON_SMILE.isCompatible(getMediaType())) {
-            SmileFactory smileFactory = new SmileFactory();
-            smileFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
-            result = new ObjectMapper(smileFactory);
-
-        } else if (MediaType.APPLICATION_XML.isCompatible(getMediaType())
-                || MediaType.TEXT_XML.isCompatible(getMediaType())) {
-            if (Edition.ANDROID.isCurrentEdition() && XmlFactoryProvider.inputFactoryProvider == null) {
-                XmlFactoryProvider.inputFactoryProvider = new com.ctc.wstx.osgi.InputFactoryProviderImpl();
-            }
-            if (Edition.ANDROID.isCurrentEdition() && XmlFactoryProvider.outputFactoryProvider == null) {
-                XmlFactoryProvider.outputFactoryProvider = new com.ctc.wstx.osgi.OutputFactoryProviderImpl();
-            }
-
-            javax.xml.stream.XMLInputFactory xif = XmlFactoryProvider.newInputFactory();
-            xif.setProperty(
-                    javax.xml.stream.XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
-                    isExpandingEntityRefs());
-            xif.setProperty(javax.xml.stream.XMLInputFactory.SUPPORT_DTD,
-                    isExpandingEntityRefs());
-            xif.setProperty(javax.xml.stream.XMLInputFactory.IS_VALIDATING,
-                    isValidatingDtd());
-            javax.xml.stream.XMLOutputFactory xof = XmlFactoryProvider.newOutputFactory();
-            XmlFactory xmlFactory = new XmlFactory(xif, xof);
-            xmlFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
-            result = new XmlMapper(xmlFactory);
-
-        } else if (MediaType.APPLICATION_YAML.isCompatible(getMediaType())
-                || MediaType.TEXT_YAML.isCompatible(getMediaType())) {
-            YAMLFactory yamlFactory = new YAMLFactory();
-            yamlFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
-            result = new ObjectMapper(yamlFactory);
-        } else if (MediaType.TEXT_CSV.isCompatible(getMediaType())) {
-            CsvFactory csvFactory = new CsvFactory();
-            csvFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
-            result = new CsvMapper(csvFactory);
-        } else {
-            JsonFactory jsonFactory = new JsonFactory();
-            jsonFactory.configure(Feature.AUTO_CLOSE_TARGET, false);
-            result = new ObjectMapper(jsonFactory);
-        }
-
-        return result;
+        return JacksonMapperCache.createObjectMapper(getMediaType(),
+                isExpandingEntityRefs(), isValidatingDtd());
     }
 
     /**
@@ -325,11 +275,15 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
 
     /**
      * Returns the modifiable Jackson object mapper. Useful to customize
-     * mappings.
+     * mappings. The mapper is specific to this representation, so the shared
+     * object reader and writer set by {@link JacksonConverter} are discarded
+     * in favor of ones derived from it.
      * 
      * @return The modifiable Jackson object mapper.
      */
     public ObjectMapper getObjectMapper() {
+        unshare();
+
         if (this.objectMapper == null) {
             this.objectMapper = createObjectMapper();
         }
@@ -392,6 +346,7 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      *            The Jackson CSV schema.
      */
     public void setCsvSchema(CsvSchema csvSchema) {
+        unshare();
         this.csvSchema = csvSchema;
     }
 
@@ -403,6 +358,7 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      *            True if the parser expands entity reference nodes.
      */
     public void setExpandingEntityRefs(boolean expandEntityRefs) {
+        unshare();
         this.expandingEntityRefs = expandEntityRefs;
     }
 
@@ -423,6 +379,7 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      *            The object class to instantiate.
      */
     public void setObjectClass(Class<T> objectClass) {
+        unshare();
         this.objectClass = objectClass;
     }
 
@@ -433,6 +390,7 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      *            The Jackson object mapper.
      */
     public void setObjectMapper(ObjectMapper objectMapper) {
+        unshare();
         this.objectMapper = objectMapper;
     }
 
@@ -464,9 +422,38 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      *            The new validation flag to set.
      */
     public void setValidatingDtd(boolean validating) {
+        unshare();
         this.validatingDtd = validating;
     }
 
+    /**
+     * Sets the object reader and writer shared with other representations.
+     * They are discarded as soon as the mapping settings of this
+     * representation are customized.
+     * 
+     * @param objectReader
+     *            The shared object reader or null.
+     * @param objectWriter
+     *            The shared object writer or null.
+     */
+    void share(ObjectReader objectReader, ObjectWriter objectWriter) {
+        this.objectReader = objectReader;
+        this.objectWriter = objectWriter;
+        this.shared = true;
+    }
+
+    /**
+     * Discards the shared object reader and writer, if any, so that they are
+     * recreated from the mapping settings of this representation.
+     */
+    private void unshare() {
+        if (this.shared) {
+            this.shared = false;
+            this.objectReader = null;
+            this.objectWriter = null;
+        }
+    }
+
     @Override
     public void write(OutputStream outputStream) throws IOException {
         if (representation != null) {
@@ -0,0 +1,282 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+
+package org.restlet.ext.jackson;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.stream.BaseStream;
+
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.engine.converter.ConverterUtils;
+import org.restlet.representation.OutputRepresentation;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Transient representation streaming a sequence of elements with Jackson,
+ * either as a JSON array or as a newline delimited JSON document (NDJSON). The
+ * elements are pulled from an {@link Iterator}, a {@link java.util.stream.Stream}
+ * or an {@link Iterable} one at a time while writing, so that large results
+ * never need to be fully loaded in memory. The output is flushed every
+ * {@link #getFlushSize()} elements so that clients receive them
+ * progressively.<br>
+ * <br>
+ * The source is closed after writing or on release if it is
+ * {@link AutoCloseable}, for example a stream backed by a database cursor.
+ * 
+ * @param <T>
+ *            The type of the elements.
+ */
+public class JacksonSequenceRepresentation<T> extends OutputRepresentation {
+
+    /** The default number of elements written between two flushes. */
+    public static final int DEFAULT_FLUSH_SIZE = 64;
+
+    /** The number of elements written between two flushes. */
+    private volatile int flushSize;
+
+    /** The Jackson object mapper. */
+    private volatile ObjectMapper objectMapper;
+
+    /**
+     * The object writer shared with other representations, see
+     * {@link JacksonMapperCache}.
+     */
+    private volatile ObjectWriter sharedWriter;
+
+    /** The source of elements. */
+    private final Object source;
+
+    /**
+     * Constructor.
+     * 
+     * @param mediaType
+     *            The target media type, either JSON or NDJSON.
+     * @param source
+     *            The stream of elements.
+     */
+    public JacksonSequenceRepresentation(MediaType mediaType,
+            BaseStream<? extends T, ?> source) {
+        this(mediaType, (Object) source);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param mediaType
+     *            The target media type, either JSON or NDJSON.
+     * @param source
+     *            The iterable elements.
+     */
+    public JacksonSequenceRepresentation(MediaType mediaType,
+            Iterable<? extends T> source) {
+        this(mediaType, (Object) source);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param mediaType
+     *            The target media type, either JSON or NDJSON.
+     * @param source
+     *            The iterator over the elements.
+     */
+    public JacksonSequenceRepresentation(MediaType mediaType,
+            Iterator<? extends T> source) {
+        this(mediaType, (Object) source);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param mediaType
+     *            The target media type, either JSON or NDJSON.
+     * @param source
+     *            The source of elements. See
+     *            {@link ConverterUtils#toIterator(Object)} for the supported
+     *            types.
+     */
+    protected JacksonSequenceRepresentation(MediaType mediaType, Object source) {
+        super(mediaType);
+        this.flushSize = DEFAULT_FLUSH_SIZE;
+        this.objectMapper = null;
+        this.source = source;
+        setTransient(true);
+    }
+
+    /**
+     * Closes the source if it is {@link AutoCloseable}.
+     */
+    private void closeSource() {
+        if (this.source instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) this.source).close();
+            } catch (Exception e) {
+                Context.getCurrentLogger().log(Level.FINE,
+                        "Unable to close the source of the sequence", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of elements written between two flushes.
+     * 
+     * @return The number of elements written between two flushes.
+     */
+    public int getFlushSize() {
+        return this.flushSize;
+    }
+
+    /**
+     * Returns the Jackson object mapper. If none was set, a JSON one is
+     * created. The mapper is specific to this representation, so the shared
+     * object writer set by {@link JacksonConverter} is discarded in favor of
+     * one derived from it.
+     * 
+     * @return The Jackson object mapper.
+     */
+    public ObjectMapper getObjectMapper() {
+        this.sharedWriter = null;
+
+        if (this.objectMapper == null) {
+            this.objectMapper = JacksonMapperCache.createObjectMapper(
+                    MediaType.APPLICATION_JSON, false, false);
+        }
+
+        return this.objectMapper;
+    }
+
+    /**
+     * Indicates if the elements are written as a newline delimited JSON
+     * document instead of a JSON array.
+     * 
+     * @return True if the elements are written as a newline delimited JSON
+     *         document.
+     */
+    public boolean isNdjson() {
+        return MediaType.APPLICATION_NDJSON.equals(getMediaType(), true);
+    }
+
+    /**
+     * Closes the source if it is {@link AutoCloseable}.
+     */
+    @Override
+    public void release() {
+        closeSource();
+        super.release();
+    }
+
+    /**
+     * Sets the number of elements written between two flushes.
+     * 
+     * @param flushSize
+     *            The number of elements written between two flushes.
+     */
+    public void setFlushSize(int flushSize) {
+        this.flushSize = flushSize;
+    }
+
+    /**
+     * Sets the Jackson object mapper.
+     * 
+     * @param objectMapper
+     *            The Jackson object mapper.
+     */
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.sharedWriter = null;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sets the object writer shared with other representations. It is
+     * discarded as soon as the mapper of this representation is accessed.
+     * 
+     * @param objectWriter
+     *            The shared object writer.
+     */
+    void share(ObjectWriter objectWriter) {
+        this.sharedWriter = objectWriter;
+    }
+
+    @Override
+    public void write(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = this.sharedWriter;
+
+        if (writer == null) {
+            writer = getObjectMapper().writer();
+        }
+
+        writer = writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        boolean ndjson = isNdjson();
+
+        if (ndjson) {
+            // Each element must hold on a single line
+            writer = writer.without(SerializationFeature.INDENT_OUTPUT);
+        }
+
+        int flushSize = Math.max(1, getFlushSize());
+        int count = 0;
+        JsonGenerator generator = writer.getFactory().createGenerator(
+                outputStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        try {
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+
+            for (Iterator<?> iter = ConverterUtils.toIterator(this.source); iter
+                    .hasNext();) {
+                writer.writeValue(generator, iter.next());
+
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+
+                if (++count % flushSize == 0) {
+                    generator.flush();
+                }
+            }
+
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+
+            generator.flush();
+        } finally {
+            closeSource();
+        }
+    }
+
+}
@@ -26,8 +26,6 @@ package org.restlet.ext.jaxb;
 
 import java.io.IOException;
 import java.io.Writer;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 import javax.xml.bind.JAXBContext;
@@ -39,6 +37,7 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import org.restlet.Context;
 import org.restlet.data.MediaType;
 import org.restlet.ext.jaxb.internal.Marshaller;
+import org.restlet.ext.jaxb.internal.PooledContext;
 import org.restlet.ext.jaxb.internal.Unmarshaller;
 import org.restlet.representation.Representation;
 import org.restlet.representation.WriterRepresentation;
@@ -56,9 +55,6 @@ import com.sun.xml.bind.marshaller.NamespacePrefixMapper;
  */
 public class JaxbRepresentation<T> extends WriterRepresentation {
 
-    /** Improves performance by caching contexts which are expensive to create. */
-    private final static Map<String, JAXBContext> contexts = new ConcurrentHashMap<String, JAXBContext>();
-
     /**
      * Returns the JAXB context, if possible from the cached contexts.
      * 
@@ -68,13 +64,14 @@ public class JaxbRepresentation<T> extends WriterRepresentation {
      * @return The JAXB context.
      * @throws JAXBException
      */
-    public static synchronized JAXBContext getContext(String contextPath)
+    public static JAXBContext getContext(String contextPath)
             throws JAXBException {
         return getContext(contextPath, null);
     }
 
     /**
-     * Returns the JAXB context, if possible from the cached contexts.
+     * Returns the JAXB context, if possible from the cached contexts. The
+     * contexts are cached by context path and class loader, without locking.
      * 
      * @param contextPath
      *            The JAXB context path.
@@ -85,19 +82,10 @@ public class JaxbRepresentation<T> extends WriterRepresentation {
      * @return The JAXB context.
      * @throws JAXBException
      */
-    public static synchronized JAXBContext getContext(String contextPath,
+    public static JAXBContext getContext(String contextPath,
             ClassLoader classLoader) throws JAXBException {
         // Contexts are thread-safe so reuse those.
-        JAXBContext result = contexts.get(contextPath);
-
-        if (result == null) {
-            result = (classLoader == null) ? JAXBContext
-                    .newInstance(contextPath) : JAXBContext.newInstance(
-                    contextPath, classLoader);
-            contexts.put(contextPath, result);
-        }
-
-        return result;
+        return PooledContext.getInstance(contextPath, classLoader).getContext();
     }
 
     /**
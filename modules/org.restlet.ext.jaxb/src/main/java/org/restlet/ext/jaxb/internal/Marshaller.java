@@ -27,11 +27,9 @@ package org.restlet.ext.jaxb.internal;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.util.logging.Level;
 
 import javax.xml.bind.JAXBException;
 
-import org.restlet.Context;
 import org.restlet.ext.jaxb.JaxbRepresentation;
 
 /**
@@ -40,7 +38,9 @@ import org.restlet.ext.jaxb.JaxbRepresentation;
  * 
  * This class is a factory that constructs an instance of itself for multiple
  * uses. The created instance is thread safe and is optimized to be used for
- * multiple, possibly concurrent calls.
+ * multiple, possibly concurrent calls. The JAXB marshallers are taken from the
+ * pool of the shared {@link PooledContext}, except when a schema location or
+ * a namespace prefix mapper is set, as these properties can't be reset.
  * 
  * @author Overstock.com
  */
@@ -55,52 +55,6 @@ public class Marshaller<T> {
     /** The parent JAXB representation. */
     private final JaxbRepresentation<T> jaxbRepresentation;
 
-    /** Use thread identity to preserve safety of access to marshalers. */
-    private final ThreadLocal<javax.xml.bind.Marshaller> marshaller = new ThreadLocal<javax.xml.bind.Marshaller>() {
-
-        @Override
-        protected synchronized javax.xml.bind.Marshaller initialValue() {
-            javax.xml.bind.Marshaller m = null;
-
-            try {
-                m = JaxbRepresentation.getContext(getContextPath(),
-                        getClassLoader()).createMarshaller();
-                m.setProperty("jaxb.formatted.output", getJaxbRepresentation()
-                        .isFormattedOutput());
-
-                if (getJaxbRepresentation().getSchemaLocation() != null) {
-                    m.setProperty("jaxb.schemaLocation",
-                            getJaxbRepresentation().getSchemaLocation());
-                }
-                if (getJaxbRepresentation().getNoNamespaceSchemaLocation() != null) {
-                    m.setProperty("jaxb.noNamespaceSchemaLocation",
-                            getJaxbRepresentation()
-                                    .getNoNamespaceSchemaLocation());
-                }
-
-                if (Marshaller.this.jaxbRepresentation.getCharacterSet() != null) {
-                    m.setProperty("jaxb.encoding",
-                            Marshaller.this.jaxbRepresentation
-                                    .getCharacterSet().getName());
-                }
-
-                if (getJaxbRepresentation().getNamespacePrefixMapper() != null) {
-                    m.setProperty("com.sun.xml.bind.namespacePrefixMapper",
-                            getJaxbRepresentation().getNamespacePrefixMapper());
-                }
-
-                m.setProperty("jaxb.fragment", getJaxbRepresentation()
-                        .isFragment());
-            } catch (Exception e) {
-                Context.getCurrentLogger().log(Level.WARNING,
-                        "Problem creating Marshaller", e);
-                return null;
-            }
-
-            return m;
-        }
-    };
-
     // This is a factory class.
     public Marshaller(JaxbRepresentation<T> jaxbRepresentation) {
         this(jaxbRepresentation, null, null);
@@ -151,18 +105,16 @@ public class Marshaller<T> {
     }
 
     /**
-     * Returns the JAXB marshaller.
+     * Indicates if the JAXB marshaller can be taken from the pool, which is
+     * the case when the representation doesn't set a schema location or a
+     * namespace prefix mapper.
      * 
-     * @return The JAXB marshaller.
-     * @throws JAXBException
+     * @return True if the JAXB marshaller can be taken from the pool.
      */
-    private javax.xml.bind.Marshaller getMarshaller() throws JAXBException {
-        final javax.xml.bind.Marshaller m = this.marshaller.get();
-        if (m == null) {
-            Context.getCurrentLogger().warning("Unable to locate marshaller.");
-            throw new JAXBException("Unable to locate marshaller.");
-        }
-        return m;
+    private boolean isPooled() {
+        return (getJaxbRepresentation().getSchemaLocation() == null)
+                && (getJaxbRepresentation().getNoNamespaceSchemaLocation() == null)
+                && (getJaxbRepresentation().getNamespacePrefixMapper() == null);
     }
 
     /**
@@ -192,9 +144,58 @@ public class Marshaller<T> {
      *             If any unexpected problem occurs during marshaling.
      */
     public void marshal(Object jaxbElement, Writer writer) throws JAXBException {
-        getMarshaller().setEventHandler(
-                getJaxbRepresentation().getValidationEventHandler());
-        getMarshaller().marshal(jaxbElement, writer);
+        PooledContext context = PooledContext.getInstance(getContextPath(),
+                getClassLoader());
+        boolean pooled = isPooled();
+        javax.xml.bind.Marshaller m = pooled ? context.checkoutMarshaller()
+                : context.getContext().createMarshaller();
+
+        try {
+            setProperties(m);
+            m.setEventHandler(getJaxbRepresentation()
+                    .getValidationEventHandler());
+            m.marshal(jaxbElement, writer);
+        } finally {
+            if (pooled) {
+                context.checkin(m);
+            }
+        }
+    }
+
+    /**
+     * Sets the properties of a JAXB marshaller from the parent JAXB
+     * representation.
+     * 
+     * @param m
+     *            The JAXB marshaller to configure.
+     * @throws JAXBException
+     */
+    private void setProperties(javax.xml.bind.Marshaller m)
+            throws JAXBException {
+        m.setProperty("jaxb.formatted.output", getJaxbRepresentation()
+                .isFormattedOutput());
+
+        if (getJaxbRepresentation().getSchemaLocation() != null) {
+            m.setProperty("jaxb.schemaLocation", getJaxbRepresentation()
+                    .getSchemaLocation());
+        }
+
+        if (getJaxbRepresentation().getNoNamespaceSchemaLocation() != null) {
+            m.setProperty("jaxb.noNamespaceSchemaLocation",
+                    getJaxbRepresentation().getNoNamespaceSchemaLocation());
+        }
+
+        // Resets the default encoding of pooled marshallers
+        m.setProperty("jaxb.encoding", (getJaxbRepresentation()
+                .getCharacterSet() != null) ? getJaxbRepresentation()
+                .getCharacterSet().getName() : "UTF-8");
+
+        if (getJaxbRepresentation().getNamespacePrefixMapper() != null) {
+            m.setProperty("com.sun.xml.bind.namespacePrefixMapper",
+                    getJaxbRepresentation().getNamespacePrefixMapper());
+        }
+
+        m.setProperty("jaxb.fragment", getJaxbRepresentation().isFragment());
     }
 
 }
@@ -0,0 +1,304 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.ext.jaxb.internal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.restlet.Context;
+import org.restlet.engine.util.Pool;
+
+/**
+ * JAXB context shared by all the representations of a context path and class
+ * loader, with pools of marshallers and unmarshallers reused across
+ * representations and threads. The cached contexts are looked up without
+ * locking, so concurrent requests never wait on each other to get one.<br>
+ * <br>
+ * The class loaders are weakly referenced by the cache and the contexts softly
+ * referenced, as a context holds the classes of its loader. This lets the class
+ * loader of a redeployed application be collected.
+ */
+public class PooledContext {
+
+    /**
+     * Weak reference to a class loader, used as a key of the cached contexts.
+     * Two keys are equal if they reference the same class loader.
+     */
+    private static class LoaderKey extends WeakReference<ClassLoader> {
+
+        /** The identity hash code of the class loader. */
+        private final int hash;
+
+        /**
+         * Constructor.
+         * 
+         * @param classLoader
+         *            The class loader.
+         * @param queue
+         *            The queue notified when the class loader is collected
+         *            or null.
+         */
+        public LoaderKey(ClassLoader classLoader,
+                ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+
+            if (!(object instanceof LoaderKey)) {
+                return false;
+            }
+
+            ClassLoader classLoader = get();
+            return (classLoader != null)
+                    && (classLoader == ((LoaderKey) object).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /** The cached contexts, keyed by class loader and context path. */
+    private static final ConcurrentMap<LoaderKey, ConcurrentMap<String, SoftReference<PooledContext>>> contexts = new ConcurrentHashMap<LoaderKey, ConcurrentMap<String, SoftReference<PooledContext>>>();
+
+    /** The cached contexts without class loader, keyed by context path. */
+    private static final ConcurrentMap<String, SoftReference<PooledContext>> defaultContexts = new ConcurrentHashMap<String, SoftReference<PooledContext>>();
+
+    /** The keys of the collected class loaders. */
+    private static final ReferenceQueue<ClassLoader> staleLoaders = new ReferenceQueue<ClassLoader>();
+
+    /**
+     * Returns the cached contexts of a class loader, keyed by context path.
+     * Only the first lookup for a class loader updates the cache.
+     * 
+     * @param classLoader
+     *            The JAXB classloader or null.
+     * @return The cached contexts of the class loader.
+     */
+    private static ConcurrentMap<String, SoftReference<PooledContext>> getContexts(
+            ClassLoader classLoader) {
+        if (classLoader == null) {
+            return defaultContexts;
+        }
+
+        ConcurrentMap<String, SoftReference<PooledContext>> result = contexts
+                .get(new LoaderKey(classLoader, null));
+
+        if (result == null) {
+            // Purge the contexts of the collected class loaders
+            Reference<? extends ClassLoader> stale;
+
+            while ((stale = staleLoaders.poll()) != null) {
+                contexts.remove(stale);
+            }
+
+            result = new ConcurrentHashMap<String, SoftReference<PooledContext>>();
+            ConcurrentMap<String, SoftReference<PooledContext>> previous = contexts
+                    .putIfAbsent(new LoaderKey(classLoader, staleLoaders),
+                            result);
+
+            if (previous != null) {
+                result = previous;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the pooled context of a context path and class loader, creating
+     * it if needed. Two threads may create the same context concurrently, in
+     * which case the last cached one is kept.
+     * 
+     * @param contextPath
+     *            The JAXB context path.
+     * @param classLoader
+     *            The JAXB classloader or null.
+     * @return The pooled context.
+     * @throws JAXBException
+     */
+    public static PooledContext getInstance(String contextPath,
+            ClassLoader classLoader) throws JAXBException {
+        ConcurrentMap<String, SoftReference<PooledContext>> cache = getContexts(classLoader);
+        SoftReference<PooledContext> reference = cache.get(contextPath);
+        PooledContext result = (reference == null) ? null : reference.get();
+
+        if (result == null) {
+            JAXBContext context = (classLoader == null) ? JAXBContext
+                    .newInstance(contextPath) : JAXBContext.newInstance(
+                    contextPath, classLoader);
+            result = new PooledContext(context);
+            cache.put(contextPath, new SoftReference<PooledContext>(result));
+        }
+
+        return result;
+    }
+
+    /** The JAXB context. */
+    private final JAXBContext context;
+
+    /** The pool of marshallers. */
+    private final Pool<javax.xml.bind.Marshaller> marshallers;
+
+    /** The pool of unmarshallers. */
+    private final Pool<javax.xml.bind.Unmarshaller> unmarshallers;
+
+    /**
+     * Constructor.
+     * 
+     * @param context
+     *            The JAXB context.
+     */
+    public PooledContext(JAXBContext context) {
+        this.context = context;
+        this.marshallers = new Pool<javax.xml.bind.Marshaller>() {
+            @Override
+            protected javax.xml.bind.Marshaller createObject() {
+                try {
+                    return getContext().createMarshaller();
+                } catch (JAXBException e) {
+                    Context.getCurrentLogger().log(Level.WARNING,
+                            "Problem creating Marshaller", e);
+                    return null;
+                }
+            }
+        };
+        this.unmarshallers = new Pool<javax.xml.bind.Unmarshaller>() {
+            @Override
+            protected javax.xml.bind.Unmarshaller createObject() {
+                try {
+                    return getContext().createUnmarshaller();
+                } catch (JAXBException e) {
+                    Context.getCurrentLogger().log(Level.WARNING,
+                            "Problem creating Unmarshaller", e);
+                    return null;
+                }
+            }
+        };
+    }
+
+    /**
+     * Checks a marshaller back in the pool, after resetting its event
+     * handler, listener and schema. It is discarded if it can't be reset.
+     * 
+     * @param marshaller
+     *            The marshaller to check in.
+     */
+    public void checkin(javax.xml.bind.Marshaller marshaller) {
+        try {
+            // Reset the state that isn't set by every use
+            marshaller.setAttachmentMarshaller(null);
+            marshaller.setEventHandler(null);
+            marshaller.setListener(null);
+            marshaller.setSchema(null);
+            this.marshallers.checkin(marshaller);
+        } catch (JAXBException e) {
+            Context.getCurrentLogger().log(Level.FINE,
+                    "Unable to reset the marshaller, not pooling it", e);
+        }
+    }
+
+    /**
+     * Checks an unmarshaller back in the pool, after resetting its event
+     * handler, listener and schema. It is discarded if it can't be reset.
+     * 
+     * @param unmarshaller
+     *            The unmarshaller to check in.
+     */
+    public void checkin(javax.xml.bind.Unmarshaller unmarshaller) {
+        try {
+            // Reset the state that isn't set by every use
+            unmarshaller.setAttachmentUnmarshaller(null);
+            unmarshaller.setEventHandler(null);
+            unmarshaller.setListener(null);
+            unmarshaller.setSchema(null);
+            this.unmarshallers.checkin(unmarshaller);
+        } catch (JAXBException e) {
+            Context.getCurrentLogger().log(Level.FINE,
+                    "Unable to reset the unmarshaller, not pooling it", e);
+        }
+    }
+
+    /**
+     * Checks a marshaller out of the pool, creating it if needed. Its other
+     * properties, such as the encoding, must be set before use as they may
+     * have been changed by a previous use.
+     * 
+     * @return A marshaller.
+     * @throws JAXBException
+     */
+    public javax.xml.bind.Marshaller checkoutMarshaller() throws JAXBException {
+        javax.xml.bind.Marshaller result = this.marshallers.checkout();
+
+        if (result == null) {
+            throw new JAXBException("Unable to locate marshaller.");
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks an unmarshaller out of the pool, creating it if needed. Its state
+     * was reset when it was checked in.
+     * 
+     * @return An unmarshaller.
+     * @throws JAXBException
+     */
+    public javax.xml.bind.Unmarshaller checkoutUnmarshaller()
+            throws JAXBException {
+        javax.xml.bind.Unmarshaller result = this.unmarshallers.checkout();
+
+        if (result == null) {
+            throw new JAXBException("Unable to locate unmarshaller.");
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the JAXB context.
+     * 
+     * @return The JAXB context.
+     */
+    public JAXBContext getContext() {
+        return this.context;
+    }
+
+}
@@ -28,7 +28,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.logging.Level;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBException;
@@ -36,7 +39,6 @@ import javax.xml.bind.ValidationEventHandler;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.sax.SAXSource;
 
-import org.restlet.Context;
 import org.restlet.ext.jaxb.JaxbRepresentation;
 import org.xml.sax.InputSource;
 import org.xml.sax.XMLReader;
@@ -45,38 +47,62 @@ import org.xml.sax.XMLReader;
  * This is a utility class to assist in unmarshaling XML into a new Java content
  * tree.
  * 
- * Each {@code unmarshal} method takes a different source for the XML. This
- * class caches information to improve unmarshaling performance across calls
- * using the same schema (package).
+ * Each {@code unmarshal} method takes a different source for the XML. The
+ * JAXB unmarshallers are taken from the pool of the shared
+ * {@link PooledContext}, which improves unmarshaling performance across calls
+ * using the same schema (package). The SAX readers are pooled as well.
  * 
  * @author Overstock.com
  */
 public class Unmarshaller<T> {
 
-    /** The JAXB classloader. */
-    private final ClassLoader classLoader;
+    /** The maximum number of SAX readers kept in each pool. */
+    private static final int MAX_POOLED_READERS = 16;
 
-    /** The JAXB context path. */
-    private final String contextPath;
+    /**
+     * The pools of SAX readers, keyed by the parser features they were
+     * created with. Creating a parser requires a lookup of the factory
+     * implementation and is costlier than unmarshalling small documents. Only
+     * the readers of successful parses are returned to their pool, as a failed
+     * parse may leave a reader in an unknown state.
+     */
+    private static final ConcurrentMap<Integer, Queue<XMLReader>> readers = new ConcurrentHashMap<Integer, Queue<XMLReader>>();
 
     /**
-     * Use thread identity to preserve safety of access to unmarshallers.
+     * Returns the pool of SAX readers matching the parser features of a JAXB
+     * representation.
+     * 
+     * @param jaxbRep
+     *            The source JAXB representation.
+     * @return The pool of SAX readers.
      */
-    private final ThreadLocal<javax.xml.bind.Unmarshaller> unmarshaller = new ThreadLocal<javax.xml.bind.Unmarshaller>() {
-        @Override
-        protected synchronized javax.xml.bind.Unmarshaller initialValue() {
-            javax.xml.bind.Unmarshaller m = null;
-            try {
-                m = JaxbRepresentation.getContext(getContextPath(),
-                        getClassLoader()).createUnmarshaller();
-            } catch (Exception e) {
-                Context.getCurrentLogger().log(Level.WARNING,
-                        "Problem creating Unmarshaller", e);
-                return null;
+    private static Queue<XMLReader> getReaders(JaxbRepresentation<?> jaxbRep) {
+        Integer key = (jaxbRep.isValidatingDtd() ? 1 : 0)
+                | (jaxbRep.isXIncludeAware() ? 2 : 0)
+                | (jaxbRep.isSecureProcessing() ? 4 : 0)
+                | (jaxbRep.isExpandingEntityRefs() ? 8 : 0);
+        Queue<XMLReader> result = readers.get(key);
+
+        if (result == null) {
+            result = new LinkedBlockingQueue<XMLReader>(MAX_POOLED_READERS);
+            Queue<XMLReader> current = readers.putIfAbsent(key, result);
+
+            if (current != null) {
+                result = current;
             }
-            return m;
         }
-    };
+
+        return result;
+    }
+
+    /** The JAXB classloader. */
+    private final ClassLoader classLoader;
+
+    /** The JAXB context path. */
+    private final String contextPath;
+
+    /** The validation event handler. */
+    private volatile ValidationEventHandler eventHandler;
 
     /**
      * Constructor.
@@ -91,6 +117,37 @@ public class Unmarshaller<T> {
         this.classLoader = classloader;
     }
 
+    /**
+     * Creates a SAX reader with the parser features of a JAXB representation.
+     * 
+     * @param jaxbRep
+     *            The source JAXB representation.
+     * @return The new SAX reader.
+     * @throws JAXBException
+     */
+    private XMLReader createReader(JaxbRepresentation<?> jaxbRep)
+            throws JAXBException {
+        try {
+            SAXParserFactory spf = SAXParserFactory.newInstance();
+
+            // Keep before the external entity preferences
+            spf.setNamespaceAware(true);
+            spf.setValidating(jaxbRep.isValidatingDtd());
+            spf.setXIncludeAware(jaxbRep.isXIncludeAware());
+            spf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING,
+                    jaxbRep.isSecureProcessing());
+            spf.setFeature(
+                    "http://xml.org/sax/features/external-general-entities",
+                    jaxbRep.isExpandingEntityRefs());
+            spf.setFeature(
+                    "http://xml.org/sax/features/external-parameter-entities",
+                    jaxbRep.isExpandingEntityRefs());
+            return spf.newSAXParser().getXMLReader();
+        } catch (Exception e) {
+            throw new JAXBException("Unable to create customized SAX source", e);
+        }
+    }
+
     /**
      * Returns the JAXB classloader.
      * 
@@ -110,19 +167,12 @@ public class Unmarshaller<T> {
     }
 
     /**
-     * Returns the JAXB unmarshaller.
+     * Returns the validation handler.
      * 
-     * @return The JAXB unmarshaller.
-     * @throws JAXBException
+     * @return The validation handler.
      */
-    private javax.xml.bind.Unmarshaller getUnmarshaller() throws JAXBException {
-        final javax.xml.bind.Unmarshaller m = this.unmarshaller.get();
-        if (m == null) {
-            Context.getCurrentLogger()
-                    .warning("Unable to locate unmarshaller.");
-            throw new JAXBException("Unable to locate unmarshaller.");
-        }
-        return m;
+    public ValidationEventHandler getEventHandler() {
+        return this.eventHandler;
     }
 
     /**
@@ -135,7 +185,7 @@ public class Unmarshaller<T> {
      */
     public void setEventHandler(ValidationEventHandler handler)
             throws JAXBException {
-        getUnmarshaller().setEventHandler(handler);
+        this.eventHandler = handler;
     }
 
     /**
@@ -186,30 +236,28 @@ public class Unmarshaller<T> {
      */
     public Object unmarshal(JaxbRepresentation<?> jaxbRep, Reader reader)
             throws JAXBException {
-        SAXSource ss = null;
+        Queue<XMLReader> pool = getReaders(jaxbRep);
+        XMLReader xmlReader = pool.poll();
+
+        if (xmlReader == null) {
+            xmlReader = createReader(jaxbRep);
+        }
+
+        PooledContext context = PooledContext.getInstance(getContextPath(),
+                getClassLoader());
+        javax.xml.bind.Unmarshaller m = context.checkoutUnmarshaller();
 
         try {
-            SAXParserFactory spf = SAXParserFactory.newInstance();
+            m.setEventHandler((jaxbRep.getValidationEventHandler() != null) ? jaxbRep
+                    .getValidationEventHandler() : getEventHandler());
+            Object result = m.unmarshal(new SAXSource(xmlReader,
+                    new InputSource(reader)));
 
-            // Keep before the external entity preferences
-            spf.setNamespaceAware(true);
-            spf.setValidating(jaxbRep.isValidatingDtd());
-            spf.setXIncludeAware(jaxbRep.isXIncludeAware());
-            spf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING,
-                    jaxbRep.isSecureProcessing());
-            spf.setFeature(
-                    "http://xml.org/sax/features/external-general-entities",
-                    jaxbRep.isExpandingEntityRefs());
-            spf.setFeature(
-                    "http://xml.org/sax/features/external-parameter-entities",
-                    jaxbRep.isExpandingEntityRefs());
-            XMLReader xmlReader = spf.newSAXParser().getXMLReader();
-            ss = new SAXSource(xmlReader, new InputSource(reader));
-        } catch (Exception e) {
-            throw new JAXBException("Unable to create customized SAX source", e);
+            // Ignored once the pool is full
+            pool.offer(xmlReader);
+            return result;
+        } finally {
+            context.checkin(m);
         }
-
-        getUnmarshaller().setEventHandler(jaxbRep.getValidationEventHandler());
-        return getUnmarshaller().unmarshal(ss);
     }
 }
@@ -28,12 +28,15 @@ import java.io.IOException;
 import java.net.CookieStore;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.logging.Level;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.client.http.HttpClientTransportOverHTTP2;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
@@ -100,6 +103,18 @@ import org.restlet.ext.jetty.internal.RestletSslContextFactory;
  * <td>Whether to follow HTTP redirects</td>
  * </tr>
  * <tr>
+ * <td>http2.initialSessionWindowSize</td>
+ * <td>int</td>
+ * <td>1024*1024</td>
+ * <td>HTTP/2 initial receive flow control window of a session in bytes</td>
+ * </tr>
+ * <tr>
+ * <td>http2.initialStreamWindowSize</td>
+ * <td>int</td>
+ * <td>512*1024</td>
+ * <td>HTTP/2 initial receive flow control window of a stream in bytes</td>
+ * </tr>
+ * <tr>
  * <td>idleTimeout</td>
  * <td>long</td>
  * <td>60000</td>
@@ -171,7 +186,20 @@ import org.restlet.ext.jetty.internal.RestletSslContextFactory;
  * </tr>
  * </table>
  * For the default SSL parameters see the Javadocs of the
- * {@link DefaultSslContextFactory} class.
+ * {@link DefaultSslContextFactory} class.<br>
+ * <br>
+ * Asynchronous calls, for example issued via
+ * {@link org.restlet.resource.ClientResource#handleAsync()}, don't block any
+ * thread while waiting for the response. In order to sustain a large number of
+ * concurrent calls, raise the "maxConnectionsPerDestination" and
+ * "maxRequestsQueuedPerDestination" parameters accordingly.<br>
+ * <br>
+ * When the {@link Protocol#H2C} or {@link Protocol#H2} protocol is declared by
+ * the client connector, all the calls are sent with HTTP/2 and multiplexed on
+ * a single connection per destination. Cleartext connections then assume that
+ * the server supports HTTP/2 (prior knowledge), while secure connections
+ * negotiate it via ALPN, which requires Java 9 or later. The number of
+ * concurrent streams per connection is set by the server.
  * 
  * @author Jerome Louvel
  * @author Tal Liron
@@ -194,6 +222,8 @@ public class HttpClientHelper extends
         super(client);
         getProtocols().add(Protocol.HTTP);
         getProtocols().add(Protocol.HTTPS);
+        getProtocols().add(Protocol.H2);
+        getProtocols().add(Protocol.H2C);
     }
 
     /**
@@ -234,7 +264,20 @@ public class HttpClientHelper extends
                     "Unable to create the SSL context factory.", e);
         }
 
-        HttpClient httpClient = new HttpClient(sslContextFactory);
+        HttpClient httpClient;
+
+        if (isHttp2()) {
+            HTTP2Client http2Client = new HTTP2Client();
+            http2Client
+                    .setInitialSessionRecvWindow(getHttp2InitialSessionWindowSize());
+            http2Client
+                    .setInitialStreamRecvWindow(getHttp2InitialStreamWindowSize());
+            httpClient = new HttpClient(new HttpClientTransportOverHTTP2(
+                    http2Client), sslContextFactory);
+        } else {
+            httpClient = new HttpClient(sslContextFactory);
+        }
+
         httpClient.setAddressResolutionTimeout(getAddressResolutionTimeout());
         httpClient.setBindAddress(getBindAddress());
         httpClient.setConnectTimeout(getConnectTimeout());
@@ -337,6 +380,28 @@ public class HttpClientHelper extends
         return this.httpClient;
     }
 
+    /**
+     * HTTP/2 initial receive flow control window of a session in bytes.
+     * Defaults to 1024*1024.
+     * 
+     * @return HTTP/2 initial session window size.
+     */
+    public int getHttp2InitialSessionWindowSize() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.initialSessionWindowSize", "1048576"));
+    }
+
+    /**
+     * HTTP/2 initial receive flow control window of a stream in bytes. Defaults
+     * to 512*1024.
+     * 
+     * @return HTTP/2 initial stream window size.
+     */
+    public int getHttp2InitialStreamWindowSize() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.initialStreamWindowSize", "524288"));
+    }
+
     /**
      * The max time in milliseconds a connection can be idle (that is, without
      * traffic of bytes in either direction). Defaults to 60000.
@@ -475,6 +540,18 @@ public class HttpClientHelper extends
                 "followRedirects", "true"));
     }
 
+    /**
+     * Indicates if HTTP/2 is enabled, that is if the helped client connector
+     * declares the {@link Protocol#H2C} or {@link Protocol#H2} protocol.
+     * 
+     * @return True if HTTP/2 is enabled.
+     */
+    protected boolean isHttp2() {
+        List<Protocol> protocols = getHelped().getProtocols();
+        return protocols.contains(Protocol.H2C)
+                || protocols.contains(Protocol.H2);
+    }
+
     /**
      * Whether request events must be strictly ordered. Defaults to false.
      * <p>
@@ -24,6 +24,7 @@
 
 package org.restlet.ext.jetty;
 
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
 import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.server.HttpConnectionFactory;
@@ -31,7 +32,9 @@ import org.restlet.Server;
 import org.restlet.data.Protocol;
 
 /**
- * Jetty HTTP server connector.
+ * Jetty HTTP server connector. When the {@link Protocol#H2C} protocol is
+ * declared by the server connector, HTTP/2 is also accepted over the cleartext
+ * connections, either with prior knowledge or via an HTTP/1.1 upgrade.
  * 
  * @author Jerome Louvel
  * @author Tal Liron
@@ -47,11 +50,18 @@ public class HttpServerHelper extends JettyServerHelper {
     public HttpServerHelper(Server server) {
         super(server);
         getProtocols().add(Protocol.HTTP);
+        getProtocols().add(Protocol.H2C);
     }
 
     @Override
     protected ConnectionFactory[] createConnectionFactories(final HttpConfiguration configuration) {
         // Create and configure the Jetty HTTP connector
+        if (isHttp2()) {
+            return new ConnectionFactory[] {
+                    new HttpConnectionFactory(configuration),
+                    configureHttp2(new HTTP2CServerConnectionFactory(configuration)) };
+        }
+
         return new ConnectionFactory[]{new HttpConnectionFactory(configuration) };
     }
 }
@@ -26,6 +26,9 @@ package org.restlet.ext.jetty;
 
 import java.util.logging.Level;
 
+import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.http.HttpVersion;
+import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
 import org.eclipse.jetty.server.AbstractConnectionFactory;
 import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.HttpConfiguration;
@@ -58,7 +61,12 @@ import org.restlet.ext.jetty.internal.RestletSslContextFactory;
  * </tr>
  * </table>
  * For the default SSL parameters see the Javadocs of the
- * {@link DefaultSslContextFactory} class.
+ * {@link DefaultSslContextFactory} class.<br>
+ * <br>
+ * When the {@link Protocol#H2} protocol is declared by the server connector,
+ * HTTP/2 is negotiated with the clients via ALPN, falling back to HTTP/1.1. This
+ * requires an ALPN implementation at runtime, such as the one provided by the
+ * JDK since Java 9.
  * 
  * @see <a href="https://eclipse.dev/jetty/documentation/jetty-9/index.html#configuring-ssl">How to
  *      configure SSL for Jetty</a>
@@ -76,6 +84,7 @@ public class HttpsServerHelper extends JettyServerHelper {
     public HttpsServerHelper(Server server) {
         super(server);
         getProtocols().add(Protocol.HTTPS);
+        getProtocols().add(Protocol.H2);
     }
 
     /**
@@ -91,6 +100,17 @@ public class HttpsServerHelper extends JettyServerHelper {
         try {
             org.eclipse.jetty.util.ssl.SslContextFactory sslContextFactory = new RestletSslContextFactory(
                     org.restlet.engine.ssl.SslUtils.getSslContextFactory(this));
+
+            if (isHttp2()) {
+                ALPNServerConnectionFactory alpn = new ALPNServerConnectionFactory(
+                        "h2", HttpVersion.HTTP_1_1.asString());
+                alpn.setDefaultProtocol(HttpVersion.HTTP_1_1.asString());
+                return AbstractConnectionFactory.getFactories(sslContextFactory,
+                        alpn,
+                        configureHttp2(new HTTP2ServerConnectionFactory(configuration)),
+                        new HttpConnectionFactory(configuration));
+            }
+
             return  AbstractConnectionFactory.getFactories(sslContextFactory,
                     new HttpConnectionFactory(configuration));
         } catch (Exception e) {
@@ -27,10 +27,12 @@ package org.restlet.ext.jetty;
 import java.io.IOException;
 import java.net.Socket;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import javax.servlet.ServletException;
 
+import org.eclipse.jetty.http2.server.AbstractHTTP2ServerConnectionFactory;
 import org.eclipse.jetty.io.ArrayByteBufferPool;
 import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.server.ConnectionFactory;
@@ -44,7 +46,10 @@ import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
 import org.eclipse.jetty.util.thread.Scheduler;
 import org.eclipse.jetty.util.thread.ThreadPool;
 import org.restlet.Server;
+import org.restlet.data.Protocol;
+import org.restlet.engine.util.VirtualThreadExecutorService;
 import org.restlet.ext.jetty.internal.JettyServerCall;
+import org.restlet.ext.jetty.internal.VirtualThreadPool;
 
 /**
  * Abstract Jetty web server connector. Here is the list of parameters that are
@@ -88,6 +93,13 @@ import org.restlet.ext.jetty.internal.JettyServerCall;
  * <td>Thread pool stop timeout in milliseconds; the maximum time allowed for the service to shutdown</td>
  * </tr>
  * <tr>
+ * <td>threadPool.virtualThreads</td>
+ * <td>boolean</td>
+ * <td>false</td>
+ * <td>Whether each job runs in a new virtual thread instead of a pooled thread; requires Java 21 or later, otherwise
+ * the regular thread pool is used; the other thread pool parameters are then ignored, except the stop timeout</td>
+ * </tr>
+ * <tr>
  * <td>connector.acceptors</td>
  * <td>int</td>
  * <td>-1</td>
@@ -157,6 +169,25 @@ import org.restlet.ext.jetty.internal.JettyServerCall;
  * processing the content</td>
  * </tr>
  * <tr>
+ * <td>http2.initialSessionWindowSize</td>
+ * <td>int</td>
+ * <td>1024*1024</td>
+ * <td>HTTP/2 initial receive flow control window of a session in bytes</td>
+ * </tr>
+ * <tr>
+ * <td>http2.initialStreamWindowSize</td>
+ * <td>int</td>
+ * <td>512*1024</td>
+ * <td>HTTP/2 initial receive flow control window of a stream in bytes</td>
+ * </tr>
+ * <tr>
+ * <td>http2.maxConcurrentStreams</td>
+ * <td>int</td>
+ * <td>128</td>
+ * <td>HTTP/2 max number of concurrent streams per connection; a larger value allows more requests to be multiplexed on
+ * a single connection</td>
+ * </tr>
+ * <tr>
  * <td>lowResource.period</td>
  * <td>int</td>
  * <td>1000</td>
@@ -194,6 +225,9 @@ import org.restlet.ext.jetty.internal.JettyServerCall;
  * <td>Low resource monitor stop timeout in milliseconds; the maximum time allowed for the service to shutdown</td>
  * </tr>
  * </table>
+ * HTTP/2 is enabled when the helped server connector declares the {@link Protocol#H2C} or {@link Protocol#H2}
+ * protocol. Connections are then multiplexed and HTTP/1.1 remains available for the clients that don't support
+ * HTTP/2.
  * 
  * @see <a href="https://eclipse.dev/jetty/documentation/jetty-9/index.html">Jetty SPDY and NPN page</a>
  * @author Jerome Louvel
@@ -283,6 +317,22 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
         return configuration;
     }
 
+    /**
+     * Configures a Jetty HTTP/2 connection factory based on the "http2.*"
+     * parameters.
+     * 
+     * @param factory
+     *            The HTTP/2 connection factory to configure.
+     * @return The configured HTTP/2 connection factory.
+     */
+    protected AbstractHTTP2ServerConnectionFactory configureHttp2(
+            AbstractHTTP2ServerConnectionFactory factory) {
+        factory.setInitialSessionRecvWindow(getHttp2InitialSessionWindowSize());
+        factory.setInitialStreamRecvWindow(getHttp2InitialStreamWindowSize());
+        factory.setMaxConcurrentStreams(getHttp2MaxConcurrentStreams());
+        return factory;
+    }
+
     /**
      * Creates new internal Jetty connection factories.
      * 
@@ -388,6 +438,13 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
      * @return A Jetty thread pool.
      */
     private ThreadPool createThreadPool() {
+        if (getThreadPoolVirtualThreads() && VirtualThreadExecutorService
+                .isSupported(getLogger(), "A queued thread pool")) {
+            final VirtualThreadPool threadPool = new VirtualThreadPool();
+            threadPool.setStopTimeout(getThreadPoolStopTimeout());
+            return threadPool;
+        }
+
         final QueuedThreadPool threadPool = new QueuedThreadPool();
         threadPool.setMinThreads(getThreadPoolMinThreads());
         threadPool.setMaxThreads(getThreadPoolMaxThreads());
@@ -549,6 +606,41 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
                 "http.responseHeaderSize", "8192"));
     }
 
+    /**
+     * HTTP/2 initial receive flow control window of a session in bytes.
+     * Defaults to 1024*1024.
+     * 
+     * @return HTTP/2 initial session window size.
+     */
+    public int getHttp2InitialSessionWindowSize() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.initialSessionWindowSize", "1048576"));
+    }
+
+    /**
+     * HTTP/2 initial receive flow control window of a stream in bytes. Defaults
+     * to 512*1024.
+     * 
+     * @return HTTP/2 initial stream window size.
+     */
+    public int getHttp2InitialStreamWindowSize() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.initialStreamWindowSize", "524288"));
+    }
+
+    /**
+     * HTTP/2 max number of concurrent streams per connection. Defaults to 128.
+     * <p>
+     * A larger value allows more requests to be multiplexed on a single connection, but lets a single client consume
+     * more worker threads.
+     * 
+     * @return HTTP/2 max concurrent streams.
+     */
+    public int getHttp2MaxConcurrentStreams() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.maxConcurrentStreams", "128"));
+    }
+
     /**
      * Low resource monitor idle timeout in milliseconds. Defaults to 1000.
      * <p>
@@ -674,6 +766,19 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
                 String.valueOf(Thread.NORM_PRIORITY)));
     }
 
+    /**
+     * Thread pool virtual threads. Defaults to false.
+     * <p>
+     * Whether each job runs in a new virtual thread, when running on Java 21
+     * or later.
+     * 
+     * @return Thread pool virtual threads.
+     */
+    public boolean getThreadPoolVirtualThreads() {
+        return Boolean.parseBoolean(getHelpedParameters().getFirstValue(
+                "threadPool.virtualThreads", "false"));
+    }
+
     /**
      * Returns the wrapped Jetty server.
      * 
@@ -685,6 +790,17 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
         return this.wrappedServer;
     }
 
+    /**
+     * Indicates if HTTP/2 is enabled, that is if the helped server connector
+     * declares the {@link Protocol#H2C} or {@link Protocol#H2} protocol.
+     * 
+     * @return True if HTTP/2 is enabled.
+     */
+    protected boolean isHttp2() {
+        List<Protocol> protocols = getHelped().getProtocols();
+        return protocols.contains(Protocol.H2C) || protocols.contains(Protocol.H2);
+    }
+
     /**
      * Sets the wrapped Jetty server.
      * 
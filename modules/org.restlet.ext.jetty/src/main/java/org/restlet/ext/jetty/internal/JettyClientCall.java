@@ -30,11 +30,14 @@ import java.io.OutputStream;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 import org.eclipse.jetty.client.HttpRequest;
+import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.InputStreamContentProvider;
 import org.eclipse.jetty.client.util.InputStreamResponseListener;
 import org.eclipse.jetty.http.HttpField;
@@ -64,6 +67,11 @@ public class JettyClientCall extends ClientCall {
      */
     private final HttpClientHelper clientHelper;
 
+    /**
+     * The failure status of an asynchronous call.
+     */
+    private volatile Status failure;
+
     /**
      * The wrapped HTTP request.
      */
@@ -113,6 +121,41 @@ public class JettyClientCall extends ClientCall {
         }
     }
 
+    /**
+     * Completes an asynchronous call once the response headers have been
+     * received, or once it failed, then invokes the callback. The response
+     * entity is streamed as its content is received.
+     * 
+     * @param request
+     *            The high-level request.
+     * @param response
+     *            The high-level response.
+     * @param callback
+     *            The callback invoked once the call is completed.
+     * @param httpResponse
+     *            The Jetty response or null if the call failed.
+     * @param failure
+     *            The failure or null.
+     */
+    private void complete(Request request, Response response,
+            Uniform callback, org.eclipse.jetty.client.api.Response httpResponse,
+            Throwable failure) {
+        if (failure != null) {
+            this.clientHelper.getLogger().log(Level.FINE,
+                    "An error occurred while processing the HTTP request.",
+                    failure);
+            this.failure = new Status(Status.CONNECTOR_ERROR_COMMUNICATION,
+                    failure);
+        } else {
+            this.httpResponse = httpResponse;
+        }
+
+        if (callback != null) {
+            // Transmit to the callback, if any
+            callback.handle(request, response);
+        }
+    }
+
     /**
      * Returns the HTTP request.
      * 
@@ -147,6 +190,12 @@ public class JettyClientCall extends ClientCall {
      */
     @Override
     public String getReasonPhrase() {
+        if (this.failure != null) {
+            return (this.failure.getThrowable() == null) ? this.failure
+                    .getReasonPhrase() : this.failure.getThrowable()
+                    .getMessage();
+        }
+
         final org.eclipse.jetty.client.api.Response httpResponse = getHttpResponse();
         return httpResponse == null ? null : httpResponse.getReason();
     }
@@ -241,9 +290,45 @@ public class JettyClientCall extends ClientCall {
      */
     @Override
     public int getStatusCode() {
+        if (this.failure != null) {
+            return this.failure.getCode();
+        }
+
         return getHttpResponse().getStatus();
     }
 
+    /**
+     * Sets the request entity and headers on the Jetty request.
+     * 
+     * @param request
+     *            The high-level request.
+     * @throws IOException
+     */
+    private void prepareRequest(Request request) throws IOException {
+        final Representation entity = request.getEntity();
+
+        // Request entity
+        if (entity != null && entity.isAvailable())
+            this.httpRequest.content(new InputStreamContentProvider(entity
+                    .getStream()));
+
+        // Set the request headers
+        for (Header header : getRequestHeaders()) {
+            final String name = header.getName();
+            switch (name) {
+            case HeaderConstants.HEADER_CONTENT_LENGTH:
+                // skip this header
+                break;
+            case HeaderConstants.HEADER_USER_AGENT:
+                this.httpRequest.agent(header.getValue());
+                break;
+            default:
+                this.httpRequest.header(name, header.getValue());
+                break;
+            }
+        }
+    }
+
     /**
      * Sends the request to the client. Commits the request line, headers and
      * optional entity and send them over the network.
@@ -257,28 +342,7 @@ public class JettyClientCall extends ClientCall {
         Status result = null;
 
         try {
-            final Representation entity = request.getEntity();
-
-            // Request entity
-            if (entity != null && entity.isAvailable())
-                this.httpRequest.content(new InputStreamContentProvider(entity
-                        .getStream()));
-
-            // Set the request headers
-            for (Header header : getRequestHeaders()) {
-                final String name = header.getName();
-                switch (name) {
-                case HeaderConstants.HEADER_CONTENT_LENGTH:
-                    // skip this header
-                    break;
-                case HeaderConstants.HEADER_USER_AGENT:
-                    this.httpRequest.agent(header.getValue());
-                    break;
-                default:
-                    this.httpRequest.header(name, header.getValue());
-                    break;
-                }
-            }
+            prepareRequest(request);
 
             // Ensure that the connection is active
             this.inputStreamResponseListener = new InputStreamResponseListener();
@@ -320,17 +384,80 @@ public class JettyClientCall extends ClientCall {
         return result;
     }
 
+    /**
+     * Sends the request without blocking. The callback is invoked by a thread
+     * of the Jetty client's executor once the response headers have been
+     * received, and the response entity is streamed as its content arrives, so
+     * that large entities aren't buffered in memory. Reading the entity from
+     * the callback is fine, but it must be read or released for the connection
+     * to be reused.
+     * 
+     * @param request
+     *            The high-level request.
+     * @param response
+     *            The high-level response.
+     * @param callback
+     *            The callback invoked once the call is completed.
+     * @throws Exception
+     */
     @Override
-    public void sendRequest(Request request, Response response, Uniform callback)
-            throws Exception {
-        sendRequest(request);
+    public void sendRequest(final Request request, final Response response,
+            final Uniform callback) throws Exception {
+        prepareRequest(request);
+
+        final Uniform onSent = request.getOnSent();
+
+        if (onSent != null) {
+            this.httpRequest
+                    .onRequestSuccess(new org.eclipse.jetty.client.api.Request.SuccessListener() {
+                        @Override
+                        public void onSuccess(
+                                org.eclipse.jetty.client.api.Request httpRequest) {
+                            onSent.handle(request, response);
+                        }
+                    });
+        }
 
-        final Uniform getOnSent = request.getOnSent();
-        if (getOnSent != null)
-            getOnSent.handle(request, response);
+        final Executor executor = this.clientHelper.getHttpClient()
+                .getExecutor();
+        this.inputStreamResponseListener = new InputStreamResponseListener() {
+            private final AtomicBoolean notified = new AtomicBoolean();
+
+            /**
+             * Completes the call on another thread than the Jetty one
+             * receiving the content, so that the callback can read the
+             * entity.
+             */
+            private void notify(
+                    final org.eclipse.jetty.client.api.Response httpResponse,
+                    final Throwable failure) {
+                if (this.notified.compareAndSet(false, true)) {
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            complete(request, response, callback, httpResponse,
+                                    failure);
+                        }
+                    });
+                }
+            }
 
-        if (callback != null)
-            // Transmit to the callback, if any
-            callback.handle(request, response);
+            @Override
+            public void onComplete(Result result) {
+                super.onComplete(result);
+
+                if (result.isFailed()) {
+                    // Ignored if the headers were already received
+                    notify(null, result.getFailure());
+                }
+            }
+
+            @Override
+            public void onHeaders(
+                    org.eclipse.jetty.client.api.Response httpResponse) {
+                super.onHeaders(httpResponse);
+                notify(httpResponse, null);
+            }
+        };
+        this.httpRequest.send(this.inputStreamResponseListener);
     }
 }
@@ -29,6 +29,7 @@ import static org.restlet.engine.util.StringUtils.isNullOrEmpty;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
 import java.security.cert.Certificate;
 import java.util.Arrays;
 import java.util.Enumeration;
@@ -37,12 +38,16 @@ import java.util.logging.Level;
 
 import org.eclipse.jetty.io.EofException;
 import org.eclipse.jetty.server.HttpChannel;
+import org.eclipse.jetty.server.HttpOutput;
 import org.restlet.Response;
 import org.restlet.Server;
 import org.restlet.data.Header;
 import org.restlet.data.Status;
 import org.restlet.engine.adapter.ServerCall;
 import org.restlet.engine.header.HeaderConstants;
+import org.restlet.engine.io.FileRegion;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.representation.Representation;
 import org.restlet.util.Series;
 
 /**
@@ -252,6 +257,15 @@ public class JettyServerCall extends ServerCall {
         return null;
     }
 
+    /**
+     * Returns the protocol version used by the request, for example "HTTP/2.0"
+     * when the connection was upgraded to HTTP/2.
+     */
+    @Override
+    public String getVersion() {
+        return getChannel().getRequest().getProtocol();
+    }
+
     /**
      * Indicates if the request was made using a confidential mean.<br>
      * 
@@ -312,4 +326,28 @@ public class JettyServerCall extends ServerCall {
             }
         }
     }
+
+    /**
+     * Writes the response body. Files and byte ranges of files larger than the
+     * output buffer are handed to Jetty as a channel limited to the region.
+     * Jetty reads the channel into its own pooled buffers and writes them out,
+     * which avoids the intermediate stream copies of the default path but
+     * still copies the content once into user-space memory.
+     */
+    @Override
+    protected void writeResponseBody(Representation entity,
+            OutputStream responseEntityStream) throws IOException {
+        FileRegion region = IoUtils.getFileRegion(entity);
+
+        if ((region != null)
+                && (responseEntityStream instanceof HttpOutput)
+                && (region.getCount() > getChannel().getHttpConfiguration()
+                        .getOutputBufferSize())) {
+            try (ReadableByteChannel channel = region.openRegion()) {
+                ((HttpOutput) responseEntityStream).sendContent(channel);
+            }
+        } else {
+            super.writeResponseBody(entity, responseEntityStream);
+        }
+    }
 }
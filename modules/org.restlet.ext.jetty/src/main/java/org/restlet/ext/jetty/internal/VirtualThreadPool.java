@@ -0,0 +1,134 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.ext.jetty.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.restlet.engine.util.VirtualThreadExecutorService;
+
+/**
+ * Jetty thread pool starting a new virtual thread for each job. It is never
+ * low on threads, so blocking handlers don't limit the number of concurrent
+ * calls. Requires Java 21 or later.
+ */
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+
+    /** The number of jobs currently running. */
+    private final AtomicInteger activeThreads;
+
+    /** The virtual thread executor, available once started. */
+    private volatile ExecutorService executor;
+
+    /**
+     * Constructor.
+     */
+    public VirtualThreadPool() {
+        this.activeThreads = new AtomicInteger();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        this.executor = VirtualThreadExecutorService
+                .newVirtualThreadPerTaskExecutor();
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        this.executor.shutdown();
+
+        if (!this.executor.awaitTermination(getStopTimeout(),
+                TimeUnit.MILLISECONDS)) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void execute(final Runnable job) {
+        ExecutorService executor = this.executor;
+
+        if (executor == null) {
+            throw new RejectedExecutionException("Thread pool not started");
+        }
+
+        executor.execute(new Runnable() {
+            public void run() {
+                activeThreads.incrementAndGet();
+
+                try {
+                    job.run();
+                } finally {
+                    activeThreads.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns zero as virtual threads are never kept idle.
+     * 
+     * @return Zero.
+     */
+    @Override
+    public int getIdleThreads() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of virtual threads currently running a job.
+     * 
+     * @return The number of virtual threads currently running a job.
+     */
+    @Override
+    public int getThreads() {
+        return this.activeThreads.get();
+    }
+
+    /**
+     * Returns false as a new virtual thread can always be started.
+     * 
+     * @return False.
+     */
+    @Override
+    public boolean isLowOnThreads() {
+        return false;
+    }
+
+    @Override
+    public void join() throws InterruptedException {
+        ExecutorService executor = this.executor;
+
+        if (executor != null) {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+    }
+
+}
@@ -29,7 +29,9 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -46,7 +48,10 @@ import org.restlet.Server;
 import org.restlet.data.Method;
 import org.restlet.data.Protocol;
 import org.restlet.engine.Engine;
+import org.restlet.engine.adapter.HttpRequest;
+import org.restlet.engine.adapter.HttpResponse;
 import org.restlet.engine.adapter.HttpServerHelper;
+import org.restlet.engine.adapter.ServerAdapter;
 import org.restlet.engine.adapter.ServerCall;
 import org.restlet.engine.component.ComponentContext;
 import org.restlet.ext.servlet.internal.ServletCall;
@@ -233,9 +238,21 @@ import org.restlet.routing.VirtualHost;
  * "org.restlet.ext.servlet.ServletContext" attribute of the Restlet application
  * in case you need access to it.<br>
  * <br>
- * Finally, an "org.restlet.ext.servlet.offsetPath" attribute, containing the
- * computed offset path used to attach applications when (and only when) the
- * auto-wiring feature is set, is added to the component's context.
+ * An "org.restlet.ext.servlet.offsetPath" attribute, containing the computed
+ * offset path used to attach applications when (and only when) the auto-wiring
+ * feature is set, is added to the component's context.<br>
+ * <br>
+ * Finally, setting the "org.restlet.async" parameter to "true" enables the
+ * asynchronous mode, provided that the Servlet is declared with
+ * "&lt;async-supported&gt;true&lt;/async-supported&gt;". Each call is then
+ * detached from the container thread with {@code startAsync()} and handled by
+ * the component's task service. Request entities up to
+ * "org.restlet.asyncBufferSize" bytes (65536 by default) are read without
+ * blocking before the call is dispatched, and large response entities are
+ * written without blocking. Responses that aren't auto-committing can be
+ * committed later by calling {@link Response#commit()}, for example from a
+ * callback. The optional "org.restlet.asyncTimeout" parameter sets the timeout
+ * of the asynchronous context in milliseconds.
  * 
  * @author Jerome Louvel
  */
@@ -246,6 +263,28 @@ public class ServerServlet extends HttpServlet {
      */
     private static final String APPLICATION_KEY = "org.restlet.application";
 
+    /**
+     * The Servlet context initialization parameter's name containing the
+     * maximum size of the request entities read without blocking in
+     * asynchronous mode.
+     */
+    private static final String ASYNC_BUFFER_SIZE_KEY = "org.restlet.asyncBufferSize";
+
+    /** The default value for the ASYNC_BUFFER_SIZE_KEY parameter. */
+    private static final String ASYNC_BUFFER_SIZE_KEY_DEFAULT = "65536";
+
+    /**
+     * The Servlet context initialization parameter's name containing a boolean
+     * value. "true" indicates that calls are handled asynchronously.
+     */
+    private static final String ASYNC_KEY = "org.restlet.async";
+
+    /**
+     * The Servlet context initialization parameter's name containing the
+     * timeout of the asynchronous context in milliseconds.
+     */
+    private static final String ASYNC_TIMEOUT_KEY = "org.restlet.asyncTimeout";
+
     /**
      * The Servlet context initialization parameter's name containing a boolean
      * value. "true" indicates that all applications will be attached to the
@@ -954,6 +993,46 @@ public class ServerServlet extends HttpServlet {
         return result;
     }
 
+    /**
+     * Handles an asynchronous call on the current thread. The response is
+     * committed once the call has been handled, unless it isn't
+     * auto-committing. In this case, calling {@link Response#commit()} later
+     * sends the response and completes the asynchronous context.
+     * 
+     * @param helper
+     *            The HTTP server helper.
+     * @param call
+     *            The asynchronous Servlet call.
+     */
+    protected void handle(HttpServerHelper helper, ServletCall call) {
+        try {
+            final ServerAdapter adapter = helper.getAdapter();
+            HttpRequest request = adapter.toRequest(call);
+            HttpResponse response = new HttpResponse(call, request) {
+                private final AtomicBoolean committed = new AtomicBoolean();
+
+                @Override
+                public void commit() {
+                    if (this.committed.compareAndSet(false, true)) {
+                        adapter.commit(this);
+                    }
+                }
+            };
+
+            helper.handle(request, response);
+
+            if (response.isAutoCommitting()) {
+                response.commit();
+            }
+        } catch (Throwable t) {
+            log("[Restlet] Error while handling an asynchronous call", t);
+            call.getResponse().setStatus(500);
+            call.complete();
+        } finally {
+            Engine.clearThreadLocalVariables();
+        }
+    }
+
     @Override
     public void init() throws ServletException {
         if ((getComponent() != null) && (getComponent().isStopped())) {
@@ -1113,10 +1192,70 @@ public class ServerServlet extends HttpServlet {
         HttpServerHelper helper = getServer(request);
 
         if (helper != null) {
-            helper.handle(createCall(helper.getHelped(), request, response));
+            if (request.isAsyncSupported()
+                    && Boolean.parseBoolean(getInitParameter(ASYNC_KEY, "false"))) {
+                serviceAsync(helper, request, response);
+            } else {
+                helper.handle(createCall(helper.getHelped(), request, response));
+            }
         } else {
             log("[Restlet] Unable to get the Restlet HTTP server connector. Status code 500 returned.");
             response.sendError(500);
         }
     }
+
+    /**
+     * Services a HTTP Servlet request as an asynchronous uniform call. The
+     * container thread is released as soon as the call has been dispatched to
+     * the component's task service, after reading small request entities
+     * without blocking.
+     * 
+     * @param helper
+     *            The HTTP server helper.
+     * @param request
+     *            The HTTP Servlet request.
+     * @param response
+     *            The HTTP Servlet response.
+     * @throws IOException
+     */
+    protected void serviceAsync(final HttpServerHelper helper,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ServerCall call = createCall(helper.getHelped(), request, response);
+
+        if (!(call instanceof ServletCall)) {
+            helper.handle(call);
+            return;
+        }
+
+        final ServletCall servletCall = (ServletCall) call;
+        AsyncContext asyncContext = request.startAsync(request, response);
+        String timeout = getInitParameter(ASYNC_TIMEOUT_KEY, null);
+
+        if (timeout != null) {
+            asyncContext.setTimeout(Long.parseLong(timeout));
+        }
+
+        servletCall.setAsyncContext(asyncContext);
+
+        final Runnable dispatch = new Runnable() {
+            public void run() {
+                getComponent().getTaskService().execute(new Runnable() {
+                    public void run() {
+                        handle(helper, servletCall);
+                    }
+                });
+            }
+        };
+
+        long size = request.getContentLengthLong();
+
+        if ((size > 0)
+                && (size <= Long.parseLong(getInitParameter(
+                        ASYNC_BUFFER_SIZE_KEY, ASYNC_BUFFER_SIZE_KEY_DEFAULT)))) {
+            servletCall.readRequestEntity(dispatch);
+        } else {
+            dispatch.run();
+        }
+    }
 }
@@ -24,6 +24,8 @@
 
 package org.restlet.ext.servlet.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -35,8 +37,14 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -49,11 +57,17 @@ import org.restlet.data.Protocol;
 import org.restlet.data.Status;
 import org.restlet.engine.Edition;
 import org.restlet.engine.adapter.ServerCall;
+import org.restlet.engine.connector.ConnectorHelper;
 import org.restlet.engine.header.HeaderConstants;
 import org.restlet.engine.header.LanguageReader;
+import org.restlet.engine.header.LazyHeaderSeries;
+import org.restlet.engine.io.IoUtils;
 import org.restlet.engine.io.UnclosableInputStream;
 import org.restlet.engine.io.UnclosableOutputStream;
+import org.restlet.representation.OutputRepresentation;
 import org.restlet.representation.Representation;
+import org.restlet.representation.WriterRepresentation;
+import org.restlet.service.ConnectorService;
 import org.restlet.util.Series;
 
 /**
@@ -63,15 +77,27 @@ import org.restlet.util.Series;
  */
 public class ServletCall extends ServerCall {
 
+    /** The asynchronous context, if the call is processed asynchronously. */
+    private volatile AsyncContext asyncContext;
+
+    /** Indicates if the asynchronous context has been completed. */
+    private final AtomicBoolean completed = new AtomicBoolean();
+
     /** The HTTP Servlet request to wrap. */
     private volatile HttpServletRequest request;
 
+    /** The request entity read without blocking, if any. */
+    private volatile byte[] requestEntity;
+
     /** The request headers. */
     private volatile Series<Header> requestHeaders;
 
     /** The HTTP Servlet response to wrap. */
     private volatile HttpServletResponse response;
 
+    /** Indicates if the response entity is being written without blocking. */
+    private volatile boolean writing;
+
     /**
      * Constructor.
      * 
@@ -116,11 +142,33 @@ public class ServletCall extends ServerCall {
         return false;
     }
 
+    /**
+     * Completes the asynchronous context, if any, unless the response entity
+     * is still being written without blocking.
+     */
+    @Override
+    public void complete() {
+        if ((getAsyncContext() != null) && !this.writing
+                && this.completed.compareAndSet(false, true)) {
+            getAsyncContext().complete();
+        }
+    }
+
     @Override
     public void flushBuffers() throws IOException {
         getResponse().flushBuffer();
     }
 
+    /**
+     * Returns the asynchronous context, if the call is processed
+     * asynchronously.
+     * 
+     * @return The asynchronous context or null.
+     */
+    public AsyncContext getAsyncContext() {
+        return this.asyncContext;
+    }
+
     @Override
     public List<Certificate> getCertificates() {
         Certificate[] certificateArray = (Certificate[]) getRequest()
@@ -192,7 +240,8 @@ public class ServletCall extends ServerCall {
     public Representation getRequestEntity() {
         Representation result = null;
 
-        if (getRequest().getContentType() != null
+        if ((this.requestEntity == null)
+                && (getRequest().getContentType() != null)
                 && MediaType.APPLICATION_WWW_FORM.isCompatible(new MediaType(
                         getRequest().getContentType()))) {
             Form form = new Form();
@@ -223,6 +272,10 @@ public class ServletCall extends ServerCall {
 
     @Override
     public InputStream getRequestEntityStream(long size) {
+        if (this.requestEntity != null) {
+            return new ByteArrayInputStream(this.requestEntity);
+        }
+
         try {
             return new UnclosableInputStream(getRequest().getInputStream());
         } catch (IOException e) {
@@ -238,7 +291,7 @@ public class ServletCall extends ServerCall {
     @Override
     public Series<Header> getRequestHeaders() {
         if (this.requestHeaders == null) {
-            this.requestHeaders = new Series<Header>(Header.class);
+            this.requestHeaders = new LazyHeaderSeries();
 
             // Copy the headers from the request object
             String headerName;
@@ -387,6 +440,95 @@ public class ServletCall extends ServerCall {
         return getRequest().isSecure();
     }
 
+    /**
+     * Indicates if the given response entity should be written without
+     * blocking. This is the case for asynchronous calls whose entity doesn't
+     * fit in the response buffer and that can provide an input stream without
+     * spawning a pipe thread.
+     * 
+     * @param entity
+     *            The response entity.
+     * @return True if the entity should be written without blocking.
+     */
+    private boolean isNonBlockingWrite(Representation entity) {
+        return (getAsyncContext() != null)
+                && (entity != null)
+                && entity.isAvailable()
+                && !(entity instanceof OutputRepresentation)
+                && !(entity instanceof WriterRepresentation)
+                && ((entity.getSize() == Representation.UNKNOWN_SIZE) || (entity
+                        .getSize() > getResponse().getBufferSize()));
+    }
+
+    /**
+     * Reads the request entity without blocking the current thread, then
+     * invokes the given callback. The entity is buffered in memory, so this
+     * should only be used for entities of limited size. Requires an
+     * asynchronous context.
+     * 
+     * @param onRead
+     *            The callback invoked once the entity has been fully read.
+     * @throws IOException
+     */
+    public void readRequestEntity(final Runnable onRead) throws IOException {
+        final ServletInputStream inputStream = getRequest().getInputStream();
+        final ByteArrayOutputStream entity = new ByteArrayOutputStream(
+                Math.max(getRequest().getContentLength(), 0));
+
+        inputStream.setReadListener(new ReadListener() {
+            private final byte[] buffer = new byte[IoUtils.BUFFER_SIZE];
+
+            public void onAllDataRead() throws IOException {
+                requestEntity = entity.toByteArray();
+                onRead.run();
+            }
+
+            public void onDataAvailable() throws IOException {
+                int read;
+
+                while (inputStream.isReady() && !inputStream.isFinished()) {
+                    read = inputStream.read(this.buffer);
+
+                    if (read == -1) {
+                        break;
+                    }
+
+                    entity.write(this.buffer, 0, read);
+                }
+            }
+
+            public void onError(Throwable t) {
+                getLogger().log(Level.INFO,
+                        "Unable to read the request entity", t);
+                sendError(HttpServletResponse.SC_BAD_REQUEST);
+                complete();
+            }
+        });
+    }
+
+    /**
+     * Sends an error status for an asynchronous call that failed while reading
+     * the request entity or writing the response entity. Once the response is
+     * committed, the status can't be changed anymore and the client only sees
+     * the connection being closed.
+     * 
+     * @param statusCode
+     *            The error status code.
+     */
+    private void sendError(int statusCode) {
+        if (getResponse().isCommitted()) {
+            getLogger().log(Level.FINE,
+                    "Unable to send the error status, the response is committed");
+        } else {
+            try {
+                getResponse().sendError(statusCode);
+            } catch (IOException | IllegalStateException e) {
+                getLogger().log(Level.FINE,
+                        "Unable to send the error status", e);
+            }
+        }
+    }
+
     /**
      * Sends the response back to the client. Commits the status, headers and
      * optional entity and send them on the network.
@@ -451,8 +593,98 @@ public class ServletCall extends ServerCall {
                         contentLengthHeader.getValue());
             }
 
-            super.sendResponse(response);
+            if (isNonBlockingWrite(response.getEntity())) {
+                writeResponseEntity(response.getEntity());
+            } else {
+                super.sendResponse(response);
+            }
+        }
+    }
+
+    /**
+     * Sets the asynchronous context. Once set, the call is completed when the
+     * response has been fully written.
+     * 
+     * @param asyncContext
+     *            The asynchronous context.
+     */
+    public void setAsyncContext(AsyncContext asyncContext) {
+        this.asyncContext = asyncContext;
+    }
+
+    /**
+     * Writes the response entity without blocking, each time the container
+     * signals that the output stream is ready. The asynchronous context is
+     * completed once the entity has been fully written.
+     * 
+     * @param entity
+     *            The response entity.
+     * @throws IOException
+     */
+    private void writeResponseEntity(final Representation entity)
+            throws IOException {
+        final ConnectorService connectorService = ConnectorHelper
+                .getConnectorService();
+
+        if (connectorService != null) {
+            connectorService.beforeSend(entity);
         }
+
+        final InputStream inputStream = entity.getStream();
+        final ServletOutputStream outputStream = getResponse()
+                .getOutputStream();
+        this.writing = true;
+
+        outputStream.setWriteListener(new WriteListener() {
+            private final byte[] buffer = new byte[IoUtils.BUFFER_SIZE];
+
+            /**
+             * Releases the entity and completes the asynchronous context.
+             */
+            private void finish() {
+                if (!writing) {
+                    return;
+                }
+
+                try {
+                    inputStream.close();
+                } catch (IOException ioe) {
+                    getLogger().log(Level.FINE,
+                            "Unable to close the response entity stream", ioe);
+                }
+
+                entity.release();
+
+                if (connectorService != null) {
+                    connectorService.afterSend(entity);
+                }
+
+                writing = false;
+                complete();
+            }
+
+            public void onError(Throwable t) {
+                getLogger().log(Level.INFO,
+                        "Unable to write the response entity", t);
+                sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                finish();
+            }
+
+            public void onWritePossible() throws IOException {
+                int read;
+
+                while (outputStream.isReady()) {
+                    read = inputStream.read(this.buffer);
+
+                    if (read == -1) {
+                        finish();
+                        break;
+                    }
+
+                    outputStream.write(this.buffer, 0, read);
+                }
+            }
+        });
     }
 
 }
@@ -28,8 +28,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
 
+import javax.xml.parsers.DocumentBuilder;
+
 import org.restlet.data.CharacterSet;
 import org.restlet.data.MediaType;
+import org.restlet.ext.xml.internal.XmlFactories;
 import org.restlet.representation.Representation;
 import org.w3c.dom.Document;
 import org.w3c.dom.DocumentType;
@@ -67,7 +70,13 @@ public class DomRepresentation extends XmlRepresentation {
      */
     public DomRepresentation(MediaType mediaType) throws IOException {
         super(mediaType);
-        this.document = getDocumentBuilder().newDocument();
+        DocumentBuilder documentBuilder = getDocumentBuilder();
+
+        try {
+            this.document = documentBuilder.newDocument();
+        } finally {
+            XmlFactories.checkin(documentBuilder);
+        }
     }
 
     /**
@@ -98,15 +107,15 @@ public class DomRepresentation extends XmlRepresentation {
     /**
      * Creates a new JAXP Transformer object that will be used to serialize this
      * DOM. This method may be overridden to set custom properties on
-     * the Transformer.
+     * the Transformer. By default, a pooled identity transformer is reused.
      * 
      * @return The transformer to be used for serialization.
      */
     protected javax.xml.transform.Transformer createTransformer()
             throws IOException {
         try {
-            javax.xml.transform.Transformer transformer = javax.xml.transform.TransformerFactory
-                    .newInstance().newTransformer();
+            javax.xml.transform.Transformer transformer = XmlFactories
+                    .checkoutTransformer();
             transformer.setOutputProperty(
                     javax.xml.transform.OutputKeys.METHOD, "xml");
             transformer.setOutputProperty(
@@ -156,14 +165,18 @@ public class DomRepresentation extends XmlRepresentation {
     @Override
     public Document getDocument() throws IOException {
         if (this.document == null) {
-            if (this.xmlRepresentation != null) {
-                try {
-                    this.document = getDocumentBuilder().parse(getInputSource());
-                } catch (SAXException se) {
-                    throw new IOException("Couldn't read the XML representation. " + se.getMessage());
+            DocumentBuilder documentBuilder = getDocumentBuilder();
+
+            try {
+                if (this.xmlRepresentation != null) {
+                    this.document = documentBuilder.parse(getInputSource());
+                } else {
+                    this.document = documentBuilder.newDocument();
                 }
-            } else {
-                this.document = getDocumentBuilder().newDocument();
+            } catch (SAXException se) {
+                throw new IOException("Couldn't read the XML representation. " + se.getMessage());
+            } finally {
+                XmlFactories.checkin(documentBuilder);
             }
         }
 
@@ -237,9 +250,14 @@ public class DomRepresentation extends XmlRepresentation {
         try {
             if (getDocument() != null) {
                 final javax.xml.transform.Transformer transformer = createTransformer();
-                transformer.transform(new javax.xml.transform.dom.DOMSource(
-                        getDocument()),
-                        new javax.xml.transform.stream.StreamResult(writer));
+
+                try {
+                    transformer.transform(
+                            new javax.xml.transform.dom.DOMSource(getDocument()),
+                            new javax.xml.transform.stream.StreamResult(writer));
+                } finally {
+                    XmlFactories.checkin(transformer);
+                }
             }
         } catch (javax.xml.transform.TransformerConfigurationException tce) {
             throw new IOException("Couldn't write the XML representation: "
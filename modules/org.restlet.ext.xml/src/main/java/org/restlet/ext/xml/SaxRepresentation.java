@@ -27,18 +27,16 @@ package org.restlet.ext.xml;
 import java.io.IOException;
 import java.io.Writer;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.Result;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.sax.SAXSource;
 
 import org.restlet.data.MediaType;
+import org.restlet.ext.xml.internal.XmlFactories;
 import org.restlet.representation.Representation;
 import org.w3c.dom.Document;
 import org.xml.sax.ContentHandler;
@@ -174,28 +172,7 @@ public class SaxRepresentation extends XmlRepresentation {
                         .getSaxSource();
             } else {
                 try {
-                    SAXParserFactory spf = SAXParserFactory.newInstance();
-                    spf.setNamespaceAware(isNamespaceAware());
-
-                    // Keep before the external entity preferences
-                    spf.setValidating(isValidatingDtd());
-
-                    javax.xml.validation.Schema xsd = getSchema();
-
-                    if (xsd != null) {
-                        spf.setSchema(xsd);
-                    }
-
-                    spf.setXIncludeAware(isXIncludeAware());
-                    spf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING,
-                            isSecureProcessing());
-                    spf.setFeature(
-                            "http://xml.org/sax/features/external-general-entities",
-                            isExpandingEntityRefs());
-                    spf.setFeature(
-                            "http://xml.org/sax/features/external-parameter-entities",
-                            isExpandingEntityRefs());
-                    XMLReader xmlReader = spf.newSAXParser().getXMLReader();
+                    XMLReader xmlReader = XmlFactories.newXmlReader(this);
                     this.source = new SAXSource(xmlReader, new InputSource(
                             xmlRepresentation.getReader()));
                 } catch (Exception e) {
@@ -232,8 +209,14 @@ public class SaxRepresentation extends XmlRepresentation {
         if (contentHandler != null) {
             try {
                 Result result = new SAXResult(contentHandler);
-                TransformerFactory.newInstance().newTransformer()
-                        .transform(getSaxSource(), result);
+                javax.xml.transform.Transformer transformer = XmlFactories
+                        .checkoutTransformer();
+
+                try {
+                    transformer.transform(getSaxSource(), result);
+                } finally {
+                    XmlFactories.checkin(transformer);
+                }
             } catch (TransformerConfigurationException tce) {
                 throw new IOException(
                         "Couldn't parse the source representation: "
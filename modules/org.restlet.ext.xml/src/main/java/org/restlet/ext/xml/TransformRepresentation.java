@@ -36,7 +36,6 @@ import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.URIResolver;
 import javax.xml.transform.sax.SAXResult;
@@ -44,11 +43,12 @@ import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.sax.SAXTransformerFactory;
 import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
-import javax.xml.transform.stream.StreamSource;
 
 import org.restlet.Context;
 import org.restlet.ext.xml.internal.AbstractXmlReader;
 import org.restlet.ext.xml.internal.ContextResolver;
+import org.restlet.ext.xml.internal.TemplatesCache;
+import org.restlet.ext.xml.internal.XmlFactories;
 import org.restlet.representation.Representation;
 import org.restlet.representation.WriterRepresentation;
 import org.xml.sax.InputSource;
@@ -121,8 +121,10 @@ public class TransformRepresentation extends WriterRepresentation {
             result = new SAXSource(reader, new InputSource(
                     representation.getReader()));
         } else {
-            // Prepare the source and result documents
-            result = new SAXSource(new InputSource(representation.getReader()));
+            // Stream the source document through a cached SAX parser
+            SaxRepresentation source = new SaxRepresentation(representation);
+            source.setNamespaceAware(true);
+            result = source.getSaxSource();
         }
 
         // Copy the representation's URI as an XML system ID.
@@ -134,6 +136,12 @@ public class TransformRepresentation extends WriterRepresentation {
         return result;
     }
 
+    /**
+     * The context holding the cache of compiled transform sheets. The current
+     * context is used if null.
+     */
+    private volatile Context context;
+
     /** The transformer's error listener. */
     private volatile ErrorListener errorListener;
 
@@ -170,6 +178,7 @@ public class TransformRepresentation extends WriterRepresentation {
             Representation transformSheet) {
         this((context == null) ? null : new ContextResolver(context), source,
                 transformSheet);
+        this.context = context;
     }
 
     /**
@@ -277,17 +286,6 @@ public class TransformRepresentation extends WriterRepresentation {
         return toSaxSource(getSourceRepresentation());
     }
 
-    /**
-     * Returns the default SAX transformer factory.
-     * 
-     * @return The default SAX transformer factory.
-     */
-    private SAXTransformerFactory getSaxTransformerFactory() {
-        SAXTransformerFactory result = (SAXTransformerFactory) TransformerFactory
-                .newInstance();
-        return result;
-    }
-
     /**
      * Returns the source representation to transform.
      * 
@@ -298,9 +296,10 @@ public class TransformRepresentation extends WriterRepresentation {
     }
 
     /**
-     * Returns the templates to be used and reused. If no one exists, it creates
-     * a new one based on the transformSheet representation and on the URI
-     * resolver.
+     * Returns the templates to be used and reused. If no one exists, it
+     * retrieves the compiled transform sheet from the cache of the context,
+     * compiling it with the URI resolver if necessary. The transform sheet is
+     * recompiled when its tag or modification date changes.
      * 
      * @return The templates to be used and reused.
      */
@@ -308,27 +307,17 @@ public class TransformRepresentation extends WriterRepresentation {
         if (this.templates == null) {
             if (getTransformSheet() != null) {
                 try {
-                    // Prepare the XSLT transformer documents
-                    final StreamSource transformSource = new StreamSource(
-                            getTransformSheet().getStream());
-
-                    if (getTransformSheet().getLocationRef() != null) {
-                        transformSource.setSystemId(getTransformSheet()
-                                .getLocationRef().getTargetRef().toString());
-                    }
-
-                    // Create the transformer factory
-                    final TransformerFactory transformerFactory = TransformerFactory
-                            .newInstance();
-
-                    // Set the URI resolver
-                    if (getUriResolver() != null) {
-                        transformerFactory.setURIResolver(getUriResolver());
+                    TemplatesCache cache = TemplatesCache
+                            .getInstance((this.context == null) ? Context
+                                    .getCurrent() : this.context);
+
+                    if (cache == null) {
+                        this.templates = TemplatesCache.compile(
+                                getTransformSheet(), getUriResolver());
+                    } else {
+                        this.templates = cache.getTemplates(
+                                getTransformSheet(), getUriResolver());
                     }
-
-                    // Create a new transformer
-                    this.templates = transformerFactory
-                            .newTemplates(transformSource);
                 } catch (TransformerConfigurationException tce) {
                     throw new IOException(
                             "Transformer configuration exception. "
@@ -395,12 +384,16 @@ public class TransformRepresentation extends WriterRepresentation {
         Templates templates = getTemplates();
 
         if (templates != null) {
+            SAXTransformerFactory transformerFactory = (SAXTransformerFactory) XmlFactories
+                    .checkoutTransformerFactory();
+
             try {
-                result = getSaxTransformerFactory().newTransformerHandler(
-                        templates);
+                result = transformerFactory.newTransformerHandler(templates);
             } catch (TransformerConfigurationException tce) {
                 throw new IOException("Transformer configuration exception. "
                         + tce.getMessage());
+            } finally {
+                XmlFactories.checkin(transformerFactory);
             }
         }
 
@@ -436,11 +429,16 @@ public class TransformRepresentation extends WriterRepresentation {
         final Templates templates = getTemplates();
 
         if (templates != null) {
+            SAXTransformerFactory transformerFactory = (SAXTransformerFactory) XmlFactories
+                    .checkoutTransformerFactory();
+
             try {
-                result = getSaxTransformerFactory().newXMLFilter(templates);
+                result = transformerFactory.newXMLFilter(templates);
             } catch (TransformerConfigurationException tce) {
                 throw new IOException("Transformer configuration exception. "
                         + tce.getMessage());
+            } finally {
+                XmlFactories.checkin(transformerFactory);
             }
         }
 
@@ -554,14 +552,16 @@ public class TransformRepresentation extends WriterRepresentation {
      * @throws IOException
      */
     public void transform(Source source, Result result) throws IOException {
-        if (getTransformer() == null) {
+        Transformer transformer = getTransformer();
+
+        if (transformer == null) {
             Context.getCurrentLogger()
                     .warning(
                             "Unable to apply the transformation. No transformer found!");
         } else {
             try {
                 // Generates the result of the transformation
-                getTransformer().transform(source, result);
+                transformer.transform(source, result);
             } catch (TransformerException te) {
                 throw new IOException("Transformer exception. "
                         + te.getMessage());
@@ -39,7 +39,8 @@ import org.restlet.routing.Filter;
 /**
  * Filter that can transform XML representations by applying an XSLT transform
  * sheet. It uses the {@link org.restlet.representation.TransformRepresentation}
- * to actually transform the XML entities.<br>
+ * to actually transform the XML entities. The transform sheet is compiled once
+ * and cached in the context until its tag or modification date changes.<br>
  * <br>
  * Concurrency note: instances of this class or its subclasses can be invoked by
  * several threads at the same time and therefore must be thread-safe. You
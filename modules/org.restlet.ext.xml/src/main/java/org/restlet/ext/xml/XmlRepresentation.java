@@ -35,13 +35,11 @@ import java.util.logging.Level;
 
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathFactory;
 
 import org.restlet.Context;
 import org.restlet.data.MediaType;
+import org.restlet.ext.xml.internal.XmlFactories;
 import org.restlet.representation.Representation;
 import org.restlet.representation.WriterRepresentation;
 import org.w3c.dom.Document;
@@ -82,6 +80,22 @@ public abstract class XmlRepresentation extends WriterRepresentation implements
     public final static boolean XML_VALIDATING_DTD = Boolean
             .getBoolean("org.restlet.ext.xml.validatingDtd");
 
+    /**
+     * Indicates for each subclass if it overrides the resolution of namespace
+     * prefixes, in which case compiled XPath expressions aren't reused.
+     */
+    private static final ClassValue<Boolean> customNamespaceContexts = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("getNamespaceURI", String.class)
+                        .getDeclaringClass() != XmlRepresentation.class;
+            } catch (NoSuchMethodException e) {
+                return Boolean.TRUE;
+            }
+        }
+    };
+
     /**
      * Appends the text content of a given node and its descendants to the given
      * buffer.
@@ -343,11 +357,19 @@ public abstract class XmlRepresentation extends WriterRepresentation implements
      * @return The DOM document.
      */
     protected Document getDocument() throws Exception {
-        return getDocumentBuilder().parse(getInputSource());
+        DocumentBuilder documentBuilder = getDocumentBuilder();
+
+        try {
+            return documentBuilder.parse(getInputSource());
+        } finally {
+            XmlFactories.checkin(documentBuilder);
+        }
     }
 
     /**
-     * Returns a document builder properly configured.
+     * Returns a document builder properly configured. The builder is pooled
+     * for reuse once given back via
+     * {@link XmlFactories#checkin(DocumentBuilder)}.
      * 
      * @return A document builder properly configured.
      */
@@ -355,31 +377,7 @@ public abstract class XmlRepresentation extends WriterRepresentation implements
         DocumentBuilder result = null;
 
         try {
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            dbf.setNamespaceAware(isNamespaceAware());
-            dbf.setValidating(isValidatingDtd());
-            dbf.setCoalescing(isCoalescing());
-            dbf.setExpandEntityReferences(false);
-            dbf.setFeature("http://xml.org/sax/features/external-parameter-entities",isExpandingEntityRefs());
-            dbf.setFeature("http://xml.org/sax/features/external-general-entities",isExpandingEntityRefs());
-            
-            dbf.setIgnoringComments(isIgnoringComments());
-            dbf.setIgnoringElementContentWhitespace(isIgnoringExtraWhitespaces());
-
-            try {
-                dbf.setXIncludeAware(isXIncludeAware());
-            } catch (UnsupportedOperationException uoe) {
-                Context.getCurrentLogger().log(Level.FINE,
-                        "The JAXP parser doesn't support XInclude.", uoe);
-            }
-
-            javax.xml.validation.Schema xsd = getSchema();
-            if (xsd != null) {
-                dbf.setSchema(xsd);
-            }
-
-
-            result = dbf.newDocumentBuilder();
+            result = XmlFactories.checkoutDocumentBuilder(this);
             result.setEntityResolver(getEntityResolver());
             result.setErrorHandler(getErrorHandler());
         } catch (ParserConfigurationException pce) {
@@ -399,12 +397,15 @@ public abstract class XmlRepresentation extends WriterRepresentation implements
     public javax.xml.transform.dom.DOMSource getDomSource() throws IOException {
         javax.xml.transform.dom.DOMSource result = null;
         Node document = null;
+        DocumentBuilder documentBuilder = getDocumentBuilder();
 
         try {
-            document = getDocumentBuilder().parse(getInputSource());
+            document = documentBuilder.parse(getInputSource());
         } catch (SAXException se) {
             throw new IOException("Couldn't read the XML representation. "
                     + se.getMessage());
+        } finally {
+            XmlFactories.checkin(documentBuilder);
         }
 
         if (document != null) {
@@ -599,16 +600,18 @@ public abstract class XmlRepresentation extends WriterRepresentation implements
         try {
             Object result = null;
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            xpath.setNamespaceContext(this);
             Document xmlDocument = getDocument();
 
-            if (xmlDocument != null) {
-                result = xpath.evaluate(expression, xmlDocument, returnType);
-            } else {
+            if (xmlDocument == null) {
                 throw new Exception(
                         "Unable to obtain a DOM document for the XML representation. "
                                 + "XPath evaluation cancelled.");
+            } else if (customNamespaceContexts.get(getClass())) {
+                result = XmlFactories.evaluate(expression, this, xmlDocument,
+                        returnType);
+            } else {
+                result = XmlFactories.evaluate(expression, this.namespaces,
+                        xmlDocument, returnType);
             }
 
             return result;
@@ -57,6 +57,20 @@ public class ContextResolver implements URIResolver {
         this.context = context;
     }
 
+    /**
+     * Indicates if both resolvers are based on the same context.
+     */
+    @Override
+    public boolean equals(Object object) {
+        return (object instanceof ContextResolver)
+                && (((ContextResolver) object).context == this.context);
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this.context);
+    }
+
     /**
      * Resolves a target reference into a Source document.
      * 
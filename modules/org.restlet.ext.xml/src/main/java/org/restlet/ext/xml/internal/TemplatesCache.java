@@ -0,0 +1,272 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.ext.xml.internal;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.stream.StreamSource;
+
+import org.restlet.Context;
+import org.restlet.data.Tag;
+import org.restlet.representation.Representation;
+
+/**
+ * Cache of compiled XSLT transform sheets, shared by the representations and
+ * filters of an application via an attribute of its context. Transform sheets
+ * are identified by their location reference or, if none is set, by their
+ * instance, which is only weakly referenced. Their tag and modification date
+ * are part of the key so that an updated sheet is compiled again. The least
+ * recently used sheets are evicted first.
+ */
+public class TemplatesCache {
+
+    /**
+     * Key of a compiled transform sheet.
+     */
+    private static final class Key {
+
+        /** The precomputed hash code. */
+        private final int hashCode;
+
+        /** The modification date of the transform sheet. */
+        private final Date modificationDate;
+
+        /**
+         * The transform sheet location or a weak reference to its instance.
+         */
+        private final Object sheet;
+
+        /** The tag of the transform sheet. */
+        private final Tag tag;
+
+        /** The URI resolver used during the compilation. */
+        private final URIResolver uriResolver;
+
+        /**
+         * Constructor.
+         * 
+         * @param transformSheet
+         *            The transform sheet.
+         * @param uriResolver
+         *            The URI resolver.
+         */
+        private Key(Representation transformSheet, URIResolver uriResolver) {
+            this.modificationDate = transformSheet.getModificationDate();
+            this.tag = transformSheet.getTag();
+            this.uriResolver = uriResolver;
+
+            if (transformSheet.getLocationRef() == null) {
+                this.sheet = new WeakReference<Representation>(transformSheet);
+                this.hashCode = 31 * System.identityHashCode(transformSheet)
+                        + Objects.hash(this.modificationDate, this.tag,
+                                this.uriResolver);
+            } else {
+                this.sheet = transformSheet.getLocationRef().getTargetRef()
+                        .toString();
+                this.hashCode = 31 * this.sheet.hashCode()
+                        + Objects.hash(this.modificationDate, this.tag,
+                                this.uriResolver);
+            }
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) object;
+            boolean sameSheet;
+
+            if (this.sheet instanceof String) {
+                sameSheet = this.sheet.equals(key.sheet);
+            } else if (key.sheet instanceof WeakReference) {
+                // Collected instances match no other key
+                Object instance = ((WeakReference<?>) this.sheet).get();
+                sameSheet = (instance != null)
+                        && (instance == ((WeakReference<?>) key.sheet).get());
+            } else {
+                sameSheet = false;
+            }
+
+            return (this == key) || sameSheet
+                    && Objects.equals(this.modificationDate,
+                            key.modificationDate)
+                    && Objects.equals(this.tag, key.tag)
+                    && Objects.equals(this.uriResolver, key.uriResolver);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+    /** The name of the context attribute holding the cache. */
+    public static final String ATTRIBUTE = "org.restlet.ext.xml.templatesCache";
+
+    /** The maximum number of compiled transform sheets. */
+    private static final int MAX_ENTRIES = 64;
+
+    /**
+     * Compiles a transform sheet with a pooled transformer factory.
+     * 
+     * @param transformSheet
+     *            The transform sheet.
+     * @param uriResolver
+     *            The optional URI resolver.
+     * @return The compiled transform sheet.
+     * @throws IOException
+     * @throws TransformerConfigurationException
+     */
+    public static Templates compile(Representation transformSheet,
+            URIResolver uriResolver) throws IOException,
+            TransformerConfigurationException {
+        StreamSource transformSource = new StreamSource(
+                transformSheet.getStream());
+
+        if (transformSheet.getLocationRef() != null) {
+            transformSource.setSystemId(transformSheet.getLocationRef()
+                    .getTargetRef().toString());
+        }
+
+        TransformerFactory transformerFactory = XmlFactories
+                .checkoutTransformerFactory();
+
+        try {
+            if (uriResolver != null) {
+                transformerFactory.setURIResolver(uriResolver);
+            }
+
+            return transformerFactory.newTemplates(transformSource);
+        } finally {
+            XmlFactories.checkin(transformerFactory);
+        }
+    }
+
+    /**
+     * Returns the cache of a context, creating it if necessary.
+     * 
+     * @param context
+     *            The context or null.
+     * @return The cache of the context or null.
+     */
+    public static TemplatesCache getInstance(Context context) {
+        TemplatesCache result = null;
+
+        if (context != null) {
+            result = (TemplatesCache) context.getAttributes().get(ATTRIBUTE);
+
+            if (result == null) {
+                result = new TemplatesCache();
+                TemplatesCache current = (TemplatesCache) context
+                        .getAttributes().putIfAbsent(ATTRIBUTE, result);
+
+                if (current != null) {
+                    result = current;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /** The compiled transform sheets, in access order. */
+    private final Map<Key, Templates> templates;
+
+    /**
+     * Constructor.
+     */
+    public TemplatesCache() {
+        this.templates = new LinkedHashMap<Key, Templates>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<Key, Templates> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+
+    /**
+     * Removes all the compiled transform sheets.
+     */
+    public synchronized void clear() {
+        this.templates.clear();
+    }
+
+    /**
+     * Returns the compiled transform sheet, compiling it on the first call.
+     * The compilation happens outside of the cache lock, so concurrent first
+     * calls may compile the same sheet.
+     * 
+     * @param transformSheet
+     *            The transform sheet.
+     * @param uriResolver
+     *            The optional URI resolver.
+     * @return The compiled transform sheet.
+     * @throws IOException
+     * @throws TransformerConfigurationException
+     */
+    public Templates getTemplates(Representation transformSheet,
+            URIResolver uriResolver) throws IOException,
+            TransformerConfigurationException {
+        Key key = new Key(transformSheet, uriResolver);
+        Templates result;
+
+        synchronized (this) {
+            result = this.templates.get(key);
+        }
+
+        if (result == null) {
+            result = compile(transformSheet, uriResolver);
+
+            synchronized (this) {
+                this.templates.put(key, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of compiled transform sheets.
+     * 
+     * @return The number of compiled transform sheets.
+     */
+    public synchronized int size() {
+        return this.templates.size();
+    }
+}
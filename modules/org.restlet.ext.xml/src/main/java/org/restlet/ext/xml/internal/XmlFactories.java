@@ -0,0 +1,673 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+
+package org.restlet.ext.xml.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.logging.Level;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.validation.Schema;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.restlet.Context;
+import org.restlet.engine.util.Pool;
+import org.restlet.ext.xml.SaxRepresentation;
+import org.restlet.ext.xml.XmlRepresentation;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Cache of the JAXP factories used by the XML representations. Locating a
+ * factory implementation scans the class path, so the factories are created
+ * once per configuration and shared. As the document builders, identity
+ * transformers, XPath instances and compiled XPath expressions they produce
+ * aren't thread-safe, those are kept in small bounded pools shared by all
+ * threads. Transformer factories are pooled as well, so that each user can
+ * configure its checked out factory without locking.<br>
+ * <br>
+ * A document builder or a transformer obtained via a checkout method is
+ * reserved until given back via the matching checkin method. Nested checkouts
+ * get distinct instances.
+ */
+public class XmlFactories {
+
+    /**
+     * Pool keeping at most {@link XmlFactories#MAX_POOL_SIZE} idle objects,
+     * the most recently used first. Objects are created by the caller when
+     * the pool is empty.
+     * 
+     * @param <T>
+     *            The type of pooled objects.
+     */
+    private static final class BoundedPool<T> extends Pool<T> {
+
+        @Override
+        protected T createObject() {
+            return null;
+        }
+
+        @Override
+        protected Queue<T> createStore() {
+            return Collections.asLifoQueue(new LinkedBlockingDeque<T>(
+                    MAX_POOL_SIZE));
+        }
+    }
+
+    /**
+     * Document builder given back to the pool of its configuration on checkin.
+     */
+    private static final class PooledDocumentBuilder extends DocumentBuilder {
+
+        /** The wrapped document builder. */
+        private final DocumentBuilder documentBuilder;
+
+        /** The pool of the configuration. */
+        private final Pool<DocumentBuilder> pool;
+
+        /**
+         * Constructor.
+         * 
+         * @param documentBuilder
+         *            The wrapped document builder.
+         * @param pool
+         *            The pool of the configuration.
+         */
+        private PooledDocumentBuilder(DocumentBuilder documentBuilder,
+                Pool<DocumentBuilder> pool) {
+            this.documentBuilder = documentBuilder;
+            this.pool = pool;
+        }
+
+        @Override
+        public DOMImplementation getDOMImplementation() {
+            return this.documentBuilder.getDOMImplementation();
+        }
+
+        @Override
+        public Schema getSchema() {
+            return this.documentBuilder.getSchema();
+        }
+
+        @Override
+        public boolean isNamespaceAware() {
+            return this.documentBuilder.isNamespaceAware();
+        }
+
+        @Override
+        public boolean isValidating() {
+            return this.documentBuilder.isValidating();
+        }
+
+        @Override
+        public boolean isXIncludeAware() {
+            return this.documentBuilder.isXIncludeAware();
+        }
+
+        @Override
+        public Document newDocument() {
+            return this.documentBuilder.newDocument();
+        }
+
+        @Override
+        public Document parse(InputSource is) throws SAXException,
+                IOException {
+            return this.documentBuilder.parse(is);
+        }
+
+        @Override
+        public void reset() {
+            this.documentBuilder.reset();
+        }
+
+        @Override
+        public void setEntityResolver(EntityResolver er) {
+            this.documentBuilder.setEntityResolver(er);
+        }
+
+        @Override
+        public void setErrorHandler(ErrorHandler eh) {
+            this.documentBuilder.setErrorHandler(eh);
+        }
+    }
+
+    /** The maximum number of compiled XPath expressions cached. */
+    private static final int MAX_EXPRESSIONS = 64;
+
+    /** The maximum number of idle objects kept by each pool. */
+    private static final int MAX_POOL_SIZE = 16;
+
+    /** The document builder factories, indexed by configuration. */
+    private static final ConcurrentMap<Integer, DocumentBuilderFactory> documentBuilderFactories = new ConcurrentHashMap<Integer, DocumentBuilderFactory>();
+
+    /** The pools of document builders, indexed by configuration. */
+    private static final ConcurrentMap<Integer, Pool<DocumentBuilder>> documentBuilders = new ConcurrentHashMap<Integer, Pool<DocumentBuilder>>();
+
+    /**
+     * The pools of compiled XPath expressions, indexed by expression and
+     * namespaces, in access order.
+     */
+    private static final Map<List<Object>, Pool<XPathExpression>> expressions = new LinkedHashMap<List<Object>, Pool<XPathExpression>>(
+            16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<List<Object>, Pool<XPathExpression>> eldest) {
+            return size() > MAX_EXPRESSIONS;
+        }
+    };
+
+    /** The SAX parser factories, indexed by configuration. */
+    private static final ConcurrentMap<Integer, SAXParserFactory> saxParserFactories = new ConcurrentHashMap<Integer, SAXParserFactory>();
+
+    /** The pool of transformer factories. */
+    private static final Pool<TransformerFactory> transformerFactories = new BoundedPool<TransformerFactory>();
+
+    /** The pool of identity transformers. */
+    private static final Pool<Transformer> transformers = new BoundedPool<Transformer>();
+
+    /** The identity transformers created for the pool, weakly referenced. */
+    private static final Set<Transformer> transformersCreated = Collections
+            .newSetFromMap(Collections
+                    .synchronizedMap(new WeakHashMap<Transformer, Boolean>()));
+
+    /** The shared XPath factory. */
+    private static volatile XPathFactory xpathFactory;
+
+    /** The pool of XPath instances. */
+    private static final Pool<XPath> xpaths = new BoundedPool<XPath>();
+
+    /**
+     * Gives back a document builder obtained via
+     * {@link #checkoutDocumentBuilder(XmlRepresentation)}. Other instances are
+     * ignored.
+     * 
+     * @param documentBuilder
+     *            The document builder to give back.
+     */
+    public static void checkin(DocumentBuilder documentBuilder) {
+        if (documentBuilder instanceof PooledDocumentBuilder) {
+            try {
+                documentBuilder.reset();
+                ((PooledDocumentBuilder) documentBuilder).pool
+                        .checkin(documentBuilder);
+            } catch (UnsupportedOperationException uoe) {
+                // Builders that can't be reset aren't reused
+            }
+        }
+    }
+
+    /**
+     * Gives back a transformer obtained via {@link #checkoutTransformer()}.
+     * Other instances are ignored.
+     * 
+     * @param transformer
+     *            The transformer to give back.
+     */
+    public static void checkin(Transformer transformer) {
+        if ((transformer != null) && transformersCreated.contains(transformer)) {
+            transformer.reset();
+            transformers.checkin(transformer);
+        }
+    }
+
+    /**
+     * Gives back a transformer factory obtained via
+     * {@link #checkoutTransformerFactory()}. Its URI resolver is reset.
+     * 
+     * @param transformerFactory
+     *            The transformer factory to give back.
+     */
+    public static void checkin(TransformerFactory transformerFactory) {
+        if (transformerFactory != null) {
+            transformerFactory.setURIResolver(null);
+            transformerFactories.checkin(transformerFactory);
+        }
+    }
+
+    /**
+     * Returns a document builder configured after the parsing properties of
+     * an XML representation. Entity resolver and error handler are left to the
+     * caller.
+     * 
+     * @param xmlRepresentation
+     *            The XML representation.
+     * @return A document builder.
+     * @throws ParserConfigurationException
+     */
+    public static DocumentBuilder checkoutDocumentBuilder(
+            XmlRepresentation xmlRepresentation)
+            throws ParserConfigurationException {
+        DocumentBuilder result = null;
+
+        if (xmlRepresentation.getSchema() != null) {
+            // Schema aware builders aren't cached
+            DocumentBuilderFactory dbf = createDocumentBuilderFactory(xmlRepresentation);
+            dbf.setSchema(xmlRepresentation.getSchema());
+            result = dbf.newDocumentBuilder();
+        } else {
+            int key = getKey(xmlRepresentation.isNamespaceAware(),
+                    xmlRepresentation.isValidatingDtd(),
+                    xmlRepresentation.isCoalescing(),
+                    xmlRepresentation.isExpandingEntityRefs(),
+                    xmlRepresentation.isIgnoringComments(),
+                    xmlRepresentation.isIgnoringExtraWhitespaces(),
+                    xmlRepresentation.isXIncludeAware());
+            Pool<DocumentBuilder> pool = documentBuilders.get(key);
+
+            if (pool == null) {
+                pool = new BoundedPool<DocumentBuilder>();
+                Pool<DocumentBuilder> current = documentBuilders.putIfAbsent(
+                        key, pool);
+
+                if (current != null) {
+                    pool = current;
+                }
+            }
+
+            result = pool.checkout();
+
+            if (result == null) {
+                DocumentBuilderFactory dbf = documentBuilderFactories.get(key);
+
+                if (dbf == null) {
+                    dbf = createDocumentBuilderFactory(xmlRepresentation);
+                    DocumentBuilderFactory current = documentBuilderFactories
+                            .putIfAbsent(key, dbf);
+
+                    if (current != null) {
+                        dbf = current;
+                    }
+                }
+
+                synchronized (dbf) {
+                    result = new PooledDocumentBuilder(
+                            dbf.newDocumentBuilder(), pool);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns an identity transformer created by a pooled transformer factory.
+     * 
+     * @return An identity transformer.
+     * @throws TransformerConfigurationException
+     */
+    public static Transformer checkoutTransformer()
+            throws TransformerConfigurationException {
+        Transformer result = transformers.checkout();
+
+        if (result == null) {
+            result = newTransformer();
+            transformersCreated.add(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a transformer factory reserved to the caller until given back
+     * via {@link #checkin(TransformerFactory)}. Its URI resolver can be set
+     * freely.
+     * 
+     * @return A transformer factory.
+     */
+    public static TransformerFactory checkoutTransformerFactory() {
+        TransformerFactory result = transformerFactories.checkout();
+
+        if (result == null) {
+            result = TransformerFactory.newInstance();
+        }
+
+        return result;
+    }
+
+    /**
+     * Compiles an XPath expression with a pooled XPath instance.
+     * 
+     * @param expression
+     *            The XPath expression.
+     * @param namespaceContext
+     *            The namespace context resolving the prefixes.
+     * @return The compiled XPath expression.
+     * @throws XPathExpressionException
+     */
+    private static XPathExpression compile(String expression,
+            NamespaceContext namespaceContext) throws XPathExpressionException {
+        XPath xpath = xpaths.checkout();
+
+        if (xpath == null) {
+            XPathFactory factory = xpathFactory;
+
+            if (factory == null) {
+                factory = XPathFactory.newInstance();
+                xpathFactory = factory;
+            }
+
+            synchronized (factory) {
+                xpath = factory.newXPath();
+            }
+        }
+
+        try {
+            xpath.setNamespaceContext(namespaceContext);
+            return xpath.compile(expression);
+        } finally {
+            xpath.reset();
+            xpaths.checkin(xpath);
+        }
+    }
+
+    /**
+     * Creates a document builder factory configured after the parsing
+     * properties of an XML representation.
+     * 
+     * @param xmlRepresentation
+     *            The XML representation.
+     * @return A new document builder factory.
+     * @throws ParserConfigurationException
+     */
+    private static DocumentBuilderFactory createDocumentBuilderFactory(
+            XmlRepresentation xmlRepresentation)
+            throws ParserConfigurationException {
+        DocumentBuilderFactory result = DocumentBuilderFactory.newInstance();
+        result.setNamespaceAware(xmlRepresentation.isNamespaceAware());
+        result.setValidating(xmlRepresentation.isValidatingDtd());
+        result.setCoalescing(xmlRepresentation.isCoalescing());
+        result.setExpandEntityReferences(false);
+        result.setFeature(
+                "http://xml.org/sax/features/external-parameter-entities",
+                xmlRepresentation.isExpandingEntityRefs());
+        result.setFeature(
+                "http://xml.org/sax/features/external-general-entities",
+                xmlRepresentation.isExpandingEntityRefs());
+        result.setIgnoringComments(xmlRepresentation.isIgnoringComments());
+        result.setIgnoringElementContentWhitespace(xmlRepresentation
+                .isIgnoringExtraWhitespaces());
+
+        try {
+            result.setXIncludeAware(xmlRepresentation.isXIncludeAware());
+        } catch (UnsupportedOperationException uoe) {
+            Context.getCurrentLogger().log(Level.FINE,
+                    "The JAXP parser doesn't support XInclude.", uoe);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a SAX parser factory configured after the parsing properties of
+     * a SAX representation.
+     * 
+     * @param saxRepresentation
+     *            The SAX representation.
+     * @return A new SAX parser factory.
+     * @throws ParserConfigurationException
+     * @throws SAXException
+     */
+    private static SAXParserFactory createSaxParserFactory(
+            SaxRepresentation saxRepresentation)
+            throws ParserConfigurationException, SAXException {
+        SAXParserFactory result = SAXParserFactory.newInstance();
+        result.setNamespaceAware(saxRepresentation.isNamespaceAware());
+
+        // Keep before the external entity preferences
+        result.setValidating(saxRepresentation.isValidatingDtd());
+        result.setXIncludeAware(saxRepresentation.isXIncludeAware());
+        result.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING,
+                saxRepresentation.isSecureProcessing());
+        result.setFeature(
+                "http://xml.org/sax/features/external-general-entities",
+                saxRepresentation.isExpandingEntityRefs());
+        result.setFeature(
+                "http://xml.org/sax/features/external-parameter-entities",
+                saxRepresentation.isExpandingEntityRefs());
+        return result;
+    }
+
+    /**
+     * Evaluates an XPath expression whose prefixes are resolved by a given
+     * namespace context. As the context may change over time, the expression
+     * is compiled on each call.
+     * 
+     * @param expression
+     *            The XPath expression.
+     * @param namespaceContext
+     *            The namespace context resolving the prefixes.
+     * @param item
+     *            The node or document to evaluate the expression against.
+     * @param returnType
+     *            The qualified name of the return type.
+     * @return The evaluation result.
+     * @throws XPathExpressionException
+     */
+    public static Object evaluate(String expression,
+            NamespaceContext namespaceContext, Object item, QName returnType)
+            throws XPathExpressionException {
+        return compile(expression, namespaceContext).evaluate(item, returnType);
+    }
+
+    /**
+     * Evaluates an XPath expression whose prefixes are resolved against a map
+     * of namespaces. The compiled expressions are pooled per expression and
+     * namespaces.
+     * 
+     * @param expression
+     *            The XPath expression.
+     * @param namespaces
+     *            The map of namespaces, prefixes being the keys.
+     * @param item
+     *            The node or document to evaluate the expression against.
+     * @param returnType
+     *            The qualified name of the return type.
+     * @return The evaluation result.
+     * @throws XPathExpressionException
+     */
+    public static Object evaluate(String expression,
+            Map<String, String> namespaces, Object item, QName returnType)
+            throws XPathExpressionException {
+        Map<String, String> snapshot = (namespaces == null) ? Collections
+                .<String, String> emptyMap() : new HashMap<String, String>(
+                namespaces);
+        List<Object> key = Arrays.<Object> asList(expression, snapshot);
+        Pool<XPathExpression> pool;
+
+        synchronized (expressions) {
+            pool = expressions.get(key);
+
+            if (pool == null) {
+                pool = new BoundedPool<XPathExpression>();
+                expressions.put(key, pool);
+            }
+        }
+
+        XPathExpression compiled = pool.checkout();
+
+        if (compiled == null) {
+            compiled = compile(expression, newNamespaceContext(snapshot));
+        }
+
+        try {
+            return compiled.evaluate(item, returnType);
+        } finally {
+            pool.checkin(compiled);
+        }
+    }
+
+    /**
+     * Returns the index of a configuration of parsing properties.
+     * 
+     * @param flags
+     *            The parsing properties.
+     * @return The index of the configuration.
+     */
+    private static int getKey(boolean... flags) {
+        int result = 0;
+
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i]) {
+                result |= (1 << i);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a namespace context resolving prefixes against a map of
+     * namespaces.
+     * 
+     * @param namespaces
+     *            The map of namespaces, prefixes being the keys.
+     * @return The namespace context.
+     */
+    private static NamespaceContext newNamespaceContext(
+            final Map<String, String> namespaces) {
+        return new NamespaceContext() {
+            public String getNamespaceURI(String prefix) {
+                return namespaces.get(prefix);
+            }
+
+            public String getPrefix(String namespaceURI) {
+                Iterator<String> prefixes = getPrefixes(namespaceURI);
+                return prefixes.hasNext() ? prefixes.next() : null;
+            }
+
+            public Iterator<String> getPrefixes(String namespaceURI) {
+                List<String> prefixes = new ArrayList<String>();
+
+                for (Map.Entry<String, String> entry : namespaces.entrySet()) {
+                    if (entry.getValue().equals(namespaceURI)) {
+                        prefixes.add(entry.getKey());
+                    }
+                }
+
+                return prefixes.iterator();
+            }
+        };
+    }
+
+    /**
+     * Creates an identity transformer with a pooled transformer factory.
+     * 
+     * @return A new identity transformer.
+     * @throws TransformerConfigurationException
+     */
+    public static Transformer newTransformer()
+            throws TransformerConfigurationException {
+        TransformerFactory tf = checkoutTransformerFactory();
+
+        try {
+            return tf.newTransformer();
+        } finally {
+            checkin(tf);
+        }
+    }
+
+    /**
+     * Creates an XML reader configured after the parsing properties of a SAX
+     * representation. The SAX parser factories are shared unless a schema is
+     * set.
+     * 
+     * @param saxRepresentation
+     *            The SAX representation.
+     * @return A new XML reader.
+     * @throws ParserConfigurationException
+     * @throws SAXException
+     */
+    public static XMLReader newXmlReader(SaxRepresentation saxRepresentation)
+            throws ParserConfigurationException, SAXException {
+        SAXParserFactory spf = null;
+
+        if (saxRepresentation.getSchema() != null) {
+            // Schema aware factories aren't cached
+            spf = createSaxParserFactory(saxRepresentation);
+            spf.setSchema(saxRepresentation.getSchema());
+        } else {
+            int key = getKey(saxRepresentation.isNamespaceAware(),
+                    saxRepresentation.isValidatingDtd(),
+                    saxRepresentation.isXIncludeAware(),
+                    saxRepresentation.isSecureProcessing(),
+                    saxRepresentation.isExpandingEntityRefs());
+            spf = saxParserFactories.get(key);
+
+            if (spf == null) {
+                spf = createSaxParserFactory(saxRepresentation);
+                SAXParserFactory current = saxParserFactories.putIfAbsent(
+                        key, spf);
+
+                if (current != null) {
+                    spf = current;
+                }
+            }
+        }
+
+        synchronized (spf) {
+            return spf.newSAXParser().getXMLReader();
+        }
+    }
+
+    /**
+     * Private constructor to ensure that the class acts as a true utility
+     * class i.e. it isn't instantiable and extensible.
+     */
+    private XmlFactories() {
+    }
+}
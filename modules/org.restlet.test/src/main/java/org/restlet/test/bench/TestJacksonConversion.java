@@ -0,0 +1,112 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+
+import org.restlet.data.MediaType;
+import org.restlet.ext.jackson.JacksonConverter;
+import org.restlet.ext.jackson.JacksonRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.Variant;
+import org.restlet.test.ext.jackson.Customer;
+import org.restlet.test.ext.jackson.Invoice;
+
+public class TestJacksonConversion {
+
+    private static final OutputStream NULL_STREAM = new OutputStream() {
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+
+        @Override
+        public void write(int b) {
+        }
+    };
+
+    private static Customer createCustomer() {
+        Customer result = new Customer();
+        result.setFirstName("Foo");
+        result.setLastName("Bar");
+
+        for (int i = 0; i < 10; i++) {
+            Invoice invoice = new Invoice();
+            invoice.setAmount(1000 + i);
+            invoice.setDate(new Date(1356533333882L));
+            invoice.setPaid((i % 2) == 0);
+            result.getInvoices().add(invoice);
+        }
+
+        return result;
+    }
+
+    private static long runPerRepresentationMapper(Customer customer,
+            int iterations) throws IOException {
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++) {
+            new JacksonRepresentation<Customer>(MediaType.APPLICATION_JSON,
+                    customer).write(NULL_STREAM);
+        }
+
+        return System.nanoTime() - startTime;
+    }
+
+    private static long runSharedMapper(JacksonConverter converter,
+            Customer customer, int iterations) throws IOException {
+        long startTime = System.nanoTime();
+        Variant variant = new Variant(MediaType.APPLICATION_JSON);
+
+        for (int i = 0; i < iterations; i++) {
+            Representation representation = converter.toRepresentation(
+                    customer, variant, null);
+            representation.write(NULL_STREAM);
+        }
+
+        return System.nanoTime() - startTime;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int iterations = (args.length > 0) ? Integer.parseInt(args[0])
+                : 50000;
+        JacksonConverter converter = new JacksonConverter();
+        Customer customer = createCustomer();
+
+        // Warm up
+        runPerRepresentationMapper(customer, iterations / 10);
+        runSharedMapper(converter, customer, iterations / 10);
+
+        long before = runPerRepresentationMapper(customer, iterations);
+        long after = runSharedMapper(converter, customer, iterations);
+
+        System.out.println("Mapper per representation: "
+                + (iterations * 1000000000L / before) + " ops/s");
+        System.out.println("Shared mapper:             "
+                + (iterations * 1000000000L / after) + " ops/s");
+    }
+
+}
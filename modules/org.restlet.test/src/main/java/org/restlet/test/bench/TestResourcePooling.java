@@ -0,0 +1,98 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Method;
+import org.restlet.resource.Finder;
+import org.restlet.resource.Stateless;
+
+public class TestResourcePooling {
+
+    @Stateless
+    public static class StatelessHelloServerResource extends HelloServerResource {
+    }
+
+    private static long getAllocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        return -1;
+    }
+
+    private static long getCollectionCount() {
+        long result = 0;
+
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result += Math.max(0, bean.getCollectionCount());
+        }
+
+        return result;
+    }
+
+    private static void report(String label, Finder finder, int iterations) {
+        long collections = getCollectionCount();
+        long allocated = getAllocatedBytes();
+        long startTime = System.nanoTime();
+        run(finder, iterations);
+        long duration = System.nanoTime() - startTime;
+        allocated = getAllocatedBytes() - allocated;
+        collections = getCollectionCount() - collections;
+
+        System.out.println(label + (duration / 1000000) + " ms, " + (duration / iterations) + " ns per call, "
+                + (allocated / iterations) + " bytes per call, " + collections + " collections");
+    }
+
+    private static void run(Finder finder, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            Request request = new Request(Method.GET, "http://localhost/hello");
+            Response response = new Response(request);
+            finder.handle(request, response);
+            response.getEntity().release();
+        }
+    }
+
+    public static void main(String[] args) {
+        int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 500000;
+        Finder statefulFinder = new Finder(null, HelloServerResource.class);
+        Finder statelessFinder = new Finder(null, StatelessHelloServerResource.class);
+
+        // Warm up
+        run(statefulFinder, iterations / 10);
+        run(statelessFinder, iterations / 10);
+
+        report("New instance per call: ", statefulFinder, iterations);
+        report("Pooled instances:      ", statelessFinder, iterations);
+    }
+
+}
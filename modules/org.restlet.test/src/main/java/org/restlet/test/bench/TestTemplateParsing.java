@@ -0,0 +1,100 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.restlet.routing.Template;
+import org.restlet.routing.Variable;
+
+public class TestTemplateParsing {
+
+    private static final String[] PATTERNS = { "/users", "/users/{userId}", "/users/{userId}/orders",
+            "/users/{userId}/orders/{orderId}", "/users/{userId}/orders/{orderId}/items",
+            "/users/{userId}/orders/{orderId}/items/{itemId}", "/products", "/products/{productId}",
+            "/products/{productId}/reviews", "/products/{productId}/reviews/{reviewId}", "/categories",
+            "/categories/{categoryId}", "/categories/{categoryId}/products", "/carts/{cartId}",
+            "/carts/{cartId}/lines/{lineId}", "/invoices/{invoiceId}", "/invoices/{invoiceId}/pdf",
+            "/search", "/health", "/admin/stats" };
+
+    private static final String[] PATHS = { "/users/1234", "/users/1234/orders/5678/items/9",
+            "/products/abc-123/reviews", "/categories/books/products", "/carts/c1/lines/l2",
+            "/invoices/2024-0001/pdf", "/health", "/unknown/path" };
+
+    private static long run(List<Template> templates, int iterations) {
+        long startTime = System.nanoTime();
+        Map<String, Object> variables = new HashMap<String, Object>();
+
+        for (int i = 0; i < iterations; i++) {
+            for (String path : PATHS) {
+                for (Template template : templates) {
+                    if (template.parse(path, variables, false) != -1) {
+                        break;
+                    }
+                }
+
+                variables.clear();
+            }
+        }
+
+        return System.nanoTime() - startTime;
+    }
+
+    private static List<Template> createTemplates(boolean simpleMatching) {
+        List<Template> result = new ArrayList<Template>();
+
+        for (String pattern : PATTERNS) {
+            Template template = new Template(pattern, Template.MODE_EQUALS, Variable.TYPE_URI_SEGMENT, "", true,
+                    false);
+            template.setSimpleMatching(simpleMatching);
+            result.add(template);
+        }
+
+        return result;
+    }
+
+    public static void main(String[] args) {
+        int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+        List<Template> regexTemplates = createTemplates(false);
+        List<Template> simpleTemplates = createTemplates(true);
+
+        // Warm up
+        run(regexTemplates, iterations / 10);
+        run(simpleTemplates, iterations / 10);
+
+        long regexDuration = run(regexTemplates, iterations);
+        long simpleDuration = run(simpleTemplates, iterations);
+        long lookups = (long) iterations * PATHS.length;
+
+        System.out.println("Regex matcher:  " + (regexDuration / 1000000) + " ms, "
+                + (regexDuration / lookups) + " ns per lookup");
+        System.out.println("Simple matcher: " + (simpleDuration / 1000000) + " ms, "
+                + (simpleDuration / lookups) + " ns per lookup");
+    }
+
+}
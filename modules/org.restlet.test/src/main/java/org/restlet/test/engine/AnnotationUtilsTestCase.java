@@ -25,7 +25,9 @@
 package org.restlet.test.engine;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.List;
 
@@ -45,6 +47,17 @@ import org.restlet.test.RestletTestCase;
  */
 public class AnnotationUtilsTestCase extends RestletTestCase {
 
+    public static class Bean {
+
+    }
+
+    public static class BeanWithArgument {
+
+        public BeanWithArgument(String argument) {
+        }
+
+    }
+
     public interface IChild extends IParent<String> {
 
     }
@@ -102,4 +115,20 @@ public class AnnotationUtilsTestCase extends RestletTestCase {
 
         assertTrue(found, "Didn't find a method with IChild as the declaring class.");
     }
+
+    @Test
+    public void testNewInstance() throws Throwable {
+        AnnotationUtils utils = AnnotationUtils.getInstance();
+        assertNotNull(utils.newInstance(Bean.class));
+        assertNotNull(utils.newInstance(Bean.class));
+
+        // The reflection fallback is cached and keeps reporting the failure
+        for (int i = 0; i < 2; i++) {
+            try {
+                utils.newInstance(BeanWithArgument.class);
+                fail("No default constructor");
+            } catch (InstantiationException e) {
+            }
+        }
+    }
 }
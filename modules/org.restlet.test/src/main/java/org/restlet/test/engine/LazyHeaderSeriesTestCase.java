@@ -0,0 +1,258 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.data.Header;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
+import org.restlet.data.Protocol;
+import org.restlet.engine.adapter.ServerAdapter;
+import org.restlet.engine.adapter.ServerCall;
+import org.restlet.engine.header.LazyHeaderSeries;
+import org.restlet.test.RestletTestCase;
+import org.restlet.util.Series;
+
+/**
+ * Unit tests for the {@link LazyHeaderSeries} class.
+ */
+public class LazyHeaderSeriesTestCase extends RestletTestCase {
+
+    private static LazyHeaderSeries createHeaders() {
+        LazyHeaderSeries result = new LazyHeaderSeries();
+        result.add("Host", "localhost:8182");
+        result.add("Accept", "text/html");
+        result.add("Cookie", "a=1");
+        result.add("Accept-Encoding", "gzip");
+        result.add("cookie", "b=2");
+        result.add(new Header("X-Custom", "custom"));
+        return result;
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final LazyHeaderSeries headers = createHeaders();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Void>> results = new ArrayList<Future<Void>>();
+
+        try {
+            // Lookups racing with additions and the materialization
+            for (int i = 0; i < 4; i++) {
+                final int thread = i;
+                results.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        for (int j = 0; j < 500; j++) {
+                            if ((thread == 0) && (j % 5 == 0)) {
+                                headers.add("X-Added", Integer.toString(j));
+                            } else if ((thread == 1) && (j == 250)) {
+                                headers.iterator();
+                            }
+
+                            assertEquals("localhost:8182",
+                                    headers.getFirstValue("host", true));
+                            assertEquals("a=1,b=2", headers.getValues(
+                                    "cookie", ",", true));
+                        }
+
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(106, headers.size());
+        assertEquals(100, headers.subList("x-added", true).size());
+    }
+
+    @Test
+    public void testLookups() {
+        LazyHeaderSeries headers = createHeaders();
+        assertEquals(6, headers.size());
+        assertEquals("localhost:8182", headers.getFirstValue("HOST", true));
+        assertNull(headers.getFirstValue("HOST", false));
+        assertEquals("localhost:8182", headers.getFirstValue("Host"));
+        assertEquals("a=1,b=2", headers.getValues("Cookie"));
+        assertEquals("b=2", headers.getFirstValue("cookie"));
+        assertEquals(2, headers.subList("COOKIE", true).size());
+        assertEquals("custom", headers.getFirstValue("x-custom", true));
+        assertEquals("none", headers.getFirstValue("Missing", true, "none"));
+        assertNull(headers.getFirst("Missing", true));
+        assertArrayEquals(new String[] { "a=1", "b=2" },
+                headers.getValuesArray("cookie", true));
+        assertArrayEquals(new String[] { "none" },
+                headers.getValuesArray("Missing", true, "none"));
+        assertFalse(headers.isMaterialized());
+
+        // Header instances are stable
+        assertSame(headers.getFirst("accept", true), headers.get(1));
+    }
+
+    @Test
+    public void testModifications() {
+        LazyHeaderSeries headers = createHeaders();
+        assertEquals("text/html", headers.getFirstValue("accept", true));
+
+        // Lookups reflect the modifications done via the list methods
+        headers.removeAll("Accept", true);
+        assertNull(headers.getFirstValue("accept", true));
+        headers.add("Accept", "application/json");
+        assertEquals("application/json", headers.getFirstValue("accept", true));
+        headers.set("Host", "example.com", true);
+        assertEquals("example.com", headers.getFirstValue("host", true));
+        headers.set(0, new Header("Via", "proxy"));
+        assertNull(headers.getFirstValue("host", true));
+        assertEquals("proxy", headers.getFirstValue("via", true));
+        headers.getFirst("via", true).setValue("gateway");
+        assertEquals("gateway", headers.getFirstValue("VIA", true));
+
+        // Regular series behavior is preserved
+        Series<Header> expected = new Series<Header>(Header.class);
+        expected.add("Via", "gateway");
+        expected.add("Cookie", "a=1");
+        expected.add("Accept-Encoding", "gzip");
+        expected.add("cookie", "b=2");
+        expected.add("X-Custom", "custom");
+        expected.add("Accept", "application/json");
+        assertEquals(expected, headers);
+    }
+
+    @Test
+    public void testManyHeaders() {
+        LazyHeaderSeries headers = new LazyHeaderSeries();
+
+        for (int i = 0; i < 100; i++) {
+            headers.add("X-Header-" + (i % 40), Integer.toString(i));
+        }
+
+        assertEquals(100, headers.size());
+        assertEquals("7,47,87", headers.getValues("x-header-7"));
+
+        for (Header header : headers) {
+            header.setValue(header.getValue() + "!");
+        }
+
+        assertEquals("39!,79!", headers.getValues("X-HEADER-39"));
+        assertTrue(headers.isMaterialized());
+    }
+
+    @Test
+    public void testServerRequest() throws Exception {
+        ServerCall call = new ServerCall("localhost", 8182) {
+            {
+                setMethod("PUT");
+                setProtocol(Protocol.HTTP);
+                setRequestUri("/resource?name=value");
+                getRequestHeaders().add("Host", "localhost:8182");
+                getRequestHeaders().add("Accept", "text/plain");
+                getRequestHeaders().add("Content-Type",
+                        "text/plain; charset=UTF-8");
+                getRequestHeaders().add("Content-Length", "5");
+                getRequestHeaders().add("Content-Language", "en");
+                getRequestHeaders().add("Cookie", "a=1");
+                getRequestHeaders().add("If-Modified-Since",
+                        "Sun, 06 Nov 1994 08:49:37 GMT");
+                getRequestHeaders().add("Cache-Control", "no-cache");
+            }
+
+            @Override
+            public boolean abort() {
+                return false;
+            }
+
+            @Override
+            public InputStream getRequestEntityStream(long size) {
+                return new ByteArrayInputStream("hello".getBytes());
+            }
+
+            @Override
+            public InputStream getRequestHeadStream() {
+                return null;
+            }
+
+            @Override
+            public OutputStream getResponseEntityStream() {
+                return null;
+            }
+
+            @Override
+            protected boolean isClientKeepAlive() {
+                return true;
+            }
+
+            @Override
+            protected boolean isServerKeepAlive() {
+                return true;
+            }
+        };
+
+        Request request = new ServerAdapter(new Context()).toRequest(call);
+        assertEquals(MediaType.TEXT_PLAIN, request.getEntity().getMediaType());
+        assertEquals(Language.ENGLISH,
+                request.getEntity().getLanguages().get(0));
+        assertEquals(5, request.getEntity().getSize());
+        assertNotNull(request.getConditions().getModifiedSince());
+        assertEquals(1, request.getCookies().size());
+        assertEquals(1, request.getCacheDirectives().size());
+        assertEquals(1, request.getClientInfo().getAcceptedMediaTypes()
+                .size());
+        request.getRanges();
+        request.getRecipientsInfo();
+        request.getWarnings();
+        request.getChallengeResponse();
+        request.getReferrerRef();
+
+        // The headers were only looked up by name
+        assertSame(call.getRequestHeaders(), request.getHeaders());
+        assertFalse(((LazyHeaderSeries) call.getRequestHeaders())
+                .isMaterialized());
+    }
+
+}
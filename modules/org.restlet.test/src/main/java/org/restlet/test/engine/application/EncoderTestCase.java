@@ -0,0 +1,308 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.engine.application;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Context;
+import org.restlet.data.ClientInfo;
+import org.restlet.data.Encoding;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.engine.application.DecodeRepresentation;
+import org.restlet.engine.application.DeflaterPool;
+import org.restlet.engine.application.EncodeRepresentation;
+import org.restlet.engine.application.Encoder;
+import org.restlet.engine.application.EncoderInputStream;
+import org.restlet.engine.application.EncoderOutputStream;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.resource.ResourceException;
+import org.restlet.service.EncoderService;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the {@link Encoder} filter and its {@link EncoderService}.
+ */
+public class EncoderTestCase extends RestletTestCase {
+
+    private static String createText() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 500; i++) {
+            sb.append("Line ").append(i).append(" of the text.\n");
+        }
+
+        return sb.toString();
+    }
+
+    private static Representation createFailingRepresentation(
+            final boolean transientContent) {
+        Representation result = new StringRepresentation(createText(),
+                MediaType.TEXT_PLAIN) {
+            @Override
+            public InputStream getStream() throws IOException {
+                throw new IOException("Unreadable content");
+            }
+
+            @Override
+            public boolean isTransient() {
+                return transientContent;
+            }
+
+            @Override
+            public void write(OutputStream outputStream) throws IOException {
+                throw new IOException("Unreadable content");
+            }
+        };
+        result.setLocationRef("http://localhost/failing");
+        result.setTag(new Tag("v1", false));
+        return result;
+    }
+
+    private static byte[] toByteArray(InputStream stream) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IoUtils.copy(stream, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] toByteArray(Representation representation)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        representation.write(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        String text = createText();
+        EncoderService encoderService = new EncoderService();
+        encoderService.setCacheMaxEntries(10);
+        Encoder encoder = new Encoder(new Context(), false, true,
+                encoderService);
+        ClientInfo clientInfo = new ClientInfo();
+        clientInfo.accept(Encoding.GZIP);
+
+        Representation representation = new StringRepresentation(text,
+                MediaType.TEXT_PLAIN);
+        representation.setLocationRef("http://localhost/text");
+        representation.setTag(new Tag("v1", false));
+        Representation first = encoder.encode(clientInfo, representation);
+        assertEquals(Encoding.GZIP, first.getEncodings().get(0));
+        assertTrue(first.getSize() > 0);
+        byte[] encoded = toByteArray(first);
+
+        String key = encoderService.getCacheKey(representation, Encoding.GZIP);
+        assertNotNull(key);
+        assertArrayEquals(encoded, encoderService.getCachedContent(key));
+
+        // The cached content is reused
+        Representation second = encoder.encode(clientInfo,
+                new StringRepresentation("ignored", MediaType.TEXT_PLAIN) {
+                    {
+                        setLocationRef("http://localhost/text");
+                        setTag(new Tag("v1", false));
+                    }
+
+                    @Override
+                    public long getSize() {
+                        return 100;
+                    }
+                });
+        assertEquals(text, new DecodeRepresentation(second).getText());
+
+        // Other variants of the same resource are cached separately
+        Representation html = new StringRepresentation(text,
+                MediaType.TEXT_HTML);
+        html.setLocationRef("http://localhost/text");
+        html.setTag(new Tag("v1", false));
+        assertNotEquals(key, encoderService.getCacheKey(html, Encoding.GZIP));
+        html.setMediaType(MediaType.TEXT_PLAIN);
+        html.getLanguages().add(Language.FRENCH);
+        assertNotEquals(key, encoderService.getCacheKey(html, Encoding.GZIP));
+
+        // Weak tags and modification dates are not trusted
+        representation.setTag(new Tag("v1", true));
+        assertNull(encoderService.getCacheKey(representation, Encoding.GZIP));
+        representation.setTag(null);
+        representation.setModificationDate(new Date());
+        assertNull(encoderService.getCacheKey(representation, Encoding.GZIP));
+    }
+
+    @Test
+    public void testCacheFailure() throws Exception {
+        EncoderService encoderService = new EncoderService();
+        encoderService.setCacheMaxEntries(10);
+        Encoder encoder = new Encoder(new Context(), false, true,
+                encoderService);
+        ClientInfo clientInfo = new ClientInfo();
+        clientInfo.accept(Encoding.GZIP);
+        Representation representation = createFailingRepresentation(false);
+
+        // The original content can be sent again, unencoded
+        assertSame(representation, encoder.encode(clientInfo,
+                representation));
+
+        // The partly consumed content of a transient one can't
+        try {
+            encoder.encode(clientInfo, createFailingRepresentation(true));
+            fail("The transient representation shouldn't be returned");
+        } catch (ResourceException e) {
+            assertEquals(Status.SERVER_ERROR_INTERNAL, e.getStatus());
+        }
+    }
+
+    @Test
+    public void testCacheMaxSize() throws Exception {
+        EncoderService encoderService = new EncoderService();
+        encoderService.setCacheMaxEntries(10);
+        encoderService.setCacheMaxSize(250);
+        encoderService.cacheContent("a", new byte[100]);
+        encoderService.cacheContent("b", new byte[100]);
+        assertNotNull(encoderService.getCachedContent("a"));
+
+        // The least recently used content is evicted first
+        encoderService.cacheContent("c", new byte[100]);
+        assertNotNull(encoderService.getCachedContent("a"));
+        assertNull(encoderService.getCachedContent("b"));
+        assertNotNull(encoderService.getCachedContent("c"));
+
+        // Contents larger than the cache are never kept
+        encoderService.cacheContent("d", new byte[300]);
+        assertNull(encoderService.getCachedContent("d"));
+        assertNotNull(encoderService.getCachedContent("a"));
+    }
+
+    @Test
+    public void testCompressionLevel() throws Exception {
+        String text = createText();
+        byte[] stored = toByteArray(new EncodeRepresentation(Encoding.GZIP,
+                new StringRepresentation(text), Deflater.NO_COMPRESSION));
+        byte[] smallest = toByteArray(new EncodeRepresentation(Encoding.GZIP,
+                new StringRepresentation(text), Deflater.BEST_COMPRESSION));
+        assertTrue(stored.length > text.length());
+        assertTrue(smallest.length < text.length());
+
+        for (Encoding encoding : new Encoding[] { Encoding.GZIP,
+                Encoding.DEFLATE, Encoding.ZIP }) {
+            EncodeRepresentation encoded = new EncodeRepresentation(encoding,
+                    new StringRepresentation(text), Deflater.BEST_SPEED);
+            assertEquals(text, new DecodeRepresentation(encoded).getText());
+        }
+    }
+
+    @Test
+    public void testDeflaterPool() throws Exception {
+        DeflaterPool pool = new DeflaterPool(true, 1);
+        Deflater first = pool.checkout(Deflater.BEST_SPEED);
+        Deflater second = pool.checkout(Deflater.BEST_SPEED);
+        assertNotSame(first, second);
+        pool.checkin(first);
+        pool.checkin(second);
+
+        // Only one Deflater is kept, reset for its next use
+        assertSame(first, pool.checkout(Deflater.DEFAULT_COMPRESSION));
+        assertEquals(0, first.getBytesRead());
+        assertNotSame(first, pool.checkout(Deflater.DEFAULT_COMPRESSION));
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        String text = createText();
+
+        for (Encoding encoding : new Encoding[] { Encoding.GZIP,
+                Encoding.DEFLATE, Encoding.DEFLATE_NOWRAP }) {
+            EncodeRepresentation encoded = new EncodeRepresentation(encoding,
+                    new StringRepresentation(text));
+            InputStream stream = encoded.getStream();
+            assertTrue(stream instanceof EncoderInputStream);
+
+            Representation received = new ByteArrayRepresentation(
+                    toByteArray(stream));
+            received.getEncodings().add(encoding);
+            assertEquals(text, new DecodeRepresentation(received).getText());
+        }
+
+        // The inline GZIP stream is readable by the JDK
+        InputStream stream = new GZIPInputStream(new EncodeRepresentation(
+                Encoding.GZIP, new StringRepresentation(text)).getStream());
+        assertEquals(text, IoUtils.toString(stream));
+    }
+
+    @Test
+    public void testSyncFlush() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EncoderOutputStream stream = new EncoderOutputStream(out,
+                Encoding.DEFLATE, Deflater.DEFAULT_COMPRESSION, 1024);
+        byte[] event = "data: first event\n\n".getBytes(StandardCharsets.UTF_8);
+        stream.write(event);
+        stream.flush();
+
+        // The event is available without finishing the stream
+        Inflater inflater = new Inflater();
+        inflater.setInput(out.toByteArray());
+        byte[] inflated = new byte[event.length];
+        assertEquals(event.length, inflater.inflate(inflated));
+        assertArrayEquals(event, inflated);
+        inflater.end();
+
+        // A sync flush happens after the given number of bytes
+        int size = out.size();
+        stream.write(new byte[1024]);
+        assertTrue(out.size() > size);
+
+        stream.finish();
+        Representation received = new ByteArrayRepresentation(
+                out.toByteArray());
+        received.getEncodings().add(Encoding.DEFLATE);
+        InputStream decoded = new DecodeRepresentation(received).getStream();
+        assertEquals(event.length + 1024, toByteArray(decoded).length);
+        decoded.close();
+    }
+
+}
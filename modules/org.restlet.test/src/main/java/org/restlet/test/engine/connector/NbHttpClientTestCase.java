@@ -0,0 +1,281 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ *
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ *
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ *
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ *
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.engine.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.Uniform;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.engine.adapter.ClientAdapter;
+import org.restlet.engine.connector.NbHttpClientHelper;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.resource.ClientResource;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the non-blocking HTTP client connector.
+ */
+public class NbHttpClientTestCase extends RestletTestCase {
+
+    private Client client;
+
+    private Component component;
+
+    private String uri;
+
+    private ClientResource createResource(String path) {
+        ClientResource resource = new ClientResource(uri + path);
+        resource.setNext(client);
+        return resource;
+    }
+
+    /**
+     * Starts a server answering a single call with a raw response, leaving the
+     * connection open.
+     */
+    private ServerSocket startRawServer(final String rawResponse)
+            throws IOException {
+        final ServerSocket result = new ServerSocket(0);
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Socket socket = result.accept();
+                    InputStream in = socket.getInputStream();
+                    int matched = 0;
+
+                    // Skip the request head
+                    while (matched < 4) {
+                        int b = in.read();
+
+                        if (b == -1) {
+                            break;
+                        }
+
+                        matched = (b == ((matched % 2 == 0) ? '\r' : '\n')) ? matched + 1
+                                : 0;
+                    }
+
+                    socket.getOutputStream().write(
+                            rawResponse.getBytes(StandardCharsets.ISO_8859_1));
+                    socket.getOutputStream().flush();
+                } catch (IOException e) {
+                    // Closed by the test
+                }
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return result;
+    }
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.engine.connector.HttpServerHelper(null));
+        engine.getRegisteredClients().add(new NbHttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        component = new Component();
+        Server server = component.getServers().add(Protocol.HTTP, 0);
+        component.getDefaultHost().attach(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                String text = request.getMethod() + " "
+                        + request.getResourceRef().getQuery();
+
+                if (request.isEntityAvailable()) {
+                    text += " " + request.getEntityAsText();
+                }
+
+                // Unknown size, sent with chunked encoding
+                StringRepresentation entity = new StringRepresentation(text,
+                        MediaType.TEXT_PLAIN);
+                entity.setSize(-1);
+                response.setEntity(entity);
+            }
+        });
+        component.start();
+        uri = "http://localhost:" + server.getEphemeralPort();
+
+        client = new Client(new Context(), Protocol.HTTP);
+        client.getContext().getParameters().add("maxConnectionsPerHost", "2");
+        client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        client.stop();
+        component.stop();
+        Engine.register();
+    }
+
+    @Test
+    public void testConcurrentCalls() throws Exception {
+        List<CompletableFuture<Response>> futures = new ArrayList<CompletableFuture<Response>>();
+
+        for (int i = 0; i < 20; i++) {
+            futures.add(createResource("/?item=" + i).handleAsync());
+        }
+
+        for (int i = 0; i < 20; i++) {
+            Response response = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(Status.SUCCESS_OK, response.getStatus());
+            assertEquals("GET item=" + i, response.getEntityAsText());
+        }
+    }
+
+    @Test
+    public void testConnectionRefused() throws Exception {
+        ClientResource resource = createResource("/");
+        component.stop();
+
+        Response response = resource.handleAsync().get(10, TimeUnit.SECONDS);
+        assertTrue(response.getStatus().isConnectorError());
+    }
+
+    @Test
+    public void testInvalidResponse() throws Exception {
+        String[] rawResponses = {
+                "HTTP/1.1 200 OK\r\nContent-Length: -5\r\n\r\n",
+                "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                        + "-5\r\nhello\r\n" };
+
+        for (String rawResponse : rawResponses) {
+            try (ServerSocket server = startRawServer(rawResponse)) {
+                ClientResource resource = new ClientResource(
+                        "http://localhost:" + server.getLocalPort() + "/");
+                resource.setNext(client);
+                Response response = resource.handleAsync().get(10,
+                        TimeUnit.SECONDS);
+                assertTrue(response.getStatus().isConnectorError(),
+                        rawResponse);
+            }
+        }
+    }
+
+    @Test
+    public void testMaxResponseEntitySize() throws Exception {
+        Client smallClient = new Client(new Context(), Protocol.HTTP);
+        smallClient.getContext().getParameters()
+                .add("maxResponseEntitySize", "4");
+        smallClient.start();
+
+        try {
+            ClientResource resource = new ClientResource(uri + "/?item=large");
+            resource.setNext(smallClient);
+            Response response = resource.handleAsync().get(10,
+                    TimeUnit.SECONDS);
+            assertTrue(response.getStatus().isConnectorError());
+        } finally {
+            smallClient.stop();
+        }
+    }
+
+    @Test
+    public void testNestedCallFromCallback() throws Exception {
+        ClientResource resource = createResource("/?item=outer");
+        final List<String> texts = new ArrayList<String>();
+        Request request = resource.createRequest();
+        request.setOnResponse(new Uniform() {
+            @Override
+            public void handle(Request request, Response response) {
+                // Blocks until answered, so it must not run on the event loop
+                try {
+                    texts.add(createResource("/?item=inner").get().getText());
+                } catch (IOException e) {
+                    texts.add(e.getMessage());
+                }
+            }
+        });
+
+        Response response = resource.handleAsync(request).get(10,
+                TimeUnit.SECONDS);
+        assertEquals("GET item=outer", response.getEntityAsText());
+        assertEquals(1, texts.size());
+        assertEquals("GET item=inner", texts.get(0));
+    }
+
+    @Test
+    public void testSynchronousPost() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            ClientResource resource = createResource("/?item=" + i);
+            String text = resource.post(
+                    new StringRepresentation("entity " + i)).getText();
+            assertEquals("POST item=" + i + " entity " + i, text);
+        }
+    }
+
+    @Test
+    public void testUserCallback() throws Exception {
+        ClientResource resource = createResource("/?item=callback");
+        final List<Status> statuses = new ArrayList<Status>();
+        Request request = resource.createRequest();
+        request.setMethod(Method.PUT);
+        request.setEntity(new StringRepresentation("value"));
+        request.setOnResponse(new Uniform() {
+            @Override
+            public void handle(Request request, Response response) {
+                // The response isn't flagged as pending anymore
+                assertFalse(response.getAttributes().containsKey(
+                        ClientAdapter.ATTRIBUTE_ASYNC_PENDING));
+                statuses.add(response.getStatus());
+            }
+        });
+
+        Response response = resource.handleAsync(request).get(10,
+                TimeUnit.SECONDS);
+        assertEquals("PUT item=callback value", response.getEntityAsText());
+        assertEquals(1, statuses.size());
+        assertEquals(Status.SUCCESS_OK, statuses.get(0));
+    }
+
+}
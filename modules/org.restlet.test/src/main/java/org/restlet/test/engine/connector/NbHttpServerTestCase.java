@@ -0,0 +1,379 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.engine.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Range;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.engine.application.RangeRepresentation;
+import org.restlet.engine.connector.NbHttpClientHelper;
+import org.restlet.engine.connector.NbHttpServerHelper;
+import org.restlet.representation.FileRepresentation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the non-blocking HTTP server connector.
+ */
+public class NbHttpServerTestCase extends RestletTestCase {
+
+    private Client client;
+
+    private Component component;
+
+    private File file;
+
+    private byte[] fileContent;
+
+    private int port;
+
+    private String uri;
+
+    /**
+     * Reads from the stream until the given number of complete responses have
+     * been received, relying on the Content-Length header.
+     */
+    private String readResponses(InputStream in, int count) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String text = "";
+        int received = 0;
+
+        while (received < count) {
+            int b = in.read();
+            assertTrue(b != -1, "Connection closed too early: " + text);
+            out.write(b);
+            text = new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+            received = 0;
+            int index = 0;
+
+            while ((index = text.indexOf("\r\n\r\n", index)) != -1) {
+                int start = text.lastIndexOf("Content-Length: ", index);
+                int length = Integer.parseInt(
+                        text.substring(start + 16, text.indexOf("\r\n", start)));
+                index += 4 + length;
+
+                if (index <= text.length()) {
+                    received++;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        return text;
+    }
+
+    /**
+     * Sends a raw request and returns the whole response, until the connection
+     * is closed by the server.
+     */
+    private String send(String request) throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(request.getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            InputStream in = socket.getInputStream();
+            int b;
+
+            while ((b = in.read()) != -1) {
+                received.write(b);
+            }
+
+            return new String(received.toByteArray(),
+                    StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(new NbHttpServerHelper(null));
+        engine.getRegisteredClients().add(new NbHttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        fileContent = new byte[100000];
+
+        for (int i = 0; i < fileContent.length; i++) {
+            fileContent[i] = (byte) i;
+        }
+
+        file = File.createTempFile("nbhttp", ".bin");
+        file.deleteOnExit();
+
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(fileContent);
+        }
+
+        component = new Component();
+        Server server = component.getServers().add(Protocol.HTTP, 0);
+        component.getDefaultHost().attach("/file", new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                response.setEntity(new FileRepresentation(file,
+                        MediaType.APPLICATION_OCTET_STREAM));
+            }
+        });
+        component.getDefaultHost().attach("/range", new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                response.setEntity(new RangeRepresentation(
+                        new FileRepresentation(file,
+                                MediaType.APPLICATION_OCTET_STREAM),
+                        new Range(1000, 50000)));
+                response.setStatus(Status.SUCCESS_PARTIAL_CONTENT);
+            }
+        });
+        component.getDefaultHost().attach("/echo", new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                String text = request.getMethod() + " "
+                        + request.getResourceRef().getQuery();
+
+                if (request.isEntityAvailable()) {
+                    text += " " + request.getEntityAsText();
+                }
+
+                StringRepresentation entity = new StringRepresentation(text,
+                        MediaType.TEXT_PLAIN);
+
+                if ("chunked".equals(request.getResourceRef().getQuery())) {
+                    // Unknown size, sent with chunked encoding
+                    entity.setSize(-1);
+                }
+
+                response.setEntity(entity);
+            }
+        });
+        component.start();
+        port = server.getEphemeralPort();
+        uri = "http://localhost:" + port;
+
+        client = new Client(new Context(), Protocol.HTTP);
+        client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        client.stop();
+        component.stop();
+        file.delete();
+        Engine.register();
+    }
+
+    @Test
+    public void testChunkedResponse() throws Exception {
+        Response response = client
+                .handle(new Request(Method.GET, uri + "/echo?chunked"));
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals("GET chunked", response.getEntityAsText());
+    }
+
+    @Test
+    public void testFile() throws Exception {
+        Response response = client.handle(new Request(Method.GET, uri + "/file"));
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getEntity().write(out);
+        assertTrue(Arrays.equals(fileContent, out.toByteArray()));
+    }
+
+    @Test
+    public void testFileRange() throws Exception {
+        Response response = client
+                .handle(new Request(Method.GET, uri + "/range"));
+        assertEquals(Status.SUCCESS_PARTIAL_CONTENT, response.getStatus());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getEntity().write(out);
+        assertTrue(Arrays.equals(
+                Arrays.copyOfRange(fileContent, 1000, 51000),
+                out.toByteArray()));
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        Response response = client
+                .handle(new Request(Method.GET, uri + "/echo?a=b"));
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals("GET a=b", response.getEntityAsText());
+    }
+
+    @Test
+    public void testHeaderLimits() throws Exception {
+        StringBuilder request = new StringBuilder(
+                "GET /echo?a HTTP/1.1\r\nHost: localhost\r\n");
+
+        for (int i = 0; i < 100; i++) {
+            request.append("X-Header-").append(i).append(": value\r\n");
+        }
+
+        String text = send(request.append("\r\n").toString());
+        assertTrue(text.startsWith("HTTP/1.1 431"), text);
+
+        // The total size is limited even with few headers
+        char[] value = new char[20000];
+        Arrays.fill(value, 'a');
+        request = new StringBuilder(
+                "GET /echo?a HTTP/1.1\r\nHost: localhost\r\n");
+
+        for (int i = 0; i < 4; i++) {
+            request.append("X-Header-").append(i).append(": ").append(value)
+                    .append("\r\n");
+        }
+
+        text = send(request.append("\r\n").toString());
+        assertTrue(text.startsWith("HTTP/1.1 431"), text);
+
+        // Trailers count too
+        request = new StringBuilder("POST /echo?a HTTP/1.1\r\n"
+                + "Host: localhost\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "0\r\n");
+
+        for (int i = 0; i < 100; i++) {
+            request.append("X-Trailer-").append(i).append(": value\r\n");
+        }
+
+        text = send(request.append("\r\n").toString());
+        assertTrue(text.startsWith("HTTP/1.1 431"), text);
+    }
+
+    @Test
+    public void testHttp10() throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /echo?chunked HTTP/1.0\r\nHost: localhost\r\n\r\n"
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+
+            // The entity of unknown size is delimited by the end of connection
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            InputStream in = socket.getInputStream();
+            int b;
+
+            while ((b = in.read()) != -1) {
+                received.write(b);
+            }
+
+            String text = new String(received.toByteArray(),
+                    StandardCharsets.ISO_8859_1);
+            assertTrue(text.startsWith("HTTP/1.0 200"), text);
+            assertTrue(text.contains("Connection: close"), text);
+            assertTrue(text.endsWith("\r\n\r\nGET chunked"), text);
+        }
+    }
+
+    @Test
+    public void testMaxRequestEntitySize() throws Exception {
+        Server server = new Server(new Context(), Protocol.HTTP, 0);
+        server.getContext().getParameters().add("maxRequestEntitySize",
+                "4294967296");
+
+        try {
+            server.start();
+            fail("The maximum entity size should be rejected");
+        } catch (IllegalArgumentException iae) {
+            // Expected
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testNegativeChunkSize() throws Exception {
+        String text = send("POST /echo?a HTTP/1.1\r\nHost: localhost\r\n"
+                + "Transfer-Encoding: chunked\r\n\r\n-5\r\nhello\r\n"
+                + "0\r\n\r\n");
+        assertTrue(text.startsWith("HTTP/1.1 400"), text);
+    }
+
+    @Test
+    public void testPipelining() throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /echo?1 HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "POST /echo?2 HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Type: text/plain\r\n"
+                    + "Transfer-Encoding: chunked\r\n\r\n"
+                    + "5\r\nhello\r\n0\r\n\r\n"
+                    + "GET /echo?3 HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+
+            String text = readResponses(socket.getInputStream(), 3);
+            int first = text.indexOf("GET 1");
+            int second = text.indexOf("POST 2 hello");
+            int third = text.indexOf("GET 3");
+            assertTrue((first != -1) && (first < second) && (second < third),
+                    text);
+            assertTrue(!text.contains("Connection: close"), text);
+
+            // The connection is still usable afterwards
+            out.write("GET /echo?4 HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            assertTrue(readResponses(socket.getInputStream(), 1)
+                    .endsWith("GET 4"));
+        }
+    }
+
+    @Test
+    public void testPost() throws Exception {
+        Request request = new Request(Method.POST, uri + "/echo?a=b");
+        request.setEntity("hello", MediaType.TEXT_PLAIN);
+        Response response = client.handle(request);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals("POST a=b hello", response.getEntityAsText());
+    }
+
+}
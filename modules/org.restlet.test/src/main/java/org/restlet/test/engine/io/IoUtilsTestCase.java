@@ -24,20 +24,33 @@
 
 package org.restlet.test.engine.io;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 import org.restlet.data.CharacterSet;
 import org.restlet.data.MediaType;
+import org.restlet.data.Range;
+import org.restlet.engine.application.RangeRepresentation;
+import org.restlet.engine.io.FileRegion;
 import org.restlet.engine.io.IoUtils;
+import org.restlet.representation.FileRepresentation;
 import org.restlet.representation.OutputRepresentation;
+import org.restlet.representation.StringRepresentation;
 import org.restlet.test.RestletTestCase;
 
 /**
@@ -47,6 +60,80 @@ import org.restlet.test.RestletTestCase;
  */
 public class IoUtilsTestCase extends RestletTestCase {
 
+    @Test
+    public void testGetFileRegion() throws IOException {
+        byte[] content = new byte[100];
+
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        File file = File.createTempFile("ioutils", ".bin");
+
+        try {
+            try (OutputStream out = new FileOutputStream(file)) {
+                out.write(content);
+            }
+
+            FileRepresentation fileRepresentation = new FileRepresentation(
+                    file, MediaType.APPLICATION_OCTET_STREAM);
+            FileRegion region = IoUtils.getFileRegion(fileRepresentation);
+            assertEquals(0, region.getPosition());
+            assertEquals(100, region.getCount());
+
+            region = IoUtils.getFileRegion(new RangeRepresentation(
+                    fileRepresentation, new Range(10, 20)));
+            assertEquals(10, region.getPosition());
+            assertEquals(20, region.getCount());
+
+            region = IoUtils.getFileRegion(new RangeRepresentation(
+                    fileRepresentation, new Range(Range.INDEX_LAST, 5)));
+            assertEquals(95, region.getPosition());
+            assertEquals(5, region.getCount());
+
+            region = IoUtils.getFileRegion(new RangeRepresentation(
+                    fileRepresentation, new Range(90, Range.SIZE_MAX)));
+            assertEquals(90, region.getPosition());
+            assertEquals(10, region.getCount());
+
+            assertNull(IoUtils.getFileRegion(new StringRepresentation("test")));
+
+            // Subclasses may alter the content they write
+            FileRepresentation subclass = new FileRepresentation(file,
+                    MediaType.APPLICATION_OCTET_STREAM) {
+            };
+            assertNull(IoUtils.getFileRegion(subclass));
+            assertNull(IoUtils.getFileRegion(new RangeRepresentation(subclass,
+                    new Range(10, 20))));
+            assertNull(IoUtils.getFileRegion(new RangeRepresentation(
+                    fileRepresentation, new Range(10, 20)) {
+            }));
+
+            // Only the bytes of the range are written
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new RangeRepresentation(fileRepresentation, new Range(10, 20))
+                    .write(out);
+            byte[] expected = new byte[20];
+            System.arraycopy(content, 10, expected, 0, 20);
+            assertArrayEquals(expected, out.toByteArray());
+
+            // The channel of a region stops at its end
+            region = IoUtils.getFileRegion(new RangeRepresentation(
+                    fileRepresentation, new Range(10, 20)));
+            ByteBuffer buffer = ByteBuffer.allocate(50);
+
+            try (ReadableByteChannel channel = region.openRegion()) {
+                while (channel.read(buffer) != -1) {
+                }
+            }
+
+            assertArrayEquals(expected, Arrays.copyOf(buffer.array(),
+                    buffer.position()));
+        } finally {
+            file.delete();
+        }
+    }
+
     @Test
     public void testGetStream() throws IOException {
         StringWriter writer = new StringWriter();
@@ -0,0 +1,173 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.engine.local;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.LocalReference;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.local.EntityCache;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the {@link EntityCache} class.
+ */
+public class EntityCacheTestCase extends RestletTestCase {
+
+    @Test
+    public void testEviction() throws Exception {
+        EntityCache cache = new EntityCache(2, 10, 10);
+        cache.put("a", new StringRepresentation("aaa"), null, 0);
+        cache.put("b", new StringRepresentation("bbb"), null, 0);
+
+        // Access "a" so that "b" becomes the least recently used entry
+        assertNotNull(cache.get("a", 0));
+        cache.put("c", new StringRepresentation("ccc"), null, 0);
+        assertEquals(2, cache.getSize());
+        assertNull(cache.get("b", 0));
+
+        // The total size is limited too
+        cache.put("d", new StringRepresentation("dddddddd"), null, 0);
+        assertEquals(1, cache.getSize());
+        assertEquals("dddddddd", cache.get("d", 0).getText());
+
+        // Larger entities are not cached
+        assertNull(cache.put("e", new StringRepresentation("eeeeeeeeeee"),
+                null, 0));
+        assertNull(cache.get("e", 0));
+
+        cache.invalidate("d");
+        assertEquals(0, cache.getSize());
+        cache.close();
+    }
+
+    @Test
+    public void testFileClient() throws Exception {
+        File directory = Files.createTempDirectory("entity-cache").toFile();
+        File file = new File(directory, "test.txt");
+        Files.write(file.toPath(), "first".getBytes(StandardCharsets.UTF_8));
+
+        Client client = new Client(new Context(), Protocol.FILE);
+        client.getContext().getParameters().add("cacheMaxEntries", "10");
+        client.start();
+
+        try {
+            String uri = LocalReference.createFileReference(file).toString();
+            Response response = client.handle(new Request(Method.GET, uri));
+            assertEquals(Status.SUCCESS_OK, response.getStatus());
+            assertEquals(MediaType.TEXT_PLAIN,
+                    response.getEntity().getMediaType());
+            assertEquals("first", response.getEntityAsText());
+
+            // Served from memory with the same strong tag
+            Response cached = client.handle(new Request(Method.GET, uri));
+            assertEquals(Status.SUCCESS_OK, cached.getStatus());
+            assertNotNull(cached.getEntity().getTag());
+            assertFalse(cached.getEntity().getTag().isWeak());
+            assertEquals(MediaType.TEXT_PLAIN,
+                    cached.getEntity().getMediaType());
+            assertEquals("first", cached.getEntityAsText());
+            assertEquals(cached.getEntity().getTag(),
+                    client.handle(new Request(Method.GET, uri)).getEntity()
+                            .getTag());
+
+            // Changes are noticed by the watch service
+            Files.write(file.toPath(),
+                    "second".getBytes(StandardCharsets.UTF_8));
+            String text = null;
+
+            for (int i = 0; (i < 300) && !"second".equals(text); i++) {
+                Thread.sleep(100);
+                text = client.handle(new Request(Method.GET, uri))
+                        .getEntityAsText();
+            }
+
+            assertEquals("second", text);
+        } finally {
+            client.stop();
+            file.delete();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testInvalidationDuringPut() throws Exception {
+        final EntityCache cache = new EntityCache(10, 1000, 100);
+        Representation representation = new StringRepresentation("stale") {
+            @Override
+            public InputStream getStream() throws IOException {
+                // The entry changes while its content is being read
+                cache.invalidate("a");
+                return super.getStream();
+            }
+        };
+
+        // The content read is still returned, but not cached
+        assertEquals("stale", cache.put("a", representation, null, 0)
+                .getText());
+        assertNull(cache.get("a", 0));
+        assertEquals(0, cache.getSize());
+
+        cache.put("a", new StringRepresentation("fresh"), null, 0);
+        assertEquals("fresh", cache.get("a", 0).getText());
+        cache.close();
+    }
+
+    @Test
+    public void testMetadata() throws Exception {
+        EntityCache cache = new EntityCache(10, 1000, 100);
+        Representation representation = new StringRepresentation("hello",
+                MediaType.TEXT_HTML);
+        Representation first = cache.put("a", representation, null, 60);
+        Representation second = cache.get("a", 60);
+
+        assertEquals(MediaType.TEXT_HTML, second.getMediaType());
+        assertEquals(5, second.getSize());
+        assertNotNull(second.getExpirationDate());
+        assertEquals(first.getTag(), second.getTag());
+        assertEquals("hello", second.getText());
+        cache.close();
+    }
+
+}
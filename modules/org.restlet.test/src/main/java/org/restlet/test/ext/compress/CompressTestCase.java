@@ -0,0 +1,156 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.compress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Context;
+import org.restlet.data.ClientInfo;
+import org.restlet.data.Encoding;
+import org.restlet.data.MediaType;
+import org.restlet.engine.Engine;
+import org.restlet.engine.application.DecodeRepresentation;
+import org.restlet.engine.application.EncodeRepresentation;
+import org.restlet.engine.application.Encoder;
+import org.restlet.ext.compress.BrotliHelper;
+import org.restlet.ext.compress.ZstdHelper;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.service.EncoderService;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the Brotli and Zstandard encoding helpers.
+ */
+public class CompressTestCase extends RestletTestCase {
+
+    private static String createText() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 500; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"item\"}\n");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Wraps the given content into a Brotli stream made of a single
+     * uncompressed meta-block.
+     */
+    private static byte[] toBrotli(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // WBITS, ISLAST, MNIBBLES, MLEN - 1 and ISUNCOMPRESSED bits
+        int header = ((content.length - 1) << 4) | (1 << 20);
+        out.write(header & 0xFF);
+        out.write((header >> 8) & 0xFF);
+        out.write((header >> 16) & 0xFF);
+        out.write(content, 0, content.length);
+
+        // Last and empty meta-block
+        out.write(0x03);
+        return out.toByteArray();
+    }
+
+    private static byte[] toByteArray(Representation representation)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        representation.write(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testBrotli() throws Exception {
+        assertTrue(Engine.getInstance().findHelper(Encoding.BROTLI, false,
+                true) instanceof BrotliHelper);
+        assertFalse(EncodeRepresentation.getSupportedEncodings().contains(
+                Encoding.BROTLI));
+        assertTrue(DecodeRepresentation.getSupportedEncodings().contains(
+                Encoding.BROTLI));
+
+        String text = createText();
+        Representation encoded = new ByteArrayRepresentation(
+                toBrotli(text.getBytes(StandardCharsets.UTF_8)),
+                MediaType.APPLICATION_JSON);
+        encoded.getEncodings().add(Encoding.BROTLI);
+        DecodeRepresentation decoded = new DecodeRepresentation(encoded);
+        assertTrue(decoded.isDecoding());
+        assertTrue(decoded.getEncodings().isEmpty());
+        assertEquals(text, decoded.getText());
+    }
+
+    @Test
+    public void testNegotiation() throws Exception {
+        Encoder encoder = new Encoder(new Context(), false, true,
+                new EncoderService());
+        ClientInfo clientInfo = new ClientInfo();
+        clientInfo.accept(Encoding.GZIP);
+        clientInfo.accept(Encoding.BROTLI);
+        clientInfo.accept(Encoding.ZSTD);
+        assertEquals(Encoding.ZSTD, encoder.getBestEncoding(clientInfo));
+
+        clientInfo = new ClientInfo();
+        clientInfo.accept(Encoding.GZIP);
+        clientInfo.accept(Encoding.ZSTD, 0.5F);
+        assertEquals(Encoding.GZIP, encoder.getBestEncoding(clientInfo));
+
+        clientInfo = new ClientInfo();
+        clientInfo.accept(Encoding.BROTLI);
+        assertEquals(null, encoder.getBestEncoding(clientInfo));
+    }
+
+    @Test
+    public void testZstd() throws Exception {
+        assertTrue(Engine.getInstance().findHelper(Encoding.ZSTD, true,
+                true) instanceof ZstdHelper);
+
+        String text = createText();
+        byte[] fastest = toByteArray(new EncodeRepresentation(Encoding.ZSTD,
+                new StringRepresentation(text), Deflater.BEST_SPEED));
+        byte[] smallest = toByteArray(new EncodeRepresentation(Encoding.ZSTD,
+                new StringRepresentation(text), Deflater.BEST_COMPRESSION));
+        assertTrue(fastest.length < text.length());
+        assertTrue(smallest.length < text.length());
+
+        Representation encoded = new EncodeRepresentation(Encoding.ZSTD,
+                new StringRepresentation(text, MediaType.APPLICATION_JSON));
+        assertEquals(Encoding.ZSTD, encoded.getEncodings().get(0));
+        assertEquals(text, new DecodeRepresentation(encoded).getText());
+
+        Representation received = new ByteArrayRepresentation(smallest);
+        received.getEncodings().add(Encoding.ZSTD);
+        assertEquals(text, new DecodeRepresentation(received).getText());
+    }
+
+}
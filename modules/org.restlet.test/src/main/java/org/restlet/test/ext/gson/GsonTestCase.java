@@ -26,14 +26,22 @@ package org.restlet.test.ext.gson;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.joda.time.DateTime;
 import org.junit.jupiter.api.BeforeEach;
@@ -41,11 +49,14 @@ import org.junit.jupiter.api.Test;
 import org.restlet.data.MediaType;
 import org.restlet.ext.gson.GsonConverter;
 import org.restlet.ext.gson.GsonRepresentation;
+import org.restlet.ext.gson.GsonSequenceRepresentation;
 import org.restlet.representation.EmptyRepresentation;
 import org.restlet.representation.ReaderRepresentation;
 import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
 import org.restlet.representation.Variant;
 
+import com.google.gson.GsonBuilder;
 import com.google.gson.annotations.Since;
 
 /**
@@ -187,6 +198,68 @@ public class GsonTestCase {
 
     }
 
+    @Test
+    public final void testSequence() throws IOException {
+        // Streams are written incrementally as a JSON array, then closed
+        final AtomicBoolean closed = new AtomicBoolean();
+        Stream<String> stream = Stream.of("a", "b").onClose(new Runnable() {
+            public void run() {
+                closed.set(true);
+            }
+        });
+        Representation rep = c.toRepresentation(stream, new Variant(
+                MediaType.APPLICATION_JSON), null);
+        assertTrue(rep instanceof GsonSequenceRepresentation);
+        assertEquals(MediaType.APPLICATION_JSON, rep.getMediaType());
+        assertSame(c.getGson(),
+                ((GsonSequenceRepresentation<?>) rep).getGson());
+        assertFalse(closed.get());
+        assertEquals("[\"a\",\"b\"]", rep.getText());
+        assertTrue(closed.get());
+
+        // Any sequence can be written as NDJSON
+        rep = c.toRepresentation(Arrays.asList(1, 2, 3).iterator(),
+                new Variant(MediaType.APPLICATION_NDJSON), null);
+        assertEquals("1\n2\n3\n", rep.getText());
+
+        // NDJSON elements are never indented
+        GsonSequenceRepresentation<Map<String, Integer>> lines = new GsonSequenceRepresentation<>(
+                MediaType.APPLICATION_NDJSON, Arrays.asList(
+                        Collections.singletonMap("a", 1),
+                        Collections.singletonMap("b", 2)));
+        lines.setGson(new GsonBuilder().setPrettyPrinting().create());
+        assertEquals("{\"a\":1}\n{\"b\":2}\n", lines.getText());
+
+        GsonSequenceRepresentation<Integer> sequence = new GsonSequenceRepresentation<>(
+                MediaType.APPLICATION_JSON, Arrays.asList(1, null, 3));
+        sequence.setFlushSize(1);
+        assertEquals("[1,null,3]", sequence.getText());
+        assertEquals("[]", new GsonSequenceRepresentation<>(
+                MediaType.APPLICATION_JSON, Stream.empty()).getText());
+    }
+
+    @Test
+    public final void testSharedGson() throws IOException {
+        Variant v = new Variant(MediaType.APPLICATION_JSON);
+        GsonRepresentation<?> rep = (GsonRepresentation<?>) c
+                .toRepresentation(user, v, null);
+        GsonRepresentation<?> rep1 = (GsonRepresentation<?>) c
+                .toRepresentation("text", v, null);
+        assertSame(c.getGson(), rep.getGson());
+        assertSame(c.getGson(), rep1.getGson());
+        assertEquals("\"text\"", rep1.getText());
+
+        User u = c.toObject(new StringRepresentation(rep.getText(),
+                MediaType.APPLICATION_JSON), User.class, null);
+        assertEquals(user.getLoginId(), u.getLoginId());
+        assertEquals(user.getCreateAt(), u.getCreateAt());
+
+        // Customizing the builder replaces the shared instance
+        rep.getBuilder().setVersion(1.0);
+        assertNotSame(c.getGson(), rep.getGson());
+        assertFalse(rep.getText().contains("lastLogin"));
+    }
+
     @Test
     public final void testScoreObjectVariantResource() {
         Variant v = new Variant(MediaType.APPLICATION_JSON);
@@ -25,18 +25,29 @@
 package org.restlet.test.ext.jackson;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.restlet.data.MediaType;
+import org.restlet.ext.jackson.JacksonConverter;
 import org.restlet.ext.jackson.JacksonRepresentation;
+import org.restlet.ext.jackson.JacksonSequenceRepresentation;
 import org.restlet.representation.Representation;
 import org.restlet.representation.StringRepresentation;
+import org.restlet.representation.Variant;
 import org.restlet.resource.ClientResource;
 import org.restlet.test.RestletTestCase;
 
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 /**
  * Unit test for the Jackson extension.
  *
@@ -116,6 +127,95 @@ public class JacksonTestCase extends RestletTestCase {
         verify(customer, rep.getObject());
     }
 
+    @Test
+    public void testSequence() throws Exception {
+        JacksonConverter converter = new JacksonConverter();
+        String invoice = "{\"date\":1356533333882,\"amount\":12456,\"paid\":false}";
+
+        // Streams are written incrementally as a JSON array, then closed
+        final AtomicBoolean closed = new AtomicBoolean();
+        Stream<Invoice> stream = Stream.of(createInvoice(), createInvoice())
+                .onClose(new Runnable() {
+                    public void run() {
+                        closed.set(true);
+                    }
+                });
+        Representation rep = converter.toRepresentation(stream, new Variant(
+                MediaType.APPLICATION_JSON), null);
+        assertTrue(rep instanceof JacksonSequenceRepresentation);
+        assertTrue(rep.isTransient());
+        assertFalse(closed.get());
+        assertEquals("[" + invoice + "," + invoice + "]", rep.getText());
+        assertTrue(closed.get());
+
+        // Any sequence can be written as NDJSON
+        rep = converter.toRepresentation(
+                Arrays.asList(createInvoice(), createInvoice()).iterator(),
+                new Variant(MediaType.APPLICATION_NDJSON), null);
+        assertEquals(MediaType.APPLICATION_NDJSON, rep.getMediaType());
+        assertEquals(invoice + "\n" + invoice + "\n", rep.getText());
+
+        // NDJSON elements are never indented
+        JacksonSequenceRepresentation<Invoice> lines = new JacksonSequenceRepresentation<>(
+                MediaType.APPLICATION_NDJSON, Arrays.asList(createInvoice(),
+                        createInvoice()));
+        lines.getObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        assertEquals(invoice + "\n" + invoice + "\n", lines.getText());
+
+        rep = converter.toRepresentation(createInvoice(), new Variant(
+                MediaType.APPLICATION_NDJSON), null);
+        assertEquals(invoice + "\n", rep.getText());
+
+        // Empty sequences and small flush sizes
+        JacksonSequenceRepresentation<Invoice> sequence = new JacksonSequenceRepresentation<>(
+                MediaType.APPLICATION_JSON, Stream.<Invoice> empty());
+        assertEquals("[]", sequence.getText());
+        sequence = new JacksonSequenceRepresentation<>(
+                MediaType.APPLICATION_JSON, Arrays.asList(createInvoice(),
+                        null, createInvoice()));
+        sequence.setFlushSize(1);
+        assertEquals("[" + invoice + ",null," + invoice + "]",
+                sequence.getText());
+
+        assertTrue(converter.getVariants(Stream.class).size() > converter
+                .getVariants(Invoice.class).size());
+    }
+
+    @Test
+    public void testSharedMappers() throws Exception {
+        JacksonConverter converter = new JacksonConverter();
+        Customer customer = createCustomer();
+        JacksonRepresentation<?> rep1 = (JacksonRepresentation<?>) converter
+                .toRepresentation(customer, new Variant(
+                        MediaType.APPLICATION_JSON), null);
+        JacksonRepresentation<?> rep2 = (JacksonRepresentation<?>) converter
+                .toRepresentation(createCustomer(), new Variant(
+                        MediaType.APPLICATION_JSON), null);
+        assertSame(rep1.getObjectWriter(), rep2.getObjectWriter());
+        assertEquals(rep1.getText(), rep2.getText());
+
+        Customer parsed = converter.toObject(new StringRepresentation(
+                rep1.getText(), MediaType.APPLICATION_JSON), Customer.class,
+                null);
+        verify(customer, parsed);
+        assertSame(converter.getMapperCache().getObjectReader(
+                MediaType.APPLICATION_JSON, Customer.class), converter
+                .getMapperCache().getObjectReader(MediaType.APPLICATION_JSON,
+                        Customer.class));
+
+        // Customizing a mapper must not affect the other representations
+        String text = rep2.getText();
+        rep1.getObjectMapper().configure(SerializationFeature.INDENT_OUTPUT,
+                true);
+        assertNotSame(rep1.getObjectMapper(), rep2.getObjectMapper());
+        assertTrue(rep1.getText().contains("\n"));
+        assertEquals(text, rep2.getText());
+        JacksonRepresentation<?> rep3 = (JacksonRepresentation<?>) converter
+                .toRepresentation(createCustomer(), new Variant(
+                        MediaType.APPLICATION_JSON), null);
+        assertEquals(text, rep3.getText());
+    }
+
     @Test
     public void testSmile() throws Exception {
         Customer customer = createCustomer();
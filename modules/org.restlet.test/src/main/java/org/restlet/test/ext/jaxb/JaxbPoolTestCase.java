@@ -0,0 +1,178 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.jaxb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.ValidationEvent;
+import javax.xml.bind.ValidationEventHandler;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.data.MediaType;
+import org.restlet.ext.jaxb.JaxbRepresentation;
+import org.restlet.ext.jaxb.internal.PooledContext;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Tests the JAXB contexts cache and the pooled marshallers.
+ */
+public class JaxbPoolTestCase extends RestletTestCase {
+
+    @Test
+    public void testCheckin() throws Exception {
+        PooledContext context = new PooledContext(
+                JAXBContext.newInstance(Sample.class));
+        ValidationEventHandler handler = new ValidationEventHandler() {
+            public boolean handleEvent(ValidationEvent event) {
+                return true;
+            }
+        };
+
+        // The per-use state is reset before the objects are reused
+        Marshaller marshaller = context.checkoutMarshaller();
+        marshaller.setEventHandler(handler);
+        marshaller.setListener(new Marshaller.Listener() {
+        });
+        context.checkin(marshaller);
+        assertSame(marshaller, context.checkoutMarshaller());
+        assertNotSame(handler, marshaller.getEventHandler());
+        assertNull(marshaller.getListener());
+
+        Unmarshaller unmarshaller = context.checkoutUnmarshaller();
+        unmarshaller.setEventHandler(handler);
+        unmarshaller.setListener(new Unmarshaller.Listener() {
+        });
+        context.checkin(unmarshaller);
+        assertSame(unmarshaller, context.checkoutUnmarshaller());
+        assertNotSame(handler, unmarshaller.getEventHandler());
+        assertNull(unmarshaller.getListener());
+    }
+
+    @Test
+    public void testConcurrentCalls() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<Future<String>>();
+
+        try {
+            for (int i = 0; i < 200; i++) {
+                final String value = "value" + i;
+                final boolean formatted = (i % 2 == 0);
+                results.add(executor.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        JaxbRepresentation<Sample> rep = new JaxbRepresentation<Sample>(
+                                MediaType.APPLICATION_XML, new Sample(value));
+                        rep.setFormattedOutput(formatted);
+                        String xml = rep.getText();
+                        assertEquals(formatted, xml.contains("\n    <value>"));
+
+                        return new JaxbRepresentation<Sample>(
+                                new StringRepresentation(xml,
+                                        MediaType.APPLICATION_XML),
+                                Sample.class).getObject().getVal();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals("value" + i, results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testContextCache() throws Exception {
+        String contextPath = Sample.class.getPackage().getName();
+        ClassLoader classLoader = Sample.class.getClassLoader();
+        assertSame(JaxbRepresentation.getContext(contextPath, classLoader),
+                JaxbRepresentation.getContext(contextPath, classLoader));
+
+        // Contexts of distinct class loaders aren't mixed
+        URLClassLoader otherLoader = new URLClassLoader(new URL[0],
+                classLoader);
+
+        try {
+            assertNotSame(
+                    JaxbRepresentation.getContext(contextPath, classLoader),
+                    JaxbRepresentation.getContext(contextPath, otherLoader));
+        } finally {
+            otherLoader.close();
+        }
+    }
+
+    @Test
+    public void testFailedParse() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            try {
+                new JaxbRepresentation<Sample>(new StringRepresentation(
+                        "<sample><value>broken", MediaType.APPLICATION_XML),
+                        Sample.class).getObject();
+                fail("The document shouldn't be parsed");
+            } catch (IOException e) {
+                // Expected
+            }
+        }
+
+        // The readers of failed parses aren't reused
+        String xml = new JaxbRepresentation<Sample>(MediaType.APPLICATION_XML,
+                new Sample("parsed")).getText();
+        assertEquals("parsed", new JaxbRepresentation<Sample>(
+                new StringRepresentation(xml, MediaType.APPLICATION_XML),
+                Sample.class).getObject().getVal());
+    }
+
+    @Test
+    public void testSchemaLocation() throws Exception {
+        JaxbRepresentation<Sample> rep = new JaxbRepresentation<Sample>(
+                new Sample("located"));
+        rep.setSchemaLocation("http://www.example.com/ns sample.xsd");
+        assertTrue(rep.getText().contains("sample.xsd"));
+
+        // The property doesn't leak into the pooled marshallers
+        rep = new JaxbRepresentation<Sample>(new Sample("plain"));
+        assertTrue(!rep.getText().contains("sample.xsd"));
+    }
+
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.jetty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.Uniform;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the asynchronous calls of the Jetty HTTP client connector.
+ */
+public class JettyAsyncClientTestCase extends RestletTestCase {
+
+    private Client client;
+
+    private Component component;
+
+    private String uri;
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.engine.connector.HttpServerHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.ext.jetty.HttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        this.component = new Component();
+        Server server = this.component.getServers().add(Protocol.HTTP, 0);
+        this.component.getDefaultHost().attach("/echo", new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                String size = request.getResourceRef().getQueryAsForm()
+                        .getFirstValue("size");
+                StringBuilder sb = new StringBuilder();
+
+                if (size == null) {
+                    sb.append(request.getResourceRef().getQuery());
+                } else {
+                    for (int i = 0; i < Integer.parseInt(size); i++) {
+                        sb.append('x');
+                    }
+                }
+
+                response.setEntity(new StringRepresentation(sb,
+                        MediaType.TEXT_PLAIN));
+            }
+        });
+        this.component.start();
+        this.uri = "http://localhost:" + server.getEphemeralPort() + "/echo";
+
+        this.client = new Client(new Context(), Protocol.HTTP);
+        this.client.getContext().getParameters()
+                .add("maxConnectionsPerDestination", "4");
+        this.client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.client.stop();
+        this.component.stop();
+        Engine.register();
+    }
+
+    @Test
+    public void testConcurrentCalls() throws Exception {
+        final int count = 200;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final Set<String> entities = Collections
+                .synchronizedSet(new HashSet<String>());
+        final AtomicInteger failures = new AtomicInteger();
+
+        for (int i = 0; i < count; i++) {
+            Request request = new Request(Method.GET, this.uri + "?item" + i);
+            request.setOnResponse(new Uniform() {
+                @Override
+                public void handle(Request request, Response response) {
+                    try {
+                        if (Status.SUCCESS_OK.equals(response.getStatus())) {
+                            entities.add(response.getEntityAsText());
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+            this.client.handle(request);
+        }
+
+        // Requests are queued rather than blocking the calling thread
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertEquals(0, failures.get());
+        assertEquals(count, entities.size());
+        assertTrue(entities.contains("item7"));
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Status[] statuses = new Status[1];
+
+        // Unreachable server
+        Request request = new Request(Method.GET, "http://localhost:1/echo");
+        request.setOnResponse(new Uniform() {
+            @Override
+            public void handle(Request request, Response response) {
+                statuses[0] = response.getStatus();
+                latch.countDown();
+            }
+        });
+        this.client.handle(request);
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertTrue(statuses[0].isConnectorError());
+    }
+
+    @Test
+    public void testLargeResponse() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final String[] entity = new String[1];
+        // Streamed to the callback rather than buffered in memory
+        Request request = new Request(Method.GET, this.uri + "?size=5000000");
+        request.setOnResponse(new Uniform() {
+            @Override
+            public void handle(Request request, Response response) {
+                entity[0] = response.getEntityAsText();
+                latch.countDown();
+            }
+        });
+        this.client.handle(request);
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertEquals(5000000, entity[0].length());
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.jetty;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Range;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.engine.application.RangeRepresentation;
+import org.restlet.representation.FileRepresentation;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the file responses of the Jetty server connector.
+ */
+public class JettyFileTestCase extends RestletTestCase {
+
+    private Client client;
+
+    private Component component;
+
+    private File file;
+
+    private byte[] fileContent;
+
+    private String uri;
+
+    private byte[] get(String path, Status expectedStatus) throws Exception {
+        Response response = this.client.handle(new Request(Method.GET,
+                this.uri + path));
+        assertEquals(expectedStatus, response.getStatus());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getEntity().write(out);
+        return out.toByteArray();
+    }
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.ext.jetty.HttpServerHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.engine.connector.HttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        // Larger than the default output buffer of Jetty
+        this.fileContent = new byte[200000];
+
+        for (int i = 0; i < this.fileContent.length; i++) {
+            this.fileContent[i] = (byte) i;
+        }
+
+        this.file = File.createTempFile("jetty-file", ".bin");
+
+        try (OutputStream out = new FileOutputStream(this.file)) {
+            out.write(this.fileContent);
+        }
+
+        this.component = new Component();
+        this.component.getDefaultHost().attach("/file", new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                response.setEntity(new FileRepresentation(file,
+                        MediaType.APPLICATION_OCTET_STREAM));
+            }
+        });
+        this.component.getDefaultHost().attach("/range", new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                response.setEntity(new RangeRepresentation(
+                        new FileRepresentation(file,
+                                MediaType.APPLICATION_OCTET_STREAM),
+                        new Range(1000, 100000)));
+                response.setStatus(Status.SUCCESS_PARTIAL_CONTENT);
+            }
+        });
+
+        Server server = this.component.getServers().add(Protocol.HTTP, 0);
+        this.component.start();
+        this.uri = "http://localhost:" + server.getEphemeralPort();
+
+        this.client = new Client(new Context(), Protocol.HTTP);
+        this.client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.client.stop();
+        this.component.stop();
+        this.file.delete();
+        Engine.register();
+    }
+
+    @Test
+    public void testFile() throws Exception {
+        assertArrayEquals(this.fileContent, get("/file", Status.SUCCESS_OK));
+    }
+
+    @Test
+    public void testFileRange() throws Exception {
+        byte[] expected = new byte[100000];
+        System.arraycopy(this.fileContent, 1000, expected, 0, expected.length);
+        assertArrayEquals(expected,
+                get("/range", Status.SUCCESS_PARTIAL_CONTENT));
+    }
+
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.jetty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.Uniform;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the HTTP/2 support of the Jetty connectors.
+ */
+public class JettyHttp2TestCase extends RestletTestCase {
+
+    private Component component;
+
+    private File keystore;
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.ext.jetty.HttpServerHelper(null));
+        engine.getRegisteredServers().add(
+                new org.restlet.ext.jetty.HttpsServerHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.ext.jetty.HttpClientHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.engine.connector.HttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        this.keystore = File.createTempFile("jetty-http2", ".jks");
+
+        try (InputStream in = getClass().getResourceAsStream(
+                "/org/restlet/test/engine/connector/dummy.jks")) {
+            Files.copy(in, this.keystore.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        this.component = new Component();
+        this.component.getDefaultHost().attach("/echo", new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                String version = (String) request.getAttributes().get(
+                        HeaderConstants.ATTRIBUTE_VERSION);
+                String text = version + " " + request.getMethod() + " "
+                        + request.getResourceRef().getQuery();
+
+                if (request.isEntityAvailable()) {
+                    text += " " + request.getEntityAsText();
+                }
+
+                response.setEntity(new StringRepresentation(text,
+                        MediaType.TEXT_PLAIN));
+            }
+        });
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.component.stop();
+        this.keystore.delete();
+        Engine.register();
+    }
+
+    @Test
+    public void testH2() throws Exception {
+        Server server = this.component.getServers().add(Protocol.H2, 0);
+        server.getContext().getParameters().add("keystorePath",
+                this.keystore.getPath());
+        server.getContext().getParameters().add("keystorePassword", "testtest");
+        server.getContext().getParameters().add("keyPassword", "testtest");
+        this.component.start();
+
+        Client client = new Client(new Context(), Protocol.H2);
+        client.getContext().getParameters().add("truststorePath",
+                this.keystore.getPath());
+        client.getContext().getParameters().add("truststorePassword",
+                "testtest");
+        client.start();
+
+        try {
+            Response response = client.handle(new Request(Method.GET,
+                    "https://localhost:" + server.getEphemeralPort()
+                            + "/echo?a=b"));
+            assertEquals(Status.SUCCESS_OK, response.getStatus());
+            assertEquals("HTTP/2.0 GET a=b", response.getEntityAsText());
+        } finally {
+            client.stop();
+        }
+    }
+
+    @Test
+    public void testH2c() throws Exception {
+        Server server = this.component.getServers().add(Protocol.H2C, 0);
+        server.getContext().getParameters().add("http2.maxConcurrentStreams",
+                "32");
+        this.component.start();
+        String uri = "http://localhost:" + server.getEphemeralPort() + "/echo";
+
+        Client client = new Client(new Context(), Protocol.H2C);
+        client.start();
+
+        try {
+            Request request = new Request(Method.POST, uri + "?a=b");
+            request.setEntity("hello", MediaType.TEXT_PLAIN);
+            Response response = client.handle(request);
+            assertEquals(Status.SUCCESS_OK, response.getStatus());
+            assertEquals("HTTP/2.0 POST a=b hello", response.getEntityAsText());
+
+            // Concurrent calls are multiplexed on the same connection
+            final int count = 100;
+            final CountDownLatch latch = new CountDownLatch(count);
+            final AtomicInteger successes = new AtomicInteger();
+
+            for (int i = 0; i < count; i++) {
+                request = new Request(Method.GET, uri + "?item" + i);
+                request.setOnResponse(new Uniform() {
+                    @Override
+                    public void handle(Request request, Response response) {
+                        if (Status.SUCCESS_OK.equals(response.getStatus())
+                                && response.getEntityAsText().startsWith(
+                                        "HTTP/2.0 GET item")) {
+                            successes.incrementAndGet();
+                        }
+
+                        latch.countDown();
+                    }
+                });
+                client.handle(request);
+            }
+
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+            assertEquals(count, successes.get());
+        } finally {
+            client.stop();
+        }
+    }
+
+    @Test
+    public void testH2cFallback() throws Exception {
+        Server server = this.component.getServers().add(Protocol.H2C, 0);
+        this.component.start();
+
+        // HTTP/1.1 clients are still served by the same connector
+        Client client = new Client(new Context(), Protocol.HTTP);
+        client.start();
+
+        try {
+            Response response = client.handle(new Request(Method.GET,
+                    "http://localhost:" + server.getEphemeralPort()
+                            + "/echo?a=b"));
+            assertEquals(Status.SUCCESS_OK, response.getStatus());
+            assertEquals("HTTP/1.1 GET a=b", response.getEntityAsText());
+        } finally {
+            client.stop();
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.servlet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.ext.servlet.ServerServlet;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.routing.Router;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the asynchronous mode of the {@link ServerServlet}.
+ */
+public class ServerServletAsyncTestCase extends RestletTestCase {
+
+    public static class TestApplication extends Application {
+
+        @Override
+        public Restlet createInboundRoot() {
+            Router router = new Router(getContext());
+            router.attach("/echo", new Restlet() {
+                @Override
+                public void handle(Request request, Response response) {
+                    try {
+                        byte[] content = toByteArray(request.getEntity()
+                                .getStream());
+                        response.setEntity(new ByteArrayRepresentation(
+                                content, MediaType.APPLICATION_OCTET_STREAM));
+                    } catch (Exception e) {
+                        response.setStatus(Status.SERVER_ERROR_INTERNAL, e);
+                    }
+                }
+            });
+            router.attach("/large", new Restlet() {
+                @Override
+                public void handle(Request request, Response response) {
+                    if (Method.GET.equals(request.getMethod())) {
+                        response.setEntity(new ByteArrayRepresentation(
+                                LARGE, MediaType.APPLICATION_OCTET_STREAM));
+                    }
+                }
+            });
+            return router;
+        }
+    }
+
+    /** Content larger than the response buffer of the container. */
+    private static final byte[] LARGE = new byte[4 * 1024 * 1024];
+
+    static {
+        new Random(42).nextBytes(LARGE);
+    }
+
+    private Server server;
+
+    private int port;
+
+    private static byte[] read(HttpURLConnection connection) throws Exception {
+        try (InputStream in = connection.getInputStream()) {
+            return toByteArray(in);
+        }
+    }
+
+    private static byte[] toByteArray(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IoUtils.copy(in, out);
+        return out.toByteArray();
+    }
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        this.server = new Server(0);
+        ServletContextHandler context = new ServletContextHandler();
+        ServletHolder holder = new ServletHolder(ServerServlet.class);
+        holder.setAsyncSupported(true);
+        holder.setInitParameter("org.restlet.application",
+                TestApplication.class.getName());
+        holder.setInitParameter("org.restlet.async", "true");
+        holder.setInitParameter("org.restlet.asyncBufferSize",
+                Integer.toString(2 * LARGE.length));
+        context.addServlet(holder, "/*");
+        this.server.setHandler(context);
+        this.server.start();
+        this.port = ((ServerConnector) this.server.getConnectors()[0])
+                .getLocalPort();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.server.stop();
+    }
+
+    @Test
+    public void testLargeRequest() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(
+                "http://localhost:" + this.port + "/echo").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(LARGE.length);
+        connection.setRequestProperty("Content-Type",
+                "application/octet-stream");
+
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(LARGE);
+        }
+
+        assertEquals(200, connection.getResponseCode());
+        assertArrayEquals(LARGE, read(connection));
+    }
+
+    @Test
+    public void testLargeResponse() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(
+                "http://localhost:" + this.port + "/large").openConnection();
+        assertEquals(200, connection.getResponseCode());
+        assertArrayEquals(LARGE, read(connection));
+    }
+
+    @Test
+    public void testTruncatedRequest() throws Exception {
+        try (Socket socket = new Socket("localhost", this.port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /echo HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Type: application/octet-stream\r\n"
+                    + "Content-Length: 100000\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.write(new byte[1000]);
+            out.flush();
+
+            // The client stops sending the entity before its end
+            socket.shutdownOutput();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    socket.getInputStream(), StandardCharsets.US_ASCII));
+            String statusLine = reader.readLine();
+            assertTrue(statusLine.startsWith("HTTP/1.1 400"), statusLine);
+        }
+    }
+
+}
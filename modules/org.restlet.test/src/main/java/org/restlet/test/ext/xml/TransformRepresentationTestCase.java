@@ -25,10 +25,19 @@
 package org.restlet.test.ext.xml;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import javax.xml.transform.Templates;
 
 import org.junit.jupiter.api.Test;
+import org.restlet.Context;
 import org.restlet.data.MediaType;
+import org.restlet.data.Reference;
+import org.restlet.data.Tag;
 import org.restlet.ext.xml.TransformRepresentation;
+import org.restlet.ext.xml.internal.TemplatesCache;
 import org.restlet.representation.Representation;
 import org.restlet.representation.StringRepresentation;
 import org.restlet.test.RestletTestCase;
@@ -87,4 +96,54 @@ public class TransformRepresentationTestCase extends RestletTestCase {
         assertEquals(this.output2, result);
     }
 
+    @Test
+    public void testStreamingSource() throws Exception {
+        assertNotNull(TransformRepresentation.toSaxSource(this.source)
+                .getXMLReader());
+    }
+
+    @Test
+    public void testTemplatesCache() throws Exception {
+        Context context = new Context();
+        Templates templates = new TransformRepresentation(context,
+                this.source, this.xslt1).getTemplates();
+        TransformRepresentation tr1 = new TransformRepresentation(context,
+                this.source, this.xslt1);
+        assertSame(templates, tr1.getTemplates());
+        assertEquals(this.output1, tr1.getText());
+        assertEquals(1, TemplatesCache.getInstance(context).size());
+
+        // A new version of the sheet is compiled again
+        this.xslt1.setTag(new Tag("v2"));
+        assertNotSame(templates, new TransformRepresentation(context,
+                this.source, this.xslt1).getTemplates());
+
+        // Sheets at the same location share their compiled form
+        this.xslt1.setLocationRef(new Reference("clap://class/test.xsl"));
+        this.xslt2.setLocationRef(new Reference("clap://class/test.xsl"));
+        this.xslt2.setTag(new Tag("v2"));
+        assertSame(new TransformRepresentation(context, this.source,
+                this.xslt1).getTemplates(), new TransformRepresentation(
+                context, this.source, this.xslt2).getTemplates());
+        assertEquals(3, TemplatesCache.getInstance(context).size());
+    }
+
+    @Test
+    public void testTemplatesCacheEviction() throws Exception {
+        TemplatesCache cache = new TemplatesCache();
+        this.xslt1.setLocationRef(new Reference("clap://class/first.xsl"));
+        Templates first = cache.getTemplates(this.xslt1, null);
+
+        for (int i = 0; i < 100; i++) {
+            // Keep the first sheet as the most recently used one
+            assertSame(first, cache.getTemplates(this.xslt1, null));
+            this.xslt2.setLocationRef(new Reference("clap://class/test" + i
+                    + ".xsl"));
+            cache.getTemplates(this.xslt2, null);
+        }
+
+        assertEquals(64, cache.size());
+        assertSame(first, cache.getTemplates(this.xslt1, null));
+    }
+
 }
@@ -0,0 +1,208 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.xpath.XPathConstants;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.data.MediaType;
+import org.restlet.ext.xml.DomRepresentation;
+import org.restlet.ext.xml.SaxRepresentation;
+import org.restlet.ext.xml.internal.XmlFactories;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.test.RestletTestCase;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Unit tests for the cached JAXP factories of the XML extension.
+ */
+public class XmlFactoriesTestCase extends RestletTestCase {
+
+    private static final String XML = "<?xml version=\"1.0\"?>\n"
+            + "<a:root xmlns:a=\"urn:a\" xmlns:b=\"urn:b\">"
+            + "<a:item>first</a:item><b:item>second</b:item></a:root>";
+
+    private DomRepresentation createDom() {
+        DomRepresentation result = new DomRepresentation(
+                new StringRepresentation(XML, MediaType.TEXT_XML));
+        result.setNamespaceAware(true);
+        return result;
+    }
+
+    @Test
+    public void testConcurrentExpressions() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+
+            for (int i = 0; i < 50; i++) {
+                final String prefix = (i % 2 == 0) ? "a" : "b";
+                results.add(executor.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        DomRepresentation dom = createDom();
+                        dom.getNamespaces().put("a", "urn:a");
+                        dom.getNamespaces().put("x", "urn:" + prefix);
+                        return dom.getText("/a:root/x:item");
+                    }
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals((i % 2 == 0) ? "first" : "second", results.get(i)
+                        .get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCustomNamespaceContext() throws Exception {
+        DomRepresentation dom = new DomRepresentation(new StringRepresentation(
+                XML, MediaType.TEXT_XML)) {
+            @Override
+            public String getNamespaceURI(String prefix) {
+                return "x".equals(prefix) ? "urn:b" : super
+                        .getNamespaceURI(prefix);
+            }
+        };
+        dom.setNamespaceAware(true);
+        dom.getNamespaces().put("x", "urn:a");
+        assertEquals("second", dom.getText("/*/x:item"));
+        assertEquals("first", createDom().getText("/*/*[1]"));
+    }
+
+    @Test
+    public void testDocumentBuilderReuse() throws Exception {
+        DomRepresentation dom = createDom();
+        DocumentBuilder first = XmlFactories.checkoutDocumentBuilder(dom);
+        DocumentBuilder nested = XmlFactories.checkoutDocumentBuilder(dom);
+        assertNotSame(first, nested);
+        XmlFactories.checkin(nested);
+        XmlFactories.checkin(first);
+        assertSame(first, XmlFactories.checkoutDocumentBuilder(dom));
+        XmlFactories.checkin(first);
+
+        // Other parsing properties get another builder
+        dom.setCoalescing(true);
+        DocumentBuilder coalescing = XmlFactories.checkoutDocumentBuilder(dom);
+        assertNotSame(first, coalescing);
+        assertSame(first, XmlFactories.checkoutDocumentBuilder(createDom()));
+        XmlFactories.checkin(first);
+        XmlFactories.checkin(coalescing);
+
+        // Builders are given back after parsing
+        assertEquals("first", createDom().getText("/*/*[1]"));
+        assertSame(first, XmlFactories.checkoutDocumentBuilder(createDom()));
+        XmlFactories.checkin(first);
+    }
+
+    @Test
+    public void testExpressions() throws Exception {
+        Map<String, String> namespaces = new HashMap<String, String>();
+        namespaces.put("x", "urn:a");
+        DomRepresentation dom = createDom();
+        assertEquals("first", XmlFactories.evaluate("/x:root/x:item",
+                namespaces, dom.getDocument(), XPathConstants.STRING));
+
+        dom.setNamespaces(namespaces);
+        assertEquals("first", dom.getText("/x:root/x:item"));
+
+        // Same expression, other namespace binding
+        namespaces.put("x", "urn:b");
+        assertEquals("second", dom.getText("/*/x:item"));
+        assertEquals("", dom.getText("/x:root/x:item"));
+        assertEquals(2, dom.getNodes("/*/*").size());
+    }
+
+    @Test
+    public void testExternalEntities() throws Exception {
+        File file = File.createTempFile("entity", ".txt");
+
+        try {
+            Files.write(file.toPath(), "secret".getBytes(StandardCharsets.UTF_8));
+            String xml = "<?xml version=\"1.0\"?>\n"
+                    + "<!DOCTYPE root [<!ENTITY ext SYSTEM \""
+                    + file.toURI() + "\">]><root>&ext;</root>";
+
+            DomRepresentation dom = new DomRepresentation(
+                    new StringRepresentation(xml, MediaType.TEXT_XML));
+            assertFalse(dom.getText("/root").contains("secret"));
+
+            final StringBuilder text = new StringBuilder();
+            new SaxRepresentation(new StringRepresentation(xml,
+                    MediaType.TEXT_XML)).parse(new DefaultHandler() {
+                @Override
+                public void characters(char[] ch, int start, int length) {
+                    text.append(ch, start, length);
+                }
+            });
+            assertFalse(text.toString().contains("secret"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTransformerReuse() throws Exception {
+        Transformer first = XmlFactories.checkoutTransformer();
+        Transformer nested = XmlFactories.checkoutTransformer();
+        assertNotSame(first, nested);
+        XmlFactories.checkin(nested);
+        XmlFactories.checkin(first);
+        assertSame(first, XmlFactories.checkoutTransformer());
+        XmlFactories.checkin(first);
+
+        // Serialization gives it back with its output properties reset
+        DomRepresentation dom = createDom();
+        dom.setIndenting(true);
+        assertEquals(dom.getText(), dom.getText());
+        assertSame(first, XmlFactories.checkoutTransformer());
+        assertEquals("no", first.getOutputProperty(OutputKeys.INDENT));
+        XmlFactories.checkin(first);
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.engine.resource.AnnotationUtils;
+import org.restlet.engine.resource.MethodAnnotationInfo;
+import org.restlet.resource.ClientResource;
+import org.restlet.resource.ResourceException;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Test the annotated client interfaces returning futures.
+ */
+public class AnnotatedResource21TestCase extends RestletTestCase {
+
+    private ClientResource clientResource;
+
+    private MyResource21 myResource;
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Application application = new Application();
+        application.setInboundRoot(MyServerResource21.class);
+
+        this.clientResource = new ClientResource("http://local");
+        this.clientResource.setNext(application);
+        this.myResource = clientResource.wrap(MyResource21.class);
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        clientResource = null;
+        myResource = null;
+    }
+
+    @Test
+    public void testComposition() throws Exception {
+        CompletableFuture<String> result = myResource.represent()
+                .thenCombine(myResource.store("world"),
+                        new BiFunction<String, String, String>() {
+                            @Override
+                            public String apply(String first, String second) {
+                                return first + ", " + second;
+                            }
+                        });
+        assertEquals("hello, stored world",
+                result.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testError() throws Exception {
+        try {
+            myResource.remove().get(10, TimeUnit.SECONDS);
+            fail("Exception should be thrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ResourceException);
+            assertEquals(404, ((ResourceException) e.getCause())
+                    .getStatus().getCode());
+        }
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        assertEquals("hello", myResource.represent().get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOutputTypes() throws Exception {
+        AnnotationUtils utils = AnnotationUtils.getInstance();
+        MethodAnnotationInfo info = utils.getMethodAnnotation(
+                utils.getAnnotations(MyResource21.class),
+                MyResource21.class.getMethod("represent"));
+        assertTrue(info.isAsynchronous());
+        assertEquals(String.class, info.getJavaOutputValueType());
+
+        // Server resources convert the value they return as is
+        assertEquals(CompletableFuture.class, info.getJavaOutputType());
+    }
+
+    @Test
+    public void testPut() throws Exception {
+        assertEquals("stored value",
+                myResource.store("value").get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Component;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Dimension;
+import org.restlet.data.Encoding;
+import org.restlet.data.LocalReference;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.application.DecodeRepresentation;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.resource.Directory;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the precompressed files served by the {@link Directory}.
+ */
+public class DirectoryPrecompressedTestCase extends RestletTestCase {
+
+    private Application application;
+
+    private Component component;
+
+    private File directory;
+
+    private String text;
+
+    private Response get(Encoding acceptedEncoding) {
+        Request request = new Request(Method.GET, "http://localhost/app.css");
+        request.getResourceRef().setBaseRef("http://localhost/");
+
+        if (acceptedEncoding != null) {
+            request.getClientInfo().accept(acceptedEncoding);
+        }
+
+        Response response = new Response(request);
+        this.application.handle(request, response);
+        return response;
+    }
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        this.directory = Files.createTempDirectory("precompressed").toFile();
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 200; i++) {
+            sb.append(".rule").append(i).append(" { color: red; }\n");
+        }
+
+        this.text = sb.toString();
+        byte[] content = this.text.getBytes(StandardCharsets.UTF_8);
+        Files.write(new File(this.directory, "app.css").toPath(), content);
+
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(
+                new File(this.directory, "app.css.gz").toPath()))) {
+            out.write(content);
+        }
+
+        this.component = new Component();
+        this.component.getClients().add(Protocol.FILE);
+        this.application = new Application() {
+            @Override
+            public Restlet createInboundRoot() {
+                Directory result = new Directory(getContext(),
+                        LocalReference.createFileReference(directory));
+                result.setPrecompressed(true);
+                return result;
+            }
+        };
+        this.component.getDefaultHost().attach(this.application);
+        this.component.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.component.stop();
+        IoUtils.delete(this.directory, true);
+    }
+
+    @Test
+    public void testIdentity() throws Exception {
+        Response response = get(null);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertTrue(response.getEntity().getEncodings().isEmpty());
+        assertEquals(this.text, response.getEntity().getText());
+    }
+
+    @Test
+    public void testMissingPrecompressed() throws Exception {
+        assertTrue(get(Encoding.BROTLI).getEntity().getEncodings().isEmpty());
+
+        // The missing file isn't looked up again until the original changes
+        Files.write(new File(this.directory, "app.css.br").toPath(),
+                new byte[] { 1, 2, 3 });
+        assertTrue(get(Encoding.BROTLI).getEntity().getEncodings().isEmpty());
+
+        File original = new File(this.directory, "app.css");
+        assertTrue(original.setLastModified(original.lastModified() + 10000));
+        Response response = get(Encoding.BROTLI);
+        assertEquals(1, response.getEntity().getEncodings().size());
+        assertEquals(Encoding.BROTLI,
+                response.getEntity().getEncodings().get(0));
+    }
+
+    @Test
+    public void testPrecompressed() throws Exception {
+        Response response = get(Encoding.GZIP);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals(MediaType.TEXT_CSS, response.getEntity().getMediaType());
+        assertEquals(1, response.getEntity().getEncodings().size());
+        assertEquals(Encoding.GZIP, response.getEntity().getEncodings().get(0));
+        assertTrue(response.getDimensions().contains(Dimension.ENCODING));
+        assertEquals(this.text,
+                new DecodeRepresentation(response.getEntity()).getText());
+
+        // No Brotli variant is available
+        response = get(Encoding.BROTLI);
+        assertTrue(response.getEntity().getEncodings().isEmpty());
+        assertEquals(this.text, response.getEntity().getText());
+    }
+
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.representation.OutputRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.resource.Finder;
+import org.restlet.resource.Get;
+import org.restlet.resource.ServerResource;
+import org.restlet.resource.Stateless;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Test the reuse of stateless server resources by the {@link Finder}.
+ */
+public class FinderTestCase extends RestletTestCase {
+
+    @Stateless
+    public static class ConfiguredResource extends CountingResource {
+
+        public ConfiguredResource() {
+            setName("configured");
+            setNegotiated(false);
+        }
+
+        @Override
+        protected void doInit() {
+            if (getQuery().getFirst("rename") != null) {
+                setName("renamed");
+            }
+        }
+
+        @Get("txt")
+        @Override
+        public String represent() {
+            return getName() + " " + isNegotiated();
+        }
+    }
+
+    public static class CountingResource extends ServerResource {
+
+        private static final AtomicInteger instances = new AtomicInteger();
+
+        public CountingResource() {
+            instances.incrementAndGet();
+        }
+
+        @Get("txt")
+        public String represent() {
+            return getReference().getPath();
+        }
+    }
+
+    public static class DeferredResource extends ServerResource {
+
+        private static final AtomicInteger instances = new AtomicInteger();
+
+        public DeferredResource() {
+            instances.incrementAndGet();
+        }
+
+        @Get("txt")
+        public String represent() {
+            getResponse().setAutoCommitting(false);
+            return "deferred";
+        }
+    }
+
+    @Stateless
+    public static class MissingResource extends CountingResource {
+
+        @Override
+        protected void doInit() {
+            if (getQuery().getFirst("missing") != null) {
+                setExisting(false);
+            }
+        }
+    }
+
+    @Stateless
+    public static class StatelessResource extends CountingResource {
+    }
+
+    @Stateless
+    public static class StreamingResource extends CountingResource {
+
+        @Get
+        public Representation stream() {
+            return new OutputRepresentation(MediaType.TEXT_PLAIN) {
+                @Override
+                public void write(OutputStream outputStream)
+                        throws IOException {
+                    // Calls back the resource while the entity is written
+                    outputStream.write(getReference().getPath().getBytes(
+                            StandardCharsets.UTF_8));
+                }
+            };
+        }
+    }
+
+    private static Response get(Finder finder, String path) throws Exception {
+        Request request = new Request(Method.GET, "http://local" + path);
+        Response response = new Response(request);
+        finder.handle(request, response);
+        return response;
+    }
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        CountingResource.instances.set(0);
+        DeferredResource.instances.set(0);
+    }
+
+    @Test
+    public void testConfiguredResource() throws Exception {
+        Finder finder = new Finder(null, ConfiguredResource.class);
+        assertEquals("renamed false", get(finder, "/configured?rename")
+                .getEntityAsText());
+
+        // The properties set by the constructor are restored
+        assertEquals("configured false", get(finder, "/configured")
+                .getEntityAsText());
+        assertEquals(1, CountingResource.instances.get());
+    }
+
+    @Test
+    public void testDeferredResponse() throws Exception {
+        Finder finder = new Finder(null, DeferredResource.class);
+        finder.setPooled(true);
+
+        for (int i = 0; i < 3; i++) {
+            get(finder, "/deferred");
+        }
+
+        assertEquals(3, DeferredResource.instances.get());
+    }
+
+    @Test
+    public void testPooledMode() throws Exception {
+        Finder finder = new Finder(null, CountingResource.class);
+        assertFalse(finder.isPooled());
+        finder.setPooled(true);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("/pooled/" + i, get(finder, "/pooled/" + i).getEntityAsText());
+        }
+
+        assertEquals(1, CountingResource.instances.get());
+    }
+
+    @Test
+    public void testRecycledState() throws Exception {
+        Finder finder = new Finder(null, MissingResource.class);
+        assertEquals(Status.CLIENT_ERROR_NOT_FOUND,
+                get(finder, "/recycled?missing").getStatus());
+
+        // The reused resource doesn't keep the flag of the previous call
+        Response response = get(finder, "/recycled");
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals("/recycled", response.getEntityAsText());
+        assertEquals(1, CountingResource.instances.get());
+    }
+
+    @Test
+    public void testStateful() throws Exception {
+        Finder finder = new Finder(null, CountingResource.class);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("/stateful/" + i, get(finder, "/stateful/" + i).getEntityAsText());
+        }
+
+        assertEquals(10, CountingResource.instances.get());
+    }
+
+    @Test
+    public void testStreaming() throws Exception {
+        Finder finder = new Finder(null, StreamingResource.class);
+        Response response = get(finder, "/streaming/0");
+
+        // Not reused before the entity has been written
+        assertEquals("/streaming/1", get(finder, "/streaming/1")
+                .getEntityAsText());
+        assertEquals(2, CountingResource.instances.get());
+        assertEquals("/streaming/0", response.getEntityAsText());
+
+        response.getOnSent().handle(response.getRequest(), response);
+        assertEquals("/streaming/2", get(finder, "/streaming/2")
+                .getEntityAsText());
+        assertEquals(2, CountingResource.instances.get());
+    }
+
+    @Test
+    public void testStateless() throws Exception {
+        Finder finder = new Finder(null, StatelessResource.class);
+
+        for (int i = 0; i < 10; i++) {
+            Response response = get(finder, "/stateless/" + i);
+            assertTrue(response.getStatus().isSuccess());
+            assertEquals("/stateless/" + i, response.getEntityAsText());
+        }
+
+        assertEquals(1, CountingResource.instances.get());
+
+        // Recycled resources don't retain the previous call
+        ServerResource resource = finder.create(null, null);
+        assertNull(resource.getRequest());
+        assertNull(resource.getResponse());
+    }
+
+}
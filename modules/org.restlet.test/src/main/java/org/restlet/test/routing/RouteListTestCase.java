@@ -24,6 +24,8 @@
 
 package org.restlet.test.routing;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -32,6 +34,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.restlet.Request;
 import org.restlet.Response;
+import org.restlet.engine.routing.RouteTrie;
 import org.restlet.routing.Route;
 import org.restlet.test.RestletTestCase;
 import org.restlet.util.RouteList;
@@ -119,4 +122,31 @@ public class RouteListTestCase extends RestletTestCase {
         assertNull(list.getRandom(null, null, 9f));
     }
 
+    @Test
+    public void testSubList() {
+        final RouteList list = new RouteList();
+        final Route first = new MockScoringRoute(5);
+        final Route second = new MockScoringRoute(5);
+        final Route third = new MockScoringRoute(5);
+
+        list.add(first);
+        list.add(second);
+        list.add(third);
+
+        RouteTrie trie = new RouteTrie(list);
+        assertTrue(trie.isCurrent(list));
+
+        // The sub-list is a snapshot, detached from the list
+        RouteList copy = list.subList(0, 2);
+        assertEquals(2, copy.size());
+        copy.remove(first);
+        copy.add(third);
+        assertEquals(3, list.size());
+        assertSame(first, list.get(0));
+        assertTrue(trie.isCurrent(list));
+
+        list.remove(first);
+        assertSame(second, copy.get(0));
+        assertFalse(trie.isCurrent(list));
+    }
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Method;
+import org.restlet.data.Reference;
+import org.restlet.routing.Router;
+import org.restlet.routing.TemplateRoute;
+import org.restlet.test.RestletTestCase;
+import org.restlet.test.TraceRestlet;
+
+/**
+ * Test case for the {@link Router#MODE_TRIE_MATCH} routing mode.
+ */
+public class RouterTrieMatchTestCase extends RestletTestCase {
+
+    private static Request createRequest(String path) {
+        Request request = new Request(Method.GET, "http://localhost" + path);
+        request.getResourceRef().setBaseRef(new Reference("http://localhost"));
+        return request;
+    }
+
+    private static Router createRouter(int routingMode) {
+        Router router = new Router();
+        router.setRoutingMode(routingMode);
+        router.attach("/users", new TraceRestlet(null));
+        router.attach("/users/{id}", new TraceRestlet(null));
+        router.attach("/users/{id}/orders", new TraceRestlet(null));
+        router.attach("/users/{id}/orders/{orderId}", new TraceRestlet(null));
+        router.attach("/{collection}/all", new TraceRestlet(null));
+        router.attach("/other", new TraceRestlet(null));
+        return router;
+    }
+
+    @Test
+    public void testSameRoutesAsBestMatch() {
+        Router best = createRouter(Router.MODE_BEST_MATCH);
+        Router trie = createRouter(Router.MODE_TRIE_MATCH);
+        String[] paths = { "/users", "/users/12", "/users/12/orders", "/users/12/orders/3", "/users/all",
+                "/orders/all", "/other", "/unknown", "" };
+
+        for (String path : paths) {
+            Restlet expected = best.getNext(createRequest(path), new Response(null));
+            Restlet actual = trie.getNext(createRequest(path), new Response(null));
+
+            if (expected == null) {
+                assertNull(actual, path);
+            } else {
+                int index = best.getRoutes().indexOf(expected);
+                assertSame(trie.getRoutes().get(index), actual, path);
+            }
+        }
+    }
+
+    @Test
+    public void testVariables() throws Exception {
+        Router router = createRouter(Router.MODE_TRIE_MATCH);
+        router.start();
+
+        Request request = createRequest("/users/12/orders/3");
+        Response response = new Response(request);
+        router.handle(request, response);
+
+        assertEquals("12", request.getAttributes().get("id"));
+        assertEquals("3", request.getAttributes().get("orderId"));
+        router.stop();
+    }
+
+    @Test
+    public void testModifiedRoutes() throws Exception {
+        Router router = createRouter(Router.MODE_TRIE_MATCH);
+        router.start();
+        assertNull(router.getNext(createRequest("/added"), new Response(null)));
+
+        TemplateRoute added = router.attach("/added", new TraceRestlet(null));
+        assertSame(added, router.getNext(createRequest("/added"), new Response(null)));
+
+        router.getRoutes().remove(added);
+        assertNull(router.getNext(createRequest("/added"), new Response(null)));
+        router.stop();
+    }
+
+}
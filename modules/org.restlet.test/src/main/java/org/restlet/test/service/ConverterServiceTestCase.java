@@ -0,0 +1,193 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ *
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ *
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ *
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ *
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
+import org.restlet.engine.Engine;
+import org.restlet.engine.converter.ConverterHelper;
+import org.restlet.engine.converter.ConverterUtils;
+import org.restlet.engine.converter.DefaultConverter;
+import org.restlet.engine.resource.VariantInfo;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.representation.Variant;
+import org.restlet.resource.Resource;
+import org.restlet.service.ConverterService;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the converter service and its dispatch cache.
+ */
+public class ConverterServiceTestCase extends RestletTestCase {
+
+    /** Class of the tests, loaded by the same class loader as applications. */
+    private static class Bean {
+    }
+
+    /** Converter helper preferred for strings. */
+    private static class StringConverter extends DefaultConverter {
+
+        @Override
+        public List<VariantInfo> getVariants(Class<?> source) {
+            return Collections.singletonList(new VariantInfo(
+                    MediaType.TEXT_CSV));
+        }
+
+        @Override
+        public float score(Object source, Variant target, Resource resource) {
+            return (source instanceof String) ? 2.0F : -1.0F;
+        }
+
+        @Override
+        public <T> float score(Representation source, Class<T> target,
+                Resource resource) {
+            return String.class.equals(target) ? 2.0F : -1.0F;
+        }
+    }
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine.register(false).getRegisteredConverters().add(
+                new DefaultConverter());
+        ConverterUtils.clearCache();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        Engine.register();
+    }
+
+    @Test
+    public void testApplicationStop() throws Exception {
+        Variant variant = new Variant(MediaType.TEXT_PLAIN);
+        ConverterUtils.getBestHelper("text", variant, null);
+        ConverterUtils.getBestHelper(new Bean(), variant, null);
+        ConverterUtils.getBestHelper(new Bean(), variant, null);
+        assertEquals(1, ConverterUtils.getCacheHits());
+
+        // Stopping an application only releases its own classes
+        Application application = new Application();
+        application.start();
+        application.stop();
+        ConverterUtils.getBestHelper("text", variant, null);
+        ConverterUtils.getBestHelper(new Bean(), variant, null);
+        assertEquals(2, ConverterUtils.getCacheHits());
+        assertEquals(3, ConverterUtils.getCacheMisses());
+    }
+
+    @Test
+    public void testBypasses() {
+        Variant variant = new Variant(MediaType.TEXT_PLAIN);
+        variant.getLanguages().add(Language.ENGLISH);
+        ConverterUtils.getBestHelper("text", variant, null);
+        assertEquals(1, ConverterUtils.getCacheBypasses());
+
+        // Helpers depending on the converted values disable the cache
+        Engine.getInstance().getRegisteredConverters().add(
+                new StringConverter() {
+                    @Override
+                    public boolean isCacheable() {
+                        return false;
+                    }
+                });
+        variant = new Variant(MediaType.TEXT_PLAIN);
+        ConverterUtils.getBestHelper("text", variant, null);
+        ConverterUtils.getBestHelper("text", variant, null);
+        assertEquals(3, ConverterUtils.getCacheBypasses());
+        assertEquals(0, ConverterUtils.getCacheHits());
+        assertEquals(0, ConverterUtils.getCacheMisses());
+    }
+
+    @Test
+    public void testCachedHelpers() throws IOException {
+        ConverterService cs = new ConverterService();
+        Variant variant = new Variant(MediaType.TEXT_PLAIN);
+
+        assertNotNull(cs.toRepresentation("first", variant));
+        assertEquals(0, ConverterUtils.getCacheHits());
+        assertEquals(1, ConverterUtils.getCacheMisses());
+
+        assertNotNull(cs.toRepresentation("second", variant));
+        assertEquals("third",
+                cs.toObject(new StringRepresentation("third"), String.class,
+                        null));
+        assertEquals("fourth",
+                cs.toObject(new StringRepresentation("fourth"), String.class,
+                        null));
+        assertEquals(2, ConverterUtils.getCacheHits());
+        assertEquals(2, ConverterUtils.getCacheMisses());
+    }
+
+    @Test
+    public void testInvalidation() {
+        Variant variant = new Variant(MediaType.TEXT_PLAIN);
+        ConverterHelper defaultHelper = ConverterUtils.getBestHelper("text",
+                variant, null);
+        assertSame(defaultHelper,
+                ConverterUtils.getBestHelper("text", variant, null));
+
+        // Registering a new converter must invalidate the cache
+        StringConverter stringHelper = new StringConverter();
+        Engine.getInstance().getRegisteredConverters().add(stringHelper);
+        assertSame(stringHelper,
+                ConverterUtils.getBestHelper("text", variant, null));
+        assertSame(stringHelper, ConverterUtils.getBestHelper(
+                new StringRepresentation("text"), String.class, null));
+        assertEquals(1, ConverterUtils.getCacheHits());
+
+        Engine.getInstance().setRegisteredConverters(
+                Collections.<ConverterHelper> singletonList(defaultHelper));
+        assertSame(defaultHelper,
+                ConverterUtils.getBestHelper("text", variant, null));
+    }
+
+    @Test
+    public void testVariants() {
+        List<VariantInfo> variants = ConverterUtils.getVariants(String.class,
+                null);
+        variants.clear();
+
+        // The cached list must not be affected by callers
+        List<VariantInfo> cached = ConverterUtils.getVariants(String.class,
+                null);
+        assertEquals(1, ConverterUtils.getCacheHits());
+        assertFalse(cached.isEmpty());
+    }
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.engine.util.VirtualThreadExecutorService;
+import org.restlet.service.TaskService;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the task service.
+ */
+public class TaskServiceTestCase extends RestletTestCase {
+
+    /**
+     * Indicates if the current thread is a virtual thread.
+     */
+    private static final Callable<Boolean> IS_VIRTUAL = new Callable<Boolean>() {
+        public Boolean call() throws Exception {
+            try {
+                return (Boolean) Thread.class.getMethod("isVirtual").invoke(
+                        Thread.currentThread());
+            } catch (NoSuchMethodException e) {
+                return Boolean.FALSE;
+            }
+        }
+    };
+
+    @Test
+    public void testPlatformThreads() throws Exception {
+        TaskService taskService = new TaskService();
+
+        try {
+            assertEquals(Boolean.FALSE,
+                    taskService.submit(IS_VIRTUAL).get(5, TimeUnit.SECONDS));
+        } finally {
+            taskService.stop();
+        }
+    }
+
+    @Test
+    public void testUnsupportedWarning() {
+        final List<String> messages = new ArrayList<String>();
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+        });
+
+        boolean supported = VirtualThreadExecutorService.isSupported(logger,
+                "A thread pool");
+        assertEquals(VirtualThreadExecutorService.isSupported(), supported);
+
+        if (supported) {
+            assertTrue(messages.isEmpty());
+        } else {
+            assertEquals(1, messages.size());
+            assertEquals(
+                    "Virtual threads require Java 21 or later. A thread pool will be used instead.",
+                    messages.get(0));
+        }
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        TaskService taskService = new TaskService();
+        taskService.setVirtualThreads(true);
+
+        try {
+            // Falls back to the thread pool before Java 21
+            assertEquals(
+                    Boolean.valueOf(VirtualThreadExecutorService.isSupported()),
+                    taskService.submit(IS_VIRTUAL).get(5, TimeUnit.SECONDS));
+
+            // Scheduled tasks are still supported
+            assertNotNull(taskService.schedule(IS_VIRTUAL, 10,
+                    TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS));
+        } finally {
+            taskService.stop();
+        }
+    }
+
+}
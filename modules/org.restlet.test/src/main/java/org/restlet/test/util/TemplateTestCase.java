@@ -117,4 +117,32 @@ public class TemplateTestCase extends RestletTestCase {
                 + " not successful, but it should be.", parsed2 >= 0);
         assertEquals("hf%20kh", variables2.get("v1"));
     }
+
+    @Test
+    public void testSimpleMatching() {
+        String[] patterns = { "/users", "/users/{id}", "/users/{id}/orders/{orderId}", "/{collection}/all",
+                "/files/{name}.{ext}", "/items/{id}?{query}", "/hello/{name}%", "{a}" };
+        String[] strings = { "", "/users", "/users/", "/users/12", "/users/12/", "/users/12/orders/3",
+                "/users/a%20b/orders/c%2", "/users/12?x=1", "/books/all", "/files/a.b.c", "/items/1?a=b",
+                "/hello/ab%41", "/hello/ab%41%", "abc/def" };
+
+        for (String pattern : patterns) {
+            for (int mode : new int[] { Template.MODE_EQUALS, Template.MODE_STARTS_WITH }) {
+                Template simple = new Template(pattern, mode, Variable.TYPE_URI_SEGMENT, "", true, false);
+                Template regex = new Template(pattern, mode, Variable.TYPE_URI_SEGMENT, "", true, false);
+                regex.setSimpleMatching(false);
+
+                for (String string : strings) {
+                    Map<String, Object> simpleVariables = new HashMap<>();
+                    Map<String, Object> regexVariables = new HashMap<>();
+                    String message = pattern + " / " + string;
+                    assertEquals(regex.match(string), simple.match(string), message);
+                    assertEquals(regex.parse(string, regexVariables), simple.parse(string, simpleVariables),
+                            message);
+                    assertEquals(regexVariables, simpleVariables, message);
+                }
+            }
+        }
+    }
+
 }
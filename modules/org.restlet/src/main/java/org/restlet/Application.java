@@ -32,6 +32,7 @@ import java.util.logging.Level;
 import org.restlet.engine.Edition;
 import org.restlet.engine.Engine;
 import org.restlet.engine.application.ApplicationHelper;
+import org.restlet.engine.converter.ConverterUtils;
 import org.restlet.engine.resource.AnnotationUtils;
 import org.restlet.resource.ServerResource;
 import org.restlet.routing.Router;
@@ -616,8 +617,10 @@ public class Application extends Restlet {
 				getHelper().stop();
 			}
 
-			// Clear the annotations cache
+			// Clear the annotations cache and the converters cache entries of the
+			// application classes
 			AnnotationUtils.getInstance().clearCache();
+			ConverterUtils.clearCache(getClass().getClassLoader());
 		}
 	}
 
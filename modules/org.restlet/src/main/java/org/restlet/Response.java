@@ -547,7 +547,12 @@ public class Response extends Message {
 	 * the server connector to wait before sending the response back to the client
 	 * when the initial calling thread returns. This will let you do further updates
 	 * to the response and manually calling {@link #commit()} later on, using
-	 * another thread.
+	 * another thread.<br>
+	 * <br>
+	 * This property isn't used on the client-side. Connectors handling an
+	 * asynchronous request flag the responses that will only be completed later,
+	 * when invoking the {@link Request#getOnResponse()} callback, with a
+	 * transient attribute instead.
 	 * 
 	 * @return True if the response should be automatically committed.
 	 */
@@ -34,6 +34,9 @@ public final class Encoding extends Metadata {
 	/** All encodings acceptable. */
 	public static final Encoding ALL = new Encoding("*", "All encodings");
 
+	/** The Brotli compression defined by RFC 7932. */
+	public static final Encoding BROTLI = new Encoding("br", "Brotli compression");
+
 	/** The common Unix file compression. */
 	public static final Encoding COMPRESS = new Encoding("compress", "Common Unix compression");
 
@@ -59,6 +62,9 @@ public final class Encoding extends Metadata {
 	/** The Info-Zip encoding. */
 	public static final Encoding ZIP = new Encoding("zip", "Zip compression");
 
+	/** The Zstandard compression defined by RFC 8878. */
+	public static final Encoding ZSTD = new Encoding("zstd", "Zstandard compression");
+
 	/**
 	 * Returns the encoding associated to a name. If an existing constant exists
 	 * then it is returned, otherwise a new instance is created.
@@ -74,8 +80,12 @@ public final class Encoding extends Metadata {
 				result = ALL;
 			} else if (name.equalsIgnoreCase(GZIP.getName())) {
 				result = GZIP;
+			} else if (name.equalsIgnoreCase(BROTLI.getName())) {
+				result = BROTLI;
 			} else if (name.equalsIgnoreCase(ZIP.getName())) {
 				result = ZIP;
+			} else if (name.equalsIgnoreCase(ZSTD.getName())) {
+				result = ZSTD;
 			} else if (name.equalsIgnoreCase(COMPRESS.getName())) {
 				result = COMPRESS;
 			} else if (name.equalsIgnoreCase(DEFLATE.getName())) {
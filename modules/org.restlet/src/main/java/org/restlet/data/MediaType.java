@@ -208,6 +208,9 @@ public final class MediaType extends Metadata {
 	public static final MediaType APPLICATION_MSOFFICE_XLTX = register(
 			"application/vnd.openxmlformats-officedocument.spreadsheetml.template", "Office Excel 2007 template");
 
+	public static final MediaType APPLICATION_NDJSON = register("application/x-ndjson",
+			"Newline delimited JavaScript Object Notation document");
+
 	public static final MediaType APPLICATION_OCTET_STREAM = register("application/octet-stream", "Raw octet stream");
 
 	public static final MediaType APPLICATION_OPENOFFICE_ODB = register("application/vnd.oasis.opendocument.database",
@@ -73,6 +73,22 @@ public final class Protocol {
 	/** FTP protocol. */
 	public static final Protocol FTP = new Protocol("ftp", "FTP", "File Transfer Protocol", 21);
 
+	/**
+	 * HTTP/2 protocol over TLS, negotiated via ALPN. It shares the "https" scheme
+	 * with {@link #HTTPS}, so connectors supporting it can be selected by adding
+	 * it to their list of protocols.
+	 */
+	public static final Protocol H2 = new Protocol("https", "H2", "HTTP", "HyperText Transport Protocol 2 (Secure)",
+			443, true, "2.0");
+
+	/**
+	 * HTTP/2 protocol over cleartext TCP connections. It shares the "http" scheme
+	 * with {@link #HTTP}, so connectors supporting it can be selected by adding it
+	 * to their list of protocols.
+	 */
+	public static final Protocol H2C = new Protocol("http", "H2C", "HTTP", "HyperText Transport Protocol 2 (Cleartext)",
+			80, false, "2.0");
+
 	/** HTTP protocol. */
 	public static final Protocol HTTP = new Protocol("http", "HTTP", "HyperText Transport Protocol", 80, "1.1");
 
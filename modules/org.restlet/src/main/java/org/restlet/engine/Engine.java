@@ -42,6 +42,7 @@ import org.restlet.Context;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.data.ChallengeScheme;
+import org.restlet.data.Encoding;
 import org.restlet.data.Method;
 import org.restlet.data.Protocol;
 import org.restlet.engine.io.IoUtils;
@@ -78,6 +79,10 @@ public class Engine {
 
 	public static final String DESCRIPTOR_CONVERTER_PATH = DESCRIPTOR + "/" + DESCRIPTOR_CONVERTER;
 
+	public static final String DESCRIPTOR_ENCODING = "org.restlet.engine.application.EncodingHelper";
+
+	public static final String DESCRIPTOR_ENCODING_PATH = DESCRIPTOR + "/" + DESCRIPTOR_ENCODING;
+
 	public static final String DESCRIPTOR_PROTOCOL = "org.restlet.engine.ProtocolHelper";
 
 	public static final String DESCRIPTOR_PROTOCOL_PATH = DESCRIPTOR + "/" + DESCRIPTOR_PROTOCOL;
@@ -418,6 +423,9 @@ public class Engine {
 	/** List of available converter helpers. */
 	private final List<org.restlet.engine.converter.ConverterHelper> registeredConverters;
 
+	/** List of available encoding helpers. */
+	private final List<org.restlet.engine.application.EncodingHelper> registeredEncodings;
+
 	/** List of available protocol helpers. */
 	private final List<org.restlet.engine.connector.ProtocolHelper> registeredProtocols;
 
@@ -461,7 +469,8 @@ public class Engine {
 
 		this.registeredServers = new CopyOnWriteArrayList<org.restlet.engine.connector.ConnectorHelper<org.restlet.Server>>();
 		this.registeredAuthenticators = new CopyOnWriteArrayList<org.restlet.engine.security.AuthenticatorHelper>();
-		this.registeredConverters = new CopyOnWriteArrayList<org.restlet.engine.converter.ConverterHelper>();
+		this.registeredConverters = new org.restlet.engine.converter.ConverterHelperList();
+		this.registeredEncodings = new CopyOnWriteArrayList<org.restlet.engine.application.EncodingHelper>();
 
 		if (discoverHelpers) {
 			try {
@@ -470,6 +479,7 @@ public class Engine {
 
 				discoverAuthenticators();
 				discoverConverters();
+				discoverEncodings();
 			} catch (IOException e) {
 				Context.getCurrentLogger().log(Level.WARNING, "An error occurred while discovering the engine helpers.",
 						e);
@@ -622,6 +632,15 @@ public class Engine {
 		registerDefaultConverters();
 	}
 
+	/**
+	 * Discovers the encoding helpers.
+	 * 
+	 * @throws IOException
+	 */
+	private void discoverEncodings() throws IOException {
+		registerHelpers(DESCRIPTOR_ENCODING_PATH, getRegisteredEncodings(), null);
+	}
+
 	/**
 	 * Discovers the protocol helpers and register the default helpers.
 	 * 
@@ -669,6 +688,32 @@ public class Engine {
 		return result;
 	}
 
+	/**
+	 * Finds the encoding helper supporting the given encoding.
+	 * 
+	 * @param encoding The encoding to match.
+	 * @param encoder  Indicates if encoding support is required.
+	 * @param decoder  Indicates if decoding support is required.
+	 * @return The encoding helper or null.
+	 */
+	public org.restlet.engine.application.EncodingHelper findHelper(Encoding encoding, boolean encoder,
+			boolean decoder) {
+		org.restlet.engine.application.EncodingHelper result = null;
+		List<org.restlet.engine.application.EncodingHelper> helpers = getRegisteredEncodings();
+		org.restlet.engine.application.EncodingHelper current;
+
+		for (int i = 0; (result == null) && (i < helpers.size()); i++) {
+			current = helpers.get(i);
+
+			if (current.getEncoding().equals(encoding) && ((encoder && current.isEncoder()) || !encoder)
+					&& ((decoder && current.isDecoder()) || !decoder)) {
+				result = current;
+			}
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns the class loader. It uses the delegation model with the Engine
 	 * class's class loader as a parent. If this parent doesn't find a class or
@@ -733,6 +778,15 @@ public class Engine {
 		return registeredConverters;
 	}
 
+	/**
+	 * Returns the list of available encoding helpers.
+	 * 
+	 * @return The list of available encoding helpers.
+	 */
+	public List<org.restlet.engine.application.EncodingHelper> getRegisteredEncodings() {
+		return this.registeredEncodings;
+	}
+
 	/**
 	 * Returns the list of available protocol connectors.
 	 * 
@@ -1007,6 +1061,23 @@ public class Engine {
 		}
 	}
 
+	/**
+	 * Sets the list of available encoding helpers.
+	 * 
+	 * @param registeredEncodings The list of available encoding helpers.
+	 */
+	public void setRegisteredEncodings(List<org.restlet.engine.application.EncodingHelper> registeredEncodings) {
+		synchronized (this.registeredEncodings) {
+			if (registeredEncodings != this.registeredEncodings) {
+				this.registeredEncodings.clear();
+
+				if (registeredEncodings != null) {
+					this.registeredEncodings.addAll(registeredEncodings);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Sets the list of available protocol helpers.
 	 * 
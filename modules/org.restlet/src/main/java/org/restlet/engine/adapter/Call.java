@@ -128,6 +128,15 @@ public abstract class Call {
 	 * Constructor.
 	 */
 	public Call() {
+		this(new Series<Header>(Header.class));
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param requestHeaders The series that will hold the request headers.
+	 */
+	protected Call(Series<Header> requestHeaders) {
 		this.hostDomain = null;
 		this.hostPort = -1;
 		this.clientAddress = null;
@@ -136,7 +145,7 @@ public abstract class Call {
 		this.method = null;
 		this.protocol = null;
 		this.reasonPhrase = "";
-		this.requestHeaders = new Series<Header>(Header.class);
+		this.requestHeaders = requestHeaders;
 		this.requestUri = null;
 		this.responseHeaders = new Series<Header>(Header.class);
 		this.serverAddress = null;
@@ -45,6 +45,13 @@ import org.restlet.util.Series;
  */
 public class ClientAdapter extends Adapter {
 
+	/**
+	 * Name of the response attribute set to {@link Boolean#TRUE} when the
+	 * response of an asynchronous call will be completed later by its callback.
+	 * It is removed just before the callback is invoked.
+	 */
+	public static final String ATTRIBUTE_ASYNC_PENDING = "org.restlet.engine.adapter.asyncPending";
+
 	/**
 	 * Constructor.
 	 *
@@ -71,22 +78,33 @@ public class ClientAdapter extends Adapter {
 			if (request.isAsynchronous()) {
 				final Uniform userCallback = request.getOnResponse();
 
-				// Send the request to the client
-				httpCall.sendRequest(request, response, new Uniform() {
-					public void handle(Request request, Response response) {
-						try {
-							updateResponse(response, new Status(httpCall.getStatusCode(), httpCall.getReasonPhrase()),
-									httpCall);
-
-							if (userCallback != null) {
-								userCallback.handle(request, response);
+				// The response will be completed later by the callback
+				response.getAttributes().put(ATTRIBUTE_ASYNC_PENDING, Boolean.TRUE);
+
+				try {
+					// Send the request to the client
+					httpCall.sendRequest(request, response, new Uniform() {
+						public void handle(Request request, Response response) {
+							// The response is now complete
+							response.getAttributes().remove(ATTRIBUTE_ASYNC_PENDING);
+
+							try {
+								updateResponse(response,
+										new Status(httpCall.getStatusCode(), httpCall.getReasonPhrase()), httpCall);
+
+								if (userCallback != null) {
+									userCallback.handle(request, response);
+								}
+							} catch (Throwable t) {
+								getLogger().log(Level.WARNING,
+										"Unexpected error or exception inside the user call back", t);
 							}
-						} catch (Throwable t) {
-							getLogger().log(Level.WARNING, "Unexpected error or exception inside the user call back",
-									t);
 						}
-					}
-				});
+					});
+				} catch (Exception e) {
+					response.getAttributes().remove(ATTRIBUTE_ASYNC_PENDING);
+					throw e;
+				}
 			} else {
 				updateResponse(response, httpCall.sendRequest(request), httpCall);
 			}
@@ -36,7 +36,6 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.logging.Level;
 
-import org.restlet.Context;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.data.Header;
@@ -297,14 +296,21 @@ public abstract class ClientCall extends Call {
 
 	/**
 	 * Sends the request to the client. Commits the request line, headers and
-	 * optional entity and send them over the network.
+	 * optional entity and send them over the network. By default, the request is
+	 * sent synchronously before invoking the callback. Non-blocking connectors
+	 * should override this method and invoke the callback once the response is
+	 * received.
 	 * 
 	 * @param request  The high-level request.
 	 * @param response The high-level response.
 	 * @param callback The callback invoked upon request completion.
 	 */
 	public void sendRequest(Request request, Response response, org.restlet.Uniform callback) throws Exception {
-		Context.getCurrentLogger().warning("Currently callbacks are not available for this connector.");
+		sendRequest(request);
+
+		if (callback != null) {
+			callback.handle(request, response);
+		}
 	}
 
 	/**
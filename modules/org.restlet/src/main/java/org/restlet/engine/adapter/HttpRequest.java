@@ -380,13 +380,16 @@ public class HttpRequest extends Request {
 			Date ifModifiedSince = null;
 			Date ifUnmodifiedSince = null;
 			String ifRangeHeader = getHttpCall().getRequestHeaders().getFirstValue(HEADER_IF_RANGE, true);
+			String dateHeader = getHttpCall().getRequestHeaders().getFirstValue(HEADER_IF_MODIFIED_SINCE, true);
 
-			for (Header header : getHttpCall().getRequestHeaders()) {
-				if (header.getName().equalsIgnoreCase(HEADER_IF_MODIFIED_SINCE)) {
-					ifModifiedSince = HeaderReader.readDate(header.getValue(), false);
-				} else if (header.getName().equalsIgnoreCase(HEADER_IF_UNMODIFIED_SINCE)) {
-					ifUnmodifiedSince = HeaderReader.readDate(header.getValue(), false);
-				}
+			if (dateHeader != null) {
+				ifModifiedSince = HeaderReader.readDate(dateHeader, false);
+			}
+
+			dateHeader = getHttpCall().getRequestHeaders().getFirstValue(HEADER_IF_UNMODIFIED_SINCE, true);
+
+			if (dateHeader != null) {
+				ifUnmodifiedSince = HeaderReader.readDate(dateHeader, false);
 			}
 
 			// Set the If-Modified-Since date
@@ -46,6 +46,7 @@ import org.restlet.engine.header.HeaderConstants;
 import org.restlet.engine.header.HeaderReader;
 import org.restlet.engine.header.HeaderUtils;
 import org.restlet.engine.header.LanguageReader;
+import org.restlet.engine.header.LazyHeaderSeries;
 import org.restlet.engine.header.RangeReader;
 import org.restlet.engine.io.IoUtils;
 import org.restlet.engine.util.StringUtils;
@@ -53,6 +54,7 @@ import org.restlet.representation.EmptyRepresentation;
 import org.restlet.representation.InputRepresentation;
 import org.restlet.representation.Representation;
 import org.restlet.service.ConnectorService;
+import org.restlet.util.Series;
 
 /**
  * Abstract HTTP server connector call.
@@ -74,12 +76,14 @@ public abstract class ServerCall extends Call {
 	}
 
 	/**
-	 * Constructor.
+	 * Constructor. The request headers are held by a {@link LazyHeaderSeries},
+	 * optimized for the lookups by name done while handling the call.
 	 *
 	 * @param serverAddress The server IP address.
 	 * @param serverPort    The server port.
 	 */
 	public ServerCall(String serverAddress, int serverPort) {
+		super(new LazyHeaderSeries());
 		setServerAddress(serverAddress);
 		setServerPort(serverPort);
 		this.hostParsed = false;
@@ -174,16 +178,18 @@ public abstract class ServerCall extends Call {
 		boolean chunkedEncoding = HeaderUtils.isChunkedEncoding(getRequestHeaders());
 		// In some cases there is an entity without a content-length header
 		boolean connectionClosed = HeaderUtils.isConnectionClose(getRequestHeaders());
+		// HTTP/2 delimits the entity with frames instead of headers
+		boolean framed = (getVersion() != null) && getVersion().startsWith("HTTP/2");
 
 		// Create the representation
 		if (((contentLength != Representation.UNKNOWN_SIZE) && (contentLength != 0)) || chunkedEncoding
-				|| connectionClosed) {
+				|| connectionClosed || framed) {
 			// Create the result representation
 			InputStream requestStream = getRequestEntityStream(contentLength);
 
-			if (connectionClosed) {
+			if (connectionClosed || framed) {
 				// We need to detect if there is really an entity or not as only
-				// the end of connection can let us know at this point
+				// the end of connection or stream can let us know at this point
 				PushbackInputStream pbi = new PushbackInputStream(requestStream);
 
 				try {
@@ -211,27 +217,49 @@ public abstract class ServerCall extends Call {
 			result = new EmptyRepresentation();
 		}
 
-		// Extract some interesting header values
-		for (Header header : getRequestHeaders()) {
-			if (header.getName().equalsIgnoreCase(HeaderConstants.HEADER_CONTENT_ENCODING)) {
-				new EncodingReader(header.getValue()).addValues(result.getEncodings());
-			} else if (header.getName().equalsIgnoreCase(HeaderConstants.HEADER_CONTENT_LANGUAGE)) {
-				new LanguageReader(header.getValue()).addValues(result.getLanguages());
-			} else if (header.getName().equalsIgnoreCase(HeaderConstants.HEADER_CONTENT_TYPE)) {
-				ContentType contentType = new ContentType(header.getValue());
-				result.setMediaType(contentType.getMediaType());
-				result.setCharacterSet(contentType.getCharacterSet());
-			} else if (header.getName().equalsIgnoreCase(HeaderConstants.HEADER_CONTENT_RANGE)) {
-				RangeReader.update(header.getValue(), result);
-			} else if (header.getName().equalsIgnoreCase(HeaderConstants.HEADER_CONTENT_MD5)) {
-				result.setDigest(new Digest(Digest.ALGORITHM_MD5, Base64.getDecoder().decode(header.getValue())));
-			} else if (header.getName().equalsIgnoreCase(HeaderConstants.HEADER_CONTENT_DISPOSITION)) {
-				try {
-					result.setDisposition(new DispositionReader(header.getValue()).readValue());
-				} catch (IOException ioe) {
-					Context.getCurrentLogger().log(Level.WARNING,
-							"Error during Content-Disposition header parsing. Header: " + header.getValue(), ioe);
-				}
+		// Extract some interesting header values, looking them up by name so that
+		// the lazy series of request headers isn't materialized
+		Series<Header> headers = getRequestHeaders();
+		String value = headers.getValues(HeaderConstants.HEADER_CONTENT_ENCODING, ",", true);
+
+		if (value != null) {
+			new EncodingReader(value).addValues(result.getEncodings());
+		}
+
+		value = headers.getValues(HeaderConstants.HEADER_CONTENT_LANGUAGE, ",", true);
+
+		if (value != null) {
+			new LanguageReader(value).addValues(result.getLanguages());
+		}
+
+		value = headers.getFirstValue(HeaderConstants.HEADER_CONTENT_TYPE, true);
+
+		if (value != null) {
+			ContentType contentType = new ContentType(value);
+			result.setMediaType(contentType.getMediaType());
+			result.setCharacterSet(contentType.getCharacterSet());
+		}
+
+		value = headers.getFirstValue(HeaderConstants.HEADER_CONTENT_RANGE, true);
+
+		if (value != null) {
+			RangeReader.update(value, result);
+		}
+
+		value = headers.getFirstValue(HeaderConstants.HEADER_CONTENT_MD5, true);
+
+		if (value != null) {
+			result.setDigest(new Digest(Digest.ALGORITHM_MD5, Base64.getDecoder().decode(value)));
+		}
+
+		value = headers.getFirstValue(HeaderConstants.HEADER_CONTENT_DISPOSITION, true);
+
+		if (value != null) {
+			try {
+				result.setDisposition(new DispositionReader(value).readValue());
+			} catch (IOException ioe) {
+				Context.getCurrentLogger().log(Level.WARNING,
+						"Error during Content-Disposition header parsing. Header: " + value, ioe);
 			}
 		}
 
@@ -509,8 +537,12 @@ public abstract class ServerCall extends Call {
 		headStream.write(13); // CR
 		headStream.write(10); // LF
 
-		// We don't support persistent connections yet
-		getResponseHeaders().set(HeaderConstants.HEADER_CONNECTION, "close", true);
+		// Indicate if the connection is persistent
+		if (!isKeepAlive()) {
+			getResponseHeaders().set(HeaderConstants.HEADER_CONNECTION, "close", true);
+		} else if ("HTTP/1.0".equalsIgnoreCase(getVersion())) {
+			getResponseHeaders().set(HeaderConstants.HEADER_CONNECTION, "keep-alive", true);
+		}
 
 		// Check if 'Transfer-Encoding' header should be set
 		if (shouldResponseBeChunked(response)) {
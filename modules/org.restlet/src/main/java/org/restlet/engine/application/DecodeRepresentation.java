@@ -41,6 +41,7 @@ import java.util.zip.InflaterInputStream;
 import java.util.zip.ZipInputStream;
 
 import org.restlet.data.Encoding;
+import org.restlet.engine.Engine;
 import org.restlet.engine.io.IoUtils;
 import org.restlet.representation.Representation;
 import org.restlet.util.WrapperRepresentation;
@@ -54,13 +55,22 @@ import org.restlet.util.WrapperRepresentation;
  */
 public class DecodeRepresentation extends WrapperRepresentation {
 	/**
-	 * Returns the list of supported encodings.
+	 * Returns the list of supported encodings, including the ones of the
+	 * registered {@link EncodingHelper} instances.
 	 * 
 	 * @return The list of supported encodings.
 	 */
 	public static List<Encoding> getSupportedEncodings() {
-		return Arrays.<Encoding>asList(Encoding.GZIP, Encoding.DEFLATE, Encoding.DEFLATE_NOWRAP, Encoding.ZIP,
-				Encoding.IDENTITY);
+		List<Encoding> result = new ArrayList<Encoding>(Arrays.<Encoding>asList(Encoding.GZIP, Encoding.DEFLATE,
+				Encoding.DEFLATE_NOWRAP, Encoding.ZIP, Encoding.IDENTITY));
+
+		for (EncodingHelper helper : Engine.getInstance().getRegisteredEncodings()) {
+			if (helper.isDecoder() && !result.contains(helper.getEncoding())) {
+				result.add(helper.getEncoding());
+			}
+		}
+
+		return result;
 	}
 
 	/** Indicates if the decoding can happen. */
@@ -112,7 +122,11 @@ public class DecodeRepresentation extends WrapperRepresentation {
 		InputStream result = null;
 
 		if (encodedStream != null) {
-			if (encoding.equals(Encoding.GZIP)) {
+			EncodingHelper helper = Engine.getInstance().findHelper(encoding, false, true);
+
+			if (helper != null) {
+				result = helper.decode(encodedStream);
+			} else if (encoding.equals(Encoding.GZIP)) {
 				result = new GZIPInputStream(encodedStream);
 			} else if (encoding.equals(Encoding.DEFLATE)) {
 				result = new InflaterInputStream(encodedStream);
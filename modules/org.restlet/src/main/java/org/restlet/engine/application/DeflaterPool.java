@@ -0,0 +1,135 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.application;
+
+import java.util.zip.Deflater;
+
+import org.restlet.data.Encoding;
+import org.restlet.engine.util.Pool;
+
+/**
+ * Pool of {@link Deflater} instances, avoiding the allocation of their native
+ * buffers for each encoded entity. The number of pooled instances is bounded,
+ * the extra ones are ended when checked in.
+ */
+public class DeflaterPool extends Pool<Deflater> {
+
+	/** The shared pool of Deflaters using the zlib format. */
+	public static final DeflaterPool WRAPPED = new DeflaterPool(false, 2 * Runtime.getRuntime().availableProcessors());
+
+	/** The shared pool of Deflaters using the raw Deflate format. */
+	public static final DeflaterPool NOWRAP = new DeflaterPool(true, 2 * Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * Returns the shared pool of Deflaters for a Deflate based encoding.
+	 * 
+	 * @param encoding The {@link Encoding#GZIP}, {@link Encoding#DEFLATE} or
+	 *                 {@link Encoding#DEFLATE_NOWRAP} encoding.
+	 * @return The shared pool of Deflaters or null if the encoding isn't
+	 *         supported.
+	 */
+	public static DeflaterPool getPool(Encoding encoding) {
+		DeflaterPool result = null;
+
+		if (Encoding.DEFLATE.equals(encoding)) {
+			result = WRAPPED;
+		} else if (Encoding.GZIP.equals(encoding) || Encoding.DEFLATE_NOWRAP.equals(encoding)) {
+			result = NOWRAP;
+		}
+
+		return result;
+	}
+
+	/** The maximum number of pooled Deflaters. */
+	private final int maxSize;
+
+	/** Indicates if the raw Deflate format is produced. */
+	private final boolean nowrap;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param nowrap  Indicates if the raw Deflate format is produced.
+	 * @param maxSize The maximum number of pooled Deflaters.
+	 */
+	public DeflaterPool(boolean nowrap, int maxSize) {
+		super();
+		this.maxSize = maxSize;
+		this.nowrap = nowrap;
+	}
+
+	@Override
+	public void checkin(Deflater deflater) {
+		if (deflater != null) {
+			if (getStore().size() < getMaxSize()) {
+				super.checkin(deflater);
+			} else {
+				deflater.end();
+			}
+		}
+	}
+
+	/**
+	 * Checks out a Deflater from the pool and sets its compression level.
+	 * 
+	 * @param compressionLevel The compression level, from 0 to 9 or
+	 *                         {@link Deflater#DEFAULT_COMPRESSION}.
+	 * @return A Deflater ready to compress a new content.
+	 */
+	public Deflater checkout(int compressionLevel) {
+		Deflater result = checkout();
+		result.setLevel(compressionLevel);
+		return result;
+	}
+
+	@Override
+	protected void clear(Deflater deflater) {
+		deflater.reset();
+	}
+
+	@Override
+	protected Deflater createObject() {
+		return new Deflater(Deflater.DEFAULT_COMPRESSION, isNowrap());
+	}
+
+	/**
+	 * Returns the maximum number of pooled Deflaters.
+	 * 
+	 * @return The maximum number of pooled Deflaters.
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Indicates if the raw Deflate format is produced.
+	 * 
+	 * @return True if the raw Deflate format is produced.
+	 */
+	public boolean isNowrap() {
+		return this.nowrap;
+	}
+
+}
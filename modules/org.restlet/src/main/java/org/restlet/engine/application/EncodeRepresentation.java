@@ -24,25 +24,28 @@
 
 package org.restlet.engine.application;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
-import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import org.restlet.data.Disposition;
 import org.restlet.data.Encoding;
+import org.restlet.engine.Engine;
 import org.restlet.engine.io.IoUtils;
+import org.restlet.engine.io.UnclosableOutputStream;
 import org.restlet.representation.Representation;
 import org.restlet.util.WrapperList;
 import org.restlet.util.WrapperRepresentation;
@@ -54,24 +57,49 @@ import org.restlet.util.WrapperRepresentation;
  */
 public class EncodeRepresentation extends WrapperRepresentation {
 	/**
-	 * Returns the list of supported encodings.
+	 * Returns the list of supported encodings. The encodings of the registered
+	 * {@link EncodingHelper} instances come first, so they are preferred to the
+	 * built-in ones when a client accepts them with the same quality.
 	 * 
 	 * @return The list of supported encodings.
 	 */
 	public static List<Encoding> getSupportedEncodings() {
-		return Arrays.<Encoding>asList(Encoding.GZIP, Encoding.DEFLATE, Encoding.DEFLATE_NOWRAP, Encoding.ZIP,
-				Encoding.IDENTITY);
+		List<Encoding> result = new ArrayList<Encoding>();
+
+		for (EncodingHelper helper : Engine.getInstance().getRegisteredEncodings()) {
+			if (helper.isEncoder() && !result.contains(helper.getEncoding())) {
+				result.add(helper.getEncoding());
+			}
+		}
+
+		for (Encoding encoding : Arrays.<Encoding>asList(Encoding.GZIP, Encoding.DEFLATE, Encoding.DEFLATE_NOWRAP,
+				Encoding.ZIP, Encoding.IDENTITY)) {
+			if (!result.contains(encoding)) {
+				result.add(encoding);
+			}
+		}
+
+		return result;
 	}
 
 	/** Indicates if the encoding can happen. */
 	private volatile boolean canEncode;
 
+	/** The compression level of the Deflate based encodings. */
+	private volatile int compressionLevel;
+
+	/** The already encoded content, if available. */
+	private volatile byte[] encodedContent;
+
 	/** The encoding to apply. */
 	private volatile Encoding encoding;
 
 	/** The applied encodings. */
 	private volatile List<Encoding> encodings;
 
+	/** The number of bytes written between two sync flushes. */
+	private volatile int syncFlushSize;
+
 	/**
 	 * Constructor.
 	 * 
@@ -79,10 +107,38 @@ public class EncodeRepresentation extends WrapperRepresentation {
 	 * @param wrappedRepresentation The wrapped representation.
 	 */
 	public EncodeRepresentation(Encoding encoding, Representation wrappedRepresentation) {
+		this(encoding, wrappedRepresentation, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Constructor for content that was already encoded, for example by a cache.
+	 * The wrapped representation only provides the metadata.
+	 * 
+	 * @param encoding              Encoder algorithm.
+	 * @param wrappedRepresentation The wrapped representation.
+	 * @param encodedContent        The encoded content.
+	 */
+	public EncodeRepresentation(Encoding encoding, Representation wrappedRepresentation, byte[] encodedContent) {
+		this(encoding, wrappedRepresentation);
+		this.encodedContent = encodedContent;
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param encoding              Encoder algorithm.
+	 * @param wrappedRepresentation The wrapped representation.
+	 * @param compressionLevel      The compression level of the Deflate based
+	 *                              encodings, from 0 to 9 or
+	 *                              {@link Deflater#DEFAULT_COMPRESSION}.
+	 */
+	public EncodeRepresentation(Encoding encoding, Representation wrappedRepresentation, int compressionLevel) {
 		super(wrappedRepresentation);
 		this.canEncode = getSupportedEncodings().contains(encoding);
+		this.compressionLevel = compressionLevel;
 		this.encodings = null;
 		this.encoding = encoding;
+		this.syncFlushSize = 0;
 	}
 
 	/**
@@ -105,7 +161,9 @@ public class EncodeRepresentation extends WrapperRepresentation {
 		long result = UNKNOWN_SIZE;
 
 		if (canEncode()) {
-			if (this.encoding.equals(Encoding.IDENTITY)) {
+			if (this.encodedContent != null) {
+				result = this.encodedContent.length;
+			} else if (this.encoding.equals(Encoding.IDENTITY)) {
 				result = getWrappedRepresentation().getAvailableSize();
 			}
 		} else {
@@ -124,12 +182,21 @@ public class EncodeRepresentation extends WrapperRepresentation {
 	@Override
 	public ReadableByteChannel getChannel() throws IOException {
 		if (canEncode()) {
-			return IoUtils.getChannel(this);
+			return IoUtils.getChannel(getStream());
 		} else {
 			return getWrappedRepresentation().getChannel();
 		}
 	}
 
+	/**
+	 * Returns the compression level of the Deflate based encodings.
+	 * 
+	 * @return The compression level of the Deflate based encodings.
+	 */
+	public int getCompressionLevel() {
+		return this.compressionLevel;
+	}
+
 	/**
 	 * Returns the applied encodings.
 	 * 
@@ -218,7 +285,9 @@ public class EncodeRepresentation extends WrapperRepresentation {
 		long result = UNKNOWN_SIZE;
 
 		if (canEncode()) {
-			if (this.encoding.equals(Encoding.IDENTITY)) {
+			if (this.encodedContent != null) {
+				result = this.encodedContent.length;
+			} else if (this.encoding.equals(Encoding.IDENTITY)) {
 				result = getWrappedRepresentation().getSize();
 			}
 		} else {
@@ -228,9 +297,33 @@ public class EncodeRepresentation extends WrapperRepresentation {
 		return result;
 	}
 
+	/**
+	 * Returns the number of bytes written between two sync flushes of the
+	 * Deflate based encodings, 0 if the content is only flushed at the end.
+	 * 
+	 * @return The number of bytes written between two sync flushes.
+	 */
+	public int getSyncFlushSize() {
+		return this.syncFlushSize;
+	}
+
+	/**
+	 * Returns a stream with the encoded content. The GZIP and Deflate encodings
+	 * are applied inline while the stream is read.
+	 * 
+	 * @return A stream with the encoded content.
+	 */
 	@Override
 	public InputStream getStream() throws IOException {
-		if (canEncode()) {
+		if (this.encodedContent != null) {
+			return new ByteArrayInputStream(this.encodedContent);
+		} else if (canEncode() && this.encoding.equals(Encoding.IDENTITY)) {
+			return getWrappedRepresentation().getStream();
+		} else if (canEncode() && (DeflaterPool.getPool(this.encoding) != null)
+				&& (Engine.getInstance().findHelper(this.encoding, true, false) == null)) {
+			return new EncoderInputStream(getWrappedRepresentation().getStream(), this.encoding,
+					getCompressionLevel());
+		} else if (canEncode()) {
 			return IoUtils.getStream(this);
 		} else {
 			return getWrappedRepresentation().getStream();
@@ -246,20 +339,44 @@ public class EncodeRepresentation extends WrapperRepresentation {
 		}
 	}
 
+	/**
+	 * Sets the number of bytes written between two sync flushes of the Deflate
+	 * based encodings. Each sync flush, and each explicit flush of the output
+	 * stream, sends the content compressed so far, which lets long running
+	 * responses be compressed without buffering. Note that frequent flushes
+	 * lower the compression ratio.
+	 * 
+	 * @param syncFlushSize The number of bytes written between two sync flushes
+	 *                      or 0 to only flush at the end.
+	 */
+	public void setSyncFlushSize(int syncFlushSize) {
+		this.syncFlushSize = syncFlushSize;
+	}
+
 	@Override
 	public void write(OutputStream outputStream) throws IOException {
-		if (canEncode()) {
+		if (this.encodedContent != null) {
+			outputStream.write(this.encodedContent);
+		} else if (canEncode()) {
+			EncodingHelper helper = Engine.getInstance().findHelper(this.encoding, true, false);
 			DeflaterOutputStream encoderOutputStream = null;
 
-			if (this.encoding.equals(Encoding.GZIP)) {
-				encoderOutputStream = new GZIPOutputStream(outputStream);
-			} else if (this.encoding.equals(Encoding.DEFLATE)) {
-				encoderOutputStream = new DeflaterOutputStream(outputStream);
-			} else if (this.encoding.equals(Encoding.DEFLATE_NOWRAP)) {
-				encoderOutputStream = new DeflaterOutputStream(outputStream,
-						new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+			if (helper != null) {
+				// Streams the content through the codec of the helper
+				OutputStream helperOutputStream = helper.encode(new UnclosableOutputStream(outputStream),
+						getCompressionLevel());
+
+				try {
+					getWrappedRepresentation().write(helperOutputStream);
+				} finally {
+					helperOutputStream.close();
+				}
+			} else if (DeflaterPool.getPool(this.encoding) != null) {
+				encoderOutputStream = new EncoderOutputStream(outputStream, this.encoding, getCompressionLevel(),
+						getSyncFlushSize());
 			} else if (this.encoding.equals(Encoding.ZIP)) {
 				final ZipOutputStream stream = new ZipOutputStream(outputStream);
+				stream.setLevel(getCompressionLevel());
 				String name = "entry";
 
 				if (getWrappedRepresentation().getDisposition() != null) {
@@ -274,10 +391,17 @@ public class EncodeRepresentation extends WrapperRepresentation {
 			}
 
 			if (encoderOutputStream != null) {
-				getWrappedRepresentation().write(encoderOutputStream);
-				encoderOutputStream.flush();
-				encoderOutputStream.finish();
-			} else {
+				try {
+					getWrappedRepresentation().write(encoderOutputStream);
+					encoderOutputStream.flush();
+					encoderOutputStream.finish();
+				} finally {
+					if (encoderOutputStream instanceof EncoderOutputStream) {
+						// Returns the Deflater to its pool even on failure
+						((EncoderOutputStream) encoderOutputStream).release();
+					}
+				}
+			} else if (helper == null) {
 				getWrappedRepresentation().write(outputStream);
 			}
 		} else {
@@ -24,8 +24,11 @@
 
 package org.restlet.engine.application;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.logging.Level;
 
 import org.restlet.Context;
 import org.restlet.Request;
@@ -33,7 +36,9 @@ import org.restlet.Response;
 import org.restlet.data.ClientInfo;
 import org.restlet.data.Encoding;
 import org.restlet.data.Preference;
+import org.restlet.data.Status;
 import org.restlet.representation.Representation;
+import org.restlet.resource.ResourceException;
 import org.restlet.routing.Filter;
 import org.restlet.service.EncoderService;
 
@@ -124,12 +129,61 @@ public class Encoder extends Filter {
 		Encoding bestEncoding = getBestEncoding(client);
 
 		if (bestEncoding != null) {
-			result = new EncodeRepresentation(bestEncoding, representation);
+			result = encode(bestEncoding, representation);
 		}
 
 		return result;
 	}
 
+	/**
+	 * Encodes a given representation with a given encoding. When the encoder
+	 * service caches encoded contents, the content is encoded once in memory and
+	 * reused for the next identical representations. If the content can't be
+	 * encoded into the cache, the original representation is returned unencoded
+	 * unless it is transient.
+	 * 
+	 * @param encoding       The encoding to apply.
+	 * @param representation The representation to encode.
+	 * @return The encoded representation.
+	 * @throws ResourceException If a transient representation couldn't be
+	 *                           encoded.
+	 */
+	protected Representation encode(Encoding encoding, Representation representation) {
+		EncoderService encoderService = getEncoderService();
+		String key = encoderService.getCacheKey(representation, encoding);
+
+		if (key == null) {
+			EncodeRepresentation result = new EncodeRepresentation(encoding, representation,
+					encoderService.getCompressionLevel());
+			result.setSyncFlushSize(encoderService.getSyncFlushSize());
+			return result;
+		}
+
+		byte[] content = encoderService.getCachedContent(key);
+
+		if (content == null) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+			try {
+				new EncodeRepresentation(encoding, representation, encoderService.getCompressionLevel()).write(out);
+			} catch (IOException e) {
+				if (representation.isTransient()) {
+					// The content was partly consumed and can't be sent anymore
+					throw new ResourceException(Status.SERVER_ERROR_INTERNAL,
+							"Unable to encode the transient representation", e);
+				}
+
+				getLogger().log(Level.WARNING, "Unable to encode the representation, sending it unencoded", e);
+				return representation;
+			}
+
+			content = out.toByteArray();
+			encoderService.cacheContent(key, content);
+		}
+
+		return new EncodeRepresentation(encoding, representation, content);
+	}
+
 	/**
 	 * Returns the best supported encoding for a given client.
 	 * 
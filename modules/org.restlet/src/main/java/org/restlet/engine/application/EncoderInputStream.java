@@ -0,0 +1,161 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.application;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.restlet.data.Encoding;
+import org.restlet.engine.io.IoUtils;
+
+/**
+ * Input stream compressing the content of a source stream inline, on the
+ * reading thread, with a pooled {@link Deflater}. It supports the
+ * {@link Encoding#GZIP}, {@link Encoding#DEFLATE} and
+ * {@link Encoding#DEFLATE_NOWRAP} encodings. The Deflater is checked back in its
+ * pool once the end of the stream is reached or when the stream is closed.
+ */
+public class EncoderInputStream extends InputStream {
+
+	/** The CRC-32 of the uncompressed content for the GZIP encoding. */
+	private final CRC32 crc;
+
+	/** The Deflater, null once released. */
+	private volatile Deflater deflater;
+
+	/** The header or trailer bytes to read before or after the content. */
+	private volatile byte[] extra;
+
+	/** The index of the next header or trailer byte to read. */
+	private volatile int extraIndex;
+
+	/** The buffer of uncompressed bytes. */
+	private final byte[] inputBuffer;
+
+	/** The pool of the Deflater. */
+	private final DeflaterPool pool;
+
+	/** The source stream of uncompressed content. */
+	private final InputStream source;
+
+	/** Indicates if the end of the source stream was reached. */
+	private volatile boolean sourceEnded;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param source           The source stream of uncompressed content.
+	 * @param encoding         The {@link Encoding#GZIP}, {@link Encoding#DEFLATE}
+	 *                         or {@link Encoding#DEFLATE_NOWRAP} encoding.
+	 * @param compressionLevel The compression level, from 0 to 9 or
+	 *                         {@link Deflater#DEFAULT_COMPRESSION}.
+	 */
+	public EncoderInputStream(InputStream source, Encoding encoding, int compressionLevel) {
+		this.crc = Encoding.GZIP.equals(encoding) ? new CRC32() : null;
+		this.pool = DeflaterPool.getPool(encoding);
+		this.deflater = this.pool.checkout(compressionLevel);
+		this.extra = (this.crc != null) ? EncoderOutputStream.GZIP_HEADER : null;
+		this.extraIndex = 0;
+		this.inputBuffer = new byte[IoUtils.BUFFER_SIZE];
+		this.source = source;
+		this.sourceEnded = false;
+	}
+
+	@Override
+	public void close() throws IOException {
+		release();
+		this.source.close();
+	}
+
+	@Override
+	public int read() throws IOException {
+		byte[] b = new byte[1];
+		int result = read(b, 0, 1);
+		return (result == -1) ? -1 : (b[0] & 0xff);
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int result = 0;
+
+		if (len == 0) {
+			return 0;
+		}
+
+		while (result == 0) {
+			if ((this.extra != null) && (this.extraIndex < this.extra.length)) {
+				// Header or trailer bytes
+				result = Math.min(len, this.extra.length - this.extraIndex);
+				System.arraycopy(this.extra, this.extraIndex, b, off, result);
+				this.extraIndex += result;
+			} else if (this.deflater == null) {
+				result = -1;
+			} else if (this.deflater.finished()) {
+				if (this.crc != null) {
+					this.extra = EncoderOutputStream.getGzipTrailer(this.crc.getValue(),
+							this.deflater.getBytesRead());
+					this.extraIndex = 0;
+				} else {
+					this.extra = null;
+				}
+
+				release();
+			} else {
+				if (this.deflater.needsInput() && !this.sourceEnded) {
+					int count = this.source.read(this.inputBuffer);
+
+					if (count == -1) {
+						this.sourceEnded = true;
+						this.deflater.finish();
+					} else if (count > 0) {
+						if (this.crc != null) {
+							this.crc.update(this.inputBuffer, 0, count);
+						}
+
+						this.deflater.setInput(this.inputBuffer, 0, count);
+					}
+				}
+
+				result = this.deflater.deflate(b, off, len);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Checks the Deflater back in its pool. Does nothing if it was already
+	 * released.
+	 */
+	private void release() {
+		if (this.deflater != null) {
+			this.pool.checkin(this.deflater);
+			this.deflater = null;
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.application;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.restlet.data.Encoding;
+import org.restlet.engine.io.IoUtils;
+
+/**
+ * Output stream compressing the written content inline with a pooled
+ * {@link Deflater}, for the {@link Encoding#GZIP}, {@link Encoding#DEFLATE} and
+ * {@link Encoding#DEFLATE_NOWRAP} encodings. The Deflater is checked back in its
+ * pool once the stream is finished.<br>
+ * <br>
+ * When a sync flush size is set, the compressed content is flushed to the
+ * output stream each time this number of bytes has been written, and on each
+ * call to {@link #flush()}, so that long running responses such as event
+ * streams reach the client without waiting for the end of the content.
+ */
+public class EncoderOutputStream extends DeflaterOutputStream {
+
+	/** The GZIP header, without optional fields. */
+	static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+
+	/**
+	 * Returns the GZIP trailer made of the CRC-32 and of the size of the
+	 * uncompressed content.
+	 * 
+	 * @param crc  The CRC-32 of the uncompressed content.
+	 * @param size The size of the uncompressed content.
+	 * @return The GZIP trailer.
+	 */
+	static byte[] getGzipTrailer(long crc, long size) {
+		byte[] result = new byte[8];
+
+		for (int i = 0; i < 4; i++) {
+			result[i] = (byte) (crc >> (8 * i));
+			result[i + 4] = (byte) (size >> (8 * i));
+		}
+
+		return result;
+	}
+
+	/** The CRC-32 of the uncompressed content for the GZIP encoding. */
+	private final CRC32 crc;
+
+	/** The pool of the Deflater. */
+	private final DeflaterPool pool;
+
+	/** Indicates if the Deflater was checked back in its pool. */
+	private volatile boolean released;
+
+	/** The number of bytes written since the last sync flush. */
+	private volatile long syncFlushCount;
+
+	/** The number of bytes written between two sync flushes. */
+	private final int syncFlushSize;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param outputStream     The output stream.
+	 * @param encoding         The {@link Encoding#GZIP}, {@link Encoding#DEFLATE}
+	 *                         or {@link Encoding#DEFLATE_NOWRAP} encoding.
+	 * @param compressionLevel The compression level, from 0 to 9 or
+	 *                         {@link Deflater#DEFAULT_COMPRESSION}.
+	 * @param syncFlushSize    The number of bytes written between two sync
+	 *                         flushes or 0 to only flush at the end.
+	 * @throws IOException
+	 */
+	public EncoderOutputStream(OutputStream outputStream, Encoding encoding, int compressionLevel, int syncFlushSize)
+			throws IOException {
+		super(outputStream, DeflaterPool.getPool(encoding).checkout(compressionLevel), IoUtils.BUFFER_SIZE,
+				syncFlushSize > 0);
+		this.crc = Encoding.GZIP.equals(encoding) ? new CRC32() : null;
+		this.pool = DeflaterPool.getPool(encoding);
+		this.released = false;
+		this.syncFlushCount = 0;
+		this.syncFlushSize = syncFlushSize;
+
+		if (this.crc != null) {
+			outputStream.write(GZIP_HEADER);
+		}
+	}
+
+	/**
+	 * Finishes writing the compressed content, including the GZIP trailer, then
+	 * checks the Deflater back in its pool. The output stream isn't closed.
+	 */
+	@Override
+	public void finish() throws IOException {
+		if (!this.released) {
+			try {
+				super.finish();
+
+				if (this.crc != null) {
+					this.out.write(getGzipTrailer(this.crc.getValue(), this.def.getBytesRead()));
+				}
+			} finally {
+				release();
+			}
+		}
+	}
+
+	/**
+	 * Flushes the output stream. When a sync flush size is set, the pending
+	 * compressed content is flushed first.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (this.released) {
+			this.out.flush();
+		} else {
+			super.flush();
+			this.syncFlushCount = 0;
+		}
+	}
+
+	/**
+	 * Returns the number of bytes written between two sync flushes.
+	 * 
+	 * @return The number of bytes written between two sync flushes.
+	 */
+	public int getSyncFlushSize() {
+		return this.syncFlushSize;
+	}
+
+	/**
+	 * Checks the Deflater back in its pool, without finishing the compressed
+	 * content. Does nothing if it was already released.
+	 */
+	public void release() {
+		if (!this.released) {
+			this.released = true;
+			this.pool.checkin(this.def);
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (this.released) {
+			throw new IOException("The compressed content is already finished");
+		}
+
+		super.write(b, off, len);
+
+		if (this.crc != null) {
+			this.crc.update(b, off, len);
+		}
+
+		if (this.syncFlushSize > 0) {
+			this.syncFlushCount += len;
+
+			if (this.syncFlushCount >= this.syncFlushSize) {
+				flush();
+			}
+		}
+	}
+
+}
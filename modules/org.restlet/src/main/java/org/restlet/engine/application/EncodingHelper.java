@@ -0,0 +1,124 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.application;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.restlet.data.Encoding;
+import org.restlet.engine.Helper;
+
+/**
+ * Base class for the content encoding helpers. They provide streaming codecs
+ * for the encodings that aren't natively supported by the JDK, such as Brotli
+ * or Zstandard, and are discovered by the engine from the
+ * "META-INF/services/org.restlet.engine.application.EncodingHelper" descriptor
+ * files, like the connector helpers.<br>
+ * <br>
+ * Once registered, they are used by the {@link EncodeRepresentation} and
+ * {@link DecodeRepresentation} classes, and therefore by the encoder and
+ * decoder services.
+ */
+public abstract class EncodingHelper extends Helper {
+
+	/** Indicates if decoding is supported. */
+	private volatile boolean decoder;
+
+	/** The supported encoding. */
+	private volatile Encoding encoding;
+
+	/** Indicates if encoding is supported. */
+	private volatile boolean encoder;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param encoding The supported encoding.
+	 * @param encoder  Indicates if encoding is supported.
+	 * @param decoder  Indicates if decoding is supported.
+	 */
+	public EncodingHelper(Encoding encoding, boolean encoder, boolean decoder) {
+		this.decoder = decoder;
+		this.encoding = encoding;
+		this.encoder = encoder;
+	}
+
+	/**
+	 * Returns a stream decoding the given encoded stream. Closing the returned
+	 * stream closes the encoded stream.
+	 * 
+	 * @param encodedStream The encoded stream.
+	 * @return The decoded stream.
+	 * @throws IOException
+	 */
+	public InputStream decode(InputStream encodedStream) throws IOException {
+		throw new IOException("Decoding isn't supported for " + getEncoding());
+	}
+
+	/**
+	 * Returns a stream encoding the content written to it into the given output
+	 * stream. Closing the returned stream must write the end of the encoded
+	 * content and close the output stream.
+	 * 
+	 * @param outputStream     The output stream.
+	 * @param compressionLevel The compression level, from 0 to 9 or -1 for the
+	 *                         default level of the codec. Helpers should map it
+	 *                         to the closest level of their codec.
+	 * @return The encoding stream.
+	 * @throws IOException
+	 */
+	public OutputStream encode(OutputStream outputStream, int compressionLevel) throws IOException {
+		throw new IOException("Encoding isn't supported for " + getEncoding());
+	}
+
+	/**
+	 * Returns the supported encoding.
+	 * 
+	 * @return The supported encoding.
+	 */
+	public Encoding getEncoding() {
+		return this.encoding;
+	}
+
+	/**
+	 * Indicates if decoding is supported.
+	 * 
+	 * @return True if decoding is supported.
+	 */
+	public boolean isDecoder() {
+		return this.decoder;
+	}
+
+	/**
+	 * Indicates if encoding is supported.
+	 * 
+	 * @return True if encoding is supported.
+	 */
+	public boolean isEncoder() {
+		return this.encoder;
+	}
+
+}
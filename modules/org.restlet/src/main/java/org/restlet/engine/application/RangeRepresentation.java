@@ -28,9 +28,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
 
 import org.restlet.data.Range;
+import org.restlet.engine.io.FileRegion;
 import org.restlet.engine.io.IoUtils;
 import org.restlet.engine.io.RangeInputStream;
 import org.restlet.representation.Representation;
@@ -126,16 +128,38 @@ public class RangeRepresentation extends WrapperRepresentation {
 		os.flush();
 	}
 
+	/**
+	 * Writes the range to an output stream. When the range is part of a file, only
+	 * the bytes of the range are read from the file.
+	 */
 	@Override
 	public void write(OutputStream outputStream) throws IOException {
-		IoUtils.copy(getStream(), outputStream);
+		FileRegion region = IoUtils.getFileRegion(this);
+
+		if (region != null) {
+			region.transferTo(Channels.newChannel(outputStream));
+			outputStream.flush();
+		} else {
+			IoUtils.copy(getStream(), outputStream);
+		}
 	}
 
+	/**
+	 * Writes the range to a byte channel. When the range is part of a file and the
+	 * target channel is blocking, the bytes are transferred via the file channel
+	 * transferTo method.
+	 */
 	@Override
 	public void write(WritableByteChannel writableChannel) throws IOException {
-		OutputStream os = IoUtils.getStream(writableChannel);
-		write(os);
-		os.flush();
+		FileRegion region = IoUtils.getFileRegion(this);
+
+		if ((region != null) && IoUtils.isBlocking(writableChannel)) {
+			region.transferTo(writableChannel);
+		} else {
+			OutputStream os = IoUtils.getStream(writableChannel);
+			write(os);
+			os.flush();
+		}
 	}
 
 }
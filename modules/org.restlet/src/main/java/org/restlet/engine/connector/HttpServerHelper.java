@@ -80,7 +80,7 @@ public class HttpServerHelper extends NetServerHelper {
 			}
 		});
 		// creates a default executor
-		server.setExecutor(createThreadPool());
+		server.setExecutor(createExecutor());
 		server.start();
 
 		setConfidential(false);
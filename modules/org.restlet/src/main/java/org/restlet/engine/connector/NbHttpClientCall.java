@@ -0,0 +1,381 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+
+package org.restlet.engine.connector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Uniform;
+import org.restlet.data.Header;
+import org.restlet.data.Method;
+import org.restlet.data.Reference;
+import org.restlet.data.Status;
+import org.restlet.engine.adapter.ClientCall;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.representation.Representation;
+import org.restlet.service.ConnectorService;
+
+/**
+ * HTTP client call handled by the {@link NbHttpClientHelper}. The request is
+ * serialized in memory by the calling thread, then sent and its response read
+ * by the event loop. The callback of an asynchronous call is invoked by a
+ * worker thread of the helper.
+ */
+public class NbHttpClientCall extends ClientCall {
+
+	/** The target socket address, unresolved until the call is sent. */
+	private volatile InetSocketAddress address;
+
+	/** The callback invoked when the call completes. */
+	private volatile Uniform callback;
+
+	/** Signals the completion of the call. */
+	private final CountDownLatch completion;
+
+	/** The error that caused the call to fail, if any. */
+	private volatile Status failure;
+
+	/** The key of the target host. */
+	private final String hostKey;
+
+	/** The high-level request. */
+	private volatile Request request;
+
+	/** The serialized request head and entity. */
+	private volatile byte[] requestBytes;
+
+	/** The high-level response. */
+	private volatile Response response;
+
+	/** The buffered response entity. */
+	private final ByteArrayOutputStream responseEntity;
+
+	/** Indicates if the call has already been retried on a new connection. */
+	private volatile boolean retried;
+
+	/** The request target, made of the path and the query. */
+	private final String target;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param helper     The parent HTTP client helper.
+	 * @param method     The method name.
+	 * @param requestUri The request URI.
+	 */
+	public NbHttpClientCall(NbHttpClientHelper helper, String method, String requestUri) {
+		super(helper, method, requestUri);
+		Reference ref = new Reference(requestUri);
+		String host = ref.getHostDomain();
+		int port = (ref.getHostPort() == -1) ? ref.getSchemeProtocol().getDefaultPort() : ref.getHostPort();
+		String path = ref.getPath();
+		StringBuilder sb = new StringBuilder((path == null || path.isEmpty()) ? "/" : path);
+
+		if (ref.getQuery() != null) {
+			sb.append('?').append(ref.getQuery());
+		}
+
+		this.target = sb.toString();
+		this.hostKey = host + ':' + port;
+		this.address = InetSocketAddress.createUnresolved(host, port);
+		this.completion = new CountDownLatch(1);
+		this.responseEntity = new ByteArrayOutputStream();
+		setServerAddress(host);
+		setServerPort(port);
+	}
+
+	/**
+	 * Completes the call by invoking the callback, if any, on a worker thread and
+	 * releasing the waiting threads.
+	 */
+	void complete() {
+		final Uniform callback = this.callback;
+
+		if (callback == null) {
+			this.completion.countDown();
+		} else {
+			getHelper().executeWorker(new Runnable() {
+				public void run() {
+					try {
+						callback.handle(request, response);
+					} catch (Throwable t) {
+						getLogger().log(Level.WARNING, "Unexpected error or exception inside the call back", t);
+					} finally {
+						completion.countDown();
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Fails the call with a connector error status and completes it.
+	 * 
+	 * @param status    The connector error status.
+	 * @param throwable The cause of the failure.
+	 */
+	void fail(Status status, Throwable throwable) {
+		this.failure = new Status(status, throwable);
+		setStatusCode(status.getCode());
+		setReasonPhrase((throwable.getMessage() == null) ? status.getReasonPhrase() : throwable.getMessage());
+		getResponseHeaders().clear();
+		this.responseEntity.reset();
+		complete();
+	}
+
+	/**
+	 * Returns the target socket address.
+	 * 
+	 * @return The target socket address.
+	 */
+	InetSocketAddress getAddress() {
+		return this.address;
+	}
+
+	@Override
+	public NbHttpClientHelper getHelper() {
+		return (NbHttpClientHelper) super.getHelper();
+	}
+
+	/**
+	 * Returns the key of the target host, used to pool connections.
+	 * 
+	 * @return The key of the target host.
+	 */
+	String getHostKey() {
+		return this.hostKey;
+	}
+
+	/**
+	 * Returns the serialized request head and entity.
+	 * 
+	 * @return The serialized request head and entity.
+	 */
+	byte[] getRequestBytes() {
+		return this.requestBytes;
+	}
+
+	@Override
+	public WritableByteChannel getRequestEntityChannel() {
+		return null;
+	}
+
+	@Override
+	public OutputStream getRequestEntityStream() {
+		return null;
+	}
+
+	@Override
+	public OutputStream getRequestHeadStream() {
+		return null;
+	}
+
+	@Override
+	public ReadableByteChannel getResponseEntityChannel(long size) {
+		return null;
+	}
+
+	/**
+	 * Returns the stream receiving the response entity. Only used by the event
+	 * loop.
+	 * 
+	 * @return The stream receiving the response entity.
+	 */
+	ByteArrayOutputStream getResponseEntityOutput() {
+		return this.responseEntity;
+	}
+
+	@Override
+	public InputStream getResponseEntityStream(long size) {
+		return new ByteArrayInputStream(this.responseEntity.toByteArray());
+	}
+
+	/**
+	 * Indicates if the call has already been retried on a new connection.
+	 * 
+	 * @return True if the call has already been retried on a new connection.
+	 */
+	boolean isRetried() {
+		return this.retried;
+	}
+
+	/**
+	 * Indicates if the call can be transparently retried on a new connection when
+	 * a pooled connection turns out to be closed by the server.
+	 * 
+	 * @return True if the call can be retried.
+	 */
+	boolean isRetryable() {
+		return !this.retried && Method.valueOf(getMethod()).isIdempotent();
+	}
+
+	/**
+	 * Notifies that the request has been entirely written.
+	 */
+	void onSent() {
+		if ((this.request != null) && (this.request.getOnSent() != null)) {
+			try {
+				this.request.getOnSent().handle(this.request, this.response);
+			} catch (Throwable t) {
+				getLogger().log(Level.WARNING, "Unexpected error or exception inside the sent call back", t);
+			}
+		}
+	}
+
+	/**
+	 * Serializes the request head and the buffered entity.
+	 * 
+	 * @param request The high-level request.
+	 * @throws IOException
+	 */
+	private void prepare(Request request) throws IOException {
+		Representation entity = request.isEntityAvailable() ? request.getEntity() : null;
+		ConnectorService connectorService = ConnectorHelper.getConnectorService();
+		ByteArrayOutputStream entityBytes = null;
+
+		if (connectorService != null) {
+			connectorService.beforeSend(entity);
+		}
+
+		try {
+			if (entity != null) {
+				entityBytes = new ByteArrayOutputStream();
+				entity.write(entityBytes);
+			}
+		} finally {
+			if (entity != null) {
+				entity.release();
+			}
+
+			if (connectorService != null) {
+				connectorService.afterSend(entity);
+			}
+		}
+
+		// The buffered entity always has a known length
+		getRequestHeaders().removeAll(HeaderConstants.HEADER_TRANSFER_ENCODING, true);
+		getRequestHeaders().removeAll(HeaderConstants.HEADER_CONTENT_LENGTH, true);
+
+		if (entityBytes != null) {
+			getRequestHeaders().add(HeaderConstants.HEADER_CONTENT_LENGTH, Integer.toString(entityBytes.size()));
+		}
+
+		StringBuilder head = new StringBuilder();
+		head.append(getMethod()).append(' ').append(this.target).append(" HTTP/1.1\r\n");
+
+		for (Header header : getRequestHeaders()) {
+			if (header.getValue() != null) {
+				head.append(header.getName()).append(": ").append(header.getValue()).append("\r\n");
+			} else {
+				getLogger().info("The following header has a null value and has been discarded: " + header.getName());
+			}
+		}
+
+		head.append("\r\n");
+		ByteArrayOutputStream result = new ByteArrayOutputStream(
+				head.length() + ((entityBytes == null) ? 0 : entityBytes.size()));
+		result.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+		if (entityBytes != null) {
+			entityBytes.writeTo(result);
+		}
+
+		this.request = request;
+		this.requestBytes = result.toByteArray();
+	}
+
+	/**
+	 * Resolves the target host name, unless already done.
+	 */
+	private void resolve() {
+		InetSocketAddress address = this.address;
+
+		if (address.isUnresolved()) {
+			this.address = new InetSocketAddress(address.getHostString(), address.getPort());
+		}
+	}
+
+	/**
+	 * Resets the response state before the call is sent again.
+	 */
+	void reset() {
+		this.retried = true;
+		getResponseHeaders().clear();
+		this.responseEntity.reset();
+	}
+
+	@Override
+	public Status sendRequest(Request request) {
+		Status result = null;
+
+		if (getHelper().isEventLoopThread()) {
+			result = new Status(Status.CONNECTOR_ERROR_INTERNAL,
+					"Synchronous calls can't be issued from the event loop of the HTTP client.");
+		} else {
+			try {
+				prepare(request);
+				resolve();
+				getHelper().execute(this);
+				this.completion.await();
+				result = (this.failure != null) ? this.failure : new Status(getStatusCode(), getReasonPhrase());
+			} catch (IOException ioe) {
+				getHelper().getLogger().log(Level.FINE,
+						"An error occurred during the communication with the remote HTTP server.", ioe);
+				result = new Status(Status.CONNECTOR_ERROR_COMMUNICATION, ioe);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				result = new Status(Status.CONNECTOR_ERROR_INTERNAL, ie);
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public void sendRequest(Request request, Response response, Uniform callback) throws Exception {
+		prepare(request);
+		this.response = response;
+		this.callback = callback;
+		getHelper().executeWorker(new Runnable() {
+			public void run() {
+				resolve();
+				getHelper().execute(NbHttpClientCall.this);
+			}
+		});
+	}
+
+}
@@ -0,0 +1,470 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+
+package org.restlet.engine.connector;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.adapter.ClientCall;
+import org.restlet.engine.log.LoggingThreadFactory;
+import org.restlet.engine.util.ReferenceUtils;
+
+/**
+ * Non-blocking HTTP client connector based on NIO channels. All the sockets
+ * are multiplexed by a single selector thread, the event loop, while the
+ * callbacks of asynchronous calls are invoked by a separate pool of worker
+ * threads. Connections are kept alive and pooled per target host. Here is the list of parameters that
+ * are supported. They should be set in the Client's context before it is
+ * started:
+ * <table>
+ * <caption>list of supported parameters</caption>
+ * <tr>
+ * <th>Parameter name</th>
+ * <th>Value type</th>
+ * <th>Default value</th>
+ * <th>Description</th>
+ * </tr>
+ * <tr>
+ * <td>idleTimeout</td>
+ * <td>int</td>
+ * <td>30000</td>
+ * <td>Time in milliseconds after which an idle pooled connection is closed. A
+ * value of zero keeps idle connections open until the server closes
+ * them.</td>
+ * </tr>
+ * <tr>
+ * <td>maxConnectionsPerHost</td>
+ * <td>int</td>
+ * <td>10</td>
+ * <td>Maximum number of simultaneous connections to a given host. Additional
+ * calls are queued until a connection is available.</td>
+ * </tr>
+ * <tr>
+ * <td>maxResponseEntitySize</td>
+ * <td>int</td>
+ * <td>16777216</td>
+ * <td>Maximum size in bytes of a response entity. Calls receiving larger
+ * responses fail with a connector error.</td>
+ * </tr>
+ * <tr>
+ * <td>readTimeout</td>
+ * <td>int</td>
+ * <td>60000</td>
+ * <td>Time in milliseconds to wait for the server's response without receiving
+ * any data. A timeout of zero is interpreted as an infinite timeout.</td>
+ * </tr>
+ * <tr>
+ * <td>socketConnectTimeoutMs</td>
+ * <td>int</td>
+ * <td>0</td>
+ * <td>The socket connection timeout or 0 for unlimited wait.</td>
+ * </tr>
+ * </table>
+ * <p>
+ * Request and response entities are buffered in memory, so this connector is
+ * suited to the fan-out of many small calls rather than to large transfers.
+ * Only plain HTTP is supported. As it isn't registered by default, it should be
+ * added to the engine explicitly:
+ * 
+ * <pre>
+ * Engine.getInstance().getRegisteredClients().add(0, new NbHttpClientHelper(null));
+ * </pre>
+ * 
+ * Host names are resolved by the calling thread for synchronous calls and by a
+ * worker thread for asynchronous calls, never by the event loop.
+ */
+public class NbHttpClientHelper extends org.restlet.engine.adapter.HttpClientHelper {
+
+	/**
+	 * Connections and pending calls of a given host. Only accessed from the event
+	 * loop thread.
+	 */
+	private static class HostPool {
+
+		/** The idle connections, most recently used first. */
+		private final Deque<NbHttpConnection> idle = new ArrayDeque<NbHttpConnection>();
+
+		/** The number of open connections, idle or not. */
+		private int open;
+
+		/** The calls waiting for a connection. */
+		private final Queue<NbHttpClientCall> pending = new ArrayDeque<NbHttpClientCall>();
+	}
+
+	/** The maximum time in milliseconds between two timeout checks. */
+	private static final long TIMEOUT_CHECK_PERIOD = 250L;
+
+	/** The open connections. Only accessed from the event loop thread. */
+	private final Set<NbHttpConnection> connections;
+
+	/** The event loop thread. */
+	private volatile Thread eventLoop;
+
+	/** The connection pools per host. Only accessed from the event loop thread. */
+	private final Map<String, HostPool> pools;
+
+	/** Indicates if the event loop is running. */
+	private volatile boolean running;
+
+	/** The selector multiplexing all the connections. */
+	private volatile Selector selector;
+
+	/** The calls submitted to the event loop. */
+	private final Queue<NbHttpClientCall> submitted;
+
+	/** The worker threads resolving hosts and invoking the callbacks. */
+	private volatile ExecutorService workers;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param client The client to help.
+	 */
+	public NbHttpClientHelper(Client client) {
+		super(client);
+		getProtocols().add(Protocol.HTTP);
+		this.connections = new HashSet<NbHttpConnection>();
+		this.pools = new HashMap<String, HostPool>();
+		this.submitted = new ConcurrentLinkedQueue<NbHttpClientCall>();
+	}
+
+	/**
+	 * Closes a connection and updates its host pool. Queued calls of the same host
+	 * are dispatched to a new connection.
+	 * 
+	 * @param connection The connection to close.
+	 */
+	void close(NbHttpConnection connection) {
+		if (this.connections.remove(connection)) {
+			connection.close();
+			HostPool pool = getPool(connection.getHostKey());
+			pool.open--;
+			pool.idle.remove(connection);
+			NbHttpClientCall next = this.running ? pool.pending.poll() : null;
+
+			if (next != null) {
+				dispatch(next);
+			}
+		}
+	}
+
+	/**
+	 * Creates a low-level HTTP client call from a high-level uniform call.
+	 * 
+	 * @param request The high-level request.
+	 * @return A low-level HTTP client call.
+	 */
+	@Override
+	public ClientCall create(Request request) {
+		return new NbHttpClientCall(this, request.getMethod().toString(),
+				ReferenceUtils.update(request.getResourceRef(), request).toString());
+	}
+
+	/**
+	 * Assigns a call to an idle connection of its host, to a new connection or
+	 * queues it when the maximum number of connections per host is reached. Must
+	 * be invoked from the event loop thread.
+	 * 
+	 * @param call The call to dispatch.
+	 */
+	void dispatch(NbHttpClientCall call) {
+		HostPool pool = getPool(call.getHostKey());
+		NbHttpConnection connection = pool.idle.pollFirst();
+
+		if (connection != null) {
+			connection.assign(call, true);
+		} else if (pool.open < getMaxConnectionsPerHost()) {
+			try {
+				connection = new NbHttpConnection(this, call.getHostKey());
+				this.connections.add(connection);
+				pool.open++;
+				connection.connect(this.selector, call.getAddress());
+				connection.assign(call, false);
+			} catch (IOException ioe) {
+				if (connection != null) {
+					close(connection);
+				}
+
+				getLogger().log(Level.FINE, "Unable to connect to the remote HTTP server.", ioe);
+				call.fail(Status.CONNECTOR_ERROR_CONNECTION, ioe);
+			}
+		} else {
+			pool.pending.add(call);
+		}
+	}
+
+	/**
+	 * Submits a call to the event loop. Calls submitted while the connector stops
+	 * are failed either here or by the event loop before it exits.
+	 * 
+	 * @param call The call to send.
+	 */
+	void execute(NbHttpClientCall call) {
+		this.submitted.add(call);
+
+		if (this.running) {
+			this.selector.wakeup();
+		} else if (this.submitted.remove(call)) {
+			call.fail(Status.CONNECTOR_ERROR_INTERNAL, new IOException("The HTTP client connector isn't started."));
+		}
+	}
+
+	/**
+	 * Runs a task on a worker thread, or on the current thread if the connector
+	 * isn't started.
+	 * 
+	 * @param task The task to run.
+	 */
+	void executeWorker(Runnable task) {
+		ExecutorService workers = this.workers;
+
+		if (workers != null) {
+			try {
+				workers.execute(task);
+				return;
+			} catch (RejectedExecutionException ree) {
+				getLogger().log(Level.FINE, "Unable to run the task on a worker thread.", ree);
+			}
+		}
+
+		task.run();
+	}
+
+	/**
+	 * Returns the time in milliseconds after which an idle pooled connection is
+	 * closed. Defaults to 30000.
+	 * 
+	 * @return The idle timeout.
+	 */
+	public int getIdleTimeout() {
+		return Integer.parseInt(getHelpedParameters().getFirstValue("idleTimeout", "30000"));
+	}
+
+	/**
+	 * Returns the maximum number of simultaneous connections to a given host.
+	 * Defaults to 10.
+	 * 
+	 * @return The maximum number of simultaneous connections to a given host.
+	 */
+	public int getMaxConnectionsPerHost() {
+		return Integer.parseInt(getHelpedParameters().getFirstValue("maxConnectionsPerHost", "10"));
+	}
+
+	/**
+	 * Returns the maximum size in bytes of a response entity. Defaults to
+	 * 16777216.
+	 * 
+	 * @return The maximum size of a response entity.
+	 */
+	public long getMaxResponseEntitySize() {
+		return Long.parseLong(getHelpedParameters().getFirstValue("maxResponseEntitySize", "16777216"));
+	}
+
+	/**
+	 * Returns the pool of a given host, creating it if necessary.
+	 * 
+	 * @param hostKey The host key.
+	 * @return The pool of the host.
+	 */
+	private HostPool getPool(String hostKey) {
+		HostPool result = this.pools.get(hostKey);
+
+		if (result == null) {
+			result = new HostPool();
+			this.pools.put(hostKey, result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the read timeout value. A timeout of zero is interpreted as an
+	 * infinite timeout. Defaults to 60000.
+	 * 
+	 * @return The read timeout value.
+	 */
+	public int getReadTimeout() {
+		return Integer.parseInt(getHelpedParameters().getFirstValue("readTimeout", "60000"));
+	}
+
+	/**
+	 * Indicates if the current thread is the event loop thread.
+	 * 
+	 * @return True if the current thread is the event loop thread.
+	 */
+	public boolean isEventLoopThread() {
+		return Thread.currentThread() == this.eventLoop;
+	}
+
+	/**
+	 * Releases a connection after the completion of its call. A reusable
+	 * connection is assigned to the next queued call of its host or put back in
+	 * the idle pool, otherwise it is closed.
+	 * 
+	 * @param connection The connection to release.
+	 * @param reusable   True if the connection can be kept alive.
+	 */
+	void release(NbHttpConnection connection, boolean reusable) {
+		if (reusable && this.running) {
+			HostPool pool = getPool(connection.getHostKey());
+			NbHttpClientCall next = pool.pending.poll();
+
+			if (next != null) {
+				connection.assign(next, true);
+			} else {
+				connection.idle();
+				pool.idle.addFirst(connection);
+			}
+		} else {
+			close(connection);
+		}
+	}
+
+	/**
+	 * Runs the event loop until the helper is stopped.
+	 */
+	private void run() {
+		while (this.running) {
+			try {
+				this.selector.select(TIMEOUT_CHECK_PERIOD);
+				NbHttpClientCall call;
+
+				while ((call = this.submitted.poll()) != null) {
+					dispatch(call);
+				}
+
+				Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					((NbHttpConnection) key.attachment()).onSelected(key);
+				}
+
+				long now = System.currentTimeMillis();
+
+				for (NbHttpConnection connection : new ArrayList<NbHttpConnection>(this.connections)) {
+					connection.checkTimeout(now);
+				}
+			} catch (Throwable t) {
+				getLogger().log(Level.WARNING, "Unexpected error in the HTTP client event loop.", t);
+			}
+		}
+
+		// Abort the remaining calls
+		IOException stopped = new IOException("The HTTP client connector has been stopped.");
+
+		for (NbHttpConnection connection : new ArrayList<NbHttpConnection>(this.connections)) {
+			connection.abort(stopped);
+			close(connection);
+		}
+
+		List<NbHttpClientCall> pending = new ArrayList<NbHttpClientCall>();
+
+		for (HostPool pool : this.pools.values()) {
+			pending.addAll(pool.pending);
+			pool.pending.clear();
+		}
+
+		// Including the calls submitted after the last iteration
+		NbHttpClientCall submittedCall;
+
+		while ((submittedCall = this.submitted.poll()) != null) {
+			pending.add(submittedCall);
+		}
+
+		for (NbHttpClientCall call : pending) {
+			call.fail(Status.CONNECTOR_ERROR_COMMUNICATION, stopped);
+		}
+
+		this.pools.clear();
+
+		try {
+			this.selector.close();
+		} catch (IOException ioe) {
+			getLogger().log(Level.FINE, "Unable to close the selector.", ioe);
+		}
+	}
+
+	@Override
+	public synchronized void start() throws Exception {
+		super.start();
+
+		if (!this.running) {
+			this.selector = Selector.open();
+			this.workers = Executors.newCachedThreadPool(new LoggingThreadFactory(getLogger(), true));
+			this.running = true;
+			this.eventLoop = new Thread(new Runnable() {
+				public void run() {
+					NbHttpClientHelper.this.run();
+				}
+			}, "Restlet-NbHttpClient");
+			this.eventLoop.setDaemon(true);
+			this.eventLoop.start();
+			getLogger().info("Starting the non-blocking HTTP client");
+		}
+	}
+
+	@Override
+	public synchronized void stop() throws Exception {
+		if (this.running) {
+			getLogger().info("Stopping the non-blocking HTTP client");
+			this.running = false;
+			this.selector.wakeup();
+
+			if (!isEventLoopThread()) {
+				this.eventLoop.join();
+			}
+
+			this.eventLoop = null;
+			this.workers.shutdown();
+			this.workers = null;
+		}
+
+		super.stop();
+	}
+
+}
@@ -0,0 +1,627 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+
+package org.restlet.engine.connector;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+
+import org.restlet.data.Header;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.engine.header.HeaderUtils;
+import org.restlet.util.Series;
+
+/**
+ * Pooled HTTP/1.1 connection of the {@link NbHttpClientHelper}. Writes the
+ * serialized request of the current call and incrementally parses the response
+ * as bytes arrive. Only accessed from the event loop thread.
+ */
+class NbHttpConnection {
+
+	/** Reading the response body until the connection is closed. */
+	private static final int STATE_BODY_CLOSE = 0;
+
+	/** Reading a response body of known length. */
+	private static final int STATE_BODY_LENGTH = 1;
+
+	/** Reading the data of a response body chunk. */
+	private static final int STATE_CHUNK_DATA = 2;
+
+	/** Reading the line ending a response body chunk. */
+	private static final int STATE_CHUNK_END = 3;
+
+	/** Reading the size line of a response body chunk. */
+	private static final int STATE_CHUNK_SIZE = 4;
+
+	/** Reading the response headers. */
+	private static final int STATE_HEADERS = 5;
+
+	/** Waiting for the response status line. */
+	private static final int STATE_STATUS_LINE = 6;
+
+	/** Reading the trailer headers of a chunked response body. */
+	private static final int STATE_TRAILERS = 7;
+
+	/** The maximum length of a status, header or chunk size line. */
+	private static final int MAX_LINE_LENGTH = 65536;
+
+	/** The call currently handled or null when idle. */
+	private NbHttpClientCall call;
+
+	/** The underlying socket channel. */
+	private SocketChannel channel;
+
+	/** Indicates if the socket channel is connected. */
+	private boolean connected;
+
+	/** The time in milliseconds when the current operation times out or 0. */
+	private long deadline;
+
+	/** The parent helper. */
+	private final NbHttpClientHelper helper;
+
+	/** The key of the target host. */
+	private final String hostKey;
+
+	/** The buffer of received bytes. */
+	private byte[] input;
+
+	/** The end index of the received bytes not parsed yet. */
+	private int inputEnd;
+
+	/** The start index of the received bytes not parsed yet. */
+	private int inputStart;
+
+	/** Indicates if the server allows the connection to be reused. */
+	private boolean keepAlive;
+
+	/** The serialized request being written. */
+	private ByteBuffer output;
+
+	/** The remaining length of the current body or chunk. */
+	private long remaining;
+
+	/** Indicates if some bytes of the response have been received. */
+	private boolean responseStarted;
+
+	/** Indicates if the current call was assigned to a pooled connection. */
+	private boolean reused;
+
+	/** The selection key of the channel. */
+	private SelectionKey selectionKey;
+
+	/** The current parsing state. */
+	private int state;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param helper  The parent helper.
+	 * @param hostKey The key of the target host.
+	 */
+	NbHttpConnection(NbHttpClientHelper helper, String hostKey) {
+		this.helper = helper;
+		this.hostKey = hostKey;
+		this.input = new byte[8192];
+	}
+
+	/**
+	 * Fails the current call, if any, without closing the connection.
+	 * 
+	 * @param cause The cause of the failure.
+	 */
+	void abort(IOException cause) {
+		NbHttpClientCall current = this.call;
+		this.call = null;
+
+		if (current != null) {
+			current.fail(this.connected ? Status.CONNECTOR_ERROR_COMMUNICATION : Status.CONNECTOR_ERROR_CONNECTION,
+					cause);
+		}
+	}
+
+	/**
+	 * Adds a header line to the response headers, unfolding continuation lines.
+	 * 
+	 * @param line The header line.
+	 * @throws IOException
+	 */
+	private void addHeader(String line) throws IOException {
+		Series<Header> headers = this.call.getResponseHeaders();
+
+		if (((line.charAt(0) == ' ') || (line.charAt(0) == '\t')) && !headers.isEmpty()) {
+			Header last = headers.get(headers.size() - 1);
+			last.setValue(last.getValue() + ' ' + line.trim());
+		} else {
+			int colon = line.indexOf(':');
+
+			if (colon <= 0) {
+				throw new IOException("Invalid response header: " + line);
+			}
+
+			headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+		}
+	}
+
+	/**
+	 * Assigns a call to this connection and starts writing its request.
+	 * 
+	 * @param call   The call to handle.
+	 * @param reused True if the connection has already handled previous calls.
+	 */
+	void assign(NbHttpClientCall call, boolean reused) {
+		this.call = call;
+		this.reused = reused;
+		this.output = ByteBuffer.wrap(call.getRequestBytes());
+		this.responseStarted = false;
+		this.keepAlive = true;
+		this.state = STATE_STATUS_LINE;
+
+		if (this.connected) {
+			this.deadline = timeout(this.helper.getReadTimeout());
+			this.selectionKey.interestOps(SelectionKey.OP_WRITE);
+		}
+	}
+
+	/**
+	 * Fails the current call or closes the idle connection when its deadline is
+	 * reached.
+	 * 
+	 * @param now The current time in milliseconds.
+	 */
+	void checkTimeout(long now) {
+		if ((this.deadline > 0) && (now >= this.deadline)) {
+			if (this.call == null) {
+				this.helper.close(this);
+			} else {
+				fail(this.connected ? new SocketTimeoutException("Read timed out")
+						: new ConnectException("Connect timed out"));
+			}
+		}
+	}
+
+	/**
+	 * Closes the socket channel.
+	 */
+	void close() {
+		if (this.selectionKey != null) {
+			this.selectionKey.cancel();
+		}
+
+		if (this.channel != null) {
+			try {
+				this.channel.close();
+			} catch (IOException ioe) {
+				this.helper.getLogger().log(Level.FINE, "Unable to close the connection.", ioe);
+			}
+		}
+	}
+
+	/**
+	 * Starts connecting the socket channel.
+	 * 
+	 * @param selector The selector to register with.
+	 * @param address  The target address.
+	 * @throws IOException
+	 */
+	void connect(Selector selector, InetSocketAddress address) throws IOException {
+		if (address.isUnresolved()) {
+			throw new ConnectException("Unable to resolve host: " + address.getHostString());
+		}
+
+		this.channel = SocketChannel.open();
+		this.channel.configureBlocking(false);
+		this.channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+		this.connected = this.channel.connect(address);
+		this.selectionKey = this.channel.register(selector,
+				this.connected ? SelectionKey.OP_WRITE : SelectionKey.OP_CONNECT, this);
+		this.deadline = this.connected ? timeout(this.helper.getReadTimeout())
+				: timeout(this.helper.getSocketConnectTimeoutMs());
+	}
+
+	/**
+	 * Fails the current call and closes the connection. A call sent on a pooled
+	 * connection that the server closed in the meantime is retried once on
+	 * another connection, provided that its method is idempotent.
+	 * 
+	 * @param cause The cause of the failure.
+	 */
+	private void fail(IOException cause) {
+		NbHttpClientCall current = this.call;
+
+		if ((current != null) && this.reused && !this.responseStarted && current.isRetryable()) {
+			this.call = null;
+			this.helper.close(this);
+			current.reset();
+			this.helper.dispatch(current);
+		} else {
+			this.helper.getLogger().log(Level.FINE,
+					"An error occurred during the communication with the remote HTTP server.", cause);
+			abort(cause);
+			this.helper.close(this);
+		}
+	}
+
+	/**
+	 * Completes the current call and releases the connection.
+	 */
+	private void finish() {
+		NbHttpClientCall current = this.call;
+		Series<Header> headers = current.getResponseHeaders();
+		boolean reusable = this.keepAlive && (this.inputStart == this.inputEnd);
+
+		if (reusable) {
+			String connection = headers.getFirstValue(HeaderConstants.HEADER_CONNECTION, true);
+			reusable = "HTTP/1.1".equals(current.getVersion()) ? !HeaderUtils.isConnectionClose(headers)
+					: "keep-alive".equalsIgnoreCase(connection);
+		}
+
+		this.call = null;
+		this.helper.release(this, reusable);
+		current.complete();
+	}
+
+	/**
+	 * Returns the key of the target host.
+	 * 
+	 * @return The key of the target host.
+	 */
+	String getHostKey() {
+		return this.hostKey;
+	}
+
+	/**
+	 * Puts the connection in idle mode, watching for its closing by the server.
+	 */
+	void idle() {
+		this.deadline = timeout(this.helper.getIdleTimeout());
+		this.selectionKey.interestOps(SelectionKey.OP_READ);
+	}
+
+	/**
+	 * Handles the end of the stream.
+	 * 
+	 * @throws IOException
+	 */
+	private void onEndOfStream() throws IOException {
+		if (this.call == null) {
+			// Idle connection closed by the server
+			this.helper.close(this);
+		} else if (this.state == STATE_BODY_CLOSE) {
+			this.keepAlive = false;
+			finish();
+		} else {
+			throw new EOFException("Connection closed by the server before the end of the response.");
+		}
+	}
+
+	/**
+	 * Handles the readiness of the channel.
+	 * 
+	 * @param key The selected key.
+	 */
+	void onSelected(SelectionKey key) {
+		try {
+			if (!key.isValid()) {
+				return;
+			}
+
+			if (key.isConnectable()) {
+				this.connected = this.channel.finishConnect();
+
+				if (this.connected) {
+					this.deadline = timeout(this.helper.getReadTimeout());
+					key.interestOps(SelectionKey.OP_WRITE);
+				}
+			} else if (key.isWritable()) {
+				this.channel.write(this.output);
+
+				if (!this.output.hasRemaining()) {
+					key.interestOps(SelectionKey.OP_READ);
+					this.call.onSent();
+				}
+			} else if (key.isReadable()) {
+				read();
+			}
+		} catch (IOException ioe) {
+			fail(ioe);
+		} catch (RuntimeException re) {
+			fail(new IOException("Unable to handle the HTTP response.", re));
+		}
+	}
+
+	/**
+	 * Parses the received bytes according to the current state.
+	 * 
+	 * @throws IOException
+	 */
+	private void parse() throws IOException {
+		boolean progress = true;
+
+		while (progress && (this.call != null)) {
+			switch (this.state) {
+			case STATE_STATUS_LINE:
+				String statusLine = readLine();
+				progress = (statusLine != null);
+
+				if (progress && !statusLine.isEmpty()) {
+					parseStatusLine(statusLine);
+					this.state = STATE_HEADERS;
+				}
+				break;
+
+			case STATE_HEADERS:
+				String headerLine = readLine();
+				progress = (headerLine != null);
+
+				if (progress) {
+					if (headerLine.isEmpty()) {
+						startBody();
+					} else {
+						addHeader(headerLine);
+					}
+				}
+				break;
+
+			case STATE_BODY_LENGTH:
+			case STATE_CHUNK_DATA:
+				progress = readBody();
+
+				if (this.remaining == 0) {
+					if (this.state == STATE_BODY_LENGTH) {
+						finish();
+					} else {
+						this.state = STATE_CHUNK_END;
+					}
+				}
+				break;
+
+			case STATE_CHUNK_END:
+				String chunkEnd = readLine();
+				progress = (chunkEnd != null);
+
+				if (progress) {
+					this.state = STATE_CHUNK_SIZE;
+				}
+				break;
+
+			case STATE_CHUNK_SIZE:
+				String chunkSize = readLine();
+				progress = (chunkSize != null);
+
+				if (progress) {
+					int extension = chunkSize.indexOf(';');
+
+					try {
+						this.remaining = Long.parseLong(
+								((extension == -1) ? chunkSize : chunkSize.substring(0, extension)).trim(), 16);
+					} catch (NumberFormatException nfe) {
+						throw new IOException("Invalid chunk size: " + chunkSize, nfe);
+					}
+
+					if (this.remaining < 0) {
+						throw new IOException("Invalid chunk size: " + chunkSize);
+					}
+
+					this.state = (this.remaining == 0) ? STATE_TRAILERS : STATE_CHUNK_DATA;
+				}
+				break;
+
+			case STATE_TRAILERS:
+				String trailer = readLine();
+				progress = (trailer != null);
+
+				if (progress) {
+					if (trailer.isEmpty()) {
+						finish();
+					} else {
+						addHeader(trailer);
+					}
+				}
+				break;
+
+			case STATE_BODY_CLOSE:
+				this.remaining = this.inputEnd - this.inputStart;
+				progress = readBody();
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Parses the status line and updates the call.
+	 * 
+	 * @param line The status line.
+	 * @throws IOException
+	 */
+	private void parseStatusLine(String line) throws IOException {
+		int first = line.indexOf(' ');
+		int second = (first == -1) ? -1 : line.indexOf(' ', first + 1);
+
+		if ((first == -1) || !line.startsWith("HTTP/")) {
+			throw new IOException("Invalid response status line: " + line);
+		}
+
+		try {
+			this.call.setVersion(line.substring(0, first));
+			this.call.setStatusCode(
+					Integer.parseInt((second == -1) ? line.substring(first + 1) : line.substring(first + 1, second)));
+			this.call.setReasonPhrase((second == -1) ? "" : line.substring(second + 1));
+		} catch (NumberFormatException nfe) {
+			throw new IOException("Invalid response status line: " + line, nfe);
+		}
+
+		this.call.getResponseHeaders().clear();
+	}
+
+	/**
+	 * Reads the available bytes from the channel and parses them.
+	 * 
+	 * @throws IOException
+	 */
+	private void read() throws IOException {
+		if (this.inputStart == this.inputEnd) {
+			this.inputStart = 0;
+			this.inputEnd = 0;
+		} else if (this.inputEnd == this.input.length) {
+			if (this.inputStart > 0) {
+				System.arraycopy(this.input, this.inputStart, this.input, 0, this.inputEnd - this.inputStart);
+				this.inputEnd -= this.inputStart;
+				this.inputStart = 0;
+			} else if (this.input.length < MAX_LINE_LENGTH) {
+				byte[] larger = new byte[this.input.length * 2];
+				System.arraycopy(this.input, 0, larger, 0, this.inputEnd);
+				this.input = larger;
+			} else {
+				throw new IOException("Response line too long.");
+			}
+		}
+
+		int count = this.channel
+				.read(ByteBuffer.wrap(this.input, this.inputEnd, this.input.length - this.inputEnd));
+
+		if (count == -1) {
+			onEndOfStream();
+		} else if (count > 0) {
+			if (this.call == null) {
+				// Unexpected bytes on an idle connection
+				this.helper.close(this);
+			} else {
+				this.inputEnd += count;
+				this.responseStarted = true;
+				this.deadline = timeout(this.helper.getReadTimeout());
+				parse();
+			}
+		}
+	}
+
+	/**
+	 * Copies the available body bytes to the response entity.
+	 * 
+	 * @return True if some bytes were copied.
+	 * @throws IOException If the response entity is too large.
+	 */
+	private boolean readBody() throws IOException {
+		int count = (int) Math.min(this.remaining, this.inputEnd - this.inputStart);
+
+		if (count > 0) {
+			if (this.call.getResponseEntityOutput().size() + count > this.helper.getMaxResponseEntitySize()) {
+				throw new IOException("Response entity too large.");
+			}
+
+			this.call.getResponseEntityOutput().write(this.input, this.inputStart, count);
+			this.inputStart += count;
+			this.remaining -= count;
+		}
+
+		return count > 0;
+	}
+
+	/**
+	 * Reads a line terminated by LF, ignoring the preceding CR.
+	 * 
+	 * @return The line or null if it isn't entirely received yet.
+	 */
+	private String readLine() {
+		String result = null;
+
+		for (int i = this.inputStart; (result == null) && (i < this.inputEnd); i++) {
+			if (this.input[i] == '\n') {
+				int end = ((i > this.inputStart) && (this.input[i - 1] == '\r')) ? i - 1 : i;
+				result = new String(this.input, this.inputStart, end - this.inputStart, StandardCharsets.ISO_8859_1);
+				this.inputStart = i + 1;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Determines how the response body is delimited once the headers are read.
+	 * 
+	 * @throws IOException
+	 */
+	private void startBody() throws IOException {
+		int code = this.call.getStatusCode();
+		Series<Header> headers = this.call.getResponseHeaders();
+
+		if ((code >= 100) && (code < 200) && (code != 101)) {
+			// Skip interim responses
+			this.state = STATE_STATUS_LINE;
+		} else if (Method.HEAD.getName().equals(this.call.getMethod()) || (code < 200) || (code == 204)
+				|| (code == 304)) {
+			finish();
+		} else {
+			String transferEncoding = headers.getFirstValue(HeaderConstants.HEADER_TRANSFER_ENCODING, true);
+			String contentLength = headers.getFirstValue(HeaderConstants.HEADER_CONTENT_LENGTH, true);
+
+			if ((transferEncoding != null) && transferEncoding.toLowerCase().contains("chunked")) {
+				this.state = STATE_CHUNK_SIZE;
+			} else if (contentLength != null) {
+				try {
+					this.remaining = Long.parseLong(contentLength.trim());
+				} catch (NumberFormatException nfe) {
+					throw new IOException("Invalid content length: " + contentLength, nfe);
+				}
+
+				if (this.remaining < 0) {
+					throw new IOException("Invalid content length: " + contentLength);
+				}
+
+				this.state = STATE_BODY_LENGTH;
+
+				if (this.remaining == 0) {
+					finish();
+				}
+			} else {
+				this.state = STATE_BODY_CLOSE;
+				this.keepAlive = false;
+			}
+		}
+	}
+
+	/**
+	 * Computes a deadline from a timeout.
+	 * 
+	 * @param timeout The timeout in milliseconds or 0 for none.
+	 * @return The deadline or 0 for none.
+	 */
+	private long timeout(int timeout) {
+		return (timeout > 0) ? System.currentTimeMillis() + timeout : 0;
+	}
+
+}
@@ -0,0 +1,361 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.connector;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.restlet.Response;
+import org.restlet.data.Protocol;
+import org.restlet.engine.adapter.ServerCall;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.engine.header.HeaderUtils;
+import org.restlet.engine.io.FileRegion;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.engine.util.StringUtils;
+import org.restlet.representation.Representation;
+import org.restlet.service.ConnectorService;
+
+/**
+ * Call handled by the {@link NbHttpServerHelper}. The request is entirely
+ * received by the event loop before the call is handled by a worker thread.
+ * The response is written into pooled direct buffers queued on the connection,
+ * while file entities, including byte ranges of files, are transferred without
+ * copy via
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+ */
+class NbHttpServerCall extends ServerCall {
+
+	/**
+	 * Output stream writing the response into pooled direct buffers. Frames the
+	 * entity into chunks when the response is chunked.
+	 */
+	private class ResponseStream extends OutputStream {
+
+		/** The current buffer, filled by the write methods. */
+		private ByteBuffer buffer;
+
+		/** Indicates if the entity is chunked. */
+		private boolean chunked;
+
+		/** Indicates if the stream is closed. */
+		private boolean closed;
+
+		/** Indicates if the response head is being written. */
+		private boolean head = true;
+
+		/**
+		 * Returns the current buffer, checking out a new one if needed.
+		 * 
+		 * @return The current buffer.
+		 * @throws IOException
+		 */
+		private ByteBuffer buffer() throws IOException {
+			if (this.closed) {
+				throw new IOException("The response stream is closed.");
+			}
+
+			if (this.buffer == null) {
+				this.buffer = helper.getBufferPool().checkout();
+			} else if (!this.buffer.hasRemaining()) {
+				flushBuffer();
+				this.buffer = helper.getBufferPool().checkout();
+			}
+
+			return this.buffer;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.closed) {
+				flushBuffer();
+
+				if (this.chunked) {
+					connection.write(ByteBuffer.wrap(StringUtils.getAsciiBytes("0\r\n\r\n")));
+				}
+
+				this.closed = true;
+			}
+		}
+
+		/**
+		 * Ends the response head. The head is queued right away if the entity is
+		 * chunked, otherwise the entity continues to fill the current buffer.
+		 * 
+		 * @param chunked True if the entity is chunked.
+		 * @throws IOException
+		 */
+		private void endHead(boolean chunked) throws IOException {
+			if (chunked) {
+				flushBuffer();
+			}
+
+			this.chunked = chunked;
+			this.head = false;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			// The head is flushed with the beginning of the entity
+			if (!this.head && !this.closed) {
+				flushBuffer();
+			}
+		}
+
+		/**
+		 * Queues the current buffer on the connection, framed as a chunk if needed.
+		 * 
+		 * @throws IOException
+		 */
+		private void flushBuffer() throws IOException {
+			if ((this.buffer != null) && (this.buffer.position() > 0)) {
+				ByteBuffer data = this.buffer;
+				this.buffer = null;
+				data.flip();
+
+				if (this.chunked) {
+					connection.write(ByteBuffer
+							.wrap(StringUtils.getAsciiBytes(Integer.toHexString(data.remaining()) + "\r\n")));
+					connection.write(data);
+					connection.write(ByteBuffer.wrap(StringUtils.getAsciiBytes("\r\n")));
+				} else {
+					connection.write(data);
+				}
+			}
+		}
+
+		/**
+		 * Returns the unused buffer, if any, to the pool.
+		 */
+		private void release() {
+			if (this.buffer != null) {
+				helper.getBufferPool().checkin(this.buffer);
+				this.buffer = null;
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				ByteBuffer target = buffer();
+				int count = Math.min(len, target.remaining());
+				target.put(b, off, count);
+				off += count;
+				len -= count;
+			}
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			buffer().put((byte) b);
+		}
+	}
+
+	/** The parent connection. */
+	private final NbHttpServerConnection connection;
+
+	/** Indicates if the response has been entirely queued. */
+	private volatile boolean ended;
+
+	/** The parent helper. */
+	private final NbHttpServerHelper helper;
+
+	/** The buffered request entity or null. */
+	private volatile byte[] requestEntity;
+
+	/** The response stream, created when the response is sent. */
+	private volatile ResponseStream responseStream;
+
+	/** Indicates if the server can keep the connection alive. */
+	private volatile boolean serverKeepAlive;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param helper     The parent helper.
+	 * @param connection The parent connection.
+	 */
+	NbHttpServerCall(NbHttpServerHelper helper, NbHttpServerConnection connection) {
+		super(connection.getSocket().getLocalAddress().getHostAddress(), connection.getSocket().getLocalPort());
+		this.connection = connection;
+		this.helper = helper;
+		this.serverKeepAlive = true;
+		Socket socket = connection.getSocket();
+		setClientAddress(socket.getInetAddress().getHostAddress());
+		setClientPort(socket.getPort());
+		setProtocol(Protocol.HTTP);
+	}
+
+	@Override
+	public boolean abort() {
+		this.connection.abort();
+		return true;
+	}
+
+	/**
+	 * Closes the connection if the response couldn't be entirely queued.
+	 */
+	@Override
+	public void complete() {
+		if (!this.ended) {
+			abort();
+		}
+	}
+
+	@Override
+	public void flushBuffers() throws IOException {
+		if (this.responseStream != null) {
+			this.responseStream.flush();
+		}
+	}
+
+	@Override
+	public InputStream getRequestEntityStream(long size) {
+		return (this.requestEntity == null) ? null : new ByteArrayInputStream(this.requestEntity);
+	}
+
+	@Override
+	public InputStream getRequestHeadStream() {
+		return null;
+	}
+
+	@Override
+	public OutputStream getResponseEntityStream() {
+		return this.responseStream;
+	}
+
+	/**
+	 * Indicates if the client wants a persistent connection. HTTP/1.0 clients
+	 * must explicitly ask for it.
+	 */
+	@Override
+	protected boolean isClientKeepAlive() {
+		if (isHttp10()) {
+			return "keep-alive".equalsIgnoreCase(
+					getRequestHeaders().getFirstValue(HeaderConstants.HEADER_CONNECTION, true));
+		}
+
+		return super.isClientKeepAlive();
+	}
+
+	/**
+	 * Indicates if the request uses HTTP/1.0.
+	 * 
+	 * @return True if the request uses HTTP/1.0.
+	 */
+	private boolean isHttp10() {
+		return "HTTP/1.0".equalsIgnoreCase(getVersion());
+	}
+
+	@Override
+	protected boolean isServerKeepAlive() {
+		return this.serverKeepAlive;
+	}
+
+	@Override
+	public void sendResponse(Response response) throws IOException {
+		if (this.responseStream != null) {
+			throw new IOException("The response has already been sent.");
+		}
+
+		Representation entity = response.getEntity();
+		ConnectorService connectorService = ConnectorHelper.getConnectorService();
+
+		if (connectorService != null) {
+			connectorService.beforeSend(entity);
+		}
+
+		// HTTP/1.0 clients can only detect the end of an entity of unknown size
+		// when the connection is closed
+		this.serverKeepAlive = this.helper.isRunning()
+				&& !(isHttp10() && (entity != null) && (entity.getAvailableSize() == Representation.UNKNOWN_SIZE));
+		this.responseStream = new ResponseStream();
+
+		try {
+			writeResponseHead(response, this.responseStream);
+			boolean keepAlive = isKeepAlive() && !HeaderUtils.isConnectionClose(getResponseHeaders());
+			this.responseStream.endHead(shouldResponseBeChunked(response));
+
+			if (entity != null) {
+				FileRegion region = IoUtils.getFileRegion(entity);
+
+				if (region != null) {
+					FileChannel fileChannel = region.open();
+					this.responseStream.flushBuffer();
+					this.connection.transfer(fileChannel, region.getPosition(), region.getCount());
+				} else {
+					entity.write(this.responseStream);
+				}
+			}
+
+			this.responseStream.close();
+			this.connection.end(keepAlive);
+			this.ended = true;
+		} finally {
+			this.responseStream.release();
+
+			if (entity != null) {
+				entity.release();
+			}
+
+			if (connectorService != null) {
+				connectorService.afterSend(entity);
+			}
+		}
+	}
+
+	/**
+	 * Sets the buffered request entity.
+	 * 
+	 * @param requestEntity The buffered request entity.
+	 */
+	void setRequestEntity(byte[] requestEntity) {
+		this.requestEntity = requestEntity;
+	}
+
+	/**
+	 * Sets the method, URI and version of the request line.
+	 * 
+	 * @param method     The request method.
+	 * @param requestUri The request URI.
+	 * @param version    The protocol version.
+	 */
+	void setRequestLine(String method, String requestUri, String version) {
+		setMethod(method);
+		setRequestUri(requestUri);
+		setVersion(version);
+	}
+
+	@Override
+	public boolean shouldResponseBeChunked(Response response) {
+		return !isHttp10() && super.shouldResponseBeChunked(response);
+	}
+
+}
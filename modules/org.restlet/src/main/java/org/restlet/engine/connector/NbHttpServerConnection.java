@@ -0,0 +1,884 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.connector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.logging.Level;
+
+import org.restlet.data.Header;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.engine.header.HeaderUtils;
+import org.restlet.util.Series;
+
+/**
+ * HTTP/1.1 connection of the {@link NbHttpServerHelper}. Incrementally parses
+ * the requests as bytes arrive and writes the responses queued by the worker
+ * threads. The parsing state is only accessed from the event loop thread, while
+ * the output queue is shared with the worker thread handling the current call.
+ */
+class NbHttpServerConnection {
+
+	/**
+	 * Region of a file to transfer to the socket channel.
+	 */
+	private static class FileTransfer {
+
+		/** The file channel. */
+		private final FileChannel channel;
+
+		/** The end position of the region. */
+		private final long end;
+
+		/** The current position in the file. */
+		private long position;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param channel  The file channel.
+		 * @param position The start position of the region.
+		 * @param count    The number of bytes to transfer.
+		 */
+		private FileTransfer(FileChannel channel, long position, long count) {
+			this.channel = channel;
+			this.position = position;
+			this.end = position + count;
+		}
+	}
+
+	/** The marker ending a response after which the connection is closed. */
+	private static final Object CLOSE = new Object();
+
+	/** The CRLF line ending. */
+	private static final byte[] CRLF = { 13, 10 };
+
+	/** The marker ending a response after which the connection is kept alive. */
+	private static final Object KEEP_ALIVE = new Object();
+
+	/** The maximum number of buffers written by a single gathering write. */
+	private static final int MAX_GATHERED_BUFFERS = 16;
+
+	/**
+	 * The maximum initial capacity of the request entity buffer, so that the
+	 * announced content length doesn't reserve memory before the body arrives.
+	 */
+	private static final int MAX_INITIAL_ENTITY_CAPACITY = 8192;
+
+	/** The maximum length of a request, header or chunk size line. */
+	private static final int MAX_LINE_LENGTH = 65536;
+
+	/** Reading a request body of known length. */
+	private static final int STATE_BODY_LENGTH = 0;
+
+	/** Reading the data of a request body chunk. */
+	private static final int STATE_CHUNK_DATA = 1;
+
+	/** Reading the line ending a request body chunk. */
+	private static final int STATE_CHUNK_END = 2;
+
+	/** Reading the size line of a request body chunk. */
+	private static final int STATE_CHUNK_SIZE = 3;
+
+	/** Reading the request headers. */
+	private static final int STATE_HEADERS = 4;
+
+	/** Waiting for the request line. */
+	private static final int STATE_REQUEST_LINE = 5;
+
+	/** Reading the trailer headers of a chunked request body. */
+	private static final int STATE_TRAILERS = 6;
+
+	/** Indicates if a call is being handled, suspending the parsing. */
+	private boolean busy;
+
+	/** The call being parsed or handled. */
+	private NbHttpServerCall call;
+
+	/** The underlying socket channel. */
+	private final SocketChannel channel;
+
+	/** The time in milliseconds when the connection times out or 0. */
+	private long deadline;
+
+	/** The request entity being read. */
+	private ByteArrayOutputStream entity;
+
+	/** The task writing the queued output, run by the event loop. */
+	private final Runnable flushTask;
+
+	/** The total size of the header lines of the current request. */
+	private int headerSize;
+
+	/** The parent helper. */
+	private final NbHttpServerHelper helper;
+
+	/** The idle timeout in milliseconds. */
+	private final int idleTimeout;
+
+	/** The buffer of received bytes. */
+	private byte[] input;
+
+	/** The end index of the received bytes not parsed yet. */
+	private int inputEnd;
+
+	/** The start index of the received bytes not parsed yet. */
+	private int inputStart;
+
+	/** The maximum number of request headers, including the trailers. */
+	private final int maxHeaderCount;
+
+	/** The maximum total size of the header lines of a request. */
+	private final int maxHeaderSize;
+
+	/** The maximum number of queued bytes before the writers wait. */
+	private final long maxPending;
+
+	/** Indicates if the connection is open. Guarded by the output queue. */
+	private boolean open;
+
+	/**
+	 * The output queue of byte buffers, file regions and end markers, shared with
+	 * the worker threads.
+	 */
+	private final Deque<Object> output;
+
+	/** The number of queued bytes not written yet. Guarded by the output queue. */
+	private long pending;
+
+	/** The remaining length of the current body or chunk. */
+	private long remaining;
+
+	/** The selection key of the channel. */
+	private SelectionKey selectionKey;
+
+	/** The current parsing state. */
+	private int state;
+
+	/** Indicates if the flush task is scheduled. Guarded by the output queue. */
+	private boolean writeScheduled;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param helper  The parent helper.
+	 * @param channel The accepted socket channel.
+	 */
+	NbHttpServerConnection(NbHttpServerHelper helper, SocketChannel channel) {
+		this.helper = helper;
+		this.channel = channel;
+		this.idleTimeout = helper.getIdleTimeout();
+		this.input = new byte[8192];
+		this.maxHeaderCount = helper.getMaxHeaderCount();
+		this.maxHeaderSize = helper.getMaxHeaderSize();
+		this.maxPending = 4L * helper.getBufferSize();
+		this.open = true;
+		this.output = new ArrayDeque<Object>();
+		this.state = STATE_REQUEST_LINE;
+		this.flushTask = new Runnable() {
+			public void run() {
+				synchronized (output) {
+					writeScheduled = false;
+				}
+
+				try {
+					flush();
+				} catch (IOException ioe) {
+					NbHttpServerConnection.this.helper.getLogger().log(Level.FINE,
+							"Unable to write the response.", ioe);
+					NbHttpServerConnection.this.helper.close(NbHttpServerConnection.this);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Closes the connection from a worker thread.
+	 */
+	void abort() {
+		this.helper.submit(new Runnable() {
+			public void run() {
+				helper.close(NbHttpServerConnection.this);
+			}
+		});
+	}
+
+	/**
+	 * Accounts for a received header or trailer line and indicates if the request
+	 * headers stay within their maximum count and total size.
+	 * 
+	 * @param line The header line.
+	 * @return True if the line can be added.
+	 */
+	private boolean acceptHeader(String line) {
+		this.headerSize += line.length() + CRLF.length;
+		boolean continuation = (line.charAt(0) == ' ') || (line.charAt(0) == '\t');
+		return (this.headerSize <= this.maxHeaderSize)
+				&& (continuation || (this.call.getRequestHeaders().size() < this.maxHeaderCount));
+	}
+
+	/**
+	 * Adds a header line to the request headers, unfolding continuation lines.
+	 * 
+	 * @param line The header line.
+	 * @return False if the line is invalid.
+	 */
+	private boolean addHeader(String line) {
+		Series<Header> headers = this.call.getRequestHeaders();
+
+		if (((line.charAt(0) == ' ') || (line.charAt(0) == '\t')) && !headers.isEmpty()) {
+			Header last = headers.get(headers.size() - 1);
+			last.setValue(last.getValue() + ' ' + line.trim());
+		} else {
+			int colon = line.indexOf(':');
+
+			if (colon <= 0) {
+				return false;
+			}
+
+			headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+		}
+
+		return true;
+	}
+
+	/**
+	 * Closes the connection when its deadline is reached.
+	 * 
+	 * @param now The current time in milliseconds.
+	 */
+	void checkTimeout(long now) {
+		if ((this.deadline > 0) && (now >= this.deadline)) {
+			this.helper.close(this);
+		}
+	}
+
+	/**
+	 * Closes the socket channel and releases the queued output. Wakes up the
+	 * worker thread waiting to write, if any.
+	 */
+	void close() {
+		synchronized (this.output) {
+			this.open = false;
+
+			for (Object item : this.output) {
+				release(item);
+			}
+
+			this.output.clear();
+			this.pending = 0;
+			this.output.notifyAll();
+		}
+
+		if (this.selectionKey != null) {
+			this.selectionKey.cancel();
+		}
+
+		try {
+			this.channel.close();
+		} catch (IOException ioe) {
+			this.helper.getLogger().log(Level.FINE, "Unable to close the connection.", ioe);
+		}
+	}
+
+	/**
+	 * Hands the parsed request over to a worker thread and suspends the parsing
+	 * until the response has been written.
+	 */
+	private void dispatch() {
+		NbHttpServerCall current = this.call;
+
+		if (this.entity != null) {
+			current.setRequestEntity(this.entity.toByteArray());
+			this.entity = null;
+		}
+
+		this.busy = true;
+		this.deadline = 0;
+		this.state = STATE_REQUEST_LINE;
+		this.selectionKey.interestOps(0);
+		this.helper.execute(current);
+	}
+
+	/**
+	 * Queues the end of the current response. Invoked from the worker thread.
+	 * 
+	 * @param keepAlive True if the connection can be reused.
+	 * @throws IOException
+	 */
+	void end(boolean keepAlive) throws IOException {
+		enqueue(keepAlive ? KEEP_ALIVE : CLOSE, 0);
+	}
+
+	/**
+	 * Queues an output item, waiting while too many bytes are pending, and
+	 * schedules the flush task.
+	 * 
+	 * @param item The byte buffer, file region or end marker to queue.
+	 * @param size The number of bytes to write.
+	 * @throws IOException
+	 */
+	private void enqueue(Object item, long size) throws IOException {
+		boolean schedule;
+
+		synchronized (this.output) {
+			try {
+				while (this.open && (this.pending > this.maxPending)) {
+					this.output.wait();
+				}
+			} catch (InterruptedException ie) {
+				release(item);
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while writing the response.");
+			}
+
+			if (!this.open) {
+				release(item);
+				throw new IOException("The connection has been closed.");
+			}
+
+			this.output.add(item);
+			this.pending += size;
+			schedule = !this.writeScheduled;
+			this.writeScheduled = true;
+		}
+
+		if (schedule) {
+			if (this.helper.isEventLoopThread()) {
+				this.flushTask.run();
+			} else {
+				this.helper.submit(this.flushTask);
+			}
+		}
+	}
+
+	/**
+	 * Writes the queued output until the socket buffer is full or the queue is
+	 * empty. Must be invoked from the event loop thread.
+	 * 
+	 * @throws IOException
+	 */
+	private void flush() throws IOException {
+		while (this.channel.isOpen()) {
+			Object item;
+
+			synchronized (this.output) {
+				item = this.output.peek();
+			}
+
+			if (item instanceof ByteBuffer) {
+				ByteBuffer[] buffers = gatherBuffers();
+				long written = this.channel.write(buffers);
+				boolean complete = !buffers[buffers.length - 1].hasRemaining();
+
+				synchronized (this.output) {
+					this.pending -= written;
+
+					for (ByteBuffer buffer : buffers) {
+						if (!buffer.hasRemaining()) {
+							this.output.poll();
+							release(buffer);
+						}
+					}
+
+					this.output.notifyAll();
+				}
+
+				if (!complete) {
+					waitWritable();
+					return;
+				}
+			} else if (item instanceof FileTransfer) {
+				FileTransfer transfer = (FileTransfer) item;
+				long written = transfer.channel.transferTo(transfer.position, transfer.end - transfer.position,
+						this.channel);
+				transfer.position += written;
+
+				if (transfer.position < transfer.end) {
+					if (written == 0) {
+						if (transfer.position >= transfer.channel.size()) {
+							throw new IOException("The file is shorter than the announced entity.");
+						}
+
+						waitWritable();
+						return;
+					}
+				} else {
+					synchronized (this.output) {
+						this.output.poll();
+					}
+
+					release(transfer);
+				}
+			} else if (item != null) {
+				synchronized (this.output) {
+					this.output.poll();
+				}
+
+				onResponseEnd(item == KEEP_ALIVE);
+				return;
+			} else {
+				this.selectionKey.interestOps(this.busy ? 0 : SelectionKey.OP_READ);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the byte buffers at the head of the output queue, for a gathering
+	 * write.
+	 * 
+	 * @return The byte buffers at the head of the output queue.
+	 */
+	private ByteBuffer[] gatherBuffers() {
+		synchronized (this.output) {
+			int count = 0;
+
+			for (Iterator<Object> iter = this.output.iterator(); iter.hasNext()
+					&& (count < MAX_GATHERED_BUFFERS);) {
+				if (iter.next() instanceof ByteBuffer) {
+					count++;
+				} else {
+					break;
+				}
+			}
+
+			ByteBuffer[] result = new ByteBuffer[count];
+			Iterator<Object> iter = this.output.iterator();
+
+			for (int i = 0; i < count; i++) {
+				result[i] = (ByteBuffer) iter.next();
+			}
+
+			return result;
+		}
+	}
+
+	/**
+	 * Returns the underlying socket.
+	 * 
+	 * @return The underlying socket.
+	 */
+	Socket getSocket() {
+		return this.channel.socket();
+	}
+
+	/**
+	 * Handles the end of the current response. The connection is either closed or
+	 * ready to parse the next request, which may have been pipelined.
+	 * 
+	 * @param keepAlive True if the connection can be reused.
+	 * @throws IOException
+	 */
+	private void onResponseEnd(boolean keepAlive) throws IOException {
+		this.call = null;
+		this.busy = false;
+
+		if (!keepAlive || !this.helper.isRunning()) {
+			this.helper.close(this);
+		} else {
+			this.deadline = timeout(this.idleTimeout);
+			this.selectionKey.interestOps(SelectionKey.OP_READ);
+			parse();
+		}
+	}
+
+	/**
+	 * Handles the readiness of the channel.
+	 * 
+	 * @param key The selected key.
+	 */
+	void onSelected(SelectionKey key) {
+		try {
+			if (!key.isValid()) {
+				return;
+			}
+
+			if (key.isWritable()) {
+				flush();
+			} else if (key.isReadable()) {
+				read();
+			}
+		} catch (IOException ioe) {
+			this.helper.getLogger().log(Level.FINE, "An error occurred during the communication with the client.",
+					ioe);
+			this.helper.close(this);
+		} catch (RuntimeException re) {
+			this.helper.getLogger().log(Level.WARNING, "Unable to handle the HTTP request.", re);
+			this.helper.close(this);
+		}
+	}
+
+	/**
+	 * Parses the received bytes according to the current state, until a complete
+	 * request is dispatched.
+	 * 
+	 * @throws IOException
+	 */
+	private void parse() throws IOException {
+		boolean progress = true;
+
+		while (progress && !this.busy) {
+			switch (this.state) {
+			case STATE_REQUEST_LINE:
+				String requestLine = readLine();
+				progress = (requestLine != null);
+
+				// Ignore the empty lines preceding the request line
+				if (progress && !requestLine.isEmpty()) {
+					parseRequestLine(requestLine);
+				}
+				break;
+
+			case STATE_HEADERS:
+				String headerLine = readLine();
+				progress = (headerLine != null);
+
+				if (progress) {
+					if (headerLine.isEmpty()) {
+						startBody();
+					} else if (!acceptHeader(headerLine)) {
+						reject("431 Request Header Fields Too Large");
+					} else if (!addHeader(headerLine)) {
+						reject("400 Bad Request");
+					}
+				}
+				break;
+
+			case STATE_BODY_LENGTH:
+			case STATE_CHUNK_DATA:
+				progress = readBody();
+
+				if (this.remaining == 0) {
+					if (this.state == STATE_BODY_LENGTH) {
+						dispatch();
+					} else {
+						this.state = STATE_CHUNK_END;
+					}
+				}
+				break;
+
+			case STATE_CHUNK_END:
+				String chunkEnd = readLine();
+				progress = (chunkEnd != null);
+
+				if (progress) {
+					this.state = STATE_CHUNK_SIZE;
+				}
+				break;
+
+			case STATE_CHUNK_SIZE:
+				String chunkSize = readLine();
+				progress = (chunkSize != null);
+
+				if (progress) {
+					int extension = chunkSize.indexOf(';');
+
+					try {
+						this.remaining = Long.parseLong(
+								((extension == -1) ? chunkSize : chunkSize.substring(0, extension)).trim(), 16);
+					} catch (NumberFormatException nfe) {
+						reject("400 Bad Request");
+						break;
+					}
+
+					if (this.remaining < 0) {
+						reject("400 Bad Request");
+					} else if (this.entity.size() + this.remaining > this.helper.getMaxRequestEntitySize()) {
+						reject("413 Request Entity Too Large");
+					} else {
+						this.state = (this.remaining == 0) ? STATE_TRAILERS : STATE_CHUNK_DATA;
+					}
+				}
+				break;
+
+			case STATE_TRAILERS:
+				String trailer = readLine();
+				progress = (trailer != null);
+
+				if (progress) {
+					if (trailer.isEmpty()) {
+						dispatch();
+					} else if (!acceptHeader(trailer)) {
+						reject("431 Request Header Fields Too Large");
+					} else if (!addHeader(trailer)) {
+						reject("400 Bad Request");
+					}
+				}
+				break;
+			}
+		}
+
+		if (this.inputStart == this.inputEnd) {
+			this.inputStart = 0;
+			this.inputEnd = 0;
+		}
+	}
+
+	/**
+	 * Parses the request line and creates the new call.
+	 * 
+	 * @param line The request line.
+	 */
+	private void parseRequestLine(String line) {
+		int first = line.indexOf(' ');
+		int second = (first == -1) ? -1 : line.indexOf(' ', first + 1);
+		this.call = new NbHttpServerCall(this.helper, this);
+
+		if ((first <= 0) || (second == -1) || !line.startsWith("HTTP/", second + 1)) {
+			reject("400 Bad Request");
+		} else {
+			this.call.setRequestLine(line.substring(0, first), line.substring(first + 1, second),
+					line.substring(second + 1));
+			this.deadline = timeout(this.idleTimeout);
+			this.headerSize = 0;
+			this.state = STATE_HEADERS;
+		}
+	}
+
+	/**
+	 * Reads the available bytes from the channel and parses them.
+	 * 
+	 * @throws IOException
+	 */
+	private void read() throws IOException {
+		if (this.inputStart == this.inputEnd) {
+			this.inputStart = 0;
+			this.inputEnd = 0;
+		} else if (this.inputEnd == this.input.length) {
+			if (this.inputStart > 0) {
+				System.arraycopy(this.input, this.inputStart, this.input, 0, this.inputEnd - this.inputStart);
+				this.inputEnd -= this.inputStart;
+				this.inputStart = 0;
+			} else if (this.input.length < MAX_LINE_LENGTH) {
+				byte[] larger = new byte[this.input.length * 2];
+				System.arraycopy(this.input, 0, larger, 0, this.inputEnd);
+				this.input = larger;
+			} else {
+				reject("431 Request Header Fields Too Large");
+				return;
+			}
+		}
+
+		int count = this.channel.read(ByteBuffer.wrap(this.input, this.inputEnd, this.input.length - this.inputEnd));
+
+		if (count == -1) {
+			this.helper.close(this);
+		} else if (count > 0) {
+			this.inputEnd += count;
+			this.deadline = timeout(this.idleTimeout);
+			parse();
+		}
+	}
+
+	/**
+	 * Copies the available body bytes to the request entity.
+	 * 
+	 * @return True if some bytes were copied.
+	 */
+	private boolean readBody() {
+		int count = (int) Math.min(this.remaining, this.inputEnd - this.inputStart);
+
+		if (count > 0) {
+			this.entity.write(this.input, this.inputStart, count);
+			this.inputStart += count;
+			this.remaining -= count;
+		}
+
+		return count > 0;
+	}
+
+	/**
+	 * Reads a line terminated by LF, ignoring the preceding CR.
+	 * 
+	 * @return The line or null if it isn't entirely received yet.
+	 */
+	private String readLine() {
+		String result = null;
+
+		for (int i = this.inputStart; (result == null) && (i < this.inputEnd); i++) {
+			if (this.input[i] == '\n') {
+				int end = ((i > this.inputStart) && (this.input[i - 1] == '\r')) ? i - 1 : i;
+				result = new String(this.input, this.inputStart, end - this.inputStart, StandardCharsets.ISO_8859_1);
+				this.inputStart = i + 1;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Registers the channel with the selector, waiting for the first request.
+	 * 
+	 * @param selector The selector to register with.
+	 * @throws IOException
+	 */
+	void register(Selector selector) throws IOException {
+		this.selectionKey = this.channel.register(selector, SelectionKey.OP_READ, this);
+		this.deadline = timeout(this.idleTimeout);
+	}
+
+	/**
+	 * Rejects the current request with the given status and closes the connection
+	 * once the response is written.
+	 * 
+	 * @param status The status code and reason phrase.
+	 */
+	private void reject(String status) {
+		this.busy = true;
+		this.input = new byte[0];
+		this.inputStart = 0;
+		this.inputEnd = 0;
+		String response = "HTTP/1.1 " + status + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n";
+
+		try {
+			write(ByteBuffer.wrap(response.getBytes(StandardCharsets.ISO_8859_1)));
+			end(false);
+		} catch (IOException ioe) {
+			this.helper.close(this);
+		}
+	}
+
+	/**
+	 * Releases an output item, returning direct buffers to the pool and closing
+	 * file channels.
+	 * 
+	 * @param item The output item to release.
+	 */
+	private void release(Object item) {
+		if (item instanceof ByteBuffer) {
+			if (((ByteBuffer) item).isDirect()) {
+				this.helper.getBufferPool().checkin((ByteBuffer) item);
+			}
+		} else if (item instanceof FileTransfer) {
+			try {
+				((FileTransfer) item).channel.close();
+			} catch (IOException ioe) {
+				this.helper.getLogger().log(Level.FINE, "Unable to close the file channel.", ioe);
+			}
+		}
+	}
+
+	/**
+	 * Determines how the request body is delimited once the headers are read, and
+	 * dispatches the call if there is none.
+	 */
+	private void startBody() {
+		Series<Header> headers = this.call.getRequestHeaders();
+		String contentLength = headers.getFirstValue(HeaderConstants.HEADER_CONTENT_LENGTH, true);
+		long maxSize = this.helper.getMaxRequestEntitySize();
+
+		if (HeaderUtils.isChunkedEncoding(headers)) {
+			this.entity = new ByteArrayOutputStream();
+			this.state = STATE_CHUNK_SIZE;
+		} else if (contentLength != null) {
+			try {
+				this.remaining = Long.parseLong(contentLength.trim());
+			} catch (NumberFormatException nfe) {
+				reject("400 Bad Request");
+				return;
+			}
+
+			if ((this.remaining < 0) || (this.remaining > maxSize)) {
+				reject((this.remaining < 0) ? "400 Bad Request" : "413 Request Entity Too Large");
+				return;
+			}
+
+			this.entity = new ByteArrayOutputStream((int) Math.min(this.remaining, MAX_INITIAL_ENTITY_CAPACITY));
+			this.state = STATE_BODY_LENGTH;
+		} else {
+			dispatch();
+			return;
+		}
+
+		if ("100-continue".equalsIgnoreCase(headers.getFirstValue(HeaderConstants.HEADER_EXPECT, true))) {
+			try {
+				write(ByteBuffer.wrap("HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)));
+			} catch (IOException ioe) {
+				this.helper.close(this);
+				return;
+			}
+		}
+
+		if ((this.state == STATE_BODY_LENGTH) && (this.remaining == 0)) {
+			dispatch();
+		}
+	}
+
+	/**
+	 * Computes a deadline from a timeout.
+	 * 
+	 * @param timeout The timeout in milliseconds or 0 for none.
+	 * @return The deadline or 0 for none.
+	 */
+	private long timeout(int timeout) {
+		return (timeout > 0) ? System.currentTimeMillis() + timeout : 0;
+	}
+
+	/**
+	 * Queues the transfer of a file region. The file channel is closed once the
+	 * region is written. Invoked from the worker thread.
+	 * 
+	 * @param fileChannel The file channel.
+	 * @param position    The start position of the region.
+	 * @param count       The number of bytes to transfer.
+	 * @throws IOException
+	 */
+	void transfer(FileChannel fileChannel, long position, long count) throws IOException {
+		enqueue(new FileTransfer(fileChannel, position, count), 0);
+	}
+
+	/**
+	 * Waits for the socket to be writable again, keeping the idle timeout
+	 * running.
+	 */
+	private void waitWritable() {
+		this.deadline = timeout(this.idleTimeout);
+		this.selectionKey.interestOps(SelectionKey.OP_WRITE);
+	}
+
+	/**
+	 * Queues a byte buffer to write. Direct buffers are returned to the pool of
+	 * the helper once written.
+	 * 
+	 * @param buffer The byte buffer to write.
+	 * @throws IOException
+	 */
+	void write(ByteBuffer buffer) throws IOException {
+		enqueue(buffer, buffer.remaining());
+	}
+
+}
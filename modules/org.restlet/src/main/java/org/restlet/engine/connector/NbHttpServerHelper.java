@@ -0,0 +1,433 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.connector;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+
+import org.restlet.Server;
+import org.restlet.data.Protocol;
+import org.restlet.engine.util.Pool;
+
+/**
+ * Non-blocking HTTP/1.1 server connector based on NIO channels. A single
+ * selector thread, the event loop, accepts the connections, parses the requests
+ * and writes the responses, while the calls are handled by worker threads.
+ * Connections are persistent and pipelined requests are handled one after the
+ * other, in order. Response entities are written through a pool of direct byte
+ * buffers, and file representations are sent with
+ * {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+ * . In addition to the worker thread parameters of {@link NetServerHelper},
+ * here is the list of parameters that are supported. They should be set in the
+ * Server's context before it is started:
+ * <table>
+ * <caption>list of supported parameters</caption>
+ * <tr>
+ * <th>Parameter name</th>
+ * <th>Value type</th>
+ * <th>Default value</th>
+ * <th>Description</th>
+ * </tr>
+ * <tr>
+ * <td>bufferSize</td>
+ * <td>int</td>
+ * <td>16384</td>
+ * <td>Size in bytes of the pooled direct buffers used to write the response
+ * entities.</td>
+ * </tr>
+ * <tr>
+ * <td>idleTimeout</td>
+ * <td>int</td>
+ * <td>30000</td>
+ * <td>Time in milliseconds after which a connection is closed when no data is
+ * received from or sent to the client, except while a call is handled. A value
+ * of zero disables the timeout.</td>
+ * </tr>
+ * <tr>
+ * <td>maxHeaderCount</td>
+ * <td>int</td>
+ * <td>100</td>
+ * <td>Maximum number of headers of a request, including the trailers of a
+ * chunked body. Requests with more headers are rejected with a 431
+ * status.</td>
+ * </tr>
+ * <tr>
+ * <td>maxHeaderSize</td>
+ * <td>int</td>
+ * <td>65536</td>
+ * <td>Maximum total size in bytes of the header lines of a request, including
+ * the trailers of a chunked body. Larger headers are rejected with a 431
+ * status.</td>
+ * </tr>
+ * <tr>
+ * <td>maxQueued</td>
+ * <td>int</td>
+ * <td>-1</td>
+ * <td>Same as for {@link NetServerHelper}, except that the default value
+ * queues the calls without limit as the requests are already read by the
+ * event loop.</td>
+ * </tr>
+ * <tr>
+ * <td>maxRequestEntitySize</td>
+ * <td>int</td>
+ * <td>16777216</td>
+ * <td>Maximum size in bytes of a request entity. Larger requests are rejected
+ * with a 413 status. As request entities are buffered in memory, it can't
+ * exceed 2147483647.</td>
+ * </tr>
+ * </table>
+ * <p>
+ * Request entities are buffered in memory before the call is handled, while
+ * the writing of response entities is suspended when the client doesn't read
+ * them fast enough. Only plain HTTP is supported. As it isn't registered by
+ * default, it should be added to the engine explicitly:
+ * 
+ * <pre>
+ * Engine.getInstance().getRegisteredServers().add(0, new NbHttpServerHelper(null));
+ * </pre>
+ */
+public class NbHttpServerHelper extends NetServerHelper {
+
+	/** The maximum number of buffers kept in the pool. */
+	private static final int MAX_POOLED_BUFFERS = 1024;
+
+	/** The maximum time in milliseconds between two timeout checks. */
+	private static final long TIMEOUT_CHECK_PERIOD = 1000L;
+
+	/** The pool of direct buffers used to write the responses. */
+	private volatile Pool<ByteBuffer> bufferPool;
+
+	/** The open connections. Only accessed from the event loop thread. */
+	private final Set<NbHttpServerConnection> connections;
+
+	/** The event loop thread. */
+	private volatile Thread eventLoop;
+
+	/** The executor handling the calls. */
+	private volatile ExecutorService executor;
+
+	/** Indicates if the event loop is running. */
+	private volatile boolean running;
+
+	/** The selector multiplexing all the connections. */
+	private volatile Selector selector;
+
+	/** The server socket channel accepting the connections. */
+	private volatile ServerSocketChannel serverChannel;
+
+	/** The tasks submitted to the event loop. */
+	private final Queue<Runnable> tasks;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param server The server to help.
+	 */
+	public NbHttpServerHelper(Server server) {
+		super(server);
+		getProtocols().add(Protocol.HTTP);
+		this.connections = new HashSet<NbHttpServerConnection>();
+		this.tasks = new ConcurrentLinkedQueue<Runnable>();
+	}
+
+	/**
+	 * Accepts the pending connections.
+	 * 
+	 * @throws IOException
+	 */
+	private void accept() throws IOException {
+		SocketChannel channel;
+
+		while ((channel = this.serverChannel.accept()) != null) {
+			channel.configureBlocking(false);
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+			NbHttpServerConnection connection = new NbHttpServerConnection(this, channel);
+			connection.register(this.selector);
+			this.connections.add(connection);
+		}
+	}
+
+	/**
+	 * Closes a connection. Must be invoked from the event loop thread.
+	 * 
+	 * @param connection The connection to close.
+	 */
+	void close(NbHttpServerConnection connection) {
+		if (this.connections.remove(connection)) {
+			connection.close();
+		}
+	}
+
+	/**
+	 * Handles a call on a worker thread.
+	 * 
+	 * @param call The call to handle.
+	 */
+	void execute(final NbHttpServerCall call) {
+		this.executor.execute(new Runnable() {
+			public void run() {
+				handle(call);
+			}
+		});
+	}
+
+	/**
+	 * Returns the pool of direct buffers used to write the responses.
+	 * 
+	 * @return The pool of direct buffers.
+	 */
+	Pool<ByteBuffer> getBufferPool() {
+		return this.bufferPool;
+	}
+
+	/**
+	 * Returns the size in bytes of the pooled direct buffers used to write the
+	 * response entities. Defaults to 16384.
+	 * 
+	 * @return The size of the pooled buffers.
+	 */
+	public int getBufferSize() {
+		return Integer.parseInt(getHelpedParameters().getFirstValue("bufferSize", "16384"));
+	}
+
+	/**
+	 * Returns the time in milliseconds after which a connection is closed when no
+	 * data is received from or sent to the client. Defaults to 30000.
+	 * 
+	 * @return The idle timeout.
+	 */
+	public int getIdleTimeout() {
+		return Integer.parseInt(getHelpedParameters().getFirstValue("idleTimeout", "30000"));
+	}
+
+	/**
+	 * Returns the maximum number of headers of a request, including the trailers
+	 * of a chunked body. Defaults to 100.
+	 * 
+	 * @return The maximum number of headers of a request.
+	 */
+	public int getMaxHeaderCount() {
+		return Integer.parseInt(getHelpedParameters().getFirstValue("maxHeaderCount", "100"));
+	}
+
+	/**
+	 * Returns the maximum total size in bytes of the header lines of a request,
+	 * including the trailers of a chunked body. Defaults to 65536.
+	 * 
+	 * @return The maximum total size of the header lines of a request.
+	 */
+	public int getMaxHeaderSize() {
+		return Integer.parseInt(getHelpedParameters().getFirstValue("maxHeaderSize", "65536"));
+	}
+
+	/**
+	 * Returns the maximum number of calls that can be queued if there aren't any
+	 * worker thread available to service them. Defaults to -1, an unbounded
+	 * queue, as the requests are already read by the event loop.
+	 * 
+	 * @return The maximum number of calls that can be queued.
+	 */
+	@Override
+	public int getMaxQueued() {
+		return Integer.parseInt(getHelpedParameters().getFirstValue("maxQueued", "-1"));
+	}
+
+	/**
+	 * Returns the maximum size in bytes of a request entity. Defaults to 16777216.
+	 * 
+	 * @return The maximum size of a request entity.
+	 */
+	public long getMaxRequestEntitySize() {
+		return Long.parseLong(getHelpedParameters().getFirstValue("maxRequestEntitySize", "16777216"));
+	}
+
+	/**
+	 * Indicates if the current thread is the event loop thread.
+	 * 
+	 * @return True if the current thread is the event loop thread.
+	 */
+	public boolean isEventLoopThread() {
+		return Thread.currentThread() == this.eventLoop;
+	}
+
+	/**
+	 * Indicates if the event loop is running.
+	 * 
+	 * @return True if the event loop is running.
+	 */
+	boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Runs the event loop until the helper is stopped.
+	 */
+	private void run() {
+		while (this.running) {
+			try {
+				this.selector.select(TIMEOUT_CHECK_PERIOD);
+				Runnable task;
+
+				while ((task = this.tasks.poll()) != null) {
+					task.run();
+				}
+
+				Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+
+					if (key.attachment() instanceof NbHttpServerConnection) {
+						((NbHttpServerConnection) key.attachment()).onSelected(key);
+					} else if (key.isValid() && key.isAcceptable()) {
+						accept();
+					}
+				}
+
+				long now = System.currentTimeMillis();
+
+				for (NbHttpServerConnection connection : new ArrayList<NbHttpServerConnection>(this.connections)) {
+					connection.checkTimeout(now);
+				}
+			} catch (Throwable t) {
+				getLogger().log(Level.WARNING, "Unexpected error in the HTTP server event loop.", t);
+			}
+		}
+
+		for (NbHttpServerConnection connection : new ArrayList<NbHttpServerConnection>(this.connections)) {
+			close(connection);
+		}
+
+		try {
+			this.serverChannel.close();
+			this.selector.close();
+		} catch (IOException ioe) {
+			getLogger().log(Level.FINE, "Unable to close the server channel.", ioe);
+		}
+	}
+
+	@Override
+	public synchronized void start() throws Exception {
+		if (this.running) {
+			return;
+		}
+
+		if (getMaxRequestEntitySize() > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"The maxRequestEntitySize parameter can't exceed " + Integer.MAX_VALUE + " bytes");
+		}
+
+		final int bufferSize = getBufferSize();
+		this.bufferPool = new Pool<ByteBuffer>() {
+			@Override
+			protected void clear(ByteBuffer buffer) {
+				buffer.clear();
+			}
+
+			@Override
+			protected ByteBuffer createObject() {
+				return ByteBuffer.allocateDirect(bufferSize);
+			}
+
+			@Override
+			protected Queue<ByteBuffer> createStore() {
+				return new ArrayBlockingQueue<ByteBuffer>(MAX_POOLED_BUFFERS);
+			}
+		};
+
+		// Use ephemeral port
+		int port = getHelped().getPort() > 0 ? getHelped().getPort() : 0;
+
+		if (getHelped().getAddress() != null) {
+			setAddress(new InetSocketAddress(InetAddress.getByName(getHelped().getAddress()), port));
+		} else {
+			setAddress(new InetSocketAddress(port));
+		}
+
+		this.selector = Selector.open();
+		this.serverChannel = ServerSocketChannel.open();
+		this.serverChannel.configureBlocking(false);
+		this.serverChannel.bind(getAddress());
+		this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+		this.executor = createExecutor();
+		this.running = true;
+		this.eventLoop = new Thread(new Runnable() {
+			public void run() {
+				NbHttpServerHelper.this.run();
+			}
+		}, "Restlet-NbHttpServer");
+		this.eventLoop.setDaemon(true);
+		this.eventLoop.start();
+
+		setConfidential(false);
+		setEphemeralPort(this.serverChannel.socket().getLocalPort());
+		super.start();
+	}
+
+	@Override
+	public synchronized void stop() throws Exception {
+		if (this.running) {
+			super.stop();
+			this.running = false;
+			this.selector.wakeup();
+
+			if (!isEventLoopThread()) {
+				this.eventLoop.join();
+			}
+
+			this.eventLoop = null;
+			this.executor.shutdown();
+			this.bufferPool.clear();
+		}
+	}
+
+	/**
+	 * Submits a task to the event loop and wakes up the selector.
+	 * 
+	 * @param task The task to run.
+	 */
+	void submit(Runnable task) {
+		this.tasks.add(task);
+		this.selector.wakeup();
+	}
+
+}
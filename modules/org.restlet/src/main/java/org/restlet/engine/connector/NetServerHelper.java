@@ -27,6 +27,7 @@ package org.restlet.engine.connector;
 import java.net.InetSocketAddress;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.SynchronousQueue;
@@ -36,6 +37,7 @@ import java.util.concurrent.TimeUnit;
 import org.restlet.Server;
 import org.restlet.engine.adapter.HttpServerHelper;
 import org.restlet.engine.log.LoggingThreadFactory;
+import org.restlet.engine.util.VirtualThreadExecutorService;
 
 /**
  * Abstract Internal web server connector based on com.sun.net.httpserver
@@ -86,6 +88,14 @@ import org.restlet.engine.log.LoggingThreadFactory;
  * <td>Time for an idle thread to wait for an operation before being
  * collected.</td>
  * </tr>
+ * <tr>
+ * <td>virtualThreads</td>
+ * <td>boolean</td>
+ * <td>false</td>
+ * <td>Indicates if each call is serviced by a new virtual thread instead of a
+ * worker thread of the pool. Requires Java 21 or later, otherwise the thread
+ * pool is used. The other thread parameters are then ignored.</td>
+ * </tr>
  * </table>
  * 
  * @author Jerome Louvel
@@ -110,6 +120,21 @@ public abstract class NetServerHelper extends HttpServerHelper {
 		super(server);
 	}
 
+	/**
+	 * Creates the executor servicing the calls. Returns a virtual thread executor
+	 * if the "virtualThreads" parameter is set and supported, or the result of
+	 * {@link #createThreadPool()} otherwise.
+	 * 
+	 * @return The executor servicing the calls.
+	 */
+	protected ExecutorService createExecutor() {
+		if (isVirtualThreads() && VirtualThreadExecutorService.isSupported(getLogger(), "A thread pool")) {
+			return VirtualThreadExecutorService.newVirtualThreadPerTaskExecutor();
+		}
+
+		return createThreadPool();
+	}
+
 	/**
 	 * Creates the handler service.
 	 * 
@@ -206,6 +231,16 @@ public abstract class NetServerHelper extends HttpServerHelper {
 		return this.confidential;
 	}
 
+	/**
+	 * Indicates if each call is serviced by a new virtual thread when supported,
+	 * that is when running on Java 21 or later.
+	 * 
+	 * @return True if each call is serviced by a new virtual thread.
+	 */
+	public boolean isVirtualThreads() {
+		return Boolean.parseBoolean(getHelpedParameters().getFirstValue("virtualThreads", "false"));
+	}
+
 	/**
 	 * Sets the socket address this server is listening to.
 	 * 
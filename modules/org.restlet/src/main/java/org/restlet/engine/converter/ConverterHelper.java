@@ -38,7 +38,14 @@ import org.restlet.representation.Variant;
 import org.restlet.resource.Resource;
 
 /**
- * Converter between Representations and regular Java objects.
+ * Converter between Representations and regular Java objects.<br>
+ * <br>
+ * The helper selected for a conversion and the variants of a class are cached
+ * by the {@link ConverterUtils} class. The scores and variants are therefore
+ * expected to depend only on the classes of the source and target and on the
+ * media type and character set of the variant or representation, not on the
+ * converted values or the calling resource. Helpers that don't honor this
+ * contract must override {@link #isCacheable()}.
  * 
  * @author Jerome Louvel
  */
@@ -146,6 +153,17 @@ public abstract class ConverterHelper extends Helper {
 		return addVariants(sourceClass, targetVariant, null);
 	}
 
+	/**
+	 * Indicates if the scores and variants of this helper only depend on the
+	 * classes and metadata of the conversions, so that the lookups consulting it
+	 * can be cached. Returns true by default.
+	 * 
+	 * @return True if the lookups consulting this helper can be cached.
+	 */
+	public boolean isCacheable() {
+		return true;
+	}
+
 	/**
 	 * Scores the affinity of this helper with the source class.
 	 * 
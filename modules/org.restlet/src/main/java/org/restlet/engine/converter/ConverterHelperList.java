@@ -0,0 +1,163 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+
+package org.restlet.engine.converter;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe list of converter helpers counting its modifications. This lets
+ * {@link ConverterUtils} detect when its dispatch cache must be invalidated.
+ */
+public class ConverterHelperList extends CopyOnWriteArrayList<ConverterHelper> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The number of modifications made to this list. */
+	private final AtomicInteger modificationCount = new AtomicInteger();
+
+	/**
+	 * Constructor.
+	 */
+	public ConverterHelperList() {
+		super();
+	}
+
+	@Override
+	public boolean add(ConverterHelper element) {
+		boolean result = super.add(element);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public void add(int index, ConverterHelper element) {
+		super.add(index, element);
+		this.modificationCount.incrementAndGet();
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends ConverterHelper> elements) {
+		boolean result = super.addAll(elements);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends ConverterHelper> elements) {
+		boolean result = super.addAll(index, elements);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public int addAllAbsent(Collection<? extends ConverterHelper> elements) {
+		int result = super.addAllAbsent(elements);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public boolean addIfAbsent(ConverterHelper element) {
+		boolean result = super.addIfAbsent(element);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		this.modificationCount.incrementAndGet();
+	}
+
+	/**
+	 * Returns the number of modifications made to this list.
+	 * 
+	 * @return The number of modifications made to this list.
+	 */
+	public int getModificationCount() {
+		return this.modificationCount.get();
+	}
+
+	@Override
+	public ConverterHelper remove(int index) {
+		ConverterHelper result = super.remove(index);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public boolean remove(Object element) {
+		boolean result = super.remove(element);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> elements) {
+		boolean result = super.removeAll(elements);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super ConverterHelper> filter) {
+		boolean result = super.removeIf(filter);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<ConverterHelper> operator) {
+		super.replaceAll(operator);
+		this.modificationCount.incrementAndGet();
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> elements) {
+		boolean result = super.retainAll(elements);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public ConverterHelper set(int index, ConverterHelper element) {
+		ConverterHelper result = super.set(index, element);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public void sort(Comparator<? super ConverterHelper> comparator) {
+		super.sort(comparator);
+		this.modificationCount.incrementAndGet();
+	}
+
+}
@@ -25,8 +25,16 @@
 package org.restlet.engine.converter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
+import java.util.stream.BaseStream;
 
 import org.restlet.Context;
 import org.restlet.engine.Engine;
@@ -36,12 +44,192 @@ import org.restlet.representation.Variant;
 import org.restlet.resource.Resource;
 
 /**
- * Utilities for the converter service.
+ * Utilities for the converter service. The converter helper selected for a
+ * given combination of source and target types, as well as the list of variants
+ * available for a given class, are cached until the list of registered
+ * converters is modified. As the cache holds the classes of the applications,
+ * the entries of an application's classes are also removed when it is stopped.
+ * Converter helpers are expected to score conversions based on the source and
+ * target types and metadata only, otherwise the cache is bypassed as long as
+ * they are registered, see {@link ConverterHelper#isCacheable()}.
  * 
  * @author Jerome Louvel
  */
 public class ConverterUtils {
 
+	/**
+	 * Key of the dispatch cache, made of the types and metadata that determine
+	 * the scores of the converter helpers.
+	 */
+	private static final class CacheKey {
+
+		/** The key parts. */
+		private final Object[] parts;
+
+		/** The cached hash code. */
+		private final int hashCode;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param parts The key parts.
+		 */
+		private CacheKey(Object... parts) {
+			this.parts = parts;
+			this.hashCode = Arrays.hashCode(parts);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (other instanceof CacheKey) && Arrays.equals(this.parts, ((CacheKey) other).parts);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		/**
+		 * Indicates if one of the classes of the key was loaded by a given class
+		 * loader or by one of its descendants.
+		 * 
+		 * @param classLoader The class loader.
+		 * @return True if one of the classes was loaded by the class loader.
+		 */
+		private boolean isLoadedBy(ClassLoader classLoader) {
+			for (Object part : this.parts) {
+				if (part instanceof Class) {
+					for (ClassLoader loader = ((Class<?>) part).getClassLoader(); loader != null; loader = loader
+							.getParent()) {
+						if (loader == classLoader) {
+							return true;
+						}
+					}
+				}
+			}
+
+			return false;
+		}
+	}
+
+	/**
+	 * Cached lookups valid for a given state of the registered converters.
+	 */
+	private static final class CacheState {
+
+		/** Indicates if all the registered converters are cacheable. */
+		private final boolean cacheable;
+
+		/** The engine whose registered converters were consulted. */
+		private final Engine engine;
+
+		/** The cached best helpers and variant lists. */
+		private final ConcurrentMap<CacheKey, Object> entries;
+
+		/** The modification count of the registered converters. */
+		private final int modificationCount;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param engine            The engine whose registered converters are
+		 *                          consulted.
+		 * @param modificationCount The modification count of the registered
+		 *                          converters.
+		 */
+		private CacheState(Engine engine, int modificationCount) {
+			boolean cacheable = true;
+
+			for (ConverterHelper ch : engine.getRegisteredConverters()) {
+				if ((ch != null) && !ch.isCacheable()) {
+					cacheable = false;
+				}
+			}
+
+			this.cacheable = cacheable;
+			this.engine = engine;
+			this.entries = new ConcurrentHashMap<CacheKey, Object>();
+			this.modificationCount = modificationCount;
+		}
+	}
+
+	/** The number of lookups that couldn't be cached. */
+	private static final AtomicLong cacheBypasses = new AtomicLong();
+
+	/** The number of lookups served by the cache. */
+	private static final AtomicLong cacheHits = new AtomicLong();
+
+	/** The number of lookups that needed to consult the converter helpers. */
+	private static final AtomicLong cacheMisses = new AtomicLong();
+
+	/** The current cache state. */
+	private static volatile CacheState cacheState;
+
+	/** Lookup of the helper converting a representation to an object. */
+	private static final String LOOKUP_TO_OBJECT = "toObject";
+
+	/** Lookup of the helper converting an object to a representation. */
+	private static final String LOOKUP_TO_REPRESENTATION = "toRepresentation";
+
+	/** Lookup of the variants available for a class. */
+	private static final String LOOKUP_VARIANTS = "variants";
+
+	/** The maximum number of cached entries. */
+	private static final int MAX_CACHE_SIZE = 1024;
+
+	/** Marker of cached null results, not supported by concurrent maps. */
+	private static final Object NONE = new Object();
+
+	/**
+	 * Clears the dispatch cache and resets its counters.
+	 */
+	public static void clearCache() {
+		cacheState = null;
+		cacheBypasses.set(0);
+		cacheHits.set(0);
+		cacheMisses.set(0);
+	}
+
+	/**
+	 * Removes the entries of the dispatch cache referencing a class loaded by a
+	 * given class loader or by one of its descendants, for example when the
+	 * application they belong to is stopped.
+	 * 
+	 * @param classLoader The class loader.
+	 */
+	public static void clearCache(ClassLoader classLoader) {
+		CacheState state = cacheState;
+
+		if (state != null) {
+			for (Iterator<CacheKey> keys = state.entries.keySet().iterator(); keys.hasNext();) {
+				if (keys.next().isLoadedBy(classLoader)) {
+					keys.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a cache key from a class and the metadata of a variant.
+	 * 
+	 * @param lookup  The kind of lookup.
+	 * @param type    The class.
+	 * @param variant The variant or null.
+	 * @return The cache key or null if the variant's metadata is too specific to
+	 *         be cached.
+	 */
+	private static CacheKey createKey(String lookup, Class<?> type, Variant variant) {
+		CacheKey result = null;
+
+		if (variant == null) {
+			result = new CacheKey(lookup, type);
+		} else if (variant.getLanguages().isEmpty() && variant.getEncodings().isEmpty()) {
+			result = new CacheKey(lookup, type, variant.getMediaType(), variant.getCharacterSet());
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns the best converter helper matching the given parameters.
 	 * 
@@ -51,6 +239,14 @@ public class ConverterUtils {
 	 * @return The matched converter helper or null.
 	 */
 	public static ConverterHelper getBestHelper(Object source, Variant target, Resource resource) {
+		CacheKey key = createKey(LOOKUP_TO_REPRESENTATION, (source == null) ? null : source.getClass(), target);
+		CacheState state = getCacheState();
+		Object cached = getCached(state, key);
+
+		if (cached != null) {
+			return (cached == NONE) ? null : (ConverterHelper) cached;
+		}
+
 		ConverterHelper result = null;
 		float bestScore = -1.0F;
 		float currentScore;
@@ -71,6 +267,7 @@ public class ConverterUtils {
 			}
 		}
 
+		putCached(state, key, result);
 		return result;
 	}
 
@@ -84,6 +281,16 @@ public class ConverterUtils {
 	 * @return The matched converter helper or null.
 	 */
 	public static <T> ConverterHelper getBestHelper(Representation source, Class<T> target, Resource resource) {
+		CacheKey key = (source == null) ? null
+				: new CacheKey(LOOKUP_TO_OBJECT, source.getClass(), source.getMediaType(),
+						source.getCharacterSet(), target);
+		CacheState state = getCacheState();
+		Object cached = getCached(state, key);
+
+		if (cached != null) {
+			return (cached == NONE) ? null : (ConverterHelper) cached;
+		}
+
 		ConverterHelper result = null;
 		float bestScore = -1.0F;
 		float currentScore;
@@ -99,6 +306,90 @@ public class ConverterUtils {
 			}
 		}
 
+		putCached(state, key, result);
+		return result;
+	}
+
+	/**
+	 * Returns the number of lookups that couldn't be cached, because of the
+	 * metadata of their variant or of a registered converter that isn't
+	 * cacheable.
+	 * 
+	 * @return The number of lookups that couldn't be cached.
+	 */
+	public static long getCacheBypasses() {
+		return cacheBypasses.get();
+	}
+
+	/**
+	 * Returns the number of lookups served by the dispatch cache.
+	 * 
+	 * @return The number of lookups served by the dispatch cache.
+	 */
+	public static long getCacheHits() {
+		return cacheHits.get();
+	}
+
+	/**
+	 * Returns the number of lookups that needed to consult the converter helpers.
+	 * 
+	 * @return The number of lookups that needed to consult the converter helpers.
+	 */
+	public static long getCacheMisses() {
+		return cacheMisses.get();
+	}
+
+	/**
+	 * Returns the cached value for a given key. Updates the bypass, hit and miss
+	 * counters.
+	 * 
+	 * @param state The cache state or null if the lookup can't be cached.
+	 * @param key   The cache key or null if the lookup can't be cached.
+	 * @return The cached value or null.
+	 */
+	private static Object getCached(CacheState state, CacheKey key) {
+		if ((state == null) || (key == null)) {
+			cacheBypasses.incrementAndGet();
+			return null;
+		}
+
+		Object result = state.entries.get(key);
+
+		if (result == null) {
+			cacheMisses.incrementAndGet();
+		} else {
+			cacheHits.incrementAndGet();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the cache state matching the current registered converters,
+	 * discarding the previous state if they have been modified since.
+	 * 
+	 * @return The cache state or null if the registered converters can't be
+	 *         tracked or aren't all cacheable.
+	 */
+	private static CacheState getCacheState() {
+		CacheState result = null;
+		Engine engine = Engine.getInstance();
+		List<ConverterHelper> converters = (engine == null) ? null : engine.getRegisteredConverters();
+
+		if (converters instanceof ConverterHelperList) {
+			int modificationCount = ((ConverterHelperList) converters).getModificationCount();
+			result = cacheState;
+
+			if ((result == null) || (result.engine != engine) || (result.modificationCount != modificationCount)) {
+				result = new CacheState(engine, modificationCount);
+				cacheState = result;
+			}
+
+			if (!result.cacheable) {
+				result = null;
+			}
+		}
+
 		return result;
 	}
 
@@ -109,7 +400,17 @@ public class ConverterUtils {
 	 * @param targetVariant The expected representation metadata.
 	 * @return The list of variants that can be converted.
 	 */
+	@SuppressWarnings("unchecked")
 	public static List<VariantInfo> getVariants(Class<?> sourceClass, Variant targetVariant) {
+		CacheKey key = createKey(LOOKUP_VARIANTS, sourceClass, targetVariant);
+		CacheState state = getCacheState();
+		Object cached = getCached(state, key);
+
+		if (cached != null) {
+			// Return a copy as callers may update the list
+			return (cached == NONE) ? null : new ArrayList<VariantInfo>((List<VariantInfo>) cached);
+		}
+
 		List<VariantInfo> result = null;
 
 		for (ConverterHelper ch : Engine.getInstance().getRegisteredConverters()) {
@@ -123,6 +424,59 @@ public class ConverterUtils {
 			}
 		}
 
+		putCached(state, key, (result == null) ? null : new ArrayList<VariantInfo>(result));
+		return result;
+	}
+
+	/**
+	 * Indicates if a class is a sequence of elements that can be streamed
+	 * incrementally, i.e. an {@link Iterator} or a {@link BaseStream}.
+	 * 
+	 * @param type The class to test.
+	 * @return True if the class is a sequence of elements that can be streamed.
+	 */
+	public static boolean isSequence(Class<?> type) {
+		return (type != null) && (Iterator.class.isAssignableFrom(type) || BaseStream.class.isAssignableFrom(type));
+	}
+
+	/**
+	 * Caches the result of a lookup.
+	 * 
+	 * @param state The cache state or null if the lookup can't be cached.
+	 * @param key   The cache key or null if the lookup can't be cached.
+	 * @param value The value to cache, possibly null.
+	 */
+	private static void putCached(CacheState state, CacheKey key, Object value) {
+		if ((state != null) && (key != null) && (state.entries.size() < MAX_CACHE_SIZE)) {
+			state.entries.put(key, (value == null) ? NONE : value);
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements of a source object. Iterators,
+	 * streams, iterables and arrays are iterated over, null gives an empty
+	 * iterator and any other object is considered as a single element.
+	 * 
+	 * @param source The source object.
+	 * @return An iterator over the elements of the source object.
+	 */
+	public static Iterator<?> toIterator(Object source) {
+		Iterator<?> result = null;
+
+		if (source == null) {
+			result = Collections.emptyIterator();
+		} else if (source instanceof Iterator) {
+			result = (Iterator<?>) source;
+		} else if (source instanceof BaseStream) {
+			result = ((BaseStream<?, ?>) source).iterator();
+		} else if (source instanceof Iterable) {
+			result = ((Iterable<?>) source).iterator();
+		} else if (source instanceof Object[]) {
+			result = Arrays.asList((Object[]) source).iterator();
+		} else {
+			result = Collections.singletonList(source).iterator();
+		}
+
 		return result;
 	}
 
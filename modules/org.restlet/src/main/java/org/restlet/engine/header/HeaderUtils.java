@@ -785,13 +785,13 @@ public class HeaderUtils {
 
 		if (headers != null) {
 			// Extract the content length header
-			for (Header header : headers) {
-				if (HEADER_CONTENT_LENGTH.equalsIgnoreCase(header.getName())) {
-					try {
-						contentLength = Long.parseLong(header.getValue());
-					} catch (NumberFormatException e) {
-						contentLength = UNKNOWN_SIZE;
-					}
+			String value = headers.getFirstValue(HEADER_CONTENT_LENGTH, true);
+
+			if (value != null) {
+				try {
+					contentLength = Long.parseLong(value);
+				} catch (NumberFormatException e) {
+					contentLength = UNKNOWN_SIZE;
 				}
 			}
 		}
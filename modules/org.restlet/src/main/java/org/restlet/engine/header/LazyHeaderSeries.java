@@ -0,0 +1,517 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.header;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+
+import org.restlet.data.Header;
+import org.restlet.util.Series;
+
+/**
+ * Series of inbound headers optimized for lookups by name. The headers added
+ * by the connector are kept as raw name and value pairs, and {@link Header}
+ * instances are only created when they are requested or when the series is
+ * used as a regular list. On the first lookup by name, a case-insensitive hash
+ * index is built so that the following lookups don't need to scan all the
+ * headers.<br>
+ * <br>
+ * The index remains valid as long as no entry is added or removed. After such
+ * changes, it is transparently rebuilt on the next lookup. Note that renaming
+ * an entry in place via {@link Header#setName(String)} isn't detected.<br>
+ * <br>
+ * Concurrency note: like a regular series, this class is thread-safe. The raw
+ * headers, the index and the delegate list are all guarded by the lock of the
+ * delegate list.
+ * 
+ * @see org.restlet.engine.adapter.ServerCall
+ */
+public class LazyHeaderSeries extends Series<Header> {
+
+	/**
+	 * Delegate list exposing its modification count so that the index can detect
+	 * structural changes. Like the default delegate of a series, it is a
+	 * {@link Vector}, whose lock also guards the lazy state of the series.
+	 */
+	private static class HeaderList extends Vector<Header> {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Returns the number of structural modifications.
+		 * 
+		 * @return The number of structural modifications.
+		 */
+		int getModCount() {
+			return this.modCount;
+		}
+	}
+
+	/** The default number of raw headers that can be added without growing. */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Returns a case-insensitive hash code of the given header name.
+	 * 
+	 * @param name The header name.
+	 * @return The case-insensitive hash code.
+	 */
+	private static int hash(String name) {
+		int result = 0;
+		char c;
+
+		for (int i = 0; i < name.length(); i++) {
+			c = name.charAt(i);
+
+			if ((c >= 'A') && (c <= 'Z')) {
+				c += 'a' - 'A';
+			} else if (c >= 128) {
+				c = Character.toLowerCase(Character.toUpperCase(c));
+			}
+
+			result = 31 * result + c;
+		}
+
+		return result ^ (result >>> 16);
+	}
+
+	/** The number of raw headers. */
+	private int count;
+
+	/** The raw headers already converted into {@link Header} instances. */
+	private Header[] headers;
+
+	/** The modification count of the list when the index was built. */
+	private int indexModCount;
+
+	/** The delegate list, only filled once the series is materialized. */
+	private final HeaderList list;
+
+	/** Indicates if the raw headers were moved to the delegate list. */
+	private boolean materialized;
+
+	/** The raw header names. */
+	private String[] names;
+
+	/**
+	 * The position of the next header with the same name, or -1, for each
+	 * indexed position.
+	 */
+	private int[] next;
+
+	/**
+	 * The hash table of the index. Each slot contains the position of the first
+	 * header with a given name, plus one, or zero if the slot is empty.
+	 */
+	private int[] table;
+
+	/** The raw header values. */
+	private String[] values;
+
+	/**
+	 * Constructor.
+	 */
+	public LazyHeaderSeries() {
+		this(new HeaderList());
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param list The delegate list.
+	 */
+	private LazyHeaderSeries(HeaderList list) {
+		super(Header.class, list);
+		this.count = 0;
+		this.headers = new Header[DEFAULT_CAPACITY];
+		this.list = list;
+		this.materialized = false;
+		this.names = new String[DEFAULT_CAPACITY];
+		this.values = new String[DEFAULT_CAPACITY];
+	}
+
+	@Override
+	public boolean add(Header header) {
+		synchronized (this.list) {
+			if (this.materialized) {
+				return super.add(header);
+			}
+
+			addRaw(header.getName(), header.getValue(), header);
+			return true;
+		}
+	}
+
+	@Override
+	public boolean add(String name, String value) {
+		synchronized (this.list) {
+			if (this.materialized) {
+				return super.add(name, value);
+			}
+
+			addRaw(name, value, null);
+			return true;
+		}
+	}
+
+	/**
+	 * Adds a raw header.
+	 * 
+	 * @param name   The header name.
+	 * @param value  The header value.
+	 * @param header The header instance if already available.
+	 */
+	private void addRaw(String name, String value, Header header) {
+		if (this.count == this.names.length) {
+			int capacity = this.count * 2;
+			this.headers = Arrays.copyOf(this.headers, capacity);
+			this.names = Arrays.copyOf(this.names, capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+
+		this.headers[this.count] = header;
+		this.names[this.count] = name;
+		this.values[this.count] = value;
+		this.count++;
+		this.table = null;
+	}
+
+	/**
+	 * Returns the position of the first header with the given name, ignoring the
+	 * case. Builds the index if needed.
+	 * 
+	 * @param name The header name.
+	 * @return The position of the first matching header or -1.
+	 */
+	private int first(String name) {
+		if ((this.table == null) || (this.materialized && (this.indexModCount != this.list.getModCount()))) {
+			index();
+		}
+
+		int mask = this.table.length - 1;
+		int slot = hash(name) & mask;
+		int position;
+
+		while ((position = this.table[slot]) != 0) {
+			if (name.equalsIgnoreCase(name(position - 1))) {
+				return position - 1;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		return -1;
+	}
+
+	@Override
+	public Header get(int index) {
+		synchronized (this.list) {
+			if (this.materialized) {
+				return super.get(index);
+			}
+
+			if ((index < 0) || (index >= this.count)) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.count);
+			}
+
+			return header(index);
+		}
+	}
+
+	@Override
+	protected List<Header> getDelegate() {
+		synchronized (this.list) {
+			if (!this.materialized) {
+				materialize();
+			}
+
+			return super.getDelegate();
+		}
+	}
+
+	@Override
+	public Header getFirst(String name, boolean ignoreCase) {
+		synchronized (this.list) {
+			if (name == null) {
+				return super.getFirst(name, ignoreCase);
+			}
+
+			for (int i = first(name); i != -1; i = this.next[i]) {
+				if (matches(i, name, ignoreCase)) {
+					return header(i);
+				}
+			}
+
+			return null;
+		}
+	}
+
+	@Override
+	public String getFirstValue(String name, boolean ignoreCase, String defaultValue) {
+		synchronized (this.list) {
+			if (name == null) {
+				return super.getFirstValue(name, ignoreCase, defaultValue);
+			}
+
+			for (int i = first(name); i != -1; i = this.next[i]) {
+				if (matches(i, name, ignoreCase)) {
+					String value = value(i);
+					return (value == null) ? defaultValue : value;
+				}
+			}
+
+			return defaultValue;
+		}
+	}
+
+	@Override
+	public String getValues(String name, String separator, boolean ignoreCase) {
+		synchronized (this.list) {
+			if (name == null) {
+				return super.getValues(name, separator, ignoreCase);
+			}
+
+			String result = null;
+			StringBuilder sb = null;
+
+			for (int i = first(name); i != -1; i = this.next[i]) {
+				if (matches(i, name, ignoreCase)) {
+					if (sb == null) {
+						if (result == null) {
+							result = value(i);
+						} else {
+							sb = new StringBuilder();
+							sb.append(result).append(separator).append(value(i));
+						}
+					} else {
+						sb.append(separator).append(value(i));
+					}
+				}
+			}
+
+			return (sb == null) ? result : sb.toString();
+		}
+	}
+
+	@Override
+	public String[] getValuesArray(String name, boolean ignoreCase, String defaultValue) {
+		synchronized (this.list) {
+			if (name == null) {
+				return super.getValuesArray(name, ignoreCase, defaultValue);
+			}
+
+			List<String> result = new ArrayList<String>();
+
+			for (int i = first(name); i != -1; i = this.next[i]) {
+				if (matches(i, name, ignoreCase)) {
+					result.add(value(i));
+				}
+			}
+
+			if (result.isEmpty() && (defaultValue != null)) {
+				result.add(defaultValue);
+			}
+
+			return result.toArray(new String[result.size()]);
+		}
+	}
+
+	/**
+	 * Returns the header at the given position, creating it if needed.
+	 * 
+	 * @param position The header position.
+	 * @return The header.
+	 */
+	private Header header(int position) {
+		if (this.materialized) {
+			return this.list.get(position);
+		}
+
+		Header result = this.headers[position];
+
+		if (result == null) {
+			result = new Header(this.names[position], this.values[position]);
+			this.headers[position] = result;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Builds the index of the current headers.
+	 */
+	private void index() {
+		int size = size();
+		int capacity = Integer.highestOneBit(Math.max(4, size) * 2 - 1) << 1;
+		int mask = capacity - 1;
+		int[] table = new int[capacity];
+		int[] next = new int[size];
+		String name;
+		int slot;
+
+		// Iterate backwards so that each chain is in ascending order
+		for (int i = size - 1; i >= 0; i--) {
+			next[i] = -1;
+			name = name(i);
+
+			if (name != null) {
+				slot = hash(name) & mask;
+
+				while ((table[slot] != 0) && !name.equalsIgnoreCase(name(table[slot] - 1))) {
+					slot = (slot + 1) & mask;
+				}
+
+				if (table[slot] != 0) {
+					next[i] = table[slot] - 1;
+				}
+
+				table[slot] = i + 1;
+			}
+		}
+
+		this.next = next;
+		this.table = table;
+		this.indexModCount = this.list.getModCount();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		synchronized (this.list) {
+			return this.materialized ? super.isEmpty() : (this.count == 0);
+		}
+	}
+
+	/**
+	 * Indicates if the raw headers were moved to the delegate list, for example
+	 * because the series was iterated or modified by position.
+	 * 
+	 * @return True if the series was materialized.
+	 */
+	public boolean isMaterialized() {
+		synchronized (this.list) {
+			return this.materialized;
+		}
+	}
+
+	/**
+	 * Indicates if the header at the given position has the given name.
+	 * 
+	 * @param position   The header position.
+	 * @param name       The name to match.
+	 * @param ignoreCase Indicates if the name comparison is case insensitive.
+	 * @return True if the header has the given name.
+	 */
+	private boolean matches(int position, String name, boolean ignoreCase) {
+		return ignoreCase ? name.equalsIgnoreCase(name(position)) : name.equals(name(position));
+	}
+
+	/**
+	 * Moves the raw headers to the delegate list, creating the missing
+	 * {@link Header} instances.
+	 */
+	private void materialize() {
+		this.list.ensureCapacity(this.count);
+
+		for (int i = 0; i < this.count; i++) {
+			this.list.add(header(i));
+		}
+
+		this.materialized = true;
+		this.headers = null;
+		this.names = null;
+		this.values = null;
+
+		if (this.table != null) {
+			// The positions are unchanged
+			this.indexModCount = this.list.getModCount();
+		}
+	}
+
+	/**
+	 * Returns the name of the header at the given position.
+	 * 
+	 * @param position The header position.
+	 * @return The header name.
+	 */
+	private String name(int position) {
+		if (this.materialized) {
+			return this.list.get(position).getName();
+		}
+
+		return (this.headers[position] == null) ? this.names[position] : this.headers[position].getName();
+	}
+
+	@Override
+	public Header set(int index, Header element) {
+		synchronized (this.list) {
+			Header result = super.set(index, element);
+			this.table = null;
+			return result;
+		}
+	}
+
+	@Override
+	public int size() {
+		synchronized (this.list) {
+			return this.materialized ? super.size() : this.count;
+		}
+	}
+
+	@Override
+	public Series<Header> subList(String name, boolean ignoreCase) {
+		synchronized (this.list) {
+			if (name == null) {
+				return super.subList(name, ignoreCase);
+			}
+
+			Series<Header> result = new Series<Header>(Header.class);
+
+			for (int i = first(name); i != -1; i = this.next[i]) {
+				if (matches(i, name, ignoreCase)) {
+					result.add(header(i));
+				}
+			}
+
+			return result;
+		}
+	}
+
+	/**
+	 * Returns the value of the header at the given position.
+	 * 
+	 * @param position The header position.
+	 * @return The header value.
+	 */
+	private String value(int position) {
+		if (this.materialized) {
+			return this.list.get(position).getValue();
+		}
+
+		return (this.headers[position] == null) ? this.values[position] : this.headers[position].getValue();
+	}
+
+}
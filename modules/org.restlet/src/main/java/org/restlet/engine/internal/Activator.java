@@ -102,6 +102,9 @@ public class Activator implements BundleActivator {
 
 		// Register converter helpers
 		registerHelper(bundle, Engine.getInstance().getRegisteredConverters(), null, Engine.DESCRIPTOR_CONVERTER_PATH);
+
+		// Register encoding helpers
+		registerHelper(bundle, Engine.getInstance().getRegisteredEncodings(), null, Engine.DESCRIPTOR_ENCODING_PATH);
 	}
 
 	/**
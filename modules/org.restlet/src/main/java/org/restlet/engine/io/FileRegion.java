@@ -0,0 +1,192 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Region of a file exposed by a representation. Lets the connectors send the
+ * content of files without copying it into user-space buffers, for example via
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+ * 
+ * @see IoUtils#getFileRegion(org.restlet.representation.Representation)
+ */
+public class FileRegion {
+
+	/**
+	 * Readable channel limited to the bytes of a region.
+	 */
+	private static class RegionChannel implements ReadableByteChannel {
+
+		/** The underlying file channel. */
+		private final FileChannel channel;
+
+		/** The position following the last byte of the region. */
+		private final long end;
+
+		/** The position of the next byte to read. */
+		private long position;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param channel  The underlying file channel.
+		 * @param position The position of the first byte of the region.
+		 * @param count    The number of bytes in the region.
+		 */
+		private RegionChannel(FileChannel channel, long position, long count) {
+			this.channel = channel;
+			this.position = position;
+			this.end = position + count;
+		}
+
+		public void close() throws IOException {
+			this.channel.close();
+		}
+
+		public boolean isOpen() {
+			return this.channel.isOpen();
+		}
+
+		public int read(ByteBuffer dst) throws IOException {
+			if (this.position >= this.end) {
+				return -1;
+			}
+
+			ByteBuffer window = dst.duplicate();
+			window.limit(window.position() + (int) Math.min(dst.remaining(), this.end - this.position));
+			int result = this.channel.read(window, this.position);
+
+			if (result > 0) {
+				this.position += result;
+				dst.position(dst.position() + result);
+			}
+
+			return result;
+		}
+	}
+
+	/** The number of bytes in the region. */
+	private final long count;
+
+	/** The file. */
+	private final File file;
+
+	/** The position of the first byte of the region in the file. */
+	private final long position;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param file     The file.
+	 * @param position The position of the first byte of the region in the file.
+	 * @param count    The number of bytes in the region.
+	 */
+	public FileRegion(File file, long position, long count) {
+		this.file = file;
+		this.position = position;
+		this.count = count;
+	}
+
+	/**
+	 * Returns the number of bytes in the region.
+	 * 
+	 * @return The number of bytes in the region.
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the file.
+	 * 
+	 * @return The file.
+	 */
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Returns the position of the first byte of the region in the file.
+	 * 
+	 * @return The position of the first byte of the region in the file.
+	 */
+	public long getPosition() {
+		return this.position;
+	}
+
+	/**
+	 * Opens a read-only channel on the file. The caller is responsible for
+	 * closing it.
+	 * 
+	 * @return A read-only channel on the file.
+	 * @throws IOException
+	 */
+	public FileChannel open() throws IOException {
+		return FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+	}
+
+	/**
+	 * Opens a read-only channel limited to the bytes of the region. The caller is
+	 * responsible for closing it.
+	 * 
+	 * @return A read-only channel on the region.
+	 * @throws IOException
+	 */
+	public ReadableByteChannel openRegion() throws IOException {
+		return new RegionChannel(open(), this.position, this.count);
+	}
+
+	/**
+	 * Transfers the region to a blocking writable channel. Depending on the target
+	 * channel, the operating system can send the bytes without copying them, for
+	 * example to a socket channel.
+	 * 
+	 * @param target The blocking target channel.
+	 * @throws IOException
+	 */
+	public void transferTo(WritableByteChannel target) throws IOException {
+		try (FileChannel fileChannel = open()) {
+			long transferred = 0;
+
+			while (transferred < this.count) {
+				long written = fileChannel.transferTo(this.position + transferred, this.count - transferred, target);
+
+				if ((written <= 0) && (fileChannel.size() <= this.position + transferred)) {
+					throw new IOException("The file is shorter than the region to transfer.");
+				}
+
+				transferred += written;
+			}
+		}
+	}
+
+}
@@ -27,6 +27,7 @@ package org.restlet.engine.io;
 import static org.restlet.data.Range.isBytesRange;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -50,6 +51,8 @@ import org.restlet.data.CharacterSet;
 import org.restlet.data.Range;
 import org.restlet.engine.Edition;
 import org.restlet.engine.Engine;
+import org.restlet.engine.application.RangeRepresentation;
+import org.restlet.representation.FileRepresentation;
 import org.restlet.representation.Representation;
 
 /**
@@ -378,6 +381,59 @@ public class IoUtils {
 		return result;
 	}
 
+	/**
+	 * Returns the region of a file exposed by a representation, if any. This is
+	 * the case of a {@link FileRepresentation} without range, and of a
+	 * {@link RangeRepresentation} exposing a byte range of such a file
+	 * representation. Connectors writing to a channel can then send the region
+	 * without copying it into user-space buffers. Subclasses of these representations are excluded, as
+	 * they may alter the content they write.
+	 * 
+	 * @param representation The representation to evaluate.
+	 * @return The file region or null if the representation doesn't expose one.
+	 */
+	public static FileRegion getFileRegion(Representation representation) {
+		FileRegion result = null;
+		Range range = null;
+		Representation target = representation;
+
+		if ((representation != null) && (representation.getClass() == RangeRepresentation.class)) {
+			range = representation.getRange();
+			target = ((RangeRepresentation) representation).getWrappedRepresentation();
+		}
+
+		File file = ((target != null) && (target.getClass() == FileRepresentation.class))
+				? ((FileRepresentation) target).getFile()
+				: null;
+
+		// The size of the file must match the one announced
+		if ((file != null) && (target.getRange() == null) && (target.getSize() == file.length())) {
+			long size = target.getSize();
+
+			if (range == null) {
+				result = new FileRegion(file, 0, size);
+			} else if (isBytesRange(range)) {
+				long position;
+				long count;
+
+				if (range.getIndex() == Range.INDEX_LAST) {
+					position = (range.getSize() == Range.SIZE_MAX) ? 0 : size - range.getSize();
+					count = size - position;
+				} else {
+					position = range.getIndex();
+					count = (range.getSize() == Range.SIZE_MAX) ? size - position
+							: Math.min(range.getSize(), size - position);
+				}
+
+				if ((position >= 0) && (count >= 0) && (count == representation.getAvailableSize())) {
+					result = new FileRegion(file, position, count);
+				}
+			}
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns a reader from an input stream and a character set.
 	 * 
@@ -48,4 +48,9 @@ public class UnclosableOutputStream extends FilterOutputStream {
 	@Override
 	public void close() throws IOException {
 	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		this.out.write(b, off, len);
+	}
 }
@@ -28,6 +28,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Path;
 import java.util.Date;
 import java.util.logging.Level;
 
@@ -82,6 +84,7 @@ public class ClapClientHelper extends LocalClientHelper {
 
 		String path = request.getResourceRef().getPath();
 		URL url = null;
+		File file = null;
 		Date modificationDate = null;
 
 		// Prepare a classloader URI, removing the leading slash
@@ -103,7 +106,7 @@ public class ClapClientHelper extends LocalClientHelper {
 		// of the CLAP client, so we have to ignore them.
 		if (url != null) {
 			if (url.getProtocol().equals("file")) {
-				File file = new File(url.getFile());
+				file = new File(url.getFile());
 				modificationDate = new Date(file.lastModified());
 
 				if (file.isDirectory()) {
@@ -117,8 +120,26 @@ public class ClapClientHelper extends LocalClientHelper {
 			return;
 		}
 
+		// Files are cached under their path so that file system changes can
+		// invalidate them
+		EntityCache cache = getCache();
+		Path filePath = (file == null) ? null : file.toPath().toAbsolutePath().normalize();
+		String key = (filePath == null) ? url.toExternalForm() : filePath.toString();
+
+		if (cache != null) {
+			Representation output = cache.get(key, getTimeToLive());
+
+			if (output != null) {
+				output.setLocationRef(request.getResourceRef());
+				response.setEntity(output);
+				response.setStatus(Status.SUCCESS_OK);
+				return;
+			}
+		}
+
 		try {
-			InputStream inputStream = url.openStream();
+			URLConnection connection = url.openConnection();
+			InputStream inputStream = connection.getInputStream();
 
 			// check for empty input stream on jar directories
 			if (url.getProtocol().equals("jar")) {
@@ -128,7 +149,8 @@ public class ClapClientHelper extends LocalClientHelper {
 				}
 			}
 
-			Representation output = new InputRepresentation(inputStream, metadataService.getDefaultMediaType());
+			Representation output = new InputRepresentation(inputStream, metadataService.getDefaultMediaType(),
+					connection.getContentLengthLong());
 			output.setLocationRef(request.getResourceRef());
 			output.setModificationDate(modificationDate);
 
@@ -145,6 +167,21 @@ public class ClapClientHelper extends LocalClientHelper {
 			String name = path.substring(path.lastIndexOf('/') + 1);
 			Entity.updateMetadata(name, output, true, getMetadataService());
 
+			if (cache != null) {
+				Representation cached = cache.put(key, output, filePath, getTimeToLive());
+
+				if (cached != null) {
+					cached.setLocationRef(request.getResourceRef());
+
+					if (filePath != null) {
+						// The content was read from the file
+						output.release();
+					}
+
+					output = cached;
+				}
+			}
+
 			// Update the response
 			response.setEntity(output);
 			response.setStatus(Status.SUCCESS_OK);
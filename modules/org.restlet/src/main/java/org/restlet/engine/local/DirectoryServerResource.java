@@ -28,7 +28,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.logging.Level;
@@ -36,8 +40,12 @@ import java.util.logging.Level;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
+import org.restlet.data.Dimension;
+import org.restlet.data.Encoding;
+import org.restlet.data.Language;
 import org.restlet.data.MediaType;
 import org.restlet.data.Method;
+import org.restlet.data.Preference;
 import org.restlet.data.Reference;
 import org.restlet.data.ReferenceList;
 import org.restlet.data.Status;
@@ -62,6 +70,29 @@ import org.restlet.resource.ServerResource;
  */
 public class DirectoryServerResource extends ServerResource {
 
+	/** The maximum number of missing precompressed files remembered. */
+	private static final int MAX_MISSING_PRECOMPRESSED = 1024;
+
+	/**
+	 * The URIs of the missing precompressed files, in access order, with the
+	 * modification date of their original file when they were looked up. They
+	 * aren't looked up again until the original file changes.
+	 */
+	private static final Map<String, Date> missingPrecompressed = new LinkedHashMap<String, Date>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Date> eldest) {
+			return size() > MAX_MISSING_PRECOMPRESSED;
+		}
+	};
+
+	/** The encodings of the precompressed files, by order of preference. */
+	private static final Encoding[] PRECOMPRESSED_ENCODINGS = { Encoding.BROTLI, Encoding.GZIP };
+
+	/** The extensions of the precompressed files. */
+	private static final String[] PRECOMPRESSED_EXTENSIONS = { "br", "gz" };
+
 	/** The list of variants for the GET method. */
 	private volatile List<Variant> variantsGet;
 
@@ -119,6 +150,9 @@ public class DirectoryServerResource extends ServerResource {
 	/** The unique representation of the target URI, if it exists. */
 	private volatile Reference uniqueReference;
 
+	/** The context's URIs (file, clap URI) of the GET variants. */
+	private final Map<Variant, String> variantsUris = new IdentityHashMap<Variant, String>();
+
 	@Override
 	public Representation delete() throws ResourceException {
 		if (!this.directory.isModifiable()) {
@@ -483,6 +517,73 @@ public class DirectoryServerResource extends ServerResource {
 		return dispatchRequest(request);
 	}
 
+	/**
+	 * Returns the precompressed sibling of a representation, stored next to its
+	 * file with a ".br" or ".gz" extension, in the encoding preferred by the
+	 * client. The metadata of the original representation are preserved.
+	 * 
+	 * @param representation The representation to replace.
+	 * @return The precompressed representation or null.
+	 */
+	protected Representation getPrecompressedRepresentation(Representation representation) {
+		String variantUri = this.variantsUris.get(representation);
+
+		if (variantUri == null) {
+			return null;
+		}
+
+		for (Encoding encoding : representation.getEncodings()) {
+			if (!Encoding.IDENTITY.equals(encoding)) {
+				return null;
+			}
+		}
+
+		// The response depends on the accepted encodings from now on
+		getDimensions().add(Dimension.ENCODING);
+		Representation result = null;
+		float bestQuality = 0F;
+
+		for (int i = 0; i < PRECOMPRESSED_ENCODINGS.length; i++) {
+			float quality = 0F;
+
+			for (Preference<Encoding> preference : getClientInfo().getAcceptedEncodings()) {
+				if (preference.getMetadata().includes(PRECOMPRESSED_ENCODINGS[i])) {
+					quality = Math.max(quality, preference.getQuality());
+				}
+			}
+
+			String precompressedUri = variantUri + "." + PRECOMPRESSED_EXTENSIONS[i];
+
+			if ((quality > bestQuality) && !isPrecompressedMissing(precompressedUri, representation)) {
+				Response response = getRepresentation(precompressedUri);
+
+				// The local connectors may negotiate another file when the
+				// precompressed one is missing
+				if (response.getStatus().isSuccess() && (response.getEntity() != null)
+						&& ((response.getEntity().getDisposition() == null)
+								|| Reference.decode(precompressedUri)
+										.endsWith("/" + response.getEntity().getDisposition().getFilename()))) {
+					result = response.getEntity();
+					result.setMediaType(representation.getMediaType());
+					result.setCharacterSet(representation.getCharacterSet());
+					result.setLanguages(new ArrayList<Language>(representation.getLanguages()));
+					result.setEncodings(new ArrayList<Encoding>(Arrays.asList(PRECOMPRESSED_ENCODINGS[i])));
+					result.setDisposition(representation.getDisposition());
+					result.setExpirationDate(representation.getExpirationDate());
+					result.setLocationRef(representation.getLocationRef());
+					result.setModificationDate(representation.getModificationDate());
+					bestQuality = quality;
+				} else if (!response.getStatus().isServerError() && (representation.getModificationDate() != null)) {
+					synchronized (missingPrecompressed) {
+						missingPrecompressed.put(precompressedUri, representation.getModificationDate());
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
 	/**
 	 * Allows to sort the list of representations set by the resource.
 	 * 
@@ -553,6 +654,7 @@ public class DirectoryServerResource extends ServerResource {
 			}
 
 			variantsGet = Arrays.asList((Variant) this.fileContent);
+			this.variantsUris.put(this.fileContent, this.targetUri);
 
 			return variantsGet;
 		}
@@ -584,6 +686,7 @@ public class DirectoryServerResource extends ServerResource {
 						}
 
 						resultSet.add(rep);
+						this.variantsUris.put(rep, ref.toString());
 					}
 				}
 			}
@@ -710,7 +813,19 @@ public class DirectoryServerResource extends ServerResource {
 	@Override
 	public Representation handle() {
 		if (!this.directoryRedirection) {
-			return super.handle();
+			Representation result = super.handle();
+
+			if ((result != null) && getDirectory().isPrecompressed() && Status.SUCCESS_OK.equals(getStatus())
+					&& (Method.GET.equals(getMethod()) || Method.HEAD.equals(getMethod()))) {
+				Representation precompressed = getPrecompressedRepresentation(result);
+
+				if (precompressed != null) {
+					getResponse().setEntity(precompressed);
+					result = precompressed;
+				}
+			}
+
+			return result;
 		}
 
 		// detected a directory, but the current reference lacks the trailing "/", let's
@@ -743,6 +858,26 @@ public class DirectoryServerResource extends ServerResource {
 		return this.fileTarget;
 	}
 
+	/**
+	 * Indicates if a precompressed file was found missing by a previous lookup,
+	 * and its original file hasn't changed since.
+	 * 
+	 * @param precompressedUri The URI of the precompressed file.
+	 * @param representation   The representation of the original file.
+	 * @return True if the precompressed file is known to be missing.
+	 */
+	private boolean isPrecompressedMissing(String precompressedUri, Representation representation) {
+		Date modificationDate = representation.getModificationDate();
+
+		if (modificationDate == null) {
+			return false;
+		}
+
+		synchronized (missingPrecompressed) {
+			return modificationDate.equals(missingPrecompressed.get(precompressedUri));
+		}
+	}
+
 	/**
 	 * Transmit the given request to the clientDispatcher.<br>
 	 * It completes the request's attributes map with the current Directory
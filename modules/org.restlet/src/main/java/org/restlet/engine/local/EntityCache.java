@@ -0,0 +1,488 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.local;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.restlet.data.CharacterSet;
+import org.restlet.data.Digest;
+import org.restlet.data.Disposition;
+import org.restlet.data.Encoding;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
+import org.restlet.data.Tag;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.representation.Representation;
+
+/**
+ * Bounded in-memory cache of small local entities. It lets the local client
+ * connectors serve hot static resources without touching the file system or
+ * the class loaders again. Each entry keeps the content, the metadata resolved
+ * from the file extensions and a strong entity tag computed from the content.
+ * The least recently used entries are evicted once the maximum number of
+ * entries or the maximum total size is exceeded.<br>
+ * <br>
+ * Entries backed by a file are invalidated when the watch service of the file
+ * system reports a change in their parent directory. Note that some platforms
+ * poll the file system, in which case changes can be noticed after a few
+ * seconds. A content read while its key is invalidated isn't cached, as it may
+ * predate the change.
+ */
+public class EntityCache {
+
+	/**
+	 * Cached content and metadata of an entity.
+	 */
+	private static class CachedEntity {
+
+		/** The character set. */
+		private final CharacterSet characterSet;
+
+		/** The content. */
+		private final byte[] content;
+
+		/** The disposition file name. */
+		private final String dispositionName;
+
+		/** The encodings. */
+		private final List<Encoding> encodings;
+
+		/** The languages. */
+		private final List<Language> languages;
+
+		/** The media type. */
+		private final MediaType mediaType;
+
+		/** The modification date. */
+		private final Date modificationDate;
+
+		/** The strong entity tag. */
+		private final Tag tag;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param representation The representation providing the metadata.
+		 * @param content        The content.
+		 */
+		private CachedEntity(Representation representation, byte[] content) {
+			this.characterSet = representation.getCharacterSet();
+			this.content = content;
+			this.dispositionName = (representation.getDisposition() == null) ? null
+					: representation.getDisposition().getFilename();
+			this.encodings = new ArrayList<Encoding>(representation.getEncodings());
+			this.languages = new ArrayList<Language>(representation.getLanguages());
+			this.mediaType = representation.getMediaType();
+			this.modificationDate = representation.getModificationDate();
+			this.tag = new Tag(IoUtils.toHexString(digest(content)), false);
+		}
+
+		/**
+		 * Returns a new representation of the cached entity.
+		 * 
+		 * @param timeToLive The time to live before it expires (in seconds).
+		 * @return A new representation of the cached entity.
+		 */
+		private Representation toRepresentation(int timeToLive) {
+			Representation result = new ByteArrayRepresentation(this.content, this.mediaType, this.content.length);
+			result.setCharacterSet(this.characterSet);
+			result.getEncodings().addAll(this.encodings);
+			result.getLanguages().addAll(this.languages);
+			result.setModificationDate(this.modificationDate);
+			result.setTag(this.tag);
+
+			if (timeToLive > 0) {
+				result.setExpirationDate(new Date(System.currentTimeMillis() + (1000L * timeToLive)));
+			}
+
+			if (this.dispositionName != null) {
+				Disposition disposition = new Disposition();
+				disposition.setFilename(this.dispositionName);
+				result.setDisposition(disposition);
+			}
+
+			return result;
+		}
+	}
+
+	/**
+	 * Computes the digest of a content.
+	 * 
+	 * @param content The content to digest.
+	 * @return The digest.
+	 */
+	private static byte[] digest(byte[] content) {
+		try {
+			return MessageDigest.getInstance(Digest.ALGORITHM_MD5).digest(content);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Unable to compute the entity tag", e);
+		}
+	}
+
+	/** The cached entities, in access order. */
+	private final LinkedHashMap<String, CachedEntity> entities;
+
+	/**
+	 * The generations of the keys being loaded. A key is removed when it is
+	 * invalidated, so that the pending load doesn't insert a stale content.
+	 */
+	private final Map<String, Long> loadingGenerations;
+
+	/** The maximum number of entries. */
+	private final int maxEntries;
+
+	/** The maximum size of a single entry, in bytes. */
+	private final long maxEntrySize;
+
+	/** The maximum total size of the entries, in bytes. */
+	private final long maxSize;
+
+	/** The generation of the next load. */
+	private long nextGeneration;
+
+	/** The current total size of the entries, in bytes. */
+	private long size;
+
+	/** The watched directories. */
+	private final Map<Path, WatchKey> watchedDirectories;
+
+	/** The file system watch service, lazily created. */
+	private WatchService watchService;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param maxEntries   The maximum number of entries.
+	 * @param maxSize      The maximum total size of the entries, in bytes.
+	 * @param maxEntrySize The maximum size of a single entry, in bytes.
+	 */
+	public EntityCache(int maxEntries, long maxSize, long maxEntrySize) {
+		this.entities = new LinkedHashMap<String, CachedEntity>(16, 0.75f, true);
+		this.loadingGenerations = new HashMap<String, Long>();
+		this.maxEntries = maxEntries;
+		this.maxEntrySize = maxEntrySize;
+		this.maxSize = maxSize;
+		this.watchedDirectories = new HashMap<Path, WatchKey>();
+	}
+
+	/**
+	 * Removes all the entries.
+	 */
+	public synchronized void clear() {
+		this.entities.clear();
+		this.loadingGenerations.clear();
+		this.size = 0;
+	}
+
+	/**
+	 * Removes all the entries and stops watching the file system.
+	 */
+	public void close() {
+		WatchService service;
+
+		synchronized (this) {
+			clear();
+			this.watchedDirectories.clear();
+			service = this.watchService;
+			this.watchService = null;
+		}
+
+		if (service != null) {
+			try {
+				service.close();
+			} catch (IOException e) {
+				// Nothing more can be done
+			}
+		}
+	}
+
+	/**
+	 * Returns a new representation of a cached entity.
+	 * 
+	 * @param key        The entry key.
+	 * @param timeToLive The time to live before it expires (in seconds).
+	 * @return A new representation or null if the entity isn't cached.
+	 */
+	public synchronized Representation get(String key, int timeToLive) {
+		CachedEntity entity = this.entities.get(key);
+		return (entity == null) ? null : entity.toRepresentation(timeToLive);
+	}
+
+	/**
+	 * Returns the maximum number of entries.
+	 * 
+	 * @return The maximum number of entries.
+	 */
+	public int getMaxEntries() {
+		return this.maxEntries;
+	}
+
+	/**
+	 * Returns the maximum size of a single entry, in bytes.
+	 * 
+	 * @return The maximum size of a single entry, in bytes.
+	 */
+	public long getMaxEntrySize() {
+		return this.maxEntrySize;
+	}
+
+	/**
+	 * Returns the maximum total size of the entries, in bytes.
+	 * 
+	 * @return The maximum total size of the entries, in bytes.
+	 */
+	public long getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Returns the number of entries.
+	 * 
+	 * @return The number of entries.
+	 */
+	public synchronized int getSize() {
+		return this.entities.size();
+	}
+
+	/**
+	 * Removes an entry.
+	 * 
+	 * @param key The entry key.
+	 */
+	public synchronized void invalidate(String key) {
+		this.loadingGenerations.remove(key);
+		CachedEntity entity = this.entities.remove(key);
+
+		if (entity != null) {
+			this.size -= entity.content.length;
+		}
+	}
+
+	/**
+	 * Indicates if the entity of a representation can be cached, based on its
+	 * expected size.
+	 * 
+	 * @param representation The representation to test.
+	 * @return True if the entity can be cached.
+	 */
+	public boolean isCacheable(Representation representation) {
+		long entitySize = representation.getSize();
+		return (entitySize != Representation.UNKNOWN_SIZE) && (entitySize <= getMaxEntrySize())
+				&& (entitySize <= getMaxSize());
+	}
+
+	/**
+	 * Reads and caches the entity of a representation, unless the key has been
+	 * invalidated or loaded again meanwhile.
+	 * 
+	 * @param key            The entry key.
+	 * @param generation     The generation of this load.
+	 * @param representation The representation providing the metadata.
+	 * @param file           The backing file to watch or null.
+	 * @param timeToLive     The time to live before it expires (in seconds).
+	 * @return A new representation of the entity or null if it can't be cached.
+	 * @throws IOException
+	 */
+	private Representation load(String key, Long generation, Representation representation, Path file,
+			int timeToLive) throws IOException {
+		byte[] content;
+
+		if (file != null) {
+			watch(file.getParent());
+			content = Files.readAllBytes(file);
+
+			if (content.length > getMaxEntrySize()) {
+				return null;
+			}
+		} else {
+			content = new byte[(int) representation.getSize()];
+
+			try (InputStream in = representation.getStream()) {
+				int offset = 0;
+				int read = 0;
+
+				while ((offset < content.length) && (read = in.read(content, offset, content.length - offset)) != -1) {
+					offset += read;
+				}
+
+				if (offset < content.length) {
+					throw new IOException("The entity is shorter than its announced size.");
+				}
+			}
+		}
+
+		CachedEntity entity = new CachedEntity(representation, content);
+
+		synchronized (this) {
+			if (!generation.equals(this.loadingGenerations.get(key))) {
+				// Stale content, served once but not cached
+				return entity.toRepresentation(timeToLive);
+			}
+
+			this.loadingGenerations.remove(key);
+			CachedEntity previous = this.entities.remove(key);
+
+			if (previous != null) {
+				this.size -= previous.content.length;
+			}
+
+			this.entities.put(key, entity);
+			this.size += content.length;
+
+			// Evict the least recently used entries
+			Iterator<CachedEntity> iterator = this.entities.values().iterator();
+
+			while (((this.entities.size() > getMaxEntries()) || (this.size > getMaxSize())) && iterator.hasNext()) {
+				this.size -= iterator.next().content.length;
+				iterator.remove();
+			}
+		}
+
+		return entity.toRepresentation(timeToLive);
+	}
+
+	/**
+	 * Caches the entity of a representation. The content is read from the given
+	 * file when provided, after starting to watch its parent directory, otherwise
+	 * from the representation stream. In the latter case, the representation
+	 * can't be used anymore and the returned one must be sent instead. If the
+	 * key is invalidated while the content is read, the content isn't cached but
+	 * a representation of it is still returned.
+	 * 
+	 * @param key            The entry key.
+	 * @param representation The representation providing the metadata.
+	 * @param file           The backing file to watch or null.
+	 * @param timeToLive     The time to live before it expires (in seconds).
+	 * @return A new representation of the cached entity or null if it can't be
+	 *         cached.
+	 * @throws IOException
+	 */
+	public Representation put(String key, Representation representation, Path file, int timeToLive)
+			throws IOException {
+		if (!isCacheable(representation)) {
+			return null;
+		}
+
+		Long generation;
+
+		synchronized (this) {
+			generation = Long.valueOf(this.nextGeneration++);
+			this.loadingGenerations.put(key, generation);
+		}
+
+		try {
+			return load(key, generation, representation, file, timeToLive);
+		} finally {
+			synchronized (this) {
+				if (generation.equals(this.loadingGenerations.get(key))) {
+					this.loadingGenerations.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Dispatches the file system changes until the watch service is closed.
+	 * 
+	 * @param service The watch service.
+	 */
+	private void run(WatchService service) {
+		try {
+			while (true) {
+				WatchKey watchKey = service.take();
+				Path directory = (Path) watchKey.watchable();
+
+				for (WatchEvent<?> event : watchKey.pollEvents()) {
+					if (event.kind() == OVERFLOW) {
+						clear();
+					} else {
+						invalidate(directory.resolve((Path) event.context()).toString());
+					}
+				}
+
+				if (!watchKey.reset()) {
+					synchronized (this) {
+						this.watchedDirectories.remove(directory);
+					}
+				}
+			}
+		} catch (ClosedWatchServiceException e) {
+			// The cache was closed
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Starts watching a directory, unless it is already watched.
+	 * 
+	 * @param directory The directory to watch.
+	 * @throws IOException
+	 */
+	private synchronized void watch(Path directory) throws IOException {
+		if ((directory == null) || this.watchedDirectories.containsKey(directory)) {
+			return;
+		}
+
+		if (this.watchService == null) {
+			final WatchService service = FileSystems.getDefault().newWatchService();
+			this.watchService = service;
+			Thread watcher = new Thread(new Runnable() {
+				public void run() {
+					EntityCache.this.run(service);
+				}
+			}, "Restlet-EntityCache");
+			watcher.setDaemon(true);
+			watcher.start();
+		}
+
+		this.watchedDirectories.put(directory,
+				directory.register(this.watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
+	}
+
+}
@@ -146,14 +146,7 @@ public abstract class EntityClientHelper extends LocalClientHelper {
 		Representation output = null;
 
 		// Get variants for a resource
-		boolean found = false;
-		Iterator<Preference<MediaType>> iterator = request.getClientInfo().getAcceptedMediaTypes().iterator();
-		while (iterator.hasNext() && !found) {
-			Preference<MediaType> pref = iterator.next();
-			found = pref.getMetadata().equals(MediaType.TEXT_URI_LIST);
-		}
-
-		if (found) {
+		if (isVariantListRequested(request)) {
 			// Try to list all variants of this resource
 			// 1- set up base name as the longest part of the name without known
 			// extensions (beginning from the left)
@@ -270,4 +263,24 @@ public abstract class EntityClientHelper extends LocalClientHelper {
 			response.getAllowedMethods().add(Method.HEAD);
 		}
 	}
+
+	/**
+	 * Indicates if the list of variants of the resource is requested instead of
+	 * its content, which is the case when the client accepts the
+	 * {@link MediaType#TEXT_URI_LIST} media type.
+	 * 
+	 * @param request The request to test.
+	 * @return True if the list of variants is requested.
+	 */
+	protected boolean isVariantListRequested(Request request) {
+		boolean result = false;
+		Iterator<Preference<MediaType>> iterator = request.getClientInfo().getAcceptedMediaTypes().iterator();
+
+		while (iterator.hasNext() && !result) {
+			Preference<MediaType> pref = iterator.next();
+			result = pref.getMetadata().equals(MediaType.TEXT_URI_LIST);
+		}
+
+		return result;
+	}
 }
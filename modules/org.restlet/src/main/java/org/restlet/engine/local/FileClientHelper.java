@@ -26,6 +26,7 @@ package org.restlet.engine.local;
 
 import static java.lang.String.format;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.WARNING;
 import static org.restlet.data.Method.DELETE;
 import static org.restlet.data.Method.GET;
@@ -66,6 +67,7 @@ import org.restlet.data.Metadata;
 import org.restlet.data.Range;
 import org.restlet.data.Status;
 import org.restlet.engine.io.IoUtils;
+import org.restlet.representation.FileRepresentation;
 import org.restlet.representation.Representation;
 import org.restlet.representation.Variant;
 import org.restlet.resource.Directory;
@@ -211,7 +213,7 @@ public class FileClientHelper extends EntityClientHelper {
 		if (!isFileInDirectory(directory, fileWithLocalizedPath)) {
 			response.setStatus(CLIENT_ERROR_FORBIDDEN);
 		} else if (GET.equals(request.getMethod()) || HEAD.equals(request.getMethod())) {
-			handleEntityGet(request, response, getEntity(decodedPath));
+			handleFileGet(request, response, decodedPath, fileWithLocalizedPath);
 		} else if (PUT.equals(request.getMethod())) {
 			handleFilePut(request, response, decodedPath, fileWithLocalizedPath);
 		} else if (DELETE.equals(request.getMethod())) {
@@ -281,6 +283,52 @@ public class FileClientHelper extends EntityClientHelper {
 		}
 	}
 
+	/**
+	 * Handles a GET or HEAD call for the FILE protocol. When the entity cache is
+	 * enabled, small files are served from memory and cached after being read.
+	 * 
+	 * @param request     The request to update.
+	 * @param response    The response to update.
+	 * @param decodedPath The decoded path of the requested file or directory.
+	 * @param file        The requested file or directory.
+	 */
+	protected void handleFileGet(Request request, Response response, String decodedPath, File file) {
+		EntityCache cache = getCache();
+
+		if ((cache == null) || isVariantListRequested(request)) {
+			handleEntityGet(request, response, getEntity(decodedPath));
+			return;
+		}
+
+		Path path = file.toPath().toAbsolutePath().normalize();
+		String key = path.toString();
+		Representation output = cache.get(key, getTimeToLive());
+
+		if (output != null) {
+			output.setLocationRef(request.getResourceRef());
+			response.setEntity(output);
+			response.setStatus(SUCCESS_OK);
+			return;
+		}
+
+		handleEntityGet(request, response, getEntity(decodedPath));
+
+		// Only cache the files that were directly targeted, not negotiated ones
+		if ((response.getEntity() instanceof FileRepresentation)
+				&& file.equals(((FileRepresentation) response.getEntity()).getFile())) {
+			try {
+				output = cache.put(key, response.getEntity(), path, getTimeToLive());
+
+				if (output != null) {
+					output.setLocationRef(request.getResourceRef());
+					response.setEntity(output);
+				}
+			} catch (IOException ioe) {
+				getLogger().log(FINE, "Unable to cache the file " + file, ioe);
+			}
+		}
+	}
+
 	/**
 	 * Handles a PUT call for the FILE protocol.
 	 * 
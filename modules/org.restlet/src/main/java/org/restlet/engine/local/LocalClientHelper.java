@@ -43,6 +43,25 @@ import org.restlet.engine.connector.ClientHelper;
  * <th>Description</th>
  * </tr>
  * <tr>
+ * <td>cacheMaxEntries</td>
+ * <td>int</td>
+ * <td>0</td>
+ * <td>Maximum number of entities kept in memory by the {@link EntityCache}. The
+ * cache is disabled when set to '0'.</td>
+ * </tr>
+ * <tr>
+ * <td>cacheMaxEntrySize</td>
+ * <td>long</td>
+ * <td>65536</td>
+ * <td>Maximum size in bytes of an entity kept in memory.</td>
+ * </tr>
+ * <tr>
+ * <td>cacheMaxSize</td>
+ * <td>long</td>
+ * <td>16777216</td>
+ * <td>Maximum total size in bytes of the entities kept in memory.</td>
+ * </tr>
+ * <tr>
  * <td>timeToLive</td>
  * <td>int</td>
  * <td>600</td>
@@ -64,6 +83,10 @@ import org.restlet.engine.connector.ClientHelper;
  * @author Thierry Boileau
  */
 public abstract class LocalClientHelper extends ClientHelper {
+
+	/** The cache of small entities, if enabled. */
+	private volatile EntityCache cache;
+
 	/**
 	 * Constructor. Note that the common list of metadata associations based on
 	 * extensions is added, see the addCommonExtensions() method.
@@ -74,6 +97,45 @@ public abstract class LocalClientHelper extends ClientHelper {
 		super(client);
 	}
 
+	/**
+	 * Returns the cache of small entities.
+	 * 
+	 * @return The cache of small entities or null if it is disabled.
+	 */
+	public EntityCache getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Returns the maximum number of entities kept in memory. Defaults to 0, which
+	 * disables the cache.
+	 * 
+	 * @return The maximum number of entities kept in memory.
+	 */
+	public int getCacheMaxEntries() {
+		return Integer.parseInt(getHelpedParameters().getFirstValue("cacheMaxEntries", "0"));
+	}
+
+	/**
+	 * Returns the maximum size in bytes of an entity kept in memory. Defaults to
+	 * 65536.
+	 * 
+	 * @return The maximum size in bytes of an entity kept in memory.
+	 */
+	public long getCacheMaxEntrySize() {
+		return Long.parseLong(getHelpedParameters().getFirstValue("cacheMaxEntrySize", "65536"));
+	}
+
+	/**
+	 * Returns the maximum total size in bytes of the entities kept in memory.
+	 * Defaults to 16777216.
+	 * 
+	 * @return The maximum total size in bytes of the entities kept in memory.
+	 */
+	public long getCacheMaxSize() {
+		return Long.parseLong(getHelpedParameters().getFirstValue("cacheMaxSize", "16777216"));
+	}
+
 	/**
 	 * Returns the default language. When no metadata service is available (simple
 	 * client connector with no parent application), falls back on this default
@@ -130,4 +192,23 @@ public abstract class LocalClientHelper extends ClientHelper {
 	 * @param decodedPath The decoded local path.
 	 */
 	protected abstract void handleLocal(Request request, Response response, String decodedPath);
+
+	@Override
+	public synchronized void start() throws Exception {
+		if (getCacheMaxEntries() > 0) {
+			this.cache = new EntityCache(getCacheMaxEntries(), getCacheMaxSize(), getCacheMaxEntrySize());
+		}
+
+		super.start();
+	}
+
+	@Override
+	public synchronized void stop() throws Exception {
+		super.stop();
+
+		if (this.cache != null) {
+			this.cache.close();
+			this.cache = null;
+		}
+	}
 }
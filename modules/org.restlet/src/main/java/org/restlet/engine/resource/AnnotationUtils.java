@@ -26,6 +26,9 @@ package org.restlet.engine.resource;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -49,6 +52,9 @@ public class AnnotationUtils {
 	/** Annotation info cache. */
 	private static final ConcurrentMap<Class<?>, List<AnnotationInfo>> cache = new ConcurrentHashMap<Class<?>, List<AnnotationInfo>>();
 
+	/** Default constructor invokers cache. */
+	private static final ConcurrentMap<Class<?>, MethodHandle> constructors = new ConcurrentHashMap<Class<?>, MethodHandle>();
+
 	/** Current instance. */
 	private static AnnotationUtils instance = new AnnotationUtils();
 
@@ -194,15 +200,18 @@ public class AnnotationUtils {
 	 */
 	public void clearCache() {
 		cache.clear();
+		constructors.clear();
 	}
 
 	/**
-	 * Returns the annotation descriptors for the given resource class.
+	 * Returns the annotation descriptors for the given resource class. The
+	 * descriptors are cached, so this method doesn't lock once a class has been
+	 * introspected.
 	 * 
 	 * @param clazz The resource class to introspect.
 	 * @return The list of annotation descriptors.
 	 */
-	public synchronized List<AnnotationInfo> getAnnotations(Class<?> clazz) {
+	public List<AnnotationInfo> getAnnotations(Class<?> clazz) {
 		List<AnnotationInfo> result = cache.get(clazz);
 
 		if (result == null) {
@@ -354,4 +363,40 @@ public class AnnotationUtils {
 		return null;
 	}
 
+	/**
+	 * Creates a new instance of the given class using its public default
+	 * constructor. The constructor invoker is resolved once and cached, so that
+	 * repeated instantiations, typically one per request for server resources,
+	 * avoid reflective lookups. When the constructor can't be resolved with the
+	 * public lookup, an invoker of {@link Class#newInstance()} is cached
+	 * instead, so that the lookup isn't attempted again.
+	 * 
+	 * @param <T>   The class type.
+	 * @param clazz The class to instantiate.
+	 * @return The new instance.
+	 * @throws Throwable If the instantiation failed.
+	 */
+	public <T> T newInstance(Class<T> clazz) throws Throwable {
+		MethodHandle constructor = constructors.get(clazz);
+
+		if (constructor == null) {
+			try {
+				constructor = MethodHandles.publicLookup().findConstructor(clazz, MethodType.methodType(void.class))
+						.asType(MethodType.methodType(Object.class));
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				// Let the reflection API instantiate or report the failure
+				constructor = MethodHandles.lookup()
+						.findVirtual(Class.class, "newInstance", MethodType.methodType(Object.class)).bindTo(clazz);
+			}
+
+			MethodHandle prev = constructors.putIfAbsent(clazz, constructor);
+
+			if (prev != null) {
+				constructor = prev;
+			}
+		}
+
+		return clazz.cast((Object) constructor.invokeExact());
+	}
+
 }
\ No newline at end of file
@@ -29,6 +29,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 
 import org.restlet.Context;
@@ -125,6 +127,106 @@ public class ClientInvocationHandler<T> implements InvocationHandler {
 		return getClientResource().createRequest();
 	}
 
+	/**
+	 * Converts the response of a call into the result of the Java method. Throws
+	 * the annotated exception or a {@link ResourceException} when the response
+	 * status is an error.
+	 * 
+	 * @param javaMethod     The invoked Java method.
+	 * @param annotationInfo The annotation descriptor of the Java method.
+	 * @param response       The response to convert.
+	 * @return The result of the Java method.
+	 * @throws Throwable
+	 */
+	protected Object getResult(Method javaMethod, MethodAnnotationInfo annotationInfo, Response response)
+			throws Throwable {
+		Object result = null;
+
+		if ((response != null) && response.getStatus().isError()) {
+			ThrowableAnnotationInfo tai = getAnnotationUtils().getThrowableAnnotationInfo(javaMethod,
+					response.getStatus().getCode());
+
+			if (tai != null) {
+				Class<?> throwableClazz = tai.getJavaClass();
+				Throwable t = null;
+
+				if (tai.isSerializable() && response.isEntityAvailable()) {
+					t = (Throwable) getClientResource().toObject(response.getEntity(), throwableClazz);
+				} else {
+					try {
+						t = (Throwable) throwableClazz.newInstance();
+					} catch (Exception e) {
+						Context.getCurrentLogger().log(Level.FINE,
+								"Unable to instantiate the client-side exception using the default constructor.");
+					}
+
+					if (response.isEntityAvailable()) {
+						StatusInfo si = getClientResource().toObject(response.getEntity(), StatusInfo.class);
+
+						if (si != null) {
+							response.setStatus(new Status(si.getCode(), si.getReasonPhrase(), si.getDescription()));
+						}
+					}
+				}
+
+				if (t != null) {
+					throw t;
+				}
+				// TODO cf issues 1004 and 1018.
+				// this code has been commented as the automatic
+				// deserialization is problematic. We may rethink a
+				// way to recover the status info.
+				// } else if (response.isEntityAvailable()) {
+				// StatusInfo si = getClientResource().toObject(
+				// response.getEntity(), StatusInfo.class);
+				//
+				// if (si != null) {
+				// response.setStatus(new Status(si.getCode(), si
+				// .getReasonPhrase(), si.getDescription()));
+				// }
+			}
+
+			getClientResource().doError(response.getStatus());
+		} else if (!annotationInfo.getJavaOutputValueType().equals(void.class)
+				&& !annotationInfo.getJavaOutputValueType().equals(Void.class)) {
+			result = getClientResource().toObject((response == null ? null : response.getEntity()),
+					annotationInfo.getJavaOutputValueType());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Handles the call asynchronously. The returned future is completed with the
+	 * result of the Java method, or exceptionally when the response status is an
+	 * error.
+	 * 
+	 * @param javaMethod     The invoked Java method.
+	 * @param annotationInfo The annotation descriptor of the Java method.
+	 * @param request        The request to handle.
+	 * @return The future result of the Java method.
+	 */
+	protected CompletableFuture<Object> handleAsync(final Method javaMethod,
+			final MethodAnnotationInfo annotationInfo, Request request) {
+		final CompletableFuture<Object> result = new CompletableFuture<Object>();
+
+		getClientResource().handleAsync(request).whenComplete(new BiConsumer<Response, Throwable>() {
+			public void accept(Response response, Throwable error) {
+				if (error != null) {
+					result.completeExceptionally(error);
+				} else {
+					try {
+						result.complete(getResult(javaMethod, annotationInfo, response));
+					} catch (Throwable t) {
+						result.completeExceptionally(t);
+					}
+				}
+			}
+		});
+
+		return result;
+	}
+
 	/**
 	 * Effectively invokes a Java method on the given proxy object.
 	 */
@@ -225,68 +327,24 @@ public class ClientInvocationHandler<T> implements InvocationHandler {
 						&& (request.getClientInfo().getAcceptedLanguages().isEmpty())
 						&& (request.getClientInfo().getAcceptedMediaTypes().isEmpty())) {
 					List<Variant> responseVariants = annotationInfo.getResponseVariants(
-							getClientResource().getMetadataService(), getClientResource().getConverterService());
+							getClientResource().getMetadataService(), getClientResource().getConverterService(),
+							annotationInfo.getJavaOutputValueType());
 
 					if (responseVariants != null) {
 						request.setClientInfo(new ClientInfo(responseVariants));
 					}
 				}
 
-				// Effectively handle the call
-				Response response = getClientResource().handleOutbound(request);
-
-				// Handle the response, synchronous call
-				if (getClientResource().getOnResponse() == null) {
-					if ((response != null) && response.getStatus().isError()) {
-						ThrowableAnnotationInfo tai = getAnnotationUtils().getThrowableAnnotationInfo(javaMethod,
-								response.getStatus().getCode());
-
-						if (tai != null) {
-							Class<?> throwableClazz = tai.getJavaClass();
-							Throwable t = null;
-
-							if (tai.isSerializable() && response.isEntityAvailable()) {
-								t = (Throwable) getClientResource().toObject(response.getEntity(), throwableClazz);
-							} else {
-								try {
-									t = (Throwable) throwableClazz.newInstance();
-								} catch (Exception e) {
-									Context.getCurrentLogger().log(Level.FINE,
-											"Unable to instantiate the client-side exception using the default constructor.");
-								}
-
-								if (response.isEntityAvailable()) {
-									StatusInfo si = getClientResource().toObject(response.getEntity(),
-											StatusInfo.class);
-
-									if (si != null) {
-										response.setStatus(
-												new Status(si.getCode(), si.getReasonPhrase(), si.getDescription()));
-									}
-								}
-							}
-
-							if (t != null) {
-								throw t;
-							}
-							// TODO cf issues 1004 and 1018.
-							// this code has been commented as the automatic
-							// deserialization is problematic. We may rethink a
-							// way to recover the status info.
-							// } else if (response.isEntityAvailable()) {
-							// StatusInfo si = getClientResource().toObject(
-							// response.getEntity(), StatusInfo.class);
-							//
-							// if (si != null) {
-							// response.setStatus(new Status(si.getCode(), si
-							// .getReasonPhrase(), si.getDescription()));
-							// }
-						}
+				if (annotationInfo.isAsynchronous()) {
+					// Asynchronous call completing a future
+					result = handleAsync(javaMethod, annotationInfo, request);
+				} else {
+					// Effectively handle the call
+					Response response = getClientResource().handleOutbound(request);
 
-						getClientResource().doError(response.getStatus());
-					} else if (!annotationInfo.getJavaOutputType().equals(void.class)) {
-						result = getClientResource().toObject((response == null ? null : response.getEntity()),
-								annotationInfo.getJavaOutputType());
+					// Handle the response, synchronous call
+					if (getClientResource().getOnResponse() == null) {
+						result = getResult(javaMethod, annotationInfo, response);
 					}
 				}
 			}
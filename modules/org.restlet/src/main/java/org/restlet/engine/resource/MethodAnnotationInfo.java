@@ -25,11 +25,19 @@
 package org.restlet.engine.resource;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.StringTokenizer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.restlet.Context;
 import org.restlet.data.CharacterSet;
@@ -55,12 +63,24 @@ public class MethodAnnotationInfo extends AnnotationInfo {
 	/** The input part of the annotation value. */
 	private final String input;
 
+	/**
+	 * The cached invoker of the Java method, taking the target and an array of
+	 * parameters.
+	 */
+	private volatile MethodHandle invoker;
+
 	/** The output part of the annotation value. */
 	private final String output;
 
 	/** The optional query part of the annotation value. */
 	private final String query;
 
+	/**
+	 * Indicates if the Java method is invoked with the reflection API because
+	 * it isn't accessible to the public lookup.
+	 */
+	private volatile boolean reflective;
+
 	/** The matching Restlet method. */
 	private final Method restletMethod;
 
@@ -171,6 +191,34 @@ public class MethodAnnotationInfo extends AnnotationInfo {
 		return getJavaActualType(javaMethodImpl.getReturnType(), javaMethodImpl.getGenericReturnType());
 	}
 
+	/**
+	 * Returns the type of the value produced by the Java method of a client
+	 * proxy. For asynchronous methods, this is the type of the value eventually
+	 * produced by the returned future, otherwise the output type.
+	 *
+	 * @return The type of the value produced by the Java method.
+	 * @see #isAsynchronous()
+	 */
+	public Class<?> getJavaOutputValueType() {
+		Class<?> result = null;
+
+		if (isAsynchronous()) {
+			Type genericType = javaMethodImpl.getGenericReturnType();
+
+			if (genericType instanceof ParameterizedType) {
+				Type valueType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+				Class<?> valueClass = getTypeClass(valueType);
+				result = getJavaActualType((valueClass == null) ? Object.class : valueClass, valueType);
+			} else {
+				result = Representation.class;
+			}
+		} else {
+			result = getJavaOutputType();
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns the output part of the annotation value.
 	 *
@@ -226,14 +274,28 @@ public class MethodAnnotationInfo extends AnnotationInfo {
 	 */
 	public List<Variant> getResponseVariants(MetadataService metadataService,
 			org.restlet.service.ConverterService converterService) throws IOException {
+		return getResponseVariants(metadataService, converterService, getJavaOutputType());
+	}
+
+	/**
+	 * Returns a list of response variants based on the annotation value and the
+	 * given output type.
+	 *
+	 * @param metadataService  The metadata service to use.
+	 * @param converterService The converter service to use.
+	 * @param outputType       The output type to convert.
+	 * @return A list of response variants.
+	 * @throws IOException
+	 */
+	public List<Variant> getResponseVariants(MetadataService metadataService,
+			org.restlet.service.ConverterService converterService, Class<?> outputType) throws IOException {
 		List<Variant> result = null;
 
-		if ((getJavaOutputType() != null) && (getJavaOutputType() != void.class)
-				&& (getJavaOutputType() != Void.class)) {
+		if ((outputType != null) && (outputType != void.class) && (outputType != Void.class)) {
 			result = getVariants(metadataService, getOutput());
 
 			if (result == null) {
-				result = (List<Variant>) converterService.getVariants(getJavaOutputType(), null);
+				result = (List<Variant>) converterService.getVariants(outputType, null);
 			}
 		}
 
@@ -339,6 +401,57 @@ public class MethodAnnotationInfo extends AnnotationInfo {
 		return SystemUtils.hashCode(super.hashCode(), restletMethod);
 	}
 
+	/**
+	 * Invokes the annotated Java method on the given target. The first call
+	 * resolves a {@link MethodHandle} that is reused afterwards, avoiding the
+	 * cost of reflective invocation on each request. Methods that aren't
+	 * accessible to the public lookup are remembered and invoked with the
+	 * reflection API.
+	 * 
+	 * @param target     The target object, usually a server resource.
+	 * @param parameters The method parameters.
+	 * @return The method result.
+	 * @throws Throwable The exception thrown by the Java method, as is.
+	 */
+	public Object invoke(Object target, Object... parameters) throws Throwable {
+		MethodHandle handle = this.invoker;
+
+		if ((handle == null) && !this.reflective) {
+			int count = getJavaMethod().getParameterTypes().length;
+
+			try {
+				handle = MethodHandles.publicLookup().unreflect(getJavaMethod())
+						.asType(MethodType.genericMethodType(count + 1)).asSpreader(Object[].class, count);
+				this.invoker = handle;
+			} catch (IllegalAccessException iae) {
+				this.reflective = true;
+			}
+		}
+
+		if (handle == null) {
+			// Fall back to the reflection API for non accessible methods
+			try {
+				return getJavaMethod().invoke(target, parameters);
+			} catch (InvocationTargetException ite) {
+				throw ite.getTargetException();
+			}
+		}
+
+		return (Object) handle.invokeExact(target, parameters);
+	}
+
+	/**
+	 * Indicates if the Java method is asynchronous, returning a
+	 * {@link CompletableFuture} or a {@link CompletionStage} of its actual
+	 * output.
+	 *
+	 * @return True if the Java method is asynchronous.
+	 */
+	public boolean isAsynchronous() {
+		Class<?> returnType = javaMethodImpl.getReturnType();
+		return CompletableFuture.class.equals(returnType) || CompletionStage.class.equals(returnType);
+	}
+
 	/**
 	 * Indicates if the annotated method described is compatible with the given
 	 * parameters.
@@ -0,0 +1,302 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+
+package org.restlet.engine.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Reference;
+import org.restlet.routing.Route;
+import org.restlet.routing.TemplateRoute;
+import org.restlet.util.RouteList;
+
+/**
+ * Compiled index of a list of routes. Each {@link TemplateRoute} is indexed by
+ * the literal prefix of its URI template, i.e. the characters preceding the
+ * first variable, in a character trie. When a call is routed, the remaining
+ * part of the resource reference is walked once through the trie in order to
+ * collect the only routes that can possibly match. Those candidates are then
+ * scored like in {@link RouteList#getBest(Request, Response, float)}, ties
+ * being resolved in favor of the route attached first.<br>
+ * <br>
+ * Routes that can't be indexed, such as custom {@link Route} subclasses or
+ * routes without template, are always considered as candidates.<br>
+ * <br>
+ * Note that the index is a snapshot of the list of routes. Changes to the
+ * templates of the indexed routes after the creation of the index aren't taken
+ * into account.
+ */
+public class RouteTrie {
+
+	/**
+	 * Node of the character trie.
+	 */
+	private static final class Node {
+
+		/**
+		 * The sorted indexes of the routes that could match a reference whose
+		 * remaining part leads to this node, computed once the trie is built.
+		 */
+		private int[] candidates;
+
+		/** The sorted characters leading to the child nodes. */
+		private char[] keys = new char[0];
+
+		/** The child nodes, in the same order as the keys. */
+		private Node[] children = new Node[0];
+
+		/** The indexes of the routes whose literal prefix ends at this node. */
+		private int[] routes = new int[0];
+
+		/**
+		 * Adds a route index to this node.
+		 * 
+		 * @param index The route index.
+		 */
+		private void addRoute(int index) {
+			this.routes = Arrays.copyOf(this.routes, this.routes.length + 1);
+			this.routes[this.routes.length - 1] = index;
+		}
+
+		/**
+		 * Computes the candidates of this node and of its descendants.
+		 * 
+		 * @param inherited The sorted candidates of the parent node.
+		 */
+		private void complete(int[] inherited) {
+			if (this.routes.length == 0) {
+				this.candidates = inherited;
+			} else {
+				this.candidates = Arrays.copyOf(inherited, inherited.length + this.routes.length);
+				System.arraycopy(this.routes, 0, this.candidates, inherited.length, this.routes.length);
+				Arrays.sort(this.candidates);
+			}
+
+			for (Node child : this.children) {
+				child.complete(this.candidates);
+			}
+		}
+
+		/**
+		 * Returns the child node for the given character, or null.
+		 * 
+		 * @param c The character.
+		 * @return The child node or null.
+		 */
+		private Node getChild(char c) {
+			int i = Arrays.binarySearch(this.keys, c);
+			return (i < 0) ? null : this.children[i];
+		}
+
+		/**
+		 * Returns the child node for the given character, creating it if needed.
+		 * 
+		 * @param c The character.
+		 * @return The child node.
+		 */
+		private Node getOrCreateChild(char c) {
+			int i = Arrays.binarySearch(this.keys, c);
+
+			if (i >= 0) {
+				return this.children[i];
+			}
+
+			int insertion = -i - 1;
+			Node child = new Node();
+			char[] newKeys = new char[this.keys.length + 1];
+			Node[] newChildren = new Node[this.children.length + 1];
+			System.arraycopy(this.keys, 0, newKeys, 0, insertion);
+			System.arraycopy(this.children, 0, newChildren, 0, insertion);
+			newKeys[insertion] = c;
+			newChildren[insertion] = child;
+			System.arraycopy(this.keys, insertion, newKeys, insertion + 1, this.keys.length - insertion);
+			System.arraycopy(this.children, insertion, newChildren, insertion + 1, this.children.length - insertion);
+			this.keys = newKeys;
+			this.children = newChildren;
+			return child;
+		}
+	}
+
+	/**
+	 * Returns the literal prefix of a URI template pattern, i.e. the characters
+	 * preceding the first variable.
+	 * 
+	 * @param pattern The URI template pattern.
+	 * @return The literal prefix.
+	 */
+	public static String getLiteralPrefix(String pattern) {
+		if (pattern == null) {
+			return "";
+		}
+
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+
+			if ((c == '{') || (c == '}')) {
+				return pattern.substring(0, i);
+			}
+		}
+
+		return pattern;
+	}
+
+	/** The modification count of the source list when the index was built. */
+	private final int modificationCount;
+
+	/** The root node of the trie. */
+	private final Node root;
+
+	/** The snapshot of the indexed routes. */
+	private final Route[] routes;
+
+	/** The source list of routes. */
+	private final RouteList source;
+
+	/** The indexes of the routes that are always candidates. */
+	private final int[] unindexed;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param source The list of routes to index.
+	 */
+	public RouteTrie(RouteList source) {
+		// Read the count before taking the snapshot so that concurrent
+		// modifications are detected by the isCurrent() method.
+		this.modificationCount = source.getModificationCount();
+		this.source = source;
+		this.routes = source.toArray(new Route[0]);
+		this.root = new Node();
+		List<Integer> others = new ArrayList<Integer>();
+
+		for (int i = 0; i < this.routes.length; i++) {
+			Route route = this.routes[i];
+
+			if ((route instanceof TemplateRoute) && (((TemplateRoute) route).getTemplate() != null)) {
+				String prefix = getLiteralPrefix(((TemplateRoute) route).getTemplate().getPattern());
+				Node node = this.root;
+
+				for (int j = 0; j < prefix.length(); j++) {
+					node = node.getOrCreateChild(prefix.charAt(j));
+				}
+
+				node.addRoute(i);
+			} else {
+				others.add(i);
+			}
+		}
+
+		this.unindexed = new int[others.size()];
+
+		for (int i = 0; i < this.unindexed.length; i++) {
+			this.unindexed[i] = others.get(i);
+		}
+
+		this.root.complete(this.unindexed);
+	}
+
+	/**
+	 * Returns the route with the best score for the given call, if the required
+	 * score is reached.
+	 * 
+	 * @param request       The request to score.
+	 * @param response      The response to score.
+	 * @param requiredScore The minimum score required to have a match.
+	 * @return The best route match or null.
+	 */
+	public Route getBest(Request request, Response response, float requiredScore) {
+		int[] candidates = getCandidates(request);
+		Route result = null;
+		float bestScore = 0F;
+		float score;
+
+		for (int i = 0; i < candidates.length; i++) {
+			Route current = this.routes[candidates[i]];
+			score = current.score(request, response);
+
+			if ((score > bestScore) && (score >= requiredScore)) {
+				bestScore = score;
+				result = current;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the sorted indexes of the routes that could match the given call.
+	 * They are precomputed for each node of the trie, so routing a call neither
+	 * allocates nor sorts.
+	 * 
+	 * @param request The request to match.
+	 * @return The sorted indexes of the candidate routes.
+	 */
+	private int[] getCandidates(Request request) {
+		Reference resourceRef = request.getResourceRef();
+		String remainingPart = (resourceRef == null) ? null : resourceRef.getRemainingPart(false, true);
+
+		if (remainingPart == null) {
+			remainingPart = "";
+		}
+
+		Node result = this.root;
+
+		for (int i = 0; i < remainingPart.length(); i++) {
+			Node child = result.getChild(remainingPart.charAt(i));
+
+			if (child == null) {
+				break;
+			}
+
+			result = child;
+		}
+
+		return result.candidates;
+	}
+
+	/**
+	 * Indicates if the index still reflects the given list of routes.
+	 * 
+	 * @param routes The list of routes to compare with.
+	 * @return True if the index is still current.
+	 */
+	public boolean isCurrent(RouteList routes) {
+		return (this.source == routes) && (routes.getModificationCount() == this.modificationCount);
+	}
+
+	/**
+	 * Returns the number of indexed routes.
+	 * 
+	 * @return The number of indexed routes.
+	 */
+	public int size() {
+		return this.routes.length;
+	}
+
+}
@@ -0,0 +1,370 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+
+package org.restlet.engine.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.restlet.data.Reference;
+import org.restlet.routing.Template;
+import org.restlet.routing.Variable;
+
+/**
+ * Hand-written matcher for URI templates only made of literal characters and of
+ * simple variables. It behaves like the regular expression compiled by
+ * {@link Template}, without the allocation and backtracking costs of
+ * {@link java.util.regex.Matcher}.<br>
+ * <br>
+ * Only the {@link Variable#TYPE_URI_SEGMENT}, {@link Variable#TYPE_DIGIT},
+ * {@link Variable#TYPE_ALPHA}, {@link Variable#TYPE_ALPHA_DIGIT},
+ * {@link Variable#TYPE_URI_UNRESERVED} and {@link Variable#TYPE_WORD} variable
+ * types are supported. In addition, each variable must be followed either by
+ * the end of the pattern or by a literal character that it can't match, so
+ * that a greedy scan gives the same result as the regular expression.
+ * Otherwise, the {@link #compile(String, Map, Variable)} method returns null
+ * and the regular expression must be used instead.
+ */
+public class SimpleTemplateMatcher {
+
+	/**
+	 * Compiles a URI template pattern into a simple matcher, if possible.
+	 * 
+	 * @param pattern         The URI template pattern.
+	 * @param variables       The variable descriptors.
+	 * @param defaultVariable The variable used when no descriptor is found.
+	 * @return The simple matcher or null if the pattern isn't supported.
+	 */
+	public static SimpleTemplateMatcher compile(String pattern, Map<String, Variable> variables,
+			Variable defaultVariable) {
+		if (pattern == null) {
+			return null;
+		}
+
+		List<String> literals = new ArrayList<String>();
+		List<String> names = new ArrayList<String>();
+		List<Variable> types = new ArrayList<Variable>();
+		StringBuilder buffer = new StringBuilder();
+		boolean inVariable = false;
+
+		for (int i = 0; i < pattern.length(); i++) {
+			char next = pattern.charAt(i);
+
+			if (inVariable) {
+				if (Reference.isUnreserved(next)) {
+					buffer.append(next);
+				} else if ((next == '}') && (buffer.length() > 0)) {
+					String name = buffer.toString();
+					Variable variable = variables.get(name);
+
+					if (variable == null) {
+						variable = defaultVariable;
+					}
+
+					if (names.contains(name) || variable.isFixed() || !isSupported(variable.getType())) {
+						return null;
+					}
+
+					names.add(name);
+					types.add(variable);
+					buffer = new StringBuilder();
+					inVariable = false;
+				} else {
+					// Empty variable or invalid character
+					return null;
+				}
+			} else if (next == '{') {
+				if (!names.isEmpty() && (buffer.length() == 0)) {
+					// Two consecutive variables
+					return null;
+				}
+
+				literals.add(buffer.toString());
+				buffer = new StringBuilder();
+				inVariable = true;
+			} else if ((next == '}') || (next == '+')) {
+				// Characters with an unexpected meaning for the regex
+				return null;
+			} else {
+				if (!names.isEmpty() && (buffer.length() == 0)
+						&& accepts(types.get(types.size() - 1).getType(), next)) {
+					// The previous variable could consume this character
+					return null;
+				}
+
+				buffer.append(next);
+			}
+		}
+
+		if (inVariable) {
+			return null;
+		}
+
+		literals.add(buffer.toString());
+
+		int[] variableTypes = new int[types.size()];
+		boolean[] required = new boolean[types.size()];
+
+		for (int i = 0; i < variableTypes.length; i++) {
+			variableTypes[i] = types.get(i).getType();
+			required[i] = types.get(i).isRequired();
+		}
+
+		return new SimpleTemplateMatcher(literals.toArray(new String[0]), names, variableTypes, required);
+	}
+
+	/**
+	 * Indicates if a variable type could match the given character. For URI
+	 * segments, the percent sign is also accepted as it could start an encoded
+	 * character.
+	 * 
+	 * @param type      The variable type.
+	 * @param character The character to test.
+	 * @return True if the variable could match the character.
+	 */
+	private static boolean accepts(int type, char character) {
+		if (type == Variable.TYPE_URI_SEGMENT) {
+			return isPathCharacter(character) || (character == '%');
+		}
+
+		return isClassCharacter(type, character);
+	}
+
+	/**
+	 * Indicates if the given character is an ASCII letter.
+	 * 
+	 * @param character The character to test.
+	 * @return True if the character is an ASCII letter.
+	 */
+	private static boolean isAlpha(char character) {
+		return ((character >= 'a') && (character <= 'z')) || ((character >= 'A') && (character <= 'Z'));
+	}
+
+	/**
+	 * Indicates if the given character belongs to the class of characters of a
+	 * class-based variable type.
+	 * 
+	 * @param type      The variable type.
+	 * @param character The character to test.
+	 * @return True if the character belongs to the class.
+	 */
+	private static boolean isClassCharacter(int type, char character) {
+		switch (type) {
+		case Variable.TYPE_ALPHA:
+			return isAlpha(character);
+		case Variable.TYPE_DIGIT:
+			return isDigit(character);
+		case Variable.TYPE_ALPHA_DIGIT:
+			return isAlpha(character) || isDigit(character);
+		case Variable.TYPE_URI_UNRESERVED:
+			return Reference.isUnreserved(character);
+		case Variable.TYPE_WORD:
+			return isAlpha(character) || isDigit(character) || (character == '_');
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Indicates if the given character is an ASCII digit.
+	 * 
+	 * @param character The character to test.
+	 * @return True if the character is an ASCII digit.
+	 */
+	private static boolean isDigit(char character) {
+		return (character >= '0') && (character <= '9');
+	}
+
+	/**
+	 * Indicates if the given character is an hexadecimal digit.
+	 * 
+	 * @param character The character to test.
+	 * @return True if the character is an hexadecimal digit.
+	 */
+	private static boolean isHexDigit(char character) {
+		return isDigit(character) || ((character >= 'a') && (character <= 'f'))
+				|| ((character >= 'A') && (character <= 'F'));
+	}
+
+	/**
+	 * Indicates if the given character is a path segment character, excluding
+	 * percent-encoded characters.
+	 * 
+	 * @param character The character to test.
+	 * @return True if the character is a path segment character.
+	 */
+	private static boolean isPathCharacter(char character) {
+		return Reference.isUnreserved(character) || Reference.isSubDelimiter(character) || (character == ':')
+				|| (character == '@');
+	}
+
+	/**
+	 * Indicates if the given variable type is supported.
+	 * 
+	 * @param type The variable type.
+	 * @return True if the variable type is supported.
+	 */
+	private static boolean isSupported(int type) {
+		switch (type) {
+		case Variable.TYPE_URI_SEGMENT:
+		case Variable.TYPE_ALPHA:
+		case Variable.TYPE_DIGIT:
+		case Variable.TYPE_ALPHA_DIGIT:
+		case Variable.TYPE_URI_UNRESERVED:
+		case Variable.TYPE_WORD:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * The literal parts, one more than the number of variables. The literal at
+	 * index i precedes the variable at index i.
+	 */
+	private final String[] literals;
+
+	/** The variable names, in the order of the pattern. */
+	private final List<String> names;
+
+	/** The required flags of the variables. */
+	private final boolean[] required;
+
+	/** The variable types. */
+	private final int[] types;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param literals The literal parts.
+	 * @param names    The variable names.
+	 * @param types    The variable types.
+	 * @param required The required flags of the variables.
+	 */
+	private SimpleTemplateMatcher(String[] literals, List<String> names, int[] types, boolean[] required) {
+		this.literals = literals;
+		this.names = Collections.unmodifiableList(names);
+		this.types = types;
+		this.required = required;
+	}
+
+	/**
+	 * Returns the variable names, in the order of the pattern.
+	 * 
+	 * @return The variable names.
+	 */
+	public List<String> getVariableNames() {
+		return this.names;
+	}
+
+	/**
+	 * Matches the given formatted string.
+	 * 
+	 * @param formattedString The formatted string to match.
+	 * @param matchingMode    The matching mode, see {@link Template#MODE_EQUALS}
+	 *                        and {@link Template#MODE_STARTS_WITH}.
+	 * @param bounds          The optional array receiving the start and end
+	 *                        indexes of each variable value, two entries per
+	 *                        variable.
+	 * @return The number of matched characters or -1 if the match failed.
+	 */
+	public int match(String formattedString, int matchingMode, int[] bounds) {
+		if ((matchingMode != Template.MODE_EQUALS) && (matchingMode != Template.MODE_STARTS_WITH)) {
+			return -1;
+		}
+
+		int length = formattedString.length();
+		int position = 0;
+
+		for (int i = 0; i < this.literals.length; i++) {
+			String literal = this.literals[i];
+
+			if (!formattedString.startsWith(literal, position)) {
+				return -1;
+			}
+
+			position += literal.length();
+
+			if (i < this.types.length) {
+				int end = scan(this.types[i], formattedString, position, length);
+
+				if (this.required[i] && (end == position)) {
+					return -1;
+				}
+
+				if (bounds != null) {
+					bounds[2 * i] = position;
+					bounds[2 * i + 1] = end;
+				}
+
+				position = end;
+			}
+		}
+
+		if ((matchingMode == Template.MODE_EQUALS) && (position != length)) {
+			return -1;
+		}
+
+		return position;
+	}
+
+	/**
+	 * Scans the longest value of a variable starting at the given position.
+	 * 
+	 * @param type            The variable type.
+	 * @param formattedString The formatted string.
+	 * @param start           The start position.
+	 * @param length          The length of the formatted string.
+	 * @return The end position of the value.
+	 */
+	private int scan(int type, String formattedString, int start, int length) {
+		int position = start;
+
+		while (position < length) {
+			char next = formattedString.charAt(position);
+
+			if (type == Variable.TYPE_URI_SEGMENT) {
+				if (isPathCharacter(next)) {
+					position++;
+				} else if ((next == '%') && (position + 2 < length)
+						&& isHexDigit(formattedString.charAt(position + 1))
+						&& isHexDigit(formattedString.charAt(position + 2))) {
+					position += 3;
+				} else {
+					break;
+				}
+			} else if (isClassCharacter(type, next)) {
+				position++;
+			} else {
+				break;
+			}
+		}
+
+		return position;
+	}
+
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.util;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+/**
+ * Scheduled executor service running each submitted task in a new virtual
+ * thread. Delayed and periodic tasks are still triggered by the wrapped
+ * scheduler, which can therefore use a small pool of platform threads.<br>
+ * <br>
+ * Virtual threads require Java 21 or later. As the Restlet engine targets
+ * older versions, the JDK factory method is looked up reflectively. Use
+ * {@link #isSupported()} to check whether the current runtime supports them, or
+ * {@link #isSupported(Logger, String)} to also warn about the fallback used
+ * otherwise.
+ */
+public class VirtualThreadExecutorService extends WrapperScheduledExecutorService {
+
+	/** The JDK factory method of virtual thread executors, if available. */
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+	/** The message explaining why virtual threads aren't available. */
+	private static final String UNSUPPORTED_MESSAGE = "Virtual threads require Java 21 or later";
+
+	static {
+		Method method = null;
+
+		try {
+			method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) {
+			// Virtual threads aren't supported before Java 21
+		}
+
+		NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = method;
+	}
+
+	/**
+	 * Indicates if the current runtime supports virtual threads.
+	 * 
+	 * @return True if the current runtime supports virtual threads.
+	 */
+	public static boolean isSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * Indicates if the current runtime supports virtual threads. If not, a
+	 * warning naming the fallback used instead is logged.
+	 * 
+	 * @param logger   The logger to warn.
+	 * @param fallback The description of the fallback used instead, such as "A
+	 *                 thread pool".
+	 * @return True if the current runtime supports virtual threads.
+	 */
+	public static boolean isSupported(Logger logger, String fallback) {
+		boolean result = isSupported();
+
+		if (!result) {
+			logger.warning(UNSUPPORTED_MESSAGE + ". " + fallback + " will be used instead.");
+		}
+
+		return result;
+	}
+
+	/**
+	 * Creates a new executor service that starts a new virtual thread for each
+	 * task.
+	 * 
+	 * @return A new virtual thread executor service.
+	 * @throws UnsupportedOperationException If the current runtime doesn't support
+	 *                                       virtual threads.
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if (!isSupported()) {
+			throw new UnsupportedOperationException(UNSUPPORTED_MESSAGE);
+		}
+
+		try {
+			return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+		} catch (Exception e) {
+			throw new UnsupportedOperationException("Unable to create a virtual thread executor", e);
+		}
+	}
+
+	/** The virtual thread executor service. */
+	private final ExecutorService executor;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param scheduler The scheduler triggering delayed and periodic tasks.
+	 * @throws UnsupportedOperationException If the current runtime doesn't support
+	 *                                       virtual threads.
+	 */
+	public VirtualThreadExecutorService(ScheduledExecutorService scheduler) {
+		super(scheduler);
+		this.executor = newVirtualThreadPerTaskExecutor();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		return getExecutor().awaitTermination(timeout, unit)
+				&& getWrapped().awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		getExecutor().execute(command);
+	}
+
+	/**
+	 * Returns the virtual thread executor service.
+	 * 
+	 * @return The virtual thread executor service.
+	 */
+	protected ExecutorService getExecutor() {
+		return executor;
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+		return getExecutor().invokeAll(tasks);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		return getExecutor().invokeAll(tasks, timeout, unit);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+		return getExecutor().invokeAny(tasks);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		return getExecutor().invokeAny(tasks, timeout, unit);
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return getExecutor().isShutdown() && getWrapped().isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return getExecutor().isTerminated() && getWrapped().isTerminated();
+	}
+
+	@Override
+	public void shutdown() {
+		getWrapped().shutdown();
+		getExecutor().shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> result = new ArrayList<Runnable>(getWrapped().shutdownNow());
+		result.addAll(getExecutor().shutdownNow());
+		return result;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		return getExecutor().submit(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		return getExecutor().submit(task);
+	}
+
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		return getExecutor().submit(task, result);
+	}
+
+}
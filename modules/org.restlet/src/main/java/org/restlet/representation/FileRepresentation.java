@@ -39,6 +39,7 @@ import java.util.Date;
 import org.restlet.data.Disposition;
 import org.restlet.data.LocalReference;
 import org.restlet.data.MediaType;
+import org.restlet.engine.io.FileRegion;
 import org.restlet.engine.io.IoUtils;
 
 /**
@@ -248,13 +249,19 @@ public class FileRepresentation extends Representation {
 
 	/**
 	 * Writes the representation to a byte channel. Optimizes using the file channel
-	 * transferTo method.
+	 * transferTo method when the target channel is blocking.
 	 * 
 	 * @param writableChannel A writable byte channel.
 	 */
 	@Override
 	public void write(WritableByteChannel writableChannel) throws IOException {
-		IoUtils.copy(getChannel(), writableChannel);
+		FileRegion region = IoUtils.getFileRegion(this);
+
+		if ((region != null) && IoUtils.isBlocking(writableChannel)) {
+			region.transferTo(writableChannel);
+		} else {
+			IoUtils.copy(getChannel(), writableChannel);
+		}
 	}
 
 	@Override
@@ -27,6 +27,8 @@ package org.restlet.resource;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 import org.restlet.Client;
@@ -48,6 +50,7 @@ import org.restlet.data.Protocol;
 import org.restlet.data.Range;
 import org.restlet.data.Reference;
 import org.restlet.data.Status;
+import org.restlet.engine.adapter.ClientAdapter;
 import org.restlet.representation.Representation;
 import org.restlet.representation.StringRepresentation;
 import org.restlet.representation.Variant;
@@ -1052,6 +1055,82 @@ public class ClientResource extends Resource {
 		}
 	}
 
+	/**
+	 * Handles the call asynchronously by cloning the prototype request. The
+	 * returned future is completed with the response once it is received, even
+	 * when its status indicates an error. With a non-blocking client connector,
+	 * the calling thread isn't blocked while waiting for the response, otherwise
+	 * the future is completed before this method returns.
+	 * 
+	 * @return The future response.
+	 * @see #handleAsync(Request)
+	 */
+	public CompletableFuture<Response> handleAsync() {
+		return handleAsync(createRequest());
+	}
+
+	/**
+	 * Handles the call asynchronously by cloning the prototype request, setting
+	 * the method and entity.
+	 * 
+	 * @param method The request method to use.
+	 * @param entity The request entity to set.
+	 * @return The future response.
+	 * @see #handleAsync(Request)
+	 */
+	public CompletableFuture<Response> handleAsync(Method method, Representation entity) {
+		Request request = createRequest();
+		request.setMethod(method);
+		request.setEntity(entity);
+		return handleAsync(request);
+	}
+
+	/**
+	 * Handles the given request asynchronously. The request's
+	 * {@link Request#getOnResponse()} callback, if any, is invoked before
+	 * completing the returned future.
+	 * 
+	 * @param request The request to handle.
+	 * @return The future response.
+	 */
+	public CompletableFuture<Response> handleAsync(Request request) {
+		final CompletableFuture<Response> result = new CompletableFuture<Response>();
+		final Uniform userCallback = request.getOnResponse();
+		final AtomicBoolean completed = new AtomicBoolean(false);
+		Uniform callback = new Uniform() {
+			public void handle(Request request, Response response) {
+				if (completed.compareAndSet(false, true)) {
+					try {
+						if (userCallback != null) {
+							userCallback.handle(request, response);
+						}
+
+						result.complete(response);
+					} catch (Throwable t) {
+						result.completeExceptionally(t);
+					}
+				}
+			}
+		};
+		request.setOnResponse(callback);
+
+		try {
+			Response response = handleOutbound(request);
+
+			// Connectors deferring the response flag it as pending, other ones
+			// have already handled the call synchronously.
+			if (!Boolean.TRUE.equals(response.getAttributes().get(ClientAdapter.ATTRIBUTE_ASYNC_PENDING))) {
+				callback.handle(request, response);
+			}
+		} catch (Throwable t) {
+			if (completed.compareAndSet(false, true)) {
+				result.completeExceptionally(t);
+			}
+		}
+
+		return result;
+	}
+
 	/**
 	 * Handles the inbound call. Note that only synchronous calls are processed.
 	 * 
@@ -70,6 +70,12 @@ import org.restlet.representation.Variant;
  * idea</a>, using a different and faster implementation contributed by Rob
  * Heittman.<br>
  * <br>
+ * When the "precompressed" property is turned on, files compressed ahead of
+ * time and stored next to the original ones with a ".br" or ".gz" extension are
+ * returned to the clients accepting the matching encoding, sparing the
+ * compression at runtime. Missing precompressed files aren't looked up again
+ * until the modification date of their original file changes.<br>
+ * <br>
  * Concurrency note: instances of this class or its subclasses can be invoked by
  * several threads at the same time and therefore must be thread-safe. You
  * should be especially careful when storing state in member variables.
@@ -103,6 +109,12 @@ public class Directory extends Finder {
 	/** Indicates if the best content is automatically negotiated. */
 	private volatile boolean negotiatingContent;
 
+	/**
+	 * Indicates if precompressed sibling files are returned to the clients
+	 * accepting their encoding (false by default).
+	 */
+	private volatile boolean precompressed;
+
 	/** The absolute root reference (file, clap URI). */
 	private volatile Reference rootRef;
 
@@ -133,6 +145,7 @@ public class Directory extends Finder {
 		this.listingAllowed = false;
 		this.modifiable = false;
 		this.negotiatingContent = true;
+		this.precompressed = false;
 		setTargetClass(DirectoryServerResource.class);
 		setName("Directory");
 	}
@@ -267,6 +280,17 @@ public class Directory extends Finder {
 		return this.negotiatingContent;
 	}
 
+	/**
+	 * Indicates if precompressed sibling files, like "app.js.br" or "app.js.gz"
+	 * for "app.js", are returned to the clients accepting their encoding (false by
+	 * default).
+	 * 
+	 * @return True if precompressed sibling files are returned.
+	 */
+	public boolean isPrecompressed() {
+		return this.precompressed;
+	}
+
 	/**
 	 * Sets the reference comparator used to sort index pages.
 	 * 
@@ -325,6 +349,16 @@ public class Directory extends Finder {
 		this.negotiatingContent = negotiatingContent;
 	}
 
+	/**
+	 * Indicates if precompressed sibling files, like "app.js.br" or "app.js.gz"
+	 * for "app.js", are returned to the clients accepting their encoding.
+	 * 
+	 * @param precompressed True if precompressed sibling files are returned.
+	 */
+	public void setPrecompressed(boolean precompressed) {
+		this.precompressed = precompressed;
+	}
+
 	/**
 	 * Sets the root URI from which the relative resource URIs will be lookep up.
 	 * 
@@ -32,7 +32,13 @@ import org.restlet.Context;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
+import org.restlet.Uniform;
 import org.restlet.data.Status;
+import org.restlet.engine.resource.AnnotationUtils;
+import org.restlet.representation.OutputRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.WritableRepresentation;
+import org.restlet.representation.WriterRepresentation;
 
 /**
  * Restlet that can find the target server resource that will effectively handle
@@ -48,6 +54,12 @@ import org.restlet.data.Status;
  * Once the call is handled, the {@link ServerResource#release()} method is
  * invoked to permit clean-up actions.<br>
  * <br>
+ * When the target class is annotated with {@link Stateless} or when the
+ * "pooled" property is set, released resources are recycled and reused for
+ * later calls instead of being instantiated each time. When the response entity
+ * is produced while being written, such as an {@link OutputRepresentation}, the
+ * resource is only reused once the response has been sent.<br>
+ * <br>
  * Concurrency note: instances of this class or its subclasses can be invoked by
  * several threads at the same time and therefore must be thread-safe. You
  * should be especially careful when storing state in member variables.
@@ -87,6 +99,12 @@ public class Finder extends Restlet {
 		return result;
 	}
 
+	/** Indicates if target resources are reused across calls. */
+	private volatile boolean pooled;
+
+	/** The pool of reusable target resources. */
+	private volatile ResourcePool pool;
+
 	/** Target {@link ServerResource} subclass. */
 	private volatile Class<? extends ServerResource> targetClass;
 
@@ -104,6 +122,8 @@ public class Finder extends Restlet {
 	 */
 	public Finder(Context context) {
 		super(context);
+		this.pooled = false;
+		this.pool = null;
 		this.targetClass = null;
 	}
 
@@ -115,14 +135,43 @@ public class Finder extends Restlet {
 	 */
 	public Finder(Context context, Class<? extends ServerResource> targetClass) {
 		super(context);
+		this.pooled = false;
+		this.pool = null;
 		this.targetClass = targetClass;
 	}
 
+	/**
+	 * Checks in a resource once its response has been sent, so that an entity
+	 * written by the connector can still rely on the resource. The callback
+	 * previously set with {@link Response#setOnSent(Uniform)} is preserved. Note
+	 * that the callback is only invoked by server connectors, so resources
+	 * handling internal calls aren't reused in this case.
+	 * 
+	 * @param pool     The pool to check the resource into.
+	 * @param resource The resource to check in.
+	 * @param response The response to send.
+	 */
+	private void checkinOnSent(final ResourcePool pool, final ServerResource resource, Response response) {
+		final Uniform onSent = response.getOnSent();
+
+		response.setOnSent(new Uniform() {
+			public void handle(Request request, Response response) {
+				try {
+					if (onSent != null) {
+						onSent.handle(request, response);
+					}
+				} finally {
+					pool.checkin(resource);
+				}
+			}
+		});
+	}
+
 	/**
 	 * Creates a new instance of a given {@link ServerResource} subclass. Note that
 	 * {@link Error} and {@link RuntimeException} thrown by {@link ServerResource}
 	 * constructors are re-thrown by this method. Other exception are caught and
-	 * logged.
+	 * logged. Reusable resources are checked out of the pool when available.
 	 *
 	 * @param targetClass The target {@link ServerResource} subclass.
 	 * @param request     The request to handle.
@@ -133,11 +182,21 @@ public class Finder extends Restlet {
 		ServerResource result = null;
 
 		if (targetClass != null) {
+			ResourcePool pool = getPool(targetClass);
+
+			if (pool != null) {
+				result = pool.checkout();
+			}
+		}
+
+		if ((targetClass != null) && (result == null)) {
 			try {
 				// Invoke the default constructor
-				result = targetClass.newInstance();
-			} catch (Exception e) {
-				getLogger().log(Level.WARNING, "Exception while instantiating the target server resource.", e);
+				result = AnnotationUtils.getInstance().newInstance(targetClass);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable t) {
+				getLogger().log(Level.WARNING, "Exception while instantiating the target server resource.", t);
 			}
 		}
 
@@ -176,6 +235,28 @@ public class Finder extends Restlet {
 		return create(request, response);
 	}
 
+	/**
+	 * Returns the pool of reusable instances of the given target class, creating
+	 * it if needed.
+	 * 
+	 * @param targetClass The target class.
+	 * @return The pool or null if the target resources aren't reusable.
+	 */
+	private ResourcePool getPool(Class<? extends ServerResource> targetClass) {
+		ResourcePool result = this.pool;
+
+		if ((result == null) || (result.getTargetClass() != targetClass)) {
+			if (isPooled() || targetClass.isAnnotationPresent(Stateless.class)) {
+				result = new ResourcePool(targetClass);
+				this.pool = result;
+			} else {
+				result = null;
+			}
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns the target resource class which must be either a subclass of
 	 * {@link ServerResource}.
@@ -220,10 +301,56 @@ public class Finder extends Restlet {
 				}
 
 				targetResource.release();
+
+				// Reuse the resource unless its response is committed later
+				ResourcePool pool = this.pool;
+
+				if ((pool != null) && ((response == null) || response.isAutoCommitting())) {
+					if ((response == null) || !isWrittenLater(response.getEntity())) {
+						pool.checkin(targetResource);
+					} else {
+						checkinOnSent(pool, targetResource, response);
+					}
+				}
 			}
 		}
 	}
 
+	/**
+	 * Indicates if the content of an entity is produced while it is written by the
+	 * connector, after the call has been handled, for example by an anonymous
+	 * {@link OutputRepresentation} calling back its resource.
+	 * 
+	 * @param entity The entity to test.
+	 * @return True if the content of the entity is produced while it is written.
+	 */
+	private static boolean isWrittenLater(Representation entity) {
+		return (entity instanceof OutputRepresentation) || (entity instanceof WriterRepresentation)
+				|| (entity instanceof WritableRepresentation);
+	}
+
+	/**
+	 * Indicates if target resources are reused across calls, even if their class
+	 * isn't annotated with {@link Stateless}. Default value is false.
+	 * 
+	 * @return True if target resources are reused across calls.
+	 */
+	public boolean isPooled() {
+		return pooled;
+	}
+
+	/**
+	 * Indicates if target resources are reused across calls, even if their class
+	 * isn't annotated with {@link Stateless}. Only use this mode for resources
+	 * that don't keep any state between calls.
+	 * 
+	 * @param pooled True if target resources are reused across calls.
+	 */
+	public void setPooled(boolean pooled) {
+		this.pooled = pooled;
+		this.pool = null;
+	}
+
 	/**
 	 * Sets the target resource class which must be a subclass of
 	 * {@link ServerResource}.
@@ -233,6 +360,18 @@ public class Finder extends Restlet {
 	 */
 	public void setTargetClass(Class<? extends ServerResource> targetClass) {
 		this.targetClass = targetClass;
+		this.pool = null;
+	}
+
+	@Override
+	public synchronized void stop() throws Exception {
+		ResourcePool pool = this.pool;
+
+		if (pool != null) {
+			pool.clear();
+		}
+
+		super.stop();
 	}
 
 	@Override
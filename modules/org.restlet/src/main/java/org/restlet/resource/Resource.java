@@ -763,6 +763,20 @@ public abstract class Resource {
 		return getRequest() == null ? null : getRequest().isLoggable();
 	}
 
+	/**
+	 * Clears the state of the resource so that the instance can be reused for
+	 * another call. The context, request, response and application are reset. Only
+	 * invoked for reusable resources, after {@link #release()}.
+	 * 
+	 * @see Stateless
+	 */
+	protected void recycle() {
+		this.application = null;
+		this.context = null;
+		this.request = null;
+		this.response = null;
+	}
+
 	/**
 	 * Releases the resource by calling {@link #doRelease()}.
 	 */
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.resource;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.restlet.engine.util.Pool;
+
+/**
+ * Striped pool of reusable {@link ServerResource} instances of a given class.
+ * Each stripe is a bounded {@link Pool} and the stripe used by a call is
+ * selected from the current thread, so that concurrent calls rarely contend on
+ * the same store. Instances checked in while their stripe is full are dropped.
+ * 
+ * @see Stateless
+ */
+class ResourcePool {
+
+	/** The maximum number of idle instances kept by each stripe. */
+	private static final int STRIPE_CAPACITY = 32;
+
+	/**
+	 * Returns the number of stripes to use, the next power of two above the number
+	 * of available processors.
+	 * 
+	 * @return The number of stripes.
+	 */
+	private static int getStripeCount() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		return Integer.highestOneBit(Math.max(1, processors - 1)) << 1;
+	}
+
+	/** The bit mask selecting a stripe. */
+	private final int mask;
+
+	/** The stripes. */
+	private final Pool<ServerResource>[] stripes;
+
+	/** The class of the pooled instances. */
+	private final Class<? extends ServerResource> targetClass;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param targetClass The class of the pooled instances.
+	 */
+	@SuppressWarnings("unchecked")
+	public ResourcePool(Class<? extends ServerResource> targetClass) {
+		int count = getStripeCount();
+		this.mask = count - 1;
+		this.stripes = new Pool[count];
+		this.targetClass = targetClass;
+
+		for (int i = 0; i < count; i++) {
+			this.stripes[i] = new Pool<ServerResource>() {
+				@Override
+				protected void clear(ServerResource resource) {
+					resource.recycle();
+				}
+
+				@Override
+				protected ServerResource createObject() {
+					// Let the finder create the instance
+					return null;
+				}
+
+				@Override
+				protected Queue<ServerResource> createStore() {
+					return new ArrayBlockingQueue<ServerResource>(STRIPE_CAPACITY);
+				}
+			};
+		}
+	}
+
+	/**
+	 * Checks in a resource after it has been released. Resources of another class
+	 * than the target class are ignored.
+	 * 
+	 * @param resource The resource to check in.
+	 */
+	public void checkin(ServerResource resource) {
+		if ((resource != null) && (resource.getClass() == getTargetClass())) {
+			getStripe().checkin(resource);
+		}
+	}
+
+	/**
+	 * Checks out an idle resource.
+	 * 
+	 * @return An idle resource or null if none is available.
+	 */
+	public ServerResource checkout() {
+		return getStripe().checkout();
+	}
+
+	/**
+	 * Clears all the idle resources.
+	 */
+	public void clear() {
+		for (Pool<ServerResource> stripe : this.stripes) {
+			stripe.clear();
+		}
+	}
+
+	/**
+	 * Returns the stripe of the current thread.
+	 * 
+	 * @return The stripe of the current thread.
+	 */
+	private Pool<ServerResource> getStripe() {
+		long id = Thread.currentThread().getId();
+		return this.stripes[(int) (id ^ (id >>> 32)) & this.mask];
+	}
+
+	/**
+	 * Returns the class of the pooled instances.
+	 * 
+	 * @return The class of the pooled instances.
+	 */
+	public Class<? extends ServerResource> getTargetClass() {
+		return targetClass;
+	}
+
+}
@@ -25,7 +25,6 @@
 package org.restlet.resource;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -96,6 +95,59 @@ import org.restlet.util.Series;
  */
 public abstract class ServerResource extends Resource {
 
+	/**
+	 * Properties of a resource as set by its constructor, restored when the
+	 * resource is recycled.
+	 */
+	private static class InitialState {
+
+		/** Indicates if annotations are supported. */
+		private final boolean annotated;
+
+		/** Indicates if conditional handling is enabled. */
+		private final boolean conditional;
+
+		/** The description. */
+		private final String description;
+
+		/** Indicates if the identified resource exists. */
+		private final boolean existing;
+
+		/** The display name. */
+		private final String name;
+
+		/** Indicates if content negotiation of response entities is enabled. */
+		private final boolean negotiated;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param resource The resource whose properties are captured.
+		 */
+		public InitialState(ServerResource resource) {
+			this.annotated = resource.annotated;
+			this.conditional = resource.conditional;
+			this.description = resource.description;
+			this.existing = resource.existing;
+			this.name = resource.name;
+			this.negotiated = resource.negotiated;
+		}
+
+		/**
+		 * Restores the captured properties.
+		 * 
+		 * @param resource The resource to update.
+		 */
+		public void restore(ServerResource resource) {
+			resource.annotated = this.annotated;
+			resource.conditional = this.conditional;
+			resource.description = this.description;
+			resource.existing = this.existing;
+			resource.name = this.name;
+			resource.negotiated = this.negotiated;
+		}
+	}
+
 	/** Indicates if annotations are supported. */
 	private volatile boolean annotated;
 
@@ -108,6 +160,9 @@ public abstract class ServerResource extends Resource {
 	/** Indicates if the identified resource exists. */
 	private volatile boolean existing;
 
+	/** The properties set by the constructor, captured by the first call. */
+	private volatile InitialState initialState;
+
 	/** The display name. */
 	private volatile String name;
 
@@ -470,51 +525,42 @@ public abstract class ServerResource extends Resource {
 		Object resultObject = null;
 
 		try {
-			if (parameterTypes.length > 0) {
-				List<Object> parameters = new ArrayList<Object>();
-				Object parameter = null;
+			Object[] parameters = new Object[parameterTypes.length];
+			Object parameter = null;
 
-				for (Class<?> parameterType : parameterTypes) {
-					if (Variant.class.equals(parameterType)) {
-						parameters.add(variant);
-					} else {
-						if (getRequestEntity() != null && getRequestEntity().isAvailable()
-								&& getRequestEntity().getSize() != 0) {
-							// Assume there is content to be read.
-							// NB: it does not handle the case where the size is
-							// unknown, but there is no content.
-							parameter = toObject(getRequestEntity(), parameterType);
-
-							if (parameter == null) {
-								throw new ResourceException(Status.CLIENT_ERROR_UNSUPPORTED_MEDIA_TYPE);
-							}
-						} else {
-							parameter = null;
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (Variant.class.equals(parameterTypes[i])) {
+					parameters[i] = variant;
+				} else {
+					if (getRequestEntity() != null && getRequestEntity().isAvailable()
+							&& getRequestEntity().getSize() != 0) {
+						// Assume there is content to be read.
+						// NB: it does not handle the case where the size is
+						// unknown, but there is no content.
+						parameter = toObject(getRequestEntity(), parameterTypes[i]);
+
+						if (parameter == null) {
+							throw new ResourceException(Status.CLIENT_ERROR_UNSUPPORTED_MEDIA_TYPE);
 						}
-
-						parameters.add(parameter);
+					} else {
+						parameter = null;
 					}
+
+					parameters[i] = parameter;
 				}
+			}
 
-				resultObject = annotationInfo.getJavaMethod().invoke(this, parameters.toArray());
-			} else {
-				resultObject = annotationInfo.getJavaMethod().invoke(this);
+			try {
+				resultObject = annotationInfo.invoke(this, parameters);
+			} catch (ResourceException e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new ResourceException(t);
 			}
 
 			if (resultObject != null) {
 				result = toRepresentation(resultObject, variant);
 			}
-
-		} catch (IllegalArgumentException e) {
-			throw new ResourceException(e);
-		} catch (IllegalAccessException e) {
-			throw new ResourceException(e);
-		} catch (InvocationTargetException e) {
-			if (e.getTargetException() instanceof ResourceException) {
-				throw (ResourceException) e.getTargetException();
-			}
-
-			throw new ResourceException(e.getTargetException());
 		} catch (IOException e) {
 			throw new ResourceException(e);
 		}
@@ -1062,6 +1108,25 @@ public abstract class ServerResource extends Resource {
 		return get(variant);
 	}
 
+	/**
+	 * Initialization method setting the environment of the current resource
+	 * instance. In addition to the parent behavior, the properties set by the
+	 * constructor are captured on the first call so that {@link #recycle()} can
+	 * restore them.
+	 * 
+	 * @param context  The current context.
+	 * @param request  The handled request.
+	 * @param response The handled response.
+	 */
+	@Override
+	public void init(Context context, Request request, Response response) {
+		if (this.initialState == null) {
+			this.initialState = new InitialState(this);
+		}
+
+		super.init(context, request, response);
+	}
+
 	/**
 	 * Indicates if annotations are supported. The default value is true.
 	 * 
@@ -1357,6 +1422,26 @@ public abstract class ServerResource extends Resource {
 		return result;
 	}
 
+	/**
+	 * Clears the state of the resource so that the instance can be reused for
+	 * another call. In addition to the parent behavior, the variants computed for
+	 * the previous call are discarded and the properties set during the previous
+	 * call, such as the "existing" or "negotiated" flags, are restored to the
+	 * values set by the constructor.
+	 * 
+	 * @see Stateless
+	 */
+	@Override
+	protected void recycle() {
+		super.recycle();
+
+		if (this.initialState != null) {
+			this.initialState.restore(this);
+		}
+
+		this.variants = null;
+	}
+
 	/**
 	 * Permanently redirects the client to a target URI. The client is expected to
 	 * reuse the same method for the new request.
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.resource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for {@link ServerResource} subclasses that don't keep any state
+ * between calls. Instances of such resources are reused across calls by the
+ * {@link Finder} instead of being created for each call.<br>
+ * <br>
+ * Before being reused, an instance is cleared by the
+ * {@link ServerResource#recycle()} method which resets its context, request,
+ * response and variants, and restores properties such as the "existing" flag
+ * to the values set by the constructor. Subclasses storing additional
+ * call-specific state must either clear it in this method or in
+ * {@link Resource#doRelease()}.<br>
+ * <br>
+ * Example:
+ * 
+ * <pre>
+ * &#064;Stateless
+ * public class MyResource extends ServerResource {
+ *     &#064;Get
+ *     public String represent() {
+ *         return &quot;hello, world&quot;;
+ *     }
+ * }
+ * </pre>
+ * 
+ * @see Finder#isPooled()
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Stateless {
+
+}
@@ -31,6 +31,7 @@ import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
 import org.restlet.data.Status;
+import org.restlet.engine.routing.RouteTrie;
 import org.restlet.resource.Directory;
 import org.restlet.resource.Finder;
 import org.restlet.resource.ServerResource;
@@ -50,6 +51,7 @@ import org.restlet.util.RouteList;
  * <li>Last match</li>
  * <li>Random match</li>
  * <li>Round robin</li>
+ * <li>Trie match</li>
  * <li>Custom</li>
  * </ul>
  * <br>
@@ -119,6 +121,19 @@ public class Router extends Restlet {
 	 */
 	public static final int MODE_RANDOM_MATCH = 5;
 
+	/**
+	 * Each call will be routed to the route with the best score, if the required
+	 * score is reached, like in the {@link #MODE_BEST_MATCH} mode. However, the
+	 * attached routes are compiled into a trie indexed by the literal prefix of
+	 * their URI templates when the router is started, so that only the routes that
+	 * can possibly match the remaining part of the resource reference are scored.
+	 * This is recommended for routers with a large number of attached routes. The
+	 * index is transparently rebuilt when the list of routes is modified. See
+	 * {@link RouteTrie#getBest(Request, Response, float)} method for
+	 * implementation details.
+	 */
+	public static final int MODE_TRIE_MATCH = 7;
+
 	/** The default matching mode to use when selecting routes based on URIs. */
 	private volatile int defaultMatchingMode;
 
@@ -143,6 +158,9 @@ public class Router extends Restlet {
 	/** The delay (in milliseconds) before a new attempt. */
 	private volatile long retryDelay;
 
+	/** The compiled index of routes used by the {@link #MODE_TRIE_MATCH} mode. */
+	private volatile RouteTrie routeTrie;
+
 	/** The modifiable list of routes. */
 	private volatile RouteList routes;
 
@@ -167,6 +185,7 @@ public class Router extends Restlet {
 	public Router(Context context) {
 		super(context);
 		this.routes = new RouteList();
+		this.routeTrie = null;
 		this.defaultMatchingMode = Template.MODE_EQUALS;
 		this.defaultMatchingQuery = false;
 		this.defaultRoute = null;
@@ -506,6 +525,10 @@ public class Router extends Restlet {
 					result = getRoutes().getRandom(request, response, getRequiredScore());
 					break;
 
+				case MODE_TRIE_MATCH:
+					result = getRouteTrie().getBest(request, response, getRequiredScore());
+					break;
+
 				case MODE_CUSTOM:
 					result = getCustom(request, response);
 					break;
@@ -551,6 +574,25 @@ public class Router extends Restlet {
 		return this.retryDelay;
 	}
 
+	/**
+	 * Returns the compiled index of routes used by the {@link #MODE_TRIE_MATCH}
+	 * mode. Creates a new instance if no one has been compiled yet or if the list
+	 * of routes has been modified since.
+	 * 
+	 * @return The compiled index of routes.
+	 */
+	protected RouteTrie getRouteTrie() {
+		RouteTrie result = this.routeTrie;
+		RouteList routes = getRoutes();
+
+		if ((result == null) || !result.isCurrent(routes)) {
+			result = new RouteTrie(routes);
+			this.routeTrie = result;
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns the modifiable list of routes. Creates a new instance if no one has
 	 * been set.
@@ -745,6 +787,11 @@ public class Router extends Restlet {
 				getDefaultRoute().start();
 			}
 
+			if (getRoutingMode() == MODE_TRIE_MATCH) {
+				// Compile the routes ahead of the first call
+				getRouteTrie();
+			}
+
 			// Must be invoked as a last step
 			super.start();
 		}
@@ -766,6 +813,8 @@ public class Router extends Restlet {
 			for (Route route : getRoutes()) {
 				route.stop();
 			}
+
+			this.routeTrie = null;
 		}
 	}
 
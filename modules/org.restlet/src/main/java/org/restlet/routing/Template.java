@@ -37,6 +37,7 @@ import org.restlet.Context;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.data.Reference;
+import org.restlet.engine.routing.SimpleTemplateMatcher;
 import org.restlet.util.Resolver;
 
 /**
@@ -50,6 +51,11 @@ import org.restlet.util.Resolver;
  * Note that the variable descriptors can be changed before the first parsing or
  * matching call. After that point, changes won't be taken into account.<br>
  * <br>
+ * When the pattern only contains literal characters and simple variables, such
+ * as {@link Variable#TYPE_URI_SEGMENT} ones, a regex-free matcher is used for
+ * parsing and matching. Otherwise, the pattern is compiled into a regular
+ * expression. See {@link #setSimpleMatching(boolean)}.<br>
+ * <br>
  * Format and parsing methods are specially available to deal with requests and
  * response. See {@link #format(Request, Response)} and
  * {@link #parse(String, Request)}.
@@ -242,6 +248,15 @@ public class Template {
 	/** The sequence of Regex variable names as found in the pattern string. */
 	private volatile List<String> regexVariables;
 
+	/** The regex-free matcher, if the pattern is simple enough. */
+	private volatile SimpleTemplateMatcher simpleMatcher;
+
+	/** True if the regex-free matcher has been compiled or discarded. */
+	private volatile boolean simpleMatcherResolved;
+
+	/** True if the regex-free matcher can be used when possible. */
+	private volatile boolean simpleMatching;
+
 	/** The map of variables associated to the route's template. */
 	private final Map<String, Variable> variables;
 
@@ -311,6 +326,9 @@ public class Template {
 		this.matchingMode = matchingMode;
 		this.variables = new ConcurrentHashMap<String, Variable>();
 		this.regexPattern = null;
+		this.simpleMatcher = null;
+		this.simpleMatcherResolved = false;
+		this.simpleMatching = true;
 		this.encodingVariables = encodingVariables;
 	}
 
@@ -548,6 +566,30 @@ public class Template {
 		return rv;
 	}
 
+	/**
+	 * Returns the regex-free matcher if the pattern is simple enough and if simple
+	 * matching is enabled.
+	 * 
+	 * @return The regex-free matcher or null.
+	 */
+	private SimpleTemplateMatcher getSimpleMatcher() {
+		if (!this.simpleMatching) {
+			return null;
+		}
+
+		if (!this.simpleMatcherResolved) {
+			synchronized (this) {
+				if (!this.simpleMatcherResolved) {
+					this.simpleMatcher = SimpleTemplateMatcher.compile(getPattern(), getVariables(),
+							getDefaultVariable());
+					this.simpleMatcherResolved = true;
+				}
+			}
+		}
+
+		return this.simpleMatcher;
+	}
+
 	/**
 	 * Returns the list of variable names in the template.
 	 * 
@@ -619,6 +661,16 @@ public class Template {
 		return this.encodingVariables;
 	}
 
+	/**
+	 * Indicates if a regex-free matcher is used when the pattern only contains
+	 * literal characters and simple variables. True by default.
+	 * 
+	 * @return True if a regex-free matcher is used when possible.
+	 */
+	public boolean isSimpleMatching() {
+		return this.simpleMatching;
+	}
+
 	/**
 	 * Indicates if the current pattern matches the given formatted string.
 	 * 
@@ -627,6 +679,11 @@ public class Template {
 	 */
 	public int match(String formattedString) {
 		int result = -1;
+		SimpleTemplateMatcher simpleMatcher = getSimpleMatcher();
+
+		if ((formattedString != null) && (simpleMatcher != null)) {
+			return simpleMatcher.match(formattedString, getMatchingMode(), null);
+		}
 
 		try {
 			if (formattedString != null) {
@@ -677,8 +734,20 @@ public class Template {
 	 */
 	public int parse(String formattedString, Map<String, Object> variables, boolean loggable) {
 		int result = -1;
+		SimpleTemplateMatcher simpleMatcher = getSimpleMatcher();
+
+		if ((formattedString != null) && (simpleMatcher != null)) {
+			List<String> names = simpleMatcher.getVariableNames();
+			int[] bounds = new int[2 * names.size()];
+			result = simpleMatcher.match(formattedString, getMatchingMode(), bounds);
 
-		if (formattedString != null) {
+			if (result != -1) {
+				for (int i = 0; i < names.size(); i++) {
+					updateVariable(variables, names.get(i), formattedString.substring(bounds[2 * i], bounds[2 * i + 1]),
+							loggable);
+				}
+			}
+		} else if (formattedString != null) {
 			try {
 				Matcher matcher = getRegexPattern().matcher(formattedString);
 				boolean matched = ((getMatchingMode() == MODE_EQUALS) && matcher.matches())
@@ -689,24 +758,8 @@ public class Template {
 					result = matcher.end();
 
 					// Update the attributes with the variables value
-					String attributeName = null;
-					String attributeValue = null;
-
 					for (int i = 0; i < getRegexVariables().size(); i++) {
-						attributeName = getRegexVariables().get(i);
-						attributeValue = matcher.group(i + 1);
-						Variable var = getVariables().get(attributeName);
-
-						if ((var != null) && var.isDecodingOnParse()) {
-							attributeValue = Reference.decode(attributeValue);
-						}
-
-						if (loggable) {
-							getLogger().fine("Template variable \"" + attributeName + "\" matched with value \""
-									+ attributeValue + "\"");
-						}
-
-						variables.put(attributeName, attributeValue);
+						updateVariable(variables, getRegexVariables().get(i), matcher.group(i + 1), loggable);
 					}
 				}
 			} catch (StackOverflowError soe) {
@@ -825,6 +878,18 @@ public class Template {
 	public void setPattern(String pattern) {
 		this.pattern = pattern;
 		this.regexPattern = null;
+		this.simpleMatcher = null;
+		this.simpleMatcherResolved = false;
+	}
+
+	/**
+	 * Indicates if a regex-free matcher is used when the pattern only contains
+	 * literal characters and simple variables.
+	 * 
+	 * @param simpleMatching True if a regex-free matcher is used when possible.
+	 */
+	public void setSimpleMatching(boolean simpleMatching) {
+		this.simpleMatching = simpleMatching;
 	}
 
 	/**
@@ -844,4 +909,27 @@ public class Template {
 		}
 	}
 
+	/**
+	 * Updates the map of variables with a parsed value, percent-decoding it if
+	 * required by the variable descriptor.
+	 * 
+	 * @param variables The map of variables to update.
+	 * @param name      The variable name.
+	 * @param value     The parsed value.
+	 * @param loggable  True if the parsing should be logged.
+	 */
+	private void updateVariable(Map<String, Object> variables, String name, String value, boolean loggable) {
+		Variable var = getVariables().get(name);
+
+		if ((var != null) && var.isDecodingOnParse()) {
+			value = Reference.decode(value);
+		}
+
+		if (loggable) {
+			getLogger().fine("Template variable \"" + name + "\" matched with value \"" + value + "\"");
+		}
+
+		variables.put(name, value);
+	}
+
 }
@@ -26,8 +26,11 @@ package org.restlet.service;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.Deflater;
 
 import org.restlet.Context;
 import org.restlet.data.Encoding;
@@ -38,6 +41,15 @@ import org.restlet.routing.Filter;
 
 /**
  * Application service automatically encoding or compressing request entities.
+ * <br>
+ * <br>
+ * The encoded content of representations that are identified by a location and
+ * validated by a strong entity tag can be kept in memory so that identical
+ * responses aren't compressed again. Their media type, character set and
+ * languages are part of the key, so that each variant of a resource is cached
+ * separately. This cache is disabled by default, see
+ * {@link #setCacheMaxEntries(int)}, and bounded both in number of entries and
+ * in total size.
  * 
  * @author Jerome Louvel
  */
@@ -81,6 +93,24 @@ public class EncoderService extends Service {
 	 */
 	private final List<MediaType> acceptedMediaTypes;
 
+	/** The cache of encoded contents, in access order. */
+	private final Map<String, byte[]> cache;
+
+	/** The maximum number of encoded contents kept in memory. */
+	private volatile int cacheMaxEntries;
+
+	/** The maximum size of a representation whose encoded content is cached. */
+	private volatile long cacheMaxEntrySize;
+
+	/** The maximum total size of the encoded contents kept in memory. */
+	private volatile long cacheMaxSize;
+
+	/** The total size of the cached encoded contents, guarded by the cache. */
+	private long cacheSize;
+
+	/** The compression level of the Deflate based encodings. */
+	private volatile int compressionLevel;
+
 	/**
 	 * The media types that should be ignored.
 	 */
@@ -91,6 +121,9 @@ public class EncoderService extends Service {
 	 */
 	private volatile long mininumSize;
 
+	/** The number of bytes written between two sync flushes. */
+	private volatile int syncFlushSize;
+
 	/**
 	 * Constructor.
 	 */
@@ -106,10 +139,42 @@ public class EncoderService extends Service {
 	public EncoderService(boolean enabled) {
 		super(enabled);
 		this.mininumSize = DEFAULT_MINIMUM_SIZE;
+		this.cache = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+		this.cacheSize = 0;
+		this.cacheMaxEntries = 0;
+		this.cacheMaxEntrySize = 1048576;
+		this.cacheMaxSize = 16777216;
+		this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+		this.syncFlushSize = 0;
 		this.acceptedMediaTypes = new CopyOnWriteArrayList<MediaType>(getDefaultAcceptedMediaTypes());
 		this.ignoredMediaTypes = new CopyOnWriteArrayList<MediaType>(getDefaultIgnoredMediaTypes());
 	}
 
+	/**
+	 * Keeps the encoded content of a representation in memory.
+	 * 
+	 * @param key     The cache key returned by
+	 *                {@link #getCacheKey(Representation, Encoding)}.
+	 * @param content The encoded content.
+	 */
+	public void cacheContent(String key, byte[] content) {
+		if ((getCacheMaxEntries() > 0) && (content.length <= getCacheMaxSize())) {
+			synchronized (this.cache) {
+				byte[] previous = this.cache.put(key, content);
+				this.cacheSize += content.length - ((previous == null) ? 0 : previous.length);
+
+				// Evict the least recently used contents
+				Iterator<byte[]> contents = this.cache.values().iterator();
+
+				while (((this.cache.size() > getCacheMaxEntries()) || (this.cacheSize > getCacheMaxSize()))
+						&& contents.hasNext()) {
+					this.cacheSize -= contents.next().length;
+					contents.remove();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Indicates if a representation can be encoded.
 	 * 
@@ -165,6 +230,16 @@ public class EncoderService extends Service {
 		return result;
 	}
 
+	/**
+	 * Removes all the cached encoded contents.
+	 */
+	private void clearCache() {
+		synchronized (this.cache) {
+			this.cache.clear();
+			this.cacheSize = 0;
+		}
+	}
+
 	@Override
 	public Filter createInboundFilter(Context context) {
 		return new Encoder(context, false, true, this);
@@ -184,6 +259,92 @@ public class EncoderService extends Service {
 		return this.acceptedMediaTypes;
 	}
 
+	/**
+	 * Returns the cached encoded content of a representation.
+	 * 
+	 * @param key The cache key returned by
+	 *            {@link #getCacheKey(Representation, Encoding)}.
+	 * @return The cached encoded content or null.
+	 */
+	public byte[] getCachedContent(String key) {
+		synchronized (this.cache) {
+			return this.cache.get(key);
+		}
+	}
+
+	/**
+	 * Returns the key identifying the encoded content of a representation in the
+	 * cache. The representation must have a location, a known size below the
+	 * maximum entry size and a strong entity tag. Modification dates aren't
+	 * trusted as they don't change when a resource is updated twice within the
+	 * same second. The key also covers the media type, character set and
+	 * languages of the representation.
+	 * 
+	 * @param representation The representation to encode.
+	 * @param encoding       The encoding to apply.
+	 * @return The cache key or null if the encoded content can't be cached.
+	 */
+	public String getCacheKey(Representation representation, Encoding encoding) {
+		if ((getCacheMaxEntries() <= 0) || Encoding.IDENTITY.equals(encoding) || (representation.getLocationRef() == null)
+				|| (representation.getSize() == Representation.UNKNOWN_SIZE)
+				|| (representation.getSize() > getCacheMaxEntrySize())) {
+			return null;
+		}
+
+		if ((representation.getTag() == null) || representation.getTag().isWeak()) {
+			return null;
+		}
+
+		StringBuilder result = new StringBuilder(representation.getLocationRef().toString());
+		result.append(' ').append(encoding.getName());
+		result.append(' ').append(representation.getTag().format());
+		result.append(' ').append(representation.getMediaType());
+		result.append(' ').append(representation.getCharacterSet());
+		result.append(' ').append(representation.getLanguages());
+		return result.toString();
+	}
+
+	/**
+	 * Returns the maximum number of encoded contents kept in memory. Defaults to
+	 * 0, which disables the cache.
+	 * 
+	 * @return The maximum number of encoded contents kept in memory.
+	 */
+	public int getCacheMaxEntries() {
+		return this.cacheMaxEntries;
+	}
+
+	/**
+	 * Returns the maximum size of a representation whose encoded content is
+	 * cached. Defaults to 1 MB.
+	 * 
+	 * @return The maximum size of a representation whose encoded content is
+	 *         cached.
+	 */
+	public long getCacheMaxEntrySize() {
+		return this.cacheMaxEntrySize;
+	}
+
+	/**
+	 * Returns the maximum total size of the encoded contents kept in memory.
+	 * Defaults to 16 MB.
+	 * 
+	 * @return The maximum total size of the encoded contents kept in memory.
+	 */
+	public long getCacheMaxSize() {
+		return this.cacheMaxSize;
+	}
+
+	/**
+	 * Returns the compression level of the Deflate based encodings (GZip, Deflate
+	 * and Zip), from 0 to 9. Defaults to {@link Deflater#DEFAULT_COMPRESSION}.
+	 * 
+	 * @return The compression level of the Deflate based encodings.
+	 */
+	public int getCompressionLevel() {
+		return this.compressionLevel;
+	}
+
 	/**
 	 * Returns the media types that should be ignored.
 	 * 
@@ -204,6 +365,66 @@ public class EncoderService extends Service {
 		return this.mininumSize;
 	}
 
+	/**
+	 * Returns the number of bytes written between two sync flushes of the GZip
+	 * and Deflate encodings. Defaults to 0, meaning that the compressed content
+	 * is only flushed at the end.
+	 * 
+	 * @return The number of bytes written between two sync flushes.
+	 * @see org.restlet.engine.application.EncodeRepresentation#setSyncFlushSize(int)
+	 */
+	public int getSyncFlushSize() {
+		return this.syncFlushSize;
+	}
+
+	/**
+	 * Sets the maximum number of encoded contents kept in memory. Setting it to 0
+	 * disables the cache.
+	 * 
+	 * @param cacheMaxEntries The maximum number of encoded contents kept in
+	 *                        memory.
+	 */
+	public void setCacheMaxEntries(int cacheMaxEntries) {
+		this.cacheMaxEntries = cacheMaxEntries;
+
+		if (cacheMaxEntries <= 0) {
+			clearCache();
+		}
+	}
+
+	/**
+	 * Sets the maximum size of a representation whose encoded content is cached.
+	 * 
+	 * @param cacheMaxEntrySize The maximum size of a representation whose encoded
+	 *                          content is cached.
+	 */
+	public void setCacheMaxEntrySize(long cacheMaxEntrySize) {
+		this.cacheMaxEntrySize = cacheMaxEntrySize;
+	}
+
+	/**
+	 * Sets the maximum total size of the encoded contents kept in memory. The
+	 * least recently used contents are evicted first.
+	 * 
+	 * @param cacheMaxSize The maximum total size of the encoded contents kept in
+	 *                     memory.
+	 */
+	public void setCacheMaxSize(long cacheMaxSize) {
+		this.cacheMaxSize = cacheMaxSize;
+	}
+
+	/**
+	 * Sets the compression level of the Deflate based encodings (GZip, Deflate and
+	 * Zip).
+	 * 
+	 * @param compressionLevel The compression level, from 0 to 9 or
+	 *                         {@link Deflater#DEFAULT_COMPRESSION}.
+	 */
+	public void setCompressionLevel(int compressionLevel) {
+		this.compressionLevel = compressionLevel;
+		clearCache();
+	}
+
 	/**
 	 * Sets the minimum size a representation must have before compression is done.
 	 * 
@@ -214,4 +435,23 @@ public class EncoderService extends Service {
 		this.mininumSize = mininumSize;
 	}
 
+	/**
+	 * Sets the number of bytes written between two sync flushes of the GZip and
+	 * Deflate encodings. When set, explicit flushes of the response stream also
+	 * send the content compressed so far, so that long running responses such as
+	 * server-sent events can be compressed without buffering.
+	 * 
+	 * @param syncFlushSize The number of bytes written between two sync flushes
+	 *                      or 0 to only flush at the end.
+	 */
+	public void setSyncFlushSize(int syncFlushSize) {
+		this.syncFlushSize = syncFlushSize;
+	}
+
+	@Override
+	public synchronized void stop() throws Exception {
+		super.stop();
+		clearCache();
+	}
+
 }
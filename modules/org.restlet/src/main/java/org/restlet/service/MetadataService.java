@@ -272,6 +272,7 @@ public class MetadataService extends Service {
 		ext(dm, "mpeg", MediaType.VIDEO_MPEG);
 		ext(dm, "mpg", MediaType.VIDEO_MPEG);
 		ext(dm, "n3", MediaType.TEXT_RDF_N3);
+		ext(dm, "ndjson", MediaType.APPLICATION_NDJSON);
 		ext(dm, "nt", MediaType.TEXT_PLAIN);
 		ext(dm, "odb", MediaType.APPLICATION_OPENOFFICE_ODB);
 		ext(dm, "odc", MediaType.APPLICATION_OPENOFFICE_ODC);
@@ -45,6 +45,7 @@ import org.restlet.Context;
 import org.restlet.Response;
 import org.restlet.engine.Engine;
 import org.restlet.engine.util.ContextualRunnable;
+import org.restlet.engine.util.VirtualThreadExecutorService;
 import org.restlet.routing.VirtualHost;
 
 /**
@@ -61,7 +62,11 @@ import org.restlet.routing.VirtualHost;
  * Resources that are part of your context. In general this context corresponds
  * to a parent Application's context. If you want to have your own service
  * instance, you can use the {@link TaskService#wrap(ScheduledExecutorService)}
- * method to ensure that thread local variables are correctly set.
+ * method to ensure that thread local variables are correctly set.<br>
+ * <br>
+ * When running on Java 21 or later, the "virtualThreads" property can be set
+ * to run each task in a new virtual thread instead of a thread of the pool.
+ * Blocking tasks then don't limit the concurrency to the pool size anymore.
  * 
  * @author Jerome Louvel
  * @author Doug Lea (docs of ExecutorService in public domain)
@@ -236,6 +241,12 @@ public class TaskService extends Service implements ScheduledExecutorService {
 	 */
 	private volatile boolean shutdownAllowed;
 
+	/**
+	 * Indicates if tasks are run by virtual threads when supported. False by
+	 * default.
+	 */
+	private volatile boolean virtualThreads;
+
 	/** The wrapped JDK executor service. */
 	private volatile ScheduledExecutorService wrapped;
 
@@ -306,15 +317,24 @@ public class TaskService extends Service implements ScheduledExecutorService {
 
 	/**
 	 * Creates a new JDK executor service that will be wrapped. By default it calls
-	 * {@link Executors#newCachedThreadPool(ThreadFactory)}, passing the result of
-	 * {@link #createThreadFactory()} as a parameter.
+	 * {@link Executors#newScheduledThreadPool(int, ThreadFactory)}, passing the
+	 * result of {@link #createThreadFactory()} as a parameter. If virtual threads
+	 * are enabled and supported, this pool only triggers the scheduled tasks while
+	 * all tasks run in virtual threads.
 	 * 
 	 * @param corePoolSize The core pool size defining the maximum number of
 	 *                     threads.
 	 * @return A new JDK executor service.
 	 */
 	protected ScheduledExecutorService createExecutorService(int corePoolSize) {
-		return Executors.newScheduledThreadPool(corePoolSize, createThreadFactory());
+		ScheduledExecutorService result = Executors.newScheduledThreadPool(corePoolSize, createThreadFactory());
+
+		if (isVirtualThreads()
+				&& VirtualThreadExecutorService.isSupported(Context.getCurrentLogger(), "The task service's thread pool")) {
+			result = new VirtualThreadExecutorService(result);
+		}
+
+		return result;
 	}
 
 	/**
@@ -483,6 +503,16 @@ public class TaskService extends Service implements ScheduledExecutorService {
 		return (getWrapped() == null) || getWrapped().isTerminated();
 	}
 
+	/**
+	 * Indicates if tasks are run by virtual threads when supported, that is when
+	 * running on Java 21 or later. False by default.
+	 * 
+	 * @return True if tasks are run by virtual threads when supported.
+	 */
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
 	/**
 	 * Creates and executes a ScheduledFuture that becomes enabled after the given
 	 * delay.
@@ -592,6 +622,17 @@ public class TaskService extends Service implements ScheduledExecutorService {
 		this.shutdownAllowed = allowShutdown;
 	}
 
+	/**
+	 * Indicates if tasks are run by virtual threads when supported, that is when
+	 * running on Java 21 or later. Must be set before the service is started.
+	 * 
+	 * @param virtualThreads True if tasks are run by virtual threads when
+	 *                       supported.
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
 	/**
 	 * Sets the wrapped JDK executor service.
 	 * 
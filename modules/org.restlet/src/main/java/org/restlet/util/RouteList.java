@@ -24,10 +24,12 @@
 
 package org.restlet.util;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.restlet.Request;
 import org.restlet.Response;
@@ -52,6 +54,9 @@ public final class RouteList extends WrapperList<Route> {
 	/** The index of the last route used in the round robin mode. */
 	private volatile int lastIndex;
 
+	/** The number of structural modifications made to this list. */
+	private final AtomicInteger modificationCount = new AtomicInteger();
+
 	/**
 	 * Constructor.
 	 */
@@ -70,6 +75,40 @@ public final class RouteList extends WrapperList<Route> {
 		this.lastIndex = -1;
 	}
 
+
+	@Override
+	public boolean add(Route element) {
+		boolean result = super.add(element);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public void add(int index, Route element) {
+		super.add(index, element);
+		this.modificationCount.incrementAndGet();
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Route> elements) {
+		boolean result = super.addAll(elements);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends Route> elements) {
+		boolean result = super.addAll(index, elements);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		this.modificationCount.incrementAndGet();
+	}
+
 	/**
 	 * Returns the best route match for a given call.
 	 * 
@@ -134,6 +173,17 @@ public final class RouteList extends WrapperList<Route> {
 		return null;
 	}
 
+	/**
+	 * Returns the number of structural modifications made to this list. This
+	 * allows compiled views of the list, such as routing indexes, to detect when
+	 * they need to be rebuilt.
+	 * 
+	 * @return The number of structural modifications made to this list.
+	 */
+	public int getModificationCount() {
+		return this.modificationCount.get();
+	}
+
 	/**
 	 * Returns a next route match in a round robin mode for a given call.
 	 * 
@@ -201,6 +251,27 @@ public final class RouteList extends WrapperList<Route> {
 		return null;
 	}
 
+	@Override
+	public Route remove(int index) {
+		Route result = super.remove(index);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public boolean remove(Object element) {
+		boolean result = super.remove(element);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> elements) {
+		boolean result = super.removeAll(elements);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
 	/**
 	 * Removes all routes routing to a given target.
 	 * 
@@ -214,9 +285,24 @@ public final class RouteList extends WrapperList<Route> {
 		}
 	}
 
+	@Override
+	public boolean retainAll(Collection<?> elements) {
+		boolean result = super.retainAll(elements);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public Route set(int index, Route element) {
+		Route result = super.set(index, element);
+		this.modificationCount.incrementAndGet();
+		return result;
+	}
+
 	/**
-	 * Returns a view of the portion of this list between the specified fromIndex,
-	 * inclusive, and toIndex, exclusive.
+	 * Returns a copy of the portion of this list between the specified fromIndex,
+	 * inclusive, and toIndex, exclusive. Unlike {@link List#subList(int, int)},
+	 * the result is a snapshot: changes made to it aren't applied to this list.
 	 * 
 	 * @param fromIndex The start position.
 	 * @param toIndex   The end position (exclusive).